@@ -0,0 +1,80 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Embedded H2 database shared by the benchmarks: one table {@code BENCH} with {@link #TABLE_ROWS} rows.
+ *
+ * @author Deniss Larka
+ */
+final class BenchDb {
+
+    static final String URL = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+    static final String VALIDATION_QUERY = "SELECT 1";
+    static final int TABLE_ROWS = 10_000;
+
+    static final String SELECT_RANGE = "SELECT ID, NAME, AMOUNT, CREATED FROM BENCH WHERE ID <= ?";
+    static final String SELECT_RANGE_NAMED = "SELECT ID, NAME, AMOUNT, CREATED FROM BENCH WHERE ID <= :maxId";
+    static final String SELECT_BY_ID = "SELECT ID, NAME, AMOUNT, CREATED FROM BENCH WHERE ID = ?";
+    static final String SELECT_BY_ID_NAMED = "SELECT ID, NAME, AMOUNT, CREATED FROM BENCH WHERE ID = :id";
+    static final String UPDATE_NAME = "UPDATE BENCH SET NAME = ? WHERE ID = ?";
+    static final String UPDATE_NAME_NAMED = "UPDATE BENCH SET NAME = :name WHERE ID = :id";
+
+    static final RowMapper<BenchRow> ROW_MAPPER = (rs, rowNum) ->
+            new BenchRow(rs.getInt(1), rs.getString(2), rs.getBigDecimal(3), rs.getTimestamp(4));
+
+    private BenchDb() {}
+
+    static DbConfig config() {
+        return DbConfig.of("bench", URL, "sa", "", "org.h2.Driver", VALIDATION_QUERY);
+    }
+
+    static DbAccess createAndFill() {
+        final DbAccess db = DbAccessFactory.create(config());
+        db.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        db.update(SimpleSql.fromString(
+                "CREATE TABLE BENCH (ID INT PRIMARY KEY, NAME VARCHAR(64), AMOUNT DECIMAL(12,2), CREATED TIMESTAMP)"));
+        final var insert = SimpleSql.batch("INSERT INTO BENCH (ID, NAME, AMOUNT, CREATED) VALUES (?, ?, ?, ?)");
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int id = 1; id <= TABLE_ROWS; id++) {
+            insert.add(id, "name-" + id, BigDecimal.valueOf(id, 2), now);
+        }
+        db.batchUpdate(insert);
+        return db;
+    }
+
+    /**
+     * Plain Tomcat pool with the same settings the library applies, so baselines differ only by the wrapper.
+     *
+     * @return a new pool over the benchmark database
+     */
+    static DataSource plainPool() {
+        final PoolProperties pp = new PoolProperties();
+        pp.setDriverClassName("org.h2.Driver");
+        pp.setUrl(URL);
+        pp.setUsername("sa");
+        pp.setPassword("");
+        pp.setValidationQuery(VALIDATION_QUERY);
+        pp.setDefaultAutoCommit(false);
+        pp.setDefaultReadOnly(false);
+        pp.setInitialSize(1);
+        pp.setMaxActive(5);
+        pp.setMaxIdle(2);
+        pp.setMinIdle(1);
+        pp.setMaxWait(20000);
+        pp.setTestOnBorrow(true);
+        pp.setTestOnReturn(true);
+        pp.setTestWhileIdle(true);
+        return new DataSource(pp);
+    }
+
+    record BenchRow(int id, String name, BigDecimal amount, Timestamp created) {}
+}
@@ -0,0 +1,43 @@
+package com.druvu.lib.jdbc.bench;
+
+import java.util.Arrays;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with the GC profiler on, so allocation per operation
+ * ({@code gc.alloc.rate.norm}) is reported next to the timings.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar com.druvu.lib.jdbc.bench.BenchmarkRunner [threads] [include]}, e.g.
+ * {@code 1,2,4,8 SelectBenchmark}. Results are also written to {@code jmh-threads-N.json}.
+ *
+ * <p>Note the library's default pool is {@code maxActive=5}: above five threads the numbers include pool waiting.
+ *
+ * @author Deniss Larka
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException {
+        final int[] threads = Arrays.stream((args.length > 0 ? args[0] : "1,2,4,8").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        final String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+        for (int count : threads) {
+            final Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(count)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-threads-" + count + ".json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.druvu.lib.jdbc.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver counting what would be round trips to a database server: statement executions, {@code isValid} pings and
+ * transaction ends. Delegates to the driver of the URL without the {@code counting:} prefix, e.g.
+ * {@code jdbc:counting:h2:mem:bench}; the pool loads it by class name.
+ *
+ * <p>Embedded H2 answers in-process, so timings alone hide what a check costs over a network; the counts do not.
+ *
+ * @author Deniss Larka
+ */
+public final class CountingDriver implements Driver {
+
+    static final String PREFIX = "jdbc:counting:";
+
+    static final LongAdder STATEMENTS = new LongAdder();
+    static final LongAdder VALIDATIONS = new LongAdder();
+    static final LongAdder TRANSACTION_ENDS = new LongAdder();
+
+    static void reset() {
+        STATEMENTS.reset();
+        VALIDATIONS.reset();
+        TRANSACTION_ENDS.reset();
+    }
+
+    static long roundTrips() {
+        return STATEMENTS.sum() + VALIDATIONS.sum() + TRANSACTION_ENDS.sum();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        final Connection target = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+        return proxy(Connection.class, target, (method, args) -> {
+            switch (method.getName()) {
+                case "isValid" -> VALIDATIONS.increment();
+                case "commit", "rollback" -> TRANSACTION_ENDS.increment();
+                default -> {}
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Counter counter) {
+        final InvocationHandler handler = (proxy, method, args) -> {
+            counter.count(method, args);
+            final Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // statements count their executions, whatever created them
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                @SuppressWarnings("unchecked")
+                final Class<Statement> statementType = (Class<Statement>) method.getReturnType();
+                final String prepared = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+                return proxy(statementType, statement, (call, callArgs) -> countExecution(call, callArgs, prepared));
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(CountingDriver.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static void countExecution(Method method, Object[] args, String prepared) {
+        if (!method.getName().startsWith("execute")) {
+            return;
+        }
+        final String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : prepared;
+        // the pool's validation SELECT is a check, not work
+        if (BenchDb.VALIDATION_QUERY.equalsIgnoreCase(sql)) {
+            VALIDATIONS.increment();
+        } else {
+            STATEMENTS.increment();
+        }
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @FunctionalInterface
+    private interface Counter {
+        void count(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,51 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.VoidDbAccess;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Shared benchmark state: the library's {@link DbAccess}, a {@link VoidDbAccess} (wrapper cost without a database) and
+ * a plain {@link JdbcTemplate} stack configured the way {@code DbAccessTxImpl} configures its own.
+ *
+ * @author Deniss Larka
+ */
+@State(Scope.Benchmark)
+public class DbState {
+
+    DbAccess db;
+    VoidDbAccess voidDb;
+    JdbcTemplate jdbcTemplate;
+    NamedParameterJdbcTemplate namedJdbcTemplate;
+    TransactionTemplate readOnlyTx;
+    TransactionTemplate writeTx;
+    private DataSource plainPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchDb.createAndFill();
+        voidDb = new VoidDbAccess("void");
+        plainPool = BenchDb.plainPool();
+        jdbcTemplate = new JdbcTemplate(plainPool);
+        jdbcTemplate.setFetchSize(2000);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(plainPool);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plainPool.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.ExportStats;
+import com.druvu.lib.jdbc.ResultExport;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dumping a whole table: {@link ResultExport} straight from the result set against {@code stream} into row objects
+ * serialized by hand, the way endpoints did it before. Output goes to a null stream, so this measures the JDBC and
+ * encoding side; compare {@code gc.alloc.rate.norm} as well.
+ *
+ * @author Deniss Larka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final String SELECT_ALL = "SELECT ID, NAME, AMOUNT, CREATED FROM BENCH";
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    @Benchmark
+    public ExportStats exportCsv(DbState state) {
+        return ResultExport.csv().withGzip(gzip).write(state.db, SimpleSql.fromString(SELECT_ALL), nullOutput());
+    }
+
+    @Benchmark
+    public ExportStats exportNdjson(DbState state) {
+        return ResultExport.ndjson().withGzip(gzip).write(state.db, SimpleSql.fromString(SELECT_ALL), nullOutput());
+    }
+
+    @Benchmark
+    public ExportStats exportBinary(DbState state) {
+        return ResultExport.binary().withGzip(gzip).write(state.db, SimpleSql.fromString(SELECT_ALL), nullOutput());
+    }
+
+    @Benchmark
+    public void baselineStreamCsv(DbState state) throws IOException {
+        final OutputStream out = gzip ? new GZIPOutputStream(nullOutput()) : nullOutput();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+            state.db.stream(SimpleSql.query(SELECT_ALL, BenchDb.ROW_MAPPER), row -> {
+                try {
+                    writer.write(row.id() + "," + row.name() + "," + row.amount() + "," + row.created() + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static OutputStream nullOutput() {
+        return OutputStream.nullOutputStream();
+    }
+}
@@ -0,0 +1,74 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.BulkInsert;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserting many rows in one transaction: one {@code update} per row, a JDBC batch, and multi-row {@code VALUES}
+ * through {@link BulkInsert}. The table is emptied before every invocation.
+ *
+ * @author Deniss Larka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    private static final String INSERT = "INSERT INTO INGEST (ID, NAME, AMOUNT) VALUES (?, ?, ?)";
+    private static final BulkInsert BULK = BulkInsert.of("INGEST", "ID", "NAME", "AMOUNT");
+
+    @Param({"1000"})
+    int rows;
+
+    private List<Object[]> data;
+
+    @Setup(Level.Trial)
+    public void createTable(DbState state) {
+        state.db.update(SimpleSql.fromString(
+                "CREATE TABLE IF NOT EXISTS INGEST (ID INT PRIMARY KEY, NAME VARCHAR(64), AMOUNT DECIMAL(12,2))"));
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(new Object[] {i, "name" + i, i / 100.0});
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate(DbState state) {
+        state.db.update(SimpleSql.fromString("TRUNCATE TABLE INGEST"));
+    }
+
+    @Benchmark
+    public void singleRowUpdates(DbState state) {
+        state.db.runInTransaction(tx -> data.forEach(row -> tx.update(SimpleSql.fromString(INSERT).with(row))));
+    }
+
+    @Benchmark
+    public int[] batchUpdate(DbState state) {
+        final var batch = SimpleSql.batch(INSERT);
+        data.forEach(batch::add);
+        return state.db.batchUpdate(batch);
+    }
+
+    @Benchmark
+    public void bulkInsert(DbState state) {
+        state.db.runInTransaction(tx -> BULK.insert(tx, data));
+    }
+}
@@ -0,0 +1,68 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-row lookups by primary key: {@code selectOne}, positional, named and scalar.
+ *
+ * @author Deniss Larka
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupBenchmark {
+
+    private static int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, BenchDb.TABLE_ROWS + 1);
+    }
+
+    @Benchmark
+    public Optional<Map<String, Object>> selectOnePositional(DbState state) {
+        return state.db.selectOne(SimpleSql.fromString(BenchDb.SELECT_BY_ID).with(randomId()));
+    }
+
+    @Benchmark
+    public Optional<Map<String, Object>> selectOneNamed(DbState state) {
+        return state.db.selectOne(SimpleSql.named(BenchDb.SELECT_BY_ID_NAMED).with("id", randomId()));
+    }
+
+    @Benchmark
+    public Optional<BenchDb.BenchRow> selectOneTyped(DbState state) {
+        return state.db.selectOne(SimpleSql.query(BenchDb.SELECT_BY_ID, BenchDb.ROW_MAPPER).with(randomId()));
+    }
+
+    @Benchmark
+    public Optional<Long> selectOneScalar(DbState state) {
+        return state.db.selectOne(
+                SimpleSql.scalar("SELECT COUNT(*) FROM BENCH WHERE ID <= ?", Long.class).with(randomId()));
+    }
+
+    @Benchmark
+    public Map<String, Object> baselineJdbcTemplate(DbState state) {
+        return state.readOnlyTx.execute(status -> state.jdbcTemplate.queryForMap(BenchDb.SELECT_BY_ID, randomId()));
+    }
+
+    @Benchmark
+    public Long baselineJdbcTemplateScalar(DbState state) {
+        return state.readOnlyTx.execute(status -> state.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM BENCH WHERE ID <= ?", Long.class, randomId()));
+    }
+
+    @Benchmark
+    public Optional<Map<String, Object>> baselineVoid(DbState state) {
+        return state.voidDb.selectOne(SimpleSql.fromString(BenchDb.SELECT_BY_ID).with(randomId()));
+    }
+}
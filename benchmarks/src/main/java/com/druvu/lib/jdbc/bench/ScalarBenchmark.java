@@ -0,0 +1,62 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scalar queries: boxed {@code selectOne} of a scalar against the primitive {@code selectLong} variants and
+ * {@code exists}. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}; the difference is the result list,
+ * the row mapper, the {@code Long} and the {@code Optional}.
+ *
+ * @author Deniss Larka
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalarBenchmark {
+
+    private static final String COUNT = "SELECT COUNT(*) FROM BENCH WHERE ID <= ?";
+    private static final String ANY = "SELECT 1 FROM BENCH WHERE ID >= ?";
+
+    private static int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, BenchDb.TABLE_ROWS + 1);
+    }
+
+    @Benchmark
+    public Optional<Long> selectOneScalar(DbState state) {
+        return state.db.selectOne(SimpleSql.scalar(COUNT, Long.class).with(randomId()));
+    }
+
+    @Benchmark
+    public OptionalLong selectLong(DbState state) {
+        return state.db.selectLong(SimpleSql.fromString(COUNT).with(randomId()));
+    }
+
+    @Benchmark
+    public long selectLongOrDefault(DbState state) {
+        return state.db.selectLong(SimpleSql.fromString(COUNT).with(randomId()), 0);
+    }
+
+    // every row from the id on matches: selectFirst maps them all, exists reads one
+    @Benchmark
+    public boolean selectFirstAsExists(DbState state) {
+        return state.db.selectFirst(SimpleSql.scalar(ANY, Integer.class).with(randomId())).isPresent();
+    }
+
+    @Benchmark
+    public boolean exists(DbState state) {
+        return state.db.exists(SimpleSql.fromString(ANY).with(randomId()));
+    }
+}
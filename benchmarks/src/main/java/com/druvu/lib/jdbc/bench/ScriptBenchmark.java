@@ -0,0 +1,66 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.util.ScriptProgress;
+import com.druvu.lib.jdbc.util.SqlScript;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Running a seed script of literal {@code INSERT}s: statement by statement as {@code loadBulk(path, db::update)} does,
+ * a transaction each, against {@link SqlScript} batches in one transaction. The table is emptied before every
+ * invocation.
+ *
+ * @author Deniss Larka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScriptBenchmark {
+
+    @Param({"1000"})
+    int statements;
+
+    private SqlScript script;
+
+    @Setup(Level.Trial)
+    public void createScript(DbState state) {
+        state.db.update(SimpleSql.fromString("CREATE TABLE IF NOT EXISTS SEED (ID INT PRIMARY KEY, NAME VARCHAR(64))"));
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < statements; i++) {
+            text.append("INSERT INTO SEED (ID, NAME) VALUES (").append(i).append(", 'name; ").append(i).append("');\n");
+        }
+        script = SqlScript.fromString(text.toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate(DbState state) {
+        state.db.update(SimpleSql.fromString("TRUNCATE TABLE SEED"));
+    }
+
+    @Benchmark
+    public void statementByStatement(DbState state) {
+        try (var sql = script.statements()) {
+            sql.forEach(statement -> state.db.update(SimpleSql.fromString(statement)));
+        }
+    }
+
+    @Benchmark
+    public ScriptProgress batchedScript(DbState state) {
+        return script.execute(state.db);
+    }
+}
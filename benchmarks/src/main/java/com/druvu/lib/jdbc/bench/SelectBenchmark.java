@@ -0,0 +1,103 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.ColumnarBatch;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Multi-row reads: {@code select} and {@code stream}, positional and named, column maps and compact rows, for small and
+ * large results.
+ *
+ * @author Deniss Larka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectBenchmark {
+
+    @Param({"10", "1000"})
+    int resultSize;
+
+    @Benchmark
+    public List<Map<String, Object>> selectPositional(DbState state) {
+        return state.db.select(SimpleSql.fromString(BenchDb.SELECT_RANGE).with(resultSize));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> selectNamed(DbState state) {
+        return state.db.select(SimpleSql.named(BenchDb.SELECT_RANGE_NAMED).with("maxId", resultSize));
+    }
+
+    // compare gc.alloc.rate.norm with selectPositional / selectNamed: the difference divided by resultSize is the
+    // garbage saved per row
+    @Benchmark
+    public List<Map<String, Object>> selectPositionalCompact(DbState state) {
+        return state.db.select(SimpleSql.fromString(BenchDb.SELECT_RANGE).with(resultSize).compact());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> selectNamedCompact(DbState state) {
+        return state.db.select(
+                SimpleSql.named(BenchDb.SELECT_RANGE_NAMED).with("maxId", resultSize).compact());
+    }
+
+    @Benchmark
+    public List<BenchDb.BenchRow> selectTyped(DbState state) {
+        return state.db.select(SimpleSql.query(BenchDb.SELECT_RANGE, BenchDb.ROW_MAPPER).with(resultSize));
+    }
+
+    // column vectors instead of a Map per row: compare gc.alloc.rate.norm with selectPositional
+    @Benchmark
+    public ColumnarBatch selectColumnar(DbState state) {
+        return state.db.selectColumnar(SimpleSql.fromString(BenchDb.SELECT_RANGE).with(resultSize));
+    }
+
+    // automatic record mapping, to compare with the hand-written ROW_MAPPER of selectTyped
+    @Benchmark
+    public List<BenchDb.BenchRow> selectAutoMapped(DbState state) {
+        return state.db.select(SimpleSql.query(BenchDb.SELECT_RANGE, BenchDb.BenchRow.class).with(resultSize));
+    }
+
+    @Benchmark
+    public void stream(DbState state, Blackhole bh) {
+        state.db.stream(SimpleSql.query(BenchDb.SELECT_RANGE, BenchDb.ROW_MAPPER).with(resultSize), bh::consume);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> baselineJdbcTemplate(DbState state) {
+        return state.readOnlyTx.execute(status -> state.jdbcTemplate.queryForList(BenchDb.SELECT_RANGE, resultSize));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> baselineJdbcTemplateNamed(DbState state) {
+        return state.readOnlyTx.execute(status ->
+                state.namedJdbcTemplate.queryForList(BenchDb.SELECT_RANGE_NAMED, Map.of("maxId", resultSize)));
+    }
+
+    @Benchmark
+    public List<BenchDb.BenchRow> baselineJdbcTemplateTyped(DbState state) {
+        return state.readOnlyTx.execute(
+                status -> state.jdbcTemplate.query(BenchDb.SELECT_RANGE, BenchDb.ROW_MAPPER, resultSize));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> baselineVoid(DbState state) {
+        return state.voidDb.select(SimpleSql.fromString(BenchDb.SELECT_RANGE).with(resultSize));
+    }
+}
@@ -0,0 +1,112 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.ConnectionPool;
+import com.druvu.lib.jdbc.ConnectionProvider;
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.ValidationStrategy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Primary key lookups under each {@link ValidationStrategy}, through a {@link CountingDriver}: besides the time per
+ * lookup, JMH reports the round trips a lookup costs and how many of them are connection checks as the secondary
+ * results {@code roundTripsPerLookup} and {@code validationsPerLookup}. The lookup itself is two, the select and the
+ * commit of its read-only transaction; whatever a strategy adds on top is what it costs per call against a real
+ * server. The driver counts globally, so the benchmark runs on one thread.
+ *
+ * @author Deniss Larka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class ValidationBenchmark {
+
+    @Param({"QUERY", "IS_VALID", "IDLE", "BACKGROUND", "ON_ERROR"})
+    String strategy;
+
+    private ConnectionPool pool;
+    private DbAccess db;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchDb.createAndFill();
+        db = DbAccessFactory.create(DbConfig.of(
+                        "validation",
+                        CountingDriver.PREFIX + BenchDb.URL.substring("jdbc:".length()),
+                        "sa",
+                        "",
+                        CountingDriver.class.getName(),
+                        BenchDb.VALIDATION_QUERY)
+                .withValidation(strategy())
+                .withConnectionProvider(config -> pool = ConnectionProvider.tomcat().open(config)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    /** Round trips per lookup of one iteration, reported by JMH next to the time. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        long lookups;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            CountingDriver.reset();
+            lookups = 0;
+        }
+
+        public double roundTripsPerLookup() {
+            return CountingDriver.roundTrips() / (double) Math.max(1, lookups);
+        }
+
+        public double validationsPerLookup() {
+            return CountingDriver.VALIDATIONS.sum() / (double) Math.max(1, lookups);
+        }
+    }
+
+    @Benchmark
+    public Optional<Map<String, Object>> lookup(RoundTrips counts) {
+        counts.lookups++;
+        final int id = ThreadLocalRandom.current().nextInt(1, BenchDb.TABLE_ROWS + 1);
+        return db.selectOne(SimpleSql.fromString(BenchDb.SELECT_BY_ID).with(id));
+    }
+
+    private ValidationStrategy strategy() {
+        return switch (ValidationStrategy.Mode.valueOf(strategy)) {
+            case QUERY -> ValidationStrategy.query();
+            case IS_VALID -> ValidationStrategy.isValid();
+            case IDLE -> ValidationStrategy.idle(Duration.ofSeconds(30));
+            case BACKGROUND -> ValidationStrategy.background(Duration.ofSeconds(5));
+            case ON_ERROR -> ValidationStrategy.onError(Duration.ofSeconds(30));
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.druvu.lib.jdbc.bench;
+
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes: {@code update} (one transaction per call) and {@code inTransaction} (several statements, one commit).
+ *
+ * @author Deniss Larka
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    private static int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, BenchDb.TABLE_ROWS + 1);
+    }
+
+    @Benchmark
+    public Integer updatePositional(DbState state) {
+        return state.db.update(SimpleSql.fromString(BenchDb.UPDATE_NAME).with("updated", randomId()));
+    }
+
+    @Benchmark
+    public Integer updateNamed(DbState state) {
+        return state.db.update(
+                SimpleSql.named(BenchDb.UPDATE_NAME_NAMED).with("name", "updated").with("id", randomId()));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> inTransaction(DbState state) {
+        final int id = randomId();
+        return state.db.inTransaction(tx -> {
+            tx.update(SimpleSql.fromString(BenchDb.UPDATE_NAME).with("tx", id));
+            return tx.select(SimpleSql.fromString(BenchDb.SELECT_BY_ID).with(id));
+        });
+    }
+
+    @Benchmark
+    public Integer baselineJdbcTemplate(DbState state) {
+        return state.writeTx.execute(status -> state.jdbcTemplate.update(BenchDb.UPDATE_NAME, "updated", randomId()));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> baselineJdbcTemplateInTransaction(DbState state) {
+        final int id = randomId();
+        return state.writeTx.execute(status -> {
+            state.jdbcTemplate.update(BenchDb.UPDATE_NAME, "tx", id);
+            return state.jdbcTemplate.queryForList(BenchDb.SELECT_BY_ID, id);
+        });
+    }
+
+    @Benchmark
+    public Integer baselineVoid(DbState state) {
+        return state.voidDb.update(SimpleSql.fromString(BenchDb.UPDATE_NAME).with("updated", randomId()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.druvu.lib.jdbc;
+
+/**
+ * Fetch size of a streamed query that follows the rows instead of being fixed up front.
+ *
+ * <p>The cursor starts with a small fetch and, after every window of rows, resizes it with
+ * {@code ResultSet.setFetchSize}: it grows while the time spent waiting in {@code next()} for round trips is a
+ * noticeable share of the stream, and shrinks when round trips have become negligible. Whatever the latency says, one
+ * fetch never holds more than the memory budget, estimated from the declared column widths (unbounded text and LOBs
+ * count as 64 KiB), so a table of narrow rows is read in large fetches and one with BLOB columns in small ones.
+ *
+ * <pre>{@code
+ * db.stream(
+ *     SimpleSql.fromString("SELECT * FROM documents").withAdaptiveFetch(AdaptiveFetch.of(32 * 1024 * 1024)),
+ *     archive::add);
+ * }</pre>
+ *
+ * <p>Applies to {@link DbAccessDirect#stream(SqlStatement) stream}, both the lazy and the consumer variant; other
+ * calls use the initial size as a fixed one. Drivers that ignore {@code setFetchSize} on an open result set, or
+ * always buffer the whole result (MySQL without {@code useCursorFetch}), keep what they do. Immutable.
+ *
+ * @author Deniss Larka
+ */
+public final class AdaptiveFetch {
+
+    public static final int DEFAULT_INITIAL = 100;
+    public static final int DEFAULT_MAX = 50_000;
+    public static final long DEFAULT_BUDGET = 16L * 1024 * 1024;
+
+    private static final AdaptiveFetch DEFAULTS = new AdaptiveFetch(DEFAULT_BUDGET, DEFAULT_INITIAL, DEFAULT_MAX);
+
+    private final long memoryBudget;
+    private final int initial;
+    private final int max;
+
+    private AdaptiveFetch(long memoryBudget, int initial, int max) {
+        this.memoryBudget = memoryBudget;
+        this.initial = initial;
+        this.max = max;
+    }
+
+    /** Defaults: 16 MiB per cursor, starting at 100 rows, at most 50 000. */
+    public static AdaptiveFetch defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @param memoryBudget bytes one fetch may hold, estimated; positive
+     */
+    public static AdaptiveFetch of(long memoryBudget) {
+        return DEFAULTS.withMemoryBudget(memoryBudget);
+    }
+
+    public AdaptiveFetch withMemoryBudget(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget should be positive: " + memoryBudget);
+        }
+        return new AdaptiveFetch(memoryBudget, initial, max);
+    }
+
+    /**
+     * @param initial rows of the first fetch, before anything is known about the rows; at most {@code max}
+     */
+    public AdaptiveFetch withInitial(int initial) {
+        if (initial <= 0 || initial > max) {
+            throw new IllegalArgumentException("Initial fetch size should be within 1.." + max + ": " + initial);
+        }
+        return new AdaptiveFetch(memoryBudget, initial, max);
+    }
+
+    /**
+     * @param max rows one fetch never exceeds, however narrow they are; at least {@code initial}
+     */
+    public AdaptiveFetch withMax(int max) {
+        if (max < initial) {
+            throw new IllegalArgumentException("Max fetch size should be at least " + initial + ": " + max);
+        }
+        return new AdaptiveFetch(memoryBudget, initial, max);
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public int getInitial() {
+        return initial;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AdaptiveFetch other
+                && memoryBudget == other.memoryBudget
+                && initial == other.initial
+                && max == other.max;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(memoryBudget) * 31 * 31 + initial * 31 + max;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveFetch[memoryBudget=" + memoryBudget + ", initial=" + initial + ", max=" + max + "]";
+    }
+}
@@ -0,0 +1,24 @@
+package com.druvu.lib.jdbc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of {@link DbAccess}.
+ *
+ * <p>The transactional blocks passed to {@link #inTransaction} and {@link #runInTransaction} run synchronously on one
+ * virtual thread, inside one transaction, exactly as with {@link DbAccess}.
+ *
+ * @author Deniss Larka
+ */
+public interface AsyncDbAccess extends AsyncDbAccessDirect {
+
+    <T> CompletableFuture<List<T>> inTransaction(Function<DbAccessDirect, List<T>> statement);
+
+    CompletableFuture<Void> runInTransaction(Consumer<DbAccessDirect> action);
+
+    @Override
+    DbAccess blocking();
+}
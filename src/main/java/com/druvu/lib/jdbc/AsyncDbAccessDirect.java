@@ -0,0 +1,82 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.OptionalUtils;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous counterpart of {@link DbAccessDirect}: every call returns immediately with a {@link CompletableFuture}
+ * and runs on a virtual thread.
+ *
+ * <p>At most as many calls as the pool has connections ({@code maxActive}) execute at the same time; the rest wait in
+ * a FIFO queue of parked virtual threads instead of in the pool's {@code maxWait}. Cancelling a future that has not
+ * started yet removes it from the queue.
+ *
+ * <p>{@link #close()} stops accepting calls and returns when the submitted ones are done; the blocking access stays
+ * usable.
+ *
+ * @author Deniss Larka
+ */
+public interface AsyncDbAccessDirect extends AutoCloseable {
+
+    <T> CompletableFuture<List<T>> select(SqlStatement<T> select);
+
+    /**
+     * Selects a single result, expecting at most one row.
+     *
+     * @param select the statement to execute
+     * @param <T> the result type
+     * @return future of an Optional containing the result; fails with {@link IllegalStateException} on more than one
+     *     row
+     */
+    default <T> CompletableFuture<Optional<T>> selectOne(SqlStatement<T> select) {
+        return select(select).thenApply(OptionalUtils::uniqueOpt);
+    }
+
+    /**
+     * Selects the first result from the query.
+     *
+     * @param select the statement to execute
+     * @param <T> the result type
+     * @return future of an Optional containing the first result, or empty if no rows
+     */
+    default <T> CompletableFuture<Optional<T>> selectFirst(SqlStatement<T> select) {
+        return select(select).thenApply(OptionalUtils::from);
+    }
+
+    CompletableFuture<Integer> update(SqlStatement<?> update);
+
+    CompletableFuture<int[]> batchUpdate(BatchStatement batch);
+
+    CompletableFuture<Void> call(String procedure);
+
+    /**
+     * Streams query results row-by-row; the consumer is called on the virtual thread that runs the query.
+     *
+     * @param statement the select statement to execute
+     * @param rowConsumer consumer called for each mapped row
+     * @param <T> the result type
+     * @return future completed when the last row has been consumed
+     */
+    <T> CompletableFuture<Void> stream(SqlStatement<T> statement, Consumer<T> rowConsumer);
+
+    /** Statement metrics of the underlying access, see {@link DbAccessDirect#metrics()}. */
+    default DbMetrics metrics() {
+        return blocking().metrics();
+    }
+
+    /** Identifier of the underlying database connection, as configured on {@link DbConfig}. */
+    String getId();
+
+    /** The blocking access this instance delegates to. */
+    DbAccessDirect blocking();
+
+    /**
+     * Stops accepting calls and waits until the submitted ones are done. Calls made afterwards throw
+     * {@link IllegalStateException}.
+     */
+    @Override
+    void close();
+}
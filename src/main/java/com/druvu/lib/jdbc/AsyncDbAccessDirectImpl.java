@@ -0,0 +1,68 @@
+package com.druvu.lib.jdbc;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Runs every {@link DbAccessDirect} call on a virtual thread via {@link AsyncExecutor}.
+ *
+ * @author Deniss Larka
+ */
+class AsyncDbAccessDirectImpl implements AsyncDbAccessDirect {
+
+    private final DbAccessDirect delegate;
+    final AsyncExecutor executor;
+
+    AsyncDbAccessDirectImpl(DbAccessDirect delegate, int maxConcurrent) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.executor = new AsyncExecutor(delegate.getId(), maxConcurrent);
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> select(SqlStatement<T> select) {
+        return executor.submit(() -> delegate.select(select));
+    }
+
+    @Override
+    public CompletableFuture<Integer> update(SqlStatement<?> update) {
+        return executor.submit(() -> delegate.update(update));
+    }
+
+    @Override
+    public CompletableFuture<int[]> batchUpdate(BatchStatement batch) {
+        return executor.submit(() -> delegate.batchUpdate(batch));
+    }
+
+    @Override
+    public CompletableFuture<Void> call(String procedure) {
+        return executor.submit(() -> {
+            delegate.call(procedure);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+        return executor.submit(() -> {
+            delegate.stream(statement, rowConsumer);
+            return null;
+        });
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public DbAccessDirect blocking() {
+        return delegate;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
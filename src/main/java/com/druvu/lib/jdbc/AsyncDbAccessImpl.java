@@ -0,0 +1,39 @@
+package com.druvu.lib.jdbc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Transactional variant of {@link AsyncDbAccessDirectImpl}.
+ *
+ * @author Deniss Larka
+ */
+final class AsyncDbAccessImpl extends AsyncDbAccessDirectImpl implements AsyncDbAccess {
+
+    private final DbAccess delegate;
+
+    AsyncDbAccessImpl(DbAccess delegate, int maxConcurrent) {
+        super(delegate, maxConcurrent);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> inTransaction(Function<DbAccessDirect, List<T>> statement) {
+        return executor.submit(() -> delegate.inTransaction(statement));
+    }
+
+    @Override
+    public CompletableFuture<Void> runInTransaction(Consumer<DbAccessDirect> action) {
+        return executor.submit(() -> {
+            delegate.runInTransaction(action);
+            return null;
+        });
+    }
+
+    @Override
+    public DbAccess blocking() {
+        return delegate;
+    }
+}
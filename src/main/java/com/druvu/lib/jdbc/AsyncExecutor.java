@@ -0,0 +1,71 @@
+package com.druvu.lib.jdbc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking database calls on virtual threads, admitting at most {@code maxConcurrent} at a time.
+ *
+ * @author Deniss Larka
+ */
+final class AsyncExecutor implements AutoCloseable {
+
+    private final String id;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    AsyncExecutor(String id, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent calls should be positive: " + maxConcurrent);
+        }
+        this.id = id;
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("db-" + id + "-", 0).factory());
+        // fair: waiting calls are admitted in arrival order
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    <R> CompletableFuture<R> submit(Supplier<R> task) {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(task, result));
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Async access is closed: " + id, e);
+        }
+        return result;
+    }
+
+    private <R> void run(Supplier<R> task, CompletableFuture<R> result) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return;
+        }
+        try {
+            // cancelled (or otherwise completed) while queued: never touch the database
+            if (!result.isDone()) {
+                result.complete(task.get());
+            }
+        } catch (Throwable e) { // NOPMD - any failure belongs to the caller's future
+            result.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    // queued calls still run; submit fails from now on
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for batched SQL statements: one SQL template executed with many parameter sets through JDBC batching.
+ *
+ * <p>Rows are sent to the driver in chunks of {@link #getChunkSize()} parameter sets, all within the same transaction
+ * when executed through {@link DbAccess}.
+ *
+ * @author Deniss Larka
+ */
+public abstract class BatchStatement {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private StatementOptions options = StatementOptions.NONE;
+
+    public abstract String getQuery();
+
+    /**
+     * Returns the positional parameter sets, one array per row.
+     *
+     * @return the parameter sets in execution order
+     */
+    public abstract List<Object[]> getBatchParameters();
+
+    /**
+     * Maximum number of parameter sets sent to the driver in one {@code executeBatch} call.
+     *
+     * @return chunk size, always positive
+     */
+    public int getChunkSize() {
+        return DEFAULT_CHUNK_SIZE;
+    }
+
+    /** Timeout and deadline of the whole batch, all chunks included; a row limit does not apply to updates. */
+    public StatementOptions getOptions() {
+        return options;
+    }
+
+    public BatchStatement withOptions(StatementOptions options) {
+        this.options = Objects.requireNonNull(options);
+        return this;
+    }
+
+    /** Limits how long the whole batch may run, see {@link StatementOptions}. */
+    public BatchStatement withTimeout(Duration timeout) {
+        return withOptions(options.withTimeout(timeout));
+    }
+
+    /** Cancels the batch if it has not completed by the given instant, see {@link StatementOptions}. */
+    public BatchStatement withDeadline(Instant deadline) {
+        return withOptions(options.withDeadline(deadline));
+    }
+
+    /**
+     * Number of parameter sets (rows) in this batch.
+     *
+     * @return the batch size
+     */
+    public int size() {
+        return getBatchParameters().size();
+    }
+
+    @Override
+    public String toString() {
+        return getQuery();
+    }
+}
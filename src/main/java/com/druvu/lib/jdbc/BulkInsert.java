@@ -0,0 +1,168 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.util.MultiParam;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Inserts many rows with multi-row {@code INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...} statements, one round trip
+ * and one statement execution for many rows, even on drivers that do not rewrite JDBC batches themselves.
+ *
+ * <p>A statement holds at most {@link #withMaxRows(int) maxRows} rows and {@link #withMaxParameters(int)
+ * maxParameters} bind parameters, whichever is reached first; that is the full shape. The remainder is split into
+ * power-of-two shapes (13 rows: 8 + 4 + 1), so however many rows come in, at most about {@code log2(full)} distinct SQL
+ * texts reach the driver and its prepared-statement cache keeps reusing them.
+ *
+ * <p>Bind-parameter limits differ per driver: SQL Server 2100 (and 1000 rows per {@code VALUES}), SQLite 999 before
+ * 3.32, PostgreSQL 32767, Oracle and MySQL 65535. The defaults, 1000 rows and {@value #DEFAULT_MAX_PARAMETERS}
+ * parameters, are safe everywhere; raise them for PostgreSQL or MySQL.
+ *
+ * <p>Each statement is a separate {@code update}: through {@link DbAccess} a transaction of its own. For an
+ * all-or-nothing insert run it inside {@code runInTransaction}. Rows are read lazily, so a stream of any length is
+ * inserted with one statement's worth of rows in memory.
+ *
+ * <pre>{@code
+ * long inserted = BulkInsert.of("orders", "id", "customer", "amount")
+ *     .withMaxParameters(32_767)
+ *     .insert(db, orders.stream(), order -> new Object[] {order.id(), order.customer(), order.amount()});
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class BulkInsert {
+
+    public static final int DEFAULT_MAX_ROWS = 1000;
+    public static final int DEFAULT_MAX_PARAMETERS = 2000;
+
+    private final String table;
+    private final List<String> columns;
+    private final int maxRows;
+    private final int maxParameters;
+    private final String prefix;
+    private final String rowPlaceholders;
+    private final Map<Integer, String> statements = new ConcurrentHashMap<>();
+
+    private BulkInsert(String table, List<String> columns, int maxRows, int maxParameters) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("Max rows should be positive: " + maxRows);
+        }
+        if (maxParameters < columns.size()) {
+            throw new IllegalArgumentException(
+                    "Max parameters " + maxParameters + " cannot hold one row of " + columns.size() + " columns");
+        }
+        this.table = Objects.requireNonNull(table);
+        this.columns = columns;
+        this.maxRows = maxRows;
+        this.maxParameters = maxParameters;
+        this.prefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.rowPlaceholders = "(" + MultiParam.replace("???", columns.size()) + ")";
+    }
+
+    /**
+     * @param table the table, used in SQL as given (quote it yourself if needed)
+     * @param columns the columns every row supplies values for, in row order
+     */
+    public static BulkInsert of(String table, String... columns) {
+        return new BulkInsert(table, List.of(columns), DEFAULT_MAX_ROWS, DEFAULT_MAX_PARAMETERS);
+    }
+
+    /** Most rows in one statement, default {@value #DEFAULT_MAX_ROWS}. */
+    public BulkInsert withMaxRows(int maxRows) {
+        return new BulkInsert(table, columns, maxRows, maxParameters);
+    }
+
+    /** Most bind parameters in one statement, the driver's limit; default {@value #DEFAULT_MAX_PARAMETERS}. */
+    public BulkInsert withMaxParameters(int maxParameters) {
+        return new BulkInsert(table, columns, maxRows, maxParameters);
+    }
+
+    /** Rows in a full statement. */
+    public int getRowsPerStatement() {
+        return Math.min(maxRows, maxParameters / columns.size());
+    }
+
+    /**
+     * Inserts all rows.
+     *
+     * @param db where to insert
+     * @param rows one value per column each, in column order
+     * @return the summed update counts
+     * @throws IllegalArgumentException for a row with the wrong number of values; the statements before it are
+     *     already executed
+     */
+    public long insert(DbAccessDirect db, Iterable<Object[]> rows) {
+        return insert(db, rows.iterator());
+    }
+
+    /**
+     * Inserts all elements of a stream, turning each into a row with {@code toRow}. The stream is consumed, not
+     * closed.
+     */
+    public <T> long insert(DbAccessDirect db, Stream<T> elements, Function<? super T, Object[]> toRow) {
+        return insert(db, elements.map(toRow).iterator());
+    }
+
+    private long insert(DbAccessDirect db, Iterator<Object[]> rows) {
+        final int full = getRowsPerStatement();
+        final int width = columns.size();
+        final Object[] pending = new Object[full * width];
+        int count = 0;
+        long inserted = 0;
+        while (rows.hasNext()) {
+            final Object[] row = rows.next();
+            if (row == null || row.length != width) {
+                throw new IllegalArgumentException("Row should have " + width + " values, got "
+                        + (row == null ? "null" : String.valueOf(row.length)));
+            }
+            System.arraycopy(row, 0, pending, count * width, width);
+            if (++count == full) {
+                inserted += execute(db, pending, 0, full);
+                count = 0;
+            }
+        }
+        // remainder in power-of-two shapes, largest first
+        int offset = 0;
+        while (count > 0) {
+            final int shape = Integer.highestOneBit(count);
+            inserted += execute(db, pending, offset, shape);
+            offset += shape;
+            count -= shape;
+        }
+        return inserted;
+    }
+
+    private int execute(DbAccessDirect db, Object[] pending, int firstRow, int rows) {
+        final int width = columns.size();
+        final Object[] parameters = new Object[rows * width];
+        System.arraycopy(pending, firstRow * width, parameters, 0, parameters.length);
+        final Integer count = db.update(SimpleSql.fromString(statement(rows)).with(parameters));
+        return count == null ? 0 : count;
+    }
+
+    private String statement(int rows) {
+        return statements.computeIfAbsent(rows, n -> {
+            final StringBuilder sql = new StringBuilder(prefix.length() + n * (rowPlaceholders.length() + 1));
+            sql.append(prefix);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    sql.append(',');
+                }
+                sql.append(rowPlaceholders);
+            }
+            return sql.toString();
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "BulkInsert[" + table + " " + columns + ", " + getRowsPerStatement() + " rows per statement]";
+    }
+}
@@ -0,0 +1,79 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Settings of a {@link CachingDbAccess}.
+ *
+ * <pre>{@code
+ * CacheConfig config = CacheConfig.of(10_000, Duration.ofMinutes(5))
+ *     .withStaleWhileRevalidate(Duration.ofMinutes(1));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class CacheConfig {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Duration staleWhileRevalidate;
+    private final LongSupplier ticker;
+
+    private CacheConfig(int maxEntries, Duration ttl, Duration staleWhileRevalidate, LongSupplier ticker) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries should be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttl = Objects.requireNonNull(ttl);
+        this.staleWhileRevalidate = Objects.requireNonNull(staleWhileRevalidate);
+        this.ticker = Objects.requireNonNull(ticker);
+    }
+
+    /**
+     * @param maxEntries maximum number of cached results; the least recently used are evicted beyond it
+     * @param ttl how long a result is served without going to the database; zero or negative disables caching
+     */
+    public static CacheConfig of(int maxEntries, Duration ttl) {
+        return new CacheConfig(maxEntries, ttl, Duration.ZERO, System::nanoTime);
+    }
+
+    /**
+     * How long after expiry a result may still be served while one background call refreshes it. Results invalidated
+     * by a write are never served stale.
+     */
+    public CacheConfig withStaleWhileRevalidate(Duration staleWhileRevalidate) {
+        return new CacheConfig(maxEntries, ttl, staleWhileRevalidate, ticker);
+    }
+
+    /**
+     * Source of nanosecond time the TTLs are measured with, {@link System#nanoTime()} by default; tests pass one they
+     * advance themselves.
+     */
+    public CacheConfig withTicker(LongSupplier ticker) {
+        return new CacheConfig(maxEntries, ttl, staleWhileRevalidate, ticker);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public LongSupplier getTicker() {
+        return ticker;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheConfig[maxEntries=" + maxEntries + ", ttl=" + ttl + ", staleWhileRevalidate="
+                + staleWhileRevalidate + "]";
+    }
+}
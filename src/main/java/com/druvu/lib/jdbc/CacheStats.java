@@ -0,0 +1,60 @@
+package com.druvu.lib.jdbc;
+
+/**
+ * Point-in-time counters of a {@link CachingDbAccess}.
+ *
+ * @author Deniss Larka
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long staleHits;
+    private final long misses;
+    private final long invalidations;
+    private final int size;
+
+    CacheStats(long hits, long staleHits, long misses, long invalidations, int size) {
+        this.hits = hits;
+        this.staleHits = staleHits;
+        this.misses = misses;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    /** Selects answered from a fresh cached result. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Selects answered from an expired result while it was being refreshed in the background. */
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    /** Selects that went to the database. */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Writes that invalidated cached results. */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /** Number of cached results, including expired ones not evicted yet. */
+    public int getSize() {
+        return size;
+    }
+
+    /** Share of selects answered from the cache, stale hits included; 0 when there were none. */
+    public double getHitRate() {
+        final long total = hits + staleHits + misses;
+        return total == 0 ? 0 : (double) (hits + staleHits) / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + hits + ", staleHits=" + staleHits + ", misses=" + misses + ", invalidations="
+                + invalidations + ", size=" + size + "]";
+    }
+}
@@ -0,0 +1,402 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.BoundedCache;
+import com.druvu.lib.jdbc.internal.StatementKey;
+import com.druvu.lib.jdbc.internal.TableTags;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+/**
+ * Opt-in {@link DbAccess} decorator caching {@code select} results.
+ *
+ * <p>Results are keyed by a snapshot of query text, positional and named parameters and row mapper taken per call, so
+ * separately built statements with the same SQL and parameters share an entry. They are kept for the configured TTL
+ * and evicted least-recently-used beyond {@link CacheConfig#getMaxEntries()}. Every cached result is tagged with the
+ * tables its query reads; {@code update} and {@code batchUpdate} through this instance invalidate the results tagged
+ * with the tables they write, {@code call} and writes whose tables cannot be recognized invalidate everything. Writes
+ * inside {@code inTransaction} invalidate when the transaction ends, and reads inside it are never cached.
+ *
+ * <p>Writes that bypass this instance (other services, other {@code DbAccess} objects, triggers) are only picked up
+ * when the TTL expires. Cached lists are shared between callers and unmodifiable; treat the rows as read-only too.
+ * {@code stream} is not cached.
+ *
+ * <p>Stale results are refreshed on virtual threads of this instance; {@link #close()} waits for running refreshes and
+ * stops starting new ones, expired results are then reloaded by the caller. The delegate is not closed.
+ *
+ * <pre>{@code
+ * CachingDbAccess db = CachingDbAccess.of(DbAccessFactory.create(config),
+ *     CacheConfig.of(10_000, Duration.ofMinutes(5)).withStaleWhileRevalidate(Duration.ofMinutes(1)));
+ *
+ * List<Country> countries = db.select(SimpleSql.query("SELECT * FROM countries", COUNTRY_MAPPER));
+ * db.select(SimpleSql.fromString("SELECT * FROM rates WHERE day = ?").with(day), Duration.ofSeconds(10));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+public final class CachingDbAccess implements DbAccess, AutoCloseable {
+
+    private final DbAccess delegate;
+    private final CacheConfig config;
+    private final BoundedCache<StatementKey, Entry> cache;
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final ExecutorService refresher;
+
+    private CachingDbAccess(DbAccess delegate, CacheConfig config) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.config = Objects.requireNonNull(config);
+        this.cache = new BoundedCache<>(config.getMaxEntries());
+        this.refresher = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("db-cache-" + delegate.getId() + "-", 0).factory());
+    }
+
+    public static CachingDbAccess of(DbAccess delegate, CacheConfig config) {
+        return new CachingDbAccess(delegate, config);
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public DbMetrics metrics() {
+        return delegate.metrics();
+    }
+
+    @Override
+    public <T> List<T> select(SqlStatement<T> select) {
+        return select(select, config.getTtl());
+    }
+
+    /**
+     * Selects with a TTL for this statement instead of the configured one.
+     *
+     * @param select the statement to execute
+     * @param ttl how long the result is served from the cache; zero or negative bypasses the cache
+     * @param <T> the result type
+     * @return unmodifiable, possibly shared list of results
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> select(SqlStatement<T> select, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            return delegate.select(select);
+        }
+        final StatementKey key = StatementKey.of(select);
+        final Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            if (!isCurrent(entry)) {
+                cache.remove(key, entry);
+            } else {
+                final long now = config.getTicker().getAsLong();
+                if (now - entry.freshUntil < 0) {
+                    hits.increment();
+                    return (List<T>) entry.value;
+                }
+                if (now - entry.staleUntil < 0 && refreshInBackground(key, select, ttl, entry)) {
+                    staleHits.increment();
+                    return (List<T>) entry.value;
+                }
+            }
+        }
+        misses.increment();
+        return load(key, select, ttl);
+    }
+
+    @Override
+    public Integer update(SqlStatement<?> update) {
+        try {
+            return delegate.update(update);
+        } finally {
+            invalidate(TableTags.of(update.getQuery()));
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(BatchStatement batch) {
+        try {
+            return delegate.batchUpdate(batch);
+        } finally {
+            invalidate(TableTags.of(batch.getQuery()));
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(List<String> statements) {
+        try {
+            return delegate.batchUpdate(statements);
+        } finally {
+            final Set<String> tables = new HashSet<>();
+            boolean all = false;
+            for (String sql : statements) {
+                final Set<String> written = TableTags.of(sql);
+                all |= written.isEmpty();
+                tables.addAll(written);
+            }
+            if (all) {
+                invalidateAll();
+            } else if (!tables.isEmpty()) {
+                invalidate(tables);
+            }
+        }
+    }
+
+    @Override
+    public void call(String procedure) {
+        try {
+            delegate.call(procedure);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /** Not cached: extractors are arbitrary code over the live result set. */
+    @Override
+    public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        return delegate.extract(select, extractor);
+    }
+
+    @Override
+    public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+        delegate.stream(statement, rowConsumer);
+    }
+
+    @Override
+    public <T> Stream<T> stream(SqlStatement<T> statement) {
+        return delegate.stream(statement);
+    }
+
+    @Override
+    public <T> List<T> inTransaction(Function<DbAccessDirect, List<T>> statement) {
+        final WriteTracker tracker = new WriteTracker();
+        try {
+            return delegate.inTransaction(direct -> statement.apply(tracker.wrap(direct)));
+        } finally {
+            tracker.invalidate();
+        }
+    }
+
+    @Override
+    public void runInTransaction(Consumer<DbAccessDirect> action) {
+        final WriteTracker tracker = new WriteTracker();
+        try {
+            delegate.runInTransaction(direct -> action.accept(tracker.wrap(direct)));
+        } finally {
+            tracker.invalidate();
+        }
+    }
+
+    /** Invalidates the cached results reading any of the given tables, e.g. after a write through another channel. */
+    public void invalidate(String... tables) {
+        final Set<String> tags = new HashSet<>();
+        for (String table : tables) {
+            tags.addAll(TableTags.of("FROM " + table));
+        }
+        invalidate(tags);
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        invalidations.increment();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), staleHits.sum(), misses.sum(), invalidations.sum(), cache.size());
+    }
+
+    /** Waits for the running background refreshes and starts no more; the cache keeps serving. */
+    @Override
+    public void close() {
+        refresher.close();
+    }
+
+    private void invalidate(Set<String> tables) {
+        if (tables.isEmpty()) {
+            // unknown target: could be anything
+            invalidateAll();
+            return;
+        }
+        for (String table : tables) {
+            tableVersions.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+        }
+        invalidations.increment();
+    }
+
+    private <T> List<T> load(StatementKey key, SqlStatement<T> select, Duration ttl) {
+        // versions are taken before the query runs: a write committed meanwhile makes the new entry stale at once
+        final String[] tables = TableTags.of(select.getQuery()).toArray(new String[0]);
+        final long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = version(tables[i]);
+        }
+        final long loadEpoch = epoch.get();
+        final List<T> result = Collections.unmodifiableList(delegate.select(select));
+        final long now = config.getTicker().getAsLong();
+        final long freshUntil = now + ttl.toNanos();
+        final long staleUntil = freshUntil + config.getStaleWhileRevalidate().toNanos();
+        cache.put(key, new Entry(result, tables, versions, loadEpoch, freshUntil, staleUntil));
+        return result;
+    }
+
+    // false after close: the caller has to load the result itself
+    private boolean refreshInBackground(StatementKey key, SqlStatement<?> select, Duration ttl, Entry stale) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return true;
+        }
+        try {
+            refresher.execute(() -> refresh(key, select, ttl, stale));
+            return true;
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+            return false;
+        }
+    }
+
+    private void refresh(StatementKey key, SqlStatement<?> select, Duration ttl, Entry stale) {
+        try {
+            load(key, select, ttl);
+        } catch (RuntimeException e) {
+            // the stale result keeps being served until it runs out, the next miss will retry
+            log.warn("Cache refresh failed for {}: {}", key.query(), e.getMessage());
+            stale.refreshing.set(false);
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        if (entry.epoch != epoch.get()) {
+            return false;
+        }
+        for (int i = 0; i < entry.tables.length; i++) {
+            if (version(entry.tables[i]) != entry.versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long version(String table) {
+        final AtomicLong version = tableVersions.get(table);
+        return version == null ? 0 : version.get();
+    }
+
+    private static final class Entry {
+        private final List<?> value;
+        private final String[] tables;
+        private final long[] versions;
+        private final long epoch;
+        private final long freshUntil;
+        private final long staleUntil;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(List<?> value, String[] tables, long[] versions, long epoch, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.tables = tables;
+            this.versions = versions;
+            this.epoch = epoch;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+
+    // collects the tables written inside a transaction; invalidation waits for the transaction to end
+    private final class WriteTracker {
+        private final Set<String> tables = new HashSet<>();
+        private boolean all;
+
+        private DbAccessDirect wrap(DbAccessDirect direct) {
+            return new DbAccessDirect() {
+                @Override
+                public <T> List<T> select(SqlStatement<T> select) {
+                    return direct.select(select);
+                }
+
+                @Override
+                public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+                    return direct.extract(select, extractor);
+                }
+
+                @Override
+                public Integer update(SqlStatement<?> update) {
+                    track(update.getQuery());
+                    return direct.update(update);
+                }
+
+                @Override
+                public int[] batchUpdate(BatchStatement batch) {
+                    track(batch.getQuery());
+                    return direct.batchUpdate(batch);
+                }
+
+                @Override
+                public int[] batchUpdate(List<String> statements) {
+                    statements.forEach(WriteTracker.this::track);
+                    return direct.batchUpdate(statements);
+                }
+
+                @Override
+                public void call(String procedure) {
+                    all = true;
+                    direct.call(procedure);
+                }
+
+                @Override
+                public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+                    direct.stream(statement, rowConsumer);
+                }
+
+                @Override
+                public <T> Stream<T> stream(SqlStatement<T> statement) {
+                    return direct.stream(statement);
+                }
+
+                @Override
+                public DbMetrics metrics() {
+                    return direct.metrics();
+                }
+
+                @Override
+                public String getId() {
+                    return direct.getId();
+                }
+            };
+        }
+
+        private void track(String sql) {
+            final Set<String> written = TableTags.of(sql);
+            if (written.isEmpty()) {
+                all = true;
+            }
+            tables.addAll(written);
+        }
+
+        private void invalidate() {
+            if (all) {
+                invalidateAll();
+            } else if (!tables.isEmpty()) {
+                CachingDbAccess.this.invalidate(tables);
+            }
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.druvu.lib.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Growable column of a {@link ColumnarBatch}, filled straight from a result set.
+ *
+ * <p>Values live in chunks of {@link #CHUNK_SIZE}: the first chunk doubles from a small array up to that size, further
+ * chunks are allocated whole, so growing never copies more than one chunk and a large result is never copied as a
+ * whole. Nulls are tracked in a bitmap allocated on the first null. Vectors are written by one thread, then
+ * {@linkplain #freeze() frozen} and read-only once handed to a batch.
+ *
+ * @author Deniss Larka
+ */
+abstract sealed class ColumnVector {
+
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int FIRST_CHUNK = 16;
+
+    private final ColumnarBatch.Type type;
+    private long[] nulls;
+    int size;
+
+    ColumnVector(ColumnarBatch.Type type) {
+        this.type = type;
+    }
+
+    static ColumnVector of(ColumnarBatch.Type type) {
+        return switch (type) {
+            case LONG -> new LongVector();
+            case INT -> new IntVector();
+            case DOUBLE -> new DoubleVector();
+            case STRING -> new StringVector();
+            case OBJECT -> new ObjectVector();
+        };
+    }
+
+    /** Appends the value of the given column of the current row. */
+    abstract void read(ResultSet rs, int column) throws SQLException;
+
+    /** Appends a row of a frozen vector of the same type. */
+    abstract void copy(ColumnVector source, int row);
+
+    /** Called once all rows are read, before the vector is published to readers. */
+    abstract void freeze();
+
+    abstract Object getObject(int row);
+
+    final ColumnarBatch.Type type() {
+        return type;
+    }
+
+    final boolean isNull(int row) {
+        final int word = row >>> 6;
+        return nulls != null && word < nulls.length && (nulls[word] & (1L << row)) != 0;
+    }
+
+    final void markNull() {
+        final int word = size >>> 6;
+        if (nulls == null) {
+            nulls = new long[Math.max(4, word + 1)];
+        } else if (word >= nulls.length) {
+            nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+        }
+        nulls[word] |= 1L << size;
+    }
+
+    long getLong(int row) {
+        throw mismatch(ColumnarBatch.Type.LONG);
+    }
+
+    int getInt(int row) {
+        throw mismatch(ColumnarBatch.Type.INT);
+    }
+
+    double getDouble(int row) {
+        throw mismatch(ColumnarBatch.Type.DOUBLE);
+    }
+
+    String getString(int row) {
+        throw mismatch(ColumnarBatch.Type.STRING);
+    }
+
+    int getCode(int row) {
+        throw mismatch(ColumnarBatch.Type.STRING);
+    }
+
+    List<String> dictionary() {
+        throw mismatch(ColumnarBatch.Type.STRING);
+    }
+
+    private IllegalStateException mismatch(ColumnarBatch.Type requested) {
+        return new IllegalStateException("Column of type " + type + " cannot be read as " + requested);
+    }
+
+    static final class LongVector extends ColumnVector {
+        private final List<long[]> full = new ArrayList<>();
+        private long[][] chunks;
+        private long[] tail = new long[FIRST_CHUNK];
+        private int tailSize;
+
+        LongVector() {
+            super(ColumnarBatch.Type.LONG);
+        }
+
+        @Override
+        void freeze() {
+            chunks = full.toArray(new long[full.size() + 1][]);
+            chunks[full.size()] = tail;
+        }
+
+        @Override
+        void read(ResultSet rs, int column) throws SQLException {
+            final long value = rs.getLong(column);
+            add(value, value == 0 && rs.wasNull());
+        }
+
+        @Override
+        void copy(ColumnVector source, int row) {
+            add(source.getLong(row), source.isNull(row));
+        }
+
+        private void add(long value, boolean isNull) {
+            if (isNull) {
+                markNull();
+            }
+            if (tailSize == tail.length) {
+                if (tail.length < CHUNK_SIZE) {
+                    tail = Arrays.copyOf(tail, tail.length * 2);
+                } else {
+                    full.add(tail);
+                    tail = new long[CHUNK_SIZE];
+                    tailSize = 0;
+                }
+            }
+            tail[tailSize++] = value;
+            size++;
+        }
+
+        @Override
+        long getLong(int row) {
+            return chunks[row >>> CHUNK_BITS][row & CHUNK_MASK];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return getLong(row);
+        }
+
+        @Override
+        Object getObject(int row) {
+            return isNull(row) ? null : getLong(row);
+        }
+    }
+
+    static final class IntVector extends ColumnVector {
+        private final IntChunks values = new IntChunks();
+
+        IntVector() {
+            super(ColumnarBatch.Type.INT);
+        }
+
+        @Override
+        void freeze() {
+            values.freeze();
+        }
+
+        @Override
+        void read(ResultSet rs, int column) throws SQLException {
+            final int value = rs.getInt(column);
+            add(value, value == 0 && rs.wasNull());
+        }
+
+        @Override
+        void copy(ColumnVector source, int row) {
+            add(source.getInt(row), source.isNull(row));
+        }
+
+        private void add(int value, boolean isNull) {
+            if (isNull) {
+                markNull();
+            }
+            values.add(value);
+            size++;
+        }
+
+        @Override
+        int getInt(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        long getLong(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        Object getObject(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+    }
+
+    static final class DoubleVector extends ColumnVector {
+        private final List<double[]> full = new ArrayList<>();
+        private double[][] chunks;
+        private double[] tail = new double[FIRST_CHUNK];
+        private int tailSize;
+
+        DoubleVector() {
+            super(ColumnarBatch.Type.DOUBLE);
+        }
+
+        @Override
+        void freeze() {
+            chunks = full.toArray(new double[full.size() + 1][]);
+            chunks[full.size()] = tail;
+        }
+
+        @Override
+        void read(ResultSet rs, int column) throws SQLException {
+            final double value = rs.getDouble(column);
+            add(value, value == 0 && rs.wasNull());
+        }
+
+        @Override
+        void copy(ColumnVector source, int row) {
+            add(source.getDouble(row), source.isNull(row));
+        }
+
+        private void add(double value, boolean isNull) {
+            if (isNull) {
+                markNull();
+            }
+            if (tailSize == tail.length) {
+                if (tail.length < CHUNK_SIZE) {
+                    tail = Arrays.copyOf(tail, tail.length * 2);
+                } else {
+                    full.add(tail);
+                    tail = new double[CHUNK_SIZE];
+                    tailSize = 0;
+                }
+            }
+            tail[tailSize++] = value;
+            size++;
+        }
+
+        @Override
+        double getDouble(int row) {
+            return chunks[row >>> CHUNK_BITS][row & CHUNK_MASK];
+        }
+
+        @Override
+        Object getObject(int row) {
+            return isNull(row) ? null : getDouble(row);
+        }
+    }
+
+    /** Dictionary-encoded strings: one {@code int} code per row, each distinct value stored once. */
+    static final class StringVector extends ColumnVector {
+        private final IntChunks codes = new IntChunks();
+        // only needed while reading
+        private Map<String, Integer> index = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<String> dictionary = Collections.unmodifiableList(values);
+
+        StringVector() {
+            super(ColumnarBatch.Type.STRING);
+        }
+
+        @Override
+        void freeze() {
+            index = null;
+            codes.freeze();
+        }
+
+        @Override
+        void read(ResultSet rs, int column) throws SQLException {
+            add(rs.getString(column));
+        }
+
+        @Override
+        void copy(ColumnVector source, int row) {
+            add(source.getString(row));
+        }
+
+        private void add(String value) {
+            if (value == null) {
+                markNull();
+                codes.add(-1);
+            } else {
+                final Integer code = index.get(value);
+                if (code != null) {
+                    codes.add(code);
+                } else {
+                    index.put(value, values.size());
+                    codes.add(values.size());
+                    values.add(value);
+                }
+            }
+            size++;
+        }
+
+        @Override
+        String getString(int row) {
+            final int code = codes.get(row);
+            return code < 0 ? null : values.get(code);
+        }
+
+        @Override
+        int getCode(int row) {
+            return codes.get(row);
+        }
+
+        @Override
+        List<String> dictionary() {
+            return dictionary;
+        }
+
+        @Override
+        Object getObject(int row) {
+            return getString(row);
+        }
+    }
+
+    /** Anything without a primitive representation (dates, decimals, booleans, ...), boxed as the driver returns it. */
+    static final class ObjectVector extends ColumnVector {
+        private final List<Object[]> full = new ArrayList<>();
+        private Object[][] chunks;
+        private Object[] tail = new Object[FIRST_CHUNK];
+        private int tailSize;
+
+        ObjectVector() {
+            super(ColumnarBatch.Type.OBJECT);
+        }
+
+        @Override
+        void freeze() {
+            chunks = full.toArray(new Object[full.size() + 1][]);
+            chunks[full.size()] = tail;
+        }
+
+        @Override
+        void read(ResultSet rs, int column) throws SQLException {
+            add(JdbcUtils.getResultSetValue(rs, column));
+        }
+
+        @Override
+        void copy(ColumnVector source, int row) {
+            add(source.getObject(row));
+        }
+
+        private void add(Object value) {
+            if (value == null) {
+                markNull();
+            }
+            if (tailSize == tail.length) {
+                if (tail.length < CHUNK_SIZE) {
+                    tail = Arrays.copyOf(tail, tail.length * 2);
+                } else {
+                    full.add(tail);
+                    tail = new Object[CHUNK_SIZE];
+                    tailSize = 0;
+                }
+            }
+            tail[tailSize++] = value;
+            size++;
+        }
+
+        @Override
+        Object getObject(int row) {
+            return chunks[row >>> CHUNK_BITS][row & CHUNK_MASK];
+        }
+    }
+
+    /** Chunked {@code int} storage shared by int columns and dictionary codes. */
+    private static final class IntChunks {
+        private final List<int[]> full = new ArrayList<>();
+        private int[][] chunks;
+        private int[] tail = new int[FIRST_CHUNK];
+        private int tailSize;
+
+        void freeze() {
+            chunks = full.toArray(new int[full.size() + 1][]);
+            chunks[full.size()] = tail;
+        }
+
+        void add(int value) {
+            if (tailSize == tail.length) {
+                if (tail.length < CHUNK_SIZE) {
+                    tail = Arrays.copyOf(tail, tail.length * 2);
+                } else {
+                    full.add(tail);
+                    tail = new int[CHUNK_SIZE];
+                    tailSize = 0;
+                }
+            }
+            tail[tailSize++] = value;
+        }
+
+        int get(int row) {
+            return chunks[row >>> CHUNK_BITS][row & CHUNK_MASK];
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.druvu.lib.jdbc;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable column-oriented query result: one primitive vector per column instead of one object per row.
+ *
+ * <p>Numeric columns are stored unboxed ({@code long}, {@code int}, {@code double}), strings are dictionary-encoded
+ * (each distinct value once, an {@code int} code per row) and nulls are kept in a bitmap, so millions of numeric rows
+ * take a few bytes each instead of a {@code Map} per row. Column types follow the result set metadata:
+ *
+ * <ul>
+ *   <li>{@link Type#LONG}: {@code BIGINT}, and {@code DECIMAL}/{@code NUMERIC} without scale of up to 18 digits
+ *   <li>{@link Type#INT}: {@code INTEGER}, {@code SMALLINT}, {@code TINYINT}
+ *   <li>{@link Type#DOUBLE}: {@code DOUBLE}, {@code FLOAT}, {@code REAL}
+ *   <li>{@link Type#STRING}: {@code CHAR}, {@code VARCHAR} and their national and long variants
+ *   <li>{@link Type#OBJECT}: everything else, boxed as the driver returns it
+ * </ul>
+ *
+ * <p>A primitive getter returns {@code 0} for a null value; check {@link #isNull(int, int)} where nulls are possible.
+ * Narrower columns can be read wider ({@code getLong} on an {@code INT} column, {@code getDouble} on any numeric one);
+ * other mismatches throw {@link IllegalStateException}.
+ *
+ * <pre>{@code
+ * ColumnarBatch batch = db.selectColumnar(SimpleSql.fromString("SELECT ts, price, symbol FROM trades"));
+ * double sum = 0;
+ * for (int row = 0; row < batch.getRowCount(); row++) {
+ *     sum += batch.getDouble(1, row);
+ * }
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class ColumnarBatch {
+
+    /** Storage type of a column. */
+    public enum Type {
+        LONG,
+        INT,
+        DOUBLE,
+        STRING,
+        OBJECT
+    }
+
+    /** Result without rows; it has no columns either, since a result set without rows is never looked at. */
+    static final ColumnarBatch EMPTY = new ColumnarBatch(List.of(), Map.of(), List.of(), 0);
+
+    private final List<String> names;
+    private final Map<String, Integer> index;
+    private final List<ColumnVector> columns;
+    private final int rowCount;
+
+    ColumnarBatch(List<String> names, Map<String, Integer> index, List<ColumnVector> columns, int rowCount) {
+        this.names = names;
+        this.index = index;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return names.size();
+    }
+
+    /** Column labels in select order. */
+    public List<String> getColumnNames() {
+        return names;
+    }
+
+    /**
+     * Position of a column by label, ignoring case.
+     *
+     * @throws IllegalArgumentException when there is no such column
+     */
+    public int getColumnIndex(String name) {
+        final Integer position = index.get(name.toLowerCase(Locale.ROOT));
+        if (position == null) {
+            throw new IllegalArgumentException("No column " + name + " in " + names);
+        }
+        return position;
+    }
+
+    public Type getColumnType(int column) {
+        return columns.get(column).type();
+    }
+
+    public boolean isNull(int column, int row) {
+        return columns.get(column).isNull(checkRow(row));
+    }
+
+    public long getLong(int column, int row) {
+        return columns.get(column).getLong(checkRow(row));
+    }
+
+    public int getInt(int column, int row) {
+        return columns.get(column).getInt(checkRow(row));
+    }
+
+    public double getDouble(int column, int row) {
+        return columns.get(column).getDouble(checkRow(row));
+    }
+
+    public String getString(int column, int row) {
+        return columns.get(column).getString(checkRow(row));
+    }
+
+    /** Value of any column type, boxed; {@code null} for SQL NULL. */
+    public Object getObject(int column, int row) {
+        return columns.get(column).getObject(checkRow(row));
+    }
+
+    /**
+     * Dictionary code of a string value, an index into {@link #getDictionary(int)}; {@code -1} for null. Grouping and
+     * comparing by code avoids touching the strings at all.
+     */
+    public int getStringCode(int column, int row) {
+        return columns.get(column).getCode(checkRow(row));
+    }
+
+    /** Distinct values of a string column in order of first appearance. */
+    public List<String> getDictionary(int column) {
+        return columns.get(column).dictionary();
+    }
+
+    /** Copy of a numeric column as a {@code long} array, nulls as {@code 0}. */
+    public long[] toLongArray(int column) {
+        final ColumnVector vector = columns.get(column);
+        final long[] values = new long[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            values[row] = vector.getLong(row);
+        }
+        return values;
+    }
+
+    /** Copy of a numeric column as a {@code double} array, nulls as {@code 0}. */
+    public double[] toDoubleArray(int column) {
+        final ColumnVector vector = columns.get(column);
+        final double[] values = new double[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            values[row] = vector.getDouble(row);
+        }
+        return values;
+    }
+
+    Map<String, Integer> index() {
+        return index;
+    }
+
+    ColumnVector column(int column) {
+        return columns.get(column);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarBatch[rows=" + rowCount + ", columns=" + names + "]";
+    }
+}
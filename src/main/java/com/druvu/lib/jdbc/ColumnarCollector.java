@@ -0,0 +1,147 @@
+package com.druvu.lib.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Fills {@link ColumnarBatch}es row by row. Used as the row mapper of a streamed select: each row is appended to the
+ * column vectors and the mapper returns nothing useful, {@link #accept(Object)} emits a batch every
+ * {@code batchRows}. One collector serves one call on one thread; {@link #append(ColumnarBatch)} merges batches
+ * collected elsewhere, e.g. per shard, into batches of {@code batchRows}.
+ *
+ * @author Deniss Larka
+ */
+final class ColumnarCollector implements RowMapper<Boolean>, Consumer<Boolean> {
+
+    private final int batchRows;
+    private final Consumer<ColumnarBatch> batches;
+    private List<String> names = List.of();
+    private Map<String, Integer> index = Map.of();
+    private ColumnarBatch.Type[] types = new ColumnarBatch.Type[0];
+    private ColumnVector[] vectors = new ColumnVector[0];
+    private int rows;
+    private boolean described;
+
+    ColumnarCollector(int batchRows, Consumer<ColumnarBatch> batches) {
+        if (batchRows <= 0) {
+            throw new IllegalArgumentException("Batch rows should be positive: " + batchRows);
+        }
+        this.batchRows = batchRows;
+        this.batches = batches;
+    }
+
+    @Override
+    public Boolean mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (!described) {
+            describe(rs.getMetaData());
+            described = true;
+        }
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].read(rs, i + 1);
+        }
+        rows++;
+        return Boolean.TRUE;
+    }
+
+    @Override
+    public void accept(Boolean row) {
+        if (rows == batchRows) {
+            emit();
+        }
+    }
+
+    /** Appends the rows of a batch of the same columns, emitting a batch every {@code batchRows}. */
+    void append(ColumnarBatch batch) {
+        if (batch.getRowCount() == 0) {
+            return;
+        }
+        if (!described) {
+            names = batch.getColumnNames();
+            index = batch.index();
+            types = new ColumnarBatch.Type[names.size()];
+            vectors = new ColumnVector[names.size()];
+            for (int column = 0; column < types.length; column++) {
+                types[column] = batch.getColumnType(column);
+                vectors[column] = ColumnVector.of(types[column]);
+            }
+            described = true;
+        } else if (batch.getColumnCount() != vectors.length) {
+            throw new IllegalStateException("Cannot merge columns " + batch.getColumnNames() + " into " + names);
+        }
+        for (int row = 0; row < batch.getRowCount(); row++) {
+            for (int column = 0; column < vectors.length; column++) {
+                vectors[column].copy(batch.column(column), row);
+            }
+            rows++;
+            if (rows == batchRows) {
+                emit();
+            }
+        }
+    }
+
+    /** Emits the remaining rows, if any. */
+    void finish() {
+        if (rows > 0) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        final List<ColumnVector> columns = new ArrayList<>(vectors.length);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].freeze();
+            columns.add(vectors[i]);
+            vectors[i] = ColumnVector.of(types[i]);
+        }
+        final ColumnarBatch batch = new ColumnarBatch(names, index, Collections.unmodifiableList(columns), rows);
+        rows = 0;
+        batches.accept(batch);
+    }
+
+    private void describe(ResultSetMetaData metaData) throws SQLException {
+        final int count = metaData.getColumnCount();
+        final List<String> labels = new ArrayList<>(count);
+        final Map<String, Integer> positions = new HashMap<>(count * 2);
+        types = new ColumnarBatch.Type[count];
+        vectors = new ColumnVector[count];
+        for (int column = 1; column <= count; column++) {
+            final String label = JdbcUtils.lookupColumnName(metaData, column);
+            labels.add(label);
+            positions.putIfAbsent(label.toLowerCase(Locale.ROOT), column - 1);
+            types[column - 1] = typeOf(metaData, column);
+            vectors[column - 1] = ColumnVector.of(types[column - 1]);
+        }
+        names = Collections.unmodifiableList(labels);
+        index = Collections.unmodifiableMap(positions);
+    }
+
+    private static ColumnarBatch.Type typeOf(ResultSetMetaData metaData, int column) throws SQLException {
+        return switch (metaData.getColumnType(column)) {
+            case Types.BIGINT -> ColumnarBatch.Type.LONG;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> ColumnarBatch.Type.INT;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> ColumnarBatch.Type.DOUBLE;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR ->
+                ColumnarBatch.Type.STRING;
+            case Types.DECIMAL, Types.NUMERIC ->
+                isLong(metaData, column) ? ColumnarBatch.Type.LONG : ColumnarBatch.Type.OBJECT;
+            default -> ColumnarBatch.Type.OBJECT;
+        };
+    }
+
+    // whole numbers of up to 18 digits always fit a long
+    private static boolean isLong(ResultSetMetaData metaData, int column) throws SQLException {
+        final int precision = metaData.getPrecision(column);
+        return metaData.getScale(column) == 0 && precision > 0 && precision <= 18;
+    }
+}
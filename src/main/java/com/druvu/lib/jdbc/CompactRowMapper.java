@@ -0,0 +1,43 @@
+package com.druvu.lib.jdbc;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Maps rows to {@link Row}s, reading the column metadata once per result set.
+ *
+ * <p>A row mapper is not told when a new result set starts, so the metadata is remembered per thread together with the
+ * result set it belongs to: rows of the same result set share it, a different result set (another query, or one nested
+ * in a stream consumer) resolves its own. The result set is held weakly and never outlives its query.
+ *
+ * @author Deniss Larka
+ */
+final class CompactRowMapper implements RowMapper<Row> {
+
+    private final ThreadLocal<Current> current = new ThreadLocal<>();
+
+    @Override
+    public Row mapRow(ResultSet rs, int rowNum) throws SQLException {
+        final RowColumns columns = columnsOf(rs);
+        final Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = JdbcUtils.getResultSetValue(rs, columns.column(i));
+        }
+        return new Row(columns, values);
+    }
+
+    private RowColumns columnsOf(ResultSet rs) throws SQLException {
+        final Current last = current.get();
+        if (last != null && last.resultSet().get() == rs) {
+            return last.columns();
+        }
+        final RowColumns columns = RowColumns.of(rs.getMetaData());
+        current.set(new Current(new WeakReference<>(rs), columns));
+        return columns;
+    }
+
+    private record Current(WeakReference<ResultSet> resultSet, RowColumns columns) {}
+}
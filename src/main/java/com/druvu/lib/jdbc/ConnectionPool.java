@@ -0,0 +1,55 @@
+package com.druvu.lib.jdbc;
+
+import java.util.Optional;
+import javax.sql.DataSource;
+
+/**
+ * The connections of one database, as opened by a {@link ConnectionProvider}.
+ *
+ * <p>Only {@link #getDataSource()} is required. The gauges are what the pool itself knows and reports, -1 where it
+ * does not; borrow latency and the threads waiting in {@code getConnection} are measured outside the pool, see
+ * {@link PoolStats}.
+ *
+ * @author Deniss Larka
+ */
+@FunctionalInterface
+public interface ConnectionPool extends AutoCloseable {
+
+    DataSource getDataSource();
+
+    /** Connections currently borrowed, -1 when unknown. */
+    default int getActive() {
+        return -1;
+    }
+
+    /** Open connections not borrowed, -1 when unknown. */
+    default int getIdle() {
+        return -1;
+    }
+
+    /** Upper bound of open connections, -1 when unknown. */
+    default int getMaxActive() {
+        return -1;
+    }
+
+    /** Threads waiting for a connection as counted by the pool, -1 when unknown. */
+    default int getWaiting() {
+        return -1;
+    }
+
+    /** Counters of the pool's prepared statement cache, empty when it has none or does not report it. */
+    default Optional<StatementCacheStats> getStatementCache() {
+        return Optional.empty();
+    }
+
+    /**
+     * A statement failed because its connection is broken, e.g. closed by the server or a firewall. Pools that do not
+     * check connections on every borrow (see {@link ValidationStrategy#onError}) can start checking now; nothing by
+     * default.
+     */
+    default void connectionFailed() {}
+
+    /** Closes the connections; nothing by default, for pools owned by someone else. */
+    @Override
+    default void close() {}
+}
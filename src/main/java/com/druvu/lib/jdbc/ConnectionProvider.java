@@ -0,0 +1,49 @@
+package com.druvu.lib.jdbc;
+
+import java.util.Objects;
+import javax.sql.DataSource;
+
+/**
+ * Supplies the connections of the accesses {@link DbAccessFactory} creates: opens a {@link ConnectionPool} for a
+ * {@link DbConfig}.
+ *
+ * <p>The default is {@link #tomcat()}, a Tomcat JDBC pool built from the configuration's pool properties. Any other
+ * pool plugs in by implementing this interface, and a {@link DataSource} the application already manages is used as
+ * it is with {@link #of(DataSource)}:
+ *
+ * <pre>{@code
+ * DbAccess db = DbAccessFactory.create(DbConfig.of("orders", appDataSource, "SELECT 1"));
+ *
+ * DbConfig hikari = DbConfig.of("orders", url, user, password, driver, "SELECT 1")
+ *     .withConnectionProvider(config -> new HikariPool(config));   // an own ConnectionPool implementation
+ * }</pre>
+ *
+ * <p>Whatever the provider, borrowing is timed by the access itself, so {@link DbMetrics#getPool()} reports borrow
+ * latency and waiting threads the same way for every pool.
+ *
+ * @author Deniss Larka
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+
+    /**
+     * Opens the connections of one database; called once per access created.
+     *
+     * @param config the database; connection details and pool properties are for the provider to use or ignore
+     */
+    ConnectionPool open(DbConfig config);
+
+    /** Tomcat JDBC pool configured from {@link DbConfig}'s pool properties, the default. */
+    static ConnectionProvider tomcat() {
+        return TomcatConnectionPool::new;
+    }
+
+    /**
+     * An existing data source, shared with the rest of the application: the pool properties of {@link DbConfig} do not
+     * apply and the library never closes it.
+     */
+    static ConnectionProvider of(DataSource dataSource) {
+        Objects.requireNonNull(dataSource);
+        return config -> () -> dataSource;
+    }
+}
@@ -1,5 +1,8 @@
 package com.druvu.lib.jdbc;
 
+import com.druvu.lib.jdbc.internal.Parallel;
+import com.druvu.lib.jdbc.internal.TransactionDeadline;
+import java.time.Instant;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -22,4 +25,54 @@ public interface DbAccess extends DbAccessDirect {
      * @param action the action to perform within the transaction
      */
     void runInTransaction(Consumer<DbAccessDirect> action);
+
+    /**
+     * Like {@link #inTransaction(Function)}, with a deadline for the whole block: every statement inside runs with the
+     * time remaining until it (or its own, stricter limit) and fails with {@code QueryTimeoutException} once it has
+     * passed, which rolls the transaction back.
+     *
+     * <pre>{@code
+     * db.inTransaction(request.deadline(), tx -> {
+     *     tx.update(debit);
+     *     tx.update(credit);
+     *     return List.of();
+     * });
+     * }</pre>
+     *
+     * <p>The deadline is bound to the calling thread, as the transaction is; nested blocks can only shorten it.
+     *
+     * @param deadline instant by which the block has to be done
+     * @param statement the statements to run in the transaction
+     * @throws org.springframework.dao.QueryTimeoutException when the deadline has passed before the block starts or
+     *     during a statement
+     */
+    default <T> List<T> inTransaction(Instant deadline, Function<DbAccessDirect, List<T>> statement) {
+        return TransactionDeadline.call(deadline, () -> inTransaction(statement));
+    }
+
+    /** {@link #runInTransaction(Consumer)} with a deadline, see {@link #inTransaction(Instant, Function)}. */
+    default void runInTransaction(Instant deadline, Consumer<DbAccessDirect> action) {
+        TransactionDeadline.call(deadline, () -> {
+            runInTransaction(action);
+            return null;
+        });
+    }
+
+    /**
+     * Runs independent selects concurrently, each on its own pooled connection, so the latency is that of the slowest
+     * select instead of the sum.
+     *
+     * <p>Fail-fast: the first failure is rethrown at once and selects not started yet are skipped; selects already on
+     * the database complete in the background. The selects run on virtual threads and do not join a transaction bound
+     * to the calling thread.
+     *
+     * @param statements the selects, may have different result types
+     * @param maxConnections how many selects may hold a connection at the same time, keep it well below the pool's
+     *     {@code maxActive} so concurrent callers are not starved
+     * @return results in input order
+     */
+    default SelectResults selectParallel(List<? extends SqlStatement<?>> statements, int maxConnections) {
+        final List<List<?>> results = Parallel.map(statements, this::select, maxConnections);
+        return new SelectResults(statements, results);
+    }
 }
@@ -1,9 +1,18 @@
 package com.druvu.lib.jdbc;
 
 import com.druvu.lib.jdbc.internal.OptionalUtils;
+import com.druvu.lib.jdbc.internal.ScalarExtractors;
+import com.druvu.lib.jdbc.internal.Statements;
+import com.druvu.lib.jdbc.internal.StreamExtract;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.jdbc.core.ResultSetExtractor;
 
 /**
  * Represents database communication interface
@@ -44,8 +53,143 @@ public interface DbAccessDirect {
         return OptionalUtils.from(select(select));
     }
 
+    /**
+     * Runs a select and hands the open result set to the extractor, which reads as many rows as it needs. The
+     * statement's own row mapper is not used.
+     *
+     * <p>The default runs on {@link #stream(SqlStatement, Consumer)}: rows the extractor leaves unread are still
+     * fetched, and for an empty result the extractor gets a result set that only answers {@code next()}. The built-in
+     * implementations hand over the real cursor and stop when the extractor returns.
+     *
+     * @param select the select statement, positional or named
+     * @param extractor reads the result set; it must not close it
+     * @param <R> the extracted value
+     * @return what the extractor returned
+     */
+    default <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        return StreamExtract.extract(this, select, extractor);
+    }
+
+    /**
+     * Reads the first column of the first row as a {@code long}, without boxing or building a result list. Further
+     * rows are ignored, so no uniqueness check as in {@link #selectOne(SqlStatement)} is made.
+     *
+     * <pre>{@code
+     * OptionalLong maxId = db.selectLong(SimpleSql.fromString("SELECT MAX(id) FROM orders"));
+     * }</pre>
+     *
+     * @param select the select statement; its row mapper is not used
+     * @return the value, or empty for no rows or SQL {@code NULL}
+     */
+    default OptionalLong selectLong(SqlStatement<?> select) {
+        final ScalarExtractors.LongResult result = extract(select, new ScalarExtractors.LongResult());
+        return result != null && result.isPresent() ? OptionalLong.of(result.getValue()) : OptionalLong.empty();
+    }
+
+    /**
+     * Like {@link #selectLong(SqlStatement)} with a fallback, allocating nothing but the extractor on any path.
+     *
+     * <pre>{@code
+     * long count = db.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM orders WHERE tenant = ?").with(t), 0);
+     * }</pre>
+     *
+     * @param select the select statement; its row mapper is not used
+     * @param ifNone returned for no rows or SQL {@code NULL}
+     * @return the value of the first column of the first row
+     */
+    default long selectLong(SqlStatement<?> select, long ifNone) {
+        final ScalarExtractors.LongResult result = extract(select, new ScalarExtractors.LongResult());
+        return result != null && result.isPresent() ? result.getValue() : ifNone;
+    }
+
+    /** {@code int} counterpart of {@link #selectLong(SqlStatement)}. */
+    default OptionalInt selectInt(SqlStatement<?> select) {
+        final ScalarExtractors.IntResult result = extract(select, new ScalarExtractors.IntResult());
+        return result != null && result.isPresent() ? OptionalInt.of(result.getValue()) : OptionalInt.empty();
+    }
+
+    /** {@code int} counterpart of {@link #selectLong(SqlStatement, long)}. */
+    default int selectInt(SqlStatement<?> select, int ifNone) {
+        final ScalarExtractors.IntResult result = extract(select, new ScalarExtractors.IntResult());
+        return result != null && result.isPresent() ? result.getValue() : ifNone;
+    }
+
+    /** {@code double} counterpart of {@link #selectLong(SqlStatement)}. */
+    default OptionalDouble selectDouble(SqlStatement<?> select) {
+        final ScalarExtractors.DoubleResult result = extract(select, new ScalarExtractors.DoubleResult());
+        return result != null && result.isPresent() ? OptionalDouble.of(result.getValue()) : OptionalDouble.empty();
+    }
+
+    /** {@code double} counterpart of {@link #selectLong(SqlStatement, long)}. */
+    default double selectDouble(SqlStatement<?> select, double ifNone) {
+        final ScalarExtractors.DoubleResult result = extract(select, new ScalarExtractors.DoubleResult());
+        return result != null && result.isPresent() ? result.getValue() : ifNone;
+    }
+
+    /** {@code boolean} counterpart of {@link #selectLong(SqlStatement, long)}. */
+    default boolean selectBoolean(SqlStatement<?> select, boolean ifNone) {
+        final ScalarExtractors.BooleanResult result = extract(select, new ScalarExtractors.BooleanResult());
+        return result != null && result.isPresent() ? result.getValue() : ifNone;
+    }
+
+    /**
+     * Whether the select returns at least one row. Only the first {@code next()} is made, the remaining rows are never
+     * read, and nothing is mapped or allocated per row; still, prefer {@code SELECT 1 ... } with a selective
+     * {@code WHERE} (or {@code FETCH FIRST 1 ROW ONLY}) so the database can stop early as well.
+     *
+     * <pre>{@code
+     * if (db.exists(SimpleSql.fromString("SELECT 1 FROM users WHERE email = ?").with(email))) { ... }
+     * }</pre>
+     *
+     * @param select the select statement; its row mapper is not used
+     * @return true when there is a row
+     */
+    default boolean exists(SqlStatement<?> select) {
+        return Boolean.TRUE.equals(extract(select, ScalarExtractors.EXISTS));
+    }
+
     Integer update(SqlStatement<?> update);
 
+    /**
+     * Executes one SQL template with many parameter sets through JDBC batching.
+     *
+     * <p>Parameter sets are sent to the driver in chunks of {@link BatchStatement#getChunkSize()} rows. Through
+     * {@link DbAccess} the whole batch runs in a single write transaction.
+     *
+     * <p>The default runs the rows one by one through {@link #update(SqlStatement)}, the batch's timeout as a deadline
+     * shared by all of them; the built-in implementations batch.
+     *
+     * @param batch the batch to execute
+     * @return per-row update counts, in the order the rows were added
+     */
+    default int[] batchUpdate(BatchStatement batch) {
+        final List<SqlStatement<?>> rows = Statements.rows(batch, Statements.rowOptions(batch));
+        final int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++) {
+            final Integer count = update(rows.get(i));
+            result[i] = count == null ? 0 : count;
+        }
+        return result;
+    }
+
+    /**
+     * Executes independent statements without parameters (DDL, INSERTs with literals, a script) as one JDBC batch of
+     * plain {@code Statement}s. Through {@link DbAccess} the batch runs in a single write transaction.
+     *
+     * <p>The default runs them one by one through {@link #update(SqlStatement)}; the built-in implementations batch.
+     *
+     * @param statements the SQL statements, without trailing delimiters
+     * @return per-statement update counts
+     */
+    default int[] batchUpdate(List<String> statements) {
+        final int[] result = new int[statements.size()];
+        for (int i = 0; i < result.length; i++) {
+            final Integer count = update(SimpleSql.fromString(statements.get(i)));
+            result[i] = count == null ? 0 : count;
+        }
+        return result;
+    }
+
     void call(String procedure);
 
     /**
@@ -60,6 +204,85 @@ public interface DbAccessDirect {
      */
     <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer);
 
+    /**
+     * Opens a lazy, pull-based stream over the query results, backed by an open cursor.
+     *
+     * <p>Rows are read and mapped only as the stream pulls them, so {@code filter}, {@code map}, {@code limit} or
+     * {@code findFirst} cut both database work and memory. The cursor and its connection are released when the stream
+     * is exhausted, when a terminal operation completes (including short-circuiting ones), or when the stream is
+     * closed; releasing before exhaustion cancels the statement. Use try-with-resources when the stream may be
+     * abandoned without a terminal operation or consumed through {@code iterator()}:
+     *
+     * <pre>{@code
+     * List<User> active = db.stream(SimpleSql.query("SELECT * FROM users", userMapper))
+     *     .filter(User::isActive)
+     *     .limit(10)
+     *     .toList();
+     * }</pre>
+     *
+     * <p>Fetch size follows the same setting as {@link #stream(SqlStatement, Consumer)}.
+     *
+     * <p>The default is not lazy: it selects all rows and streams the list. The built-in implementations hold the
+     * cursor open as described.
+     *
+     * @param statement the select statement to execute
+     * @param <T> the result type
+     * @return lazy stream of mapped rows
+     */
+    default <T> Stream<T> stream(SqlStatement<T> statement) {
+        return select(statement).stream();
+    }
+
+    /**
+     * Selects into column vectors instead of row objects: {@code long}, {@code int} and {@code double} columns unboxed,
+     * strings dictionary-encoded, nulls in a bitmap. For analytical queries returning millions of mostly numeric rows.
+     * The statement's own row mapper is not used.
+     *
+     * <pre>{@code
+     * ColumnarBatch prices = db.selectColumnar(SimpleSql.fromString("SELECT ts, price FROM ticks WHERE day = ?")
+     *     .with(day));
+     * }</pre>
+     *
+     * @param select the select statement, positional or named
+     * @return all rows in one batch; without rows an empty batch without columns
+     */
+    default ColumnarBatch selectColumnar(SqlStatement<?> select) {
+        final List<ColumnarBatch> batches = new ArrayList<>(1);
+        selectColumnar(select, Integer.MAX_VALUE, batches::add);
+        return batches.isEmpty() ? ColumnarBatch.EMPTY : batches.get(0);
+    }
+
+    /**
+     * Streams the result as consecutive {@link ColumnarBatch}es of {@code batchRows} rows (the last one may be
+     * shorter), so memory stays bounded by one batch. Batches are handed over while the cursor is open, on the calling
+     * thread; an empty result calls the consumer never.
+     *
+     * @param select the select statement, positional or named
+     * @param batchRows rows per batch
+     * @param batchConsumer called for each full batch and for the remainder
+     */
+    default void selectColumnar(SqlStatement<?> select, int batchRows, Consumer<ColumnarBatch> batchConsumer) {
+        final ColumnarCollector collector = new ColumnarCollector(batchRows, batchConsumer);
+        stream(Statements.withMapper(select, collector), collector);
+        collector.finish();
+    }
+
+    /**
+     * Statement metrics collected by this access: call and error counts, rows, and latency histograms split into
+     * connection acquisition, execution and row mapping, per statement fingerprint.
+     *
+     * <pre>{@code
+     * for (StatementStats stats : db.metrics().getStatements()) {
+     *     log.info("{} p99={}ns", stats.getFingerprint(), stats.getTotal().getPercentileNanos(99));
+     * }
+     * }</pre>
+     *
+     * @return the metrics registry; implementations that do not collect metrics return an always-empty one
+     */
+    default DbMetrics metrics() {
+        return DbMetrics.NONE;
+    }
+
     /**
      * Identifier of this database connection, as configured on {@link DbConfig}. Useful for logs, metrics and
      * distinguishing between multiple databases in the same app.
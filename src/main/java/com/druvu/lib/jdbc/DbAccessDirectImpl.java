@@ -1,11 +1,26 @@
 package com.druvu.lib.jdbc;
 
+import com.druvu.lib.jdbc.internal.AdaptiveFetchSize;
+import com.druvu.lib.jdbc.internal.CursorSpliterator;
+import com.druvu.lib.jdbc.internal.NamedBatchStatement;
 import com.druvu.lib.jdbc.internal.NamedSqlStatement;
+import com.druvu.lib.jdbc.internal.QueryTimer;
+import java.sql.Connection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 
 /**
  * @author Deniss Larka <br>
@@ -14,13 +29,15 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 final class DbAccessDirectImpl implements DbAccessDirect {
 
     private final String id;
-    private final JdbcTemplate jdbcTemplate;
+    private final LimitedJdbcTemplate jdbcTemplate;
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DbMetrics metrics;
 
-    DbAccessDirectImpl(String id, JdbcTemplate jdbcTemplate) {
+    DbAccessDirectImpl(String id, LimitedJdbcTemplate jdbcTemplate, DbMetrics metrics) {
         this.id = Objects.requireNonNull(id);
         this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
         this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.metrics = Objects.requireNonNull(metrics);
     }
 
     @Override
@@ -28,40 +45,222 @@ final class DbAccessDirectImpl implements DbAccessDirect {
         return id;
     }
 
+    @Override
+    public DbMetrics metrics() {
+        return metrics;
+    }
+
     @Override
     public <T> List<T> select(SqlStatement<T> select) {
-        if (select instanceof NamedSqlStatement<?> named) {
-            return namedJdbcTemplate.query(select.getQuery(), named.getNamedParameters(), select.rowMapper());
+        return select(select, metrics.start(select.getQuery()));
+    }
+
+    <T> List<T> select(SqlStatement<T> select, QueryTimer timer) {
+        try {
+            final RowMapper<T> rowMapper = timer.timed(select.rowMapper());
+            final List<T> result = jdbcTemplate.limited(select.getOptions(), select.getQuery(), () -> {
+                if (select instanceof NamedSqlStatement<?> named) {
+                    return namedJdbcTemplate.query(select.getQuery(), named.getNamedParameters(), rowMapper);
+                }
+                return jdbcTemplate.query(select.getQuery(), rowMapper, select.getParameters());
+            });
+            timer.success();
+            return result;
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        return extract(select, extractor, metrics.start(select.getQuery()));
+    }
+
+    <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor, QueryTimer timer) {
+        try {
+            final R result = jdbcTemplate.limited(select.getOptions(), select.getQuery(), () -> {
+                if (select instanceof NamedSqlStatement<?> named) {
+                    return namedJdbcTemplate.query(select.getQuery(), named.getNamedParameters(), extractor);
+                }
+                return jdbcTemplate.query(select.getQuery(), extractor, select.getParameters());
+            });
+            timer.success();
+            return result;
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
         }
-        return jdbcTemplate.query(select.getQuery(), select.rowMapper(), select.getParameters());
     }
 
     @Override
     public Integer update(SqlStatement<?> update) {
-        if (update instanceof NamedSqlStatement<?> named) {
-            return namedJdbcTemplate.update(update.getQuery(), named.getNamedParameters());
+        return update(update, metrics.start(update.getQuery()));
+    }
+
+    Integer update(SqlStatement<?> update, QueryTimer timer) {
+        try {
+            final int result = jdbcTemplate.limited(update.getOptions(), update.getQuery(), () -> {
+                if (update instanceof NamedSqlStatement<?> named) {
+                    return namedJdbcTemplate.update(update.getQuery(), named.getNamedParameters());
+                }
+                return jdbcTemplate.update(update.getQuery(), update.getParameters());
+            });
+            timer.success(result);
+            return result;
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(BatchStatement batch) {
+        return batchUpdate(batch, metrics.start(batch.getQuery()));
+    }
+
+    int[] batchUpdate(BatchStatement batch, QueryTimer timer) {
+        try {
+            final int[] result = jdbcTemplate.limited(batch.getOptions(), batch.getQuery(), () -> executeBatch(batch));
+            long rows = 0;
+            for (int count : result) {
+                // SUCCESS_NO_INFO (-2) and friends do not count as affected rows
+                rows += Math.max(0, count);
+            }
+            timer.success(rows);
+            return result;
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
         }
-        return jdbcTemplate.update(update.getQuery(), update.getParameters());
+    }
+
+    @Override
+    public int[] batchUpdate(List<String> statements) {
+        if (statements.isEmpty()) {
+            return new int[0];
+        }
+        return batchUpdate(statements, metrics.start(statements.get(0)));
+    }
+
+    // recorded under the first statement: scripts are mostly one statement shape with different literals
+    int[] batchUpdate(List<String> statements, QueryTimer timer) {
+        try {
+            final int[] result = jdbcTemplate.limited(
+                    StatementOptions.NONE,
+                    statements.get(0),
+                    () -> jdbcTemplate.batchUpdate(statements.toArray(new String[0])));
+            long rows = 0;
+            for (int count : result) {
+                rows += Math.max(0, count);
+            }
+            timer.success(rows);
+            return result;
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+    }
+
+    private int[] executeBatch(BatchStatement batch) {
+        final int chunkSize = batch.getChunkSize();
+        if (batch instanceof NamedBatchStatement named) {
+            final List<Map<String, Object>> rows = named.getNamedBatchParameters();
+            final int[] result = new int[rows.size()];
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                final int to = Math.min(from + chunkSize, rows.size());
+                final SqlParameterSource[] chunk = rows.subList(from, to).stream()
+                        .map(MapSqlParameterSource::new)
+                        .toArray(SqlParameterSource[]::new);
+                final int[] counts = namedJdbcTemplate.batchUpdate(batch.getQuery(), chunk);
+                System.arraycopy(counts, 0, result, from, Math.min(counts.length, to - from));
+            }
+            return result;
+        }
+        // one PreparedStatement for all chunks; each chunk is a separate executeBatch round trip
+        final int[][] chunks = jdbcTemplate.batchUpdate(
+                batch.getQuery(),
+                batch.getBatchParameters(),
+                chunkSize,
+                (ps, args) -> new ArgumentPreparedStatementSetter(args).setValues(ps));
+        return flatten(chunks, batch.size());
     }
 
     @Override
     public void call(String procedure) {
-        jdbcTemplate.update(procedure);
+        call(procedure, metrics.start(procedure));
+    }
+
+    void call(String procedure, QueryTimer timer) {
+        try {
+            jdbcTemplate.limited(StatementOptions.NONE, procedure, () -> jdbcTemplate.update(procedure));
+            timer.success(0);
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
     }
 
     @Override
     public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
-        if (statement instanceof NamedSqlStatement<?> named) {
-            namedJdbcTemplate.query(statement.getQuery(), named.getNamedParameters(), rs -> {
-                rowConsumer.accept(statement.rowMapper().mapRow(rs, rs.getRow()));
+        stream(statement, rowConsumer, metrics.start(statement.getQuery()));
+    }
+
+    <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer, QueryTimer timer) {
+        try {
+            final RowMapper<T> rowMapper = timer.timed(statement.rowMapper());
+            final AdaptiveFetchSize adaptive = AdaptiveFetchSize.of(statement.getOptions());
+            final RowCallbackHandler handler = adaptive == null
+                    ? rs -> timer.deliver(rowConsumer, rowMapper.mapRow(rs, rs.getRow()))
+                    : rs -> {
+                        adaptive.rowStart();
+                        timer.deliver(rowConsumer, rowMapper.mapRow(rs, rs.getRow()));
+                        adaptive.rowEnd(rs);
+                    };
+            jdbcTemplate.limited(statement.getOptions(), statement.getQuery(), () -> {
+                if (statement instanceof NamedSqlStatement<?> named) {
+                    namedJdbcTemplate.query(statement.getQuery(), named.getNamedParameters(), handler);
+                } else {
+                    jdbcTemplate.query(statement.getQuery(), handler, statement.getParameters());
+                }
+                return null;
             });
-        } else {
-            jdbcTemplate.query(
-                    statement.getQuery(),
-                    rs -> {
-                        rowConsumer.accept(statement.rowMapper().mapRow(rs, rs.getRow()));
-                    },
-                    statement.getParameters());
+            timer.success();
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(SqlStatement<T> statement) {
+        final QueryTimer timer = metrics.start(statement.getQuery());
+        final DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        // participates in the caller's transaction when there is one, like the JdbcTemplate calls above
+        final Connection connection;
+        try {
+            connection = DataSourceUtils.getConnection(dataSource);
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+        return CursorSpliterator.open(
+                connection,
+                () -> DataSourceUtils.releaseConnection(connection, dataSource),
+                statement,
+                ps -> jdbcTemplate.applyLimits(ps, statement.getOptions()),
+                jdbcTemplate.getExceptionTranslator(),
+                timer);
+    }
+
+    private static int[] flatten(int[][] chunks, int size) {
+        final int[] result = new int[size];
+        int index = 0;
+        for (int[] chunk : chunks) {
+            final int length = Math.min(chunk.length, size - index);
+            System.arraycopy(chunk, 0, result, index, length);
+            index += length;
         }
+        return result;
     }
 }
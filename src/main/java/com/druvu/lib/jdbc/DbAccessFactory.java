@@ -1,8 +1,11 @@
 package com.druvu.lib.jdbc;
 
+import com.druvu.lib.jdbc.internal.MeteredDataSource;
+import com.druvu.lib.jdbc.internal.PoolPropertiesEx;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tomcat.jdbc.pool.DataSource;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 
 /** @author Deniss Larka at 11 Aug 2020 */
@@ -12,10 +15,24 @@ public final class DbAccessFactory {
     private DbAccessFactory() {}
 
     public static DbAccess create(DbConfig dbConfig) {
-        DataSource pool = createPool(dbConfig);
-        DbAccessTxImpl result = new DbAccessTxImpl(dbConfig.getId(), pool, new DataSourceTransactionManager(pool));
-        validate(result, dbConfig);
+        return create(dbConfig, new ArrayList<>());
+    }
+
+    // adds the pool to opened once the access is created
+    private static DbAccess create(DbConfig dbConfig, List<ConnectionPool> opened) {
+        ConnectionPool connections = dbConfig.getConnectionProvider().open(dbConfig);
+        MeteredDataSource pool = new MeteredDataSource(connections.getDataSource());
+        DbAccessTxImpl result = new DbAccessTxImpl(
+                dbConfig.getId(),
+                pool,
+                new DataSourceTransactionManager(pool),
+                dbConfig.getQueryTimeout(),
+                dbConfig.getFetchSize());
+        result.metrics().attach(connections, pool);
+        validate(result, dbConfig, connections);
+        warmUp(result.metrics(), dbConfig, connections);
         log.info("DB created {}", dbConfig);
+        opened.add(connections);
         return result;
     }
 
@@ -39,21 +56,116 @@ public final class DbAccessFactory {
      */
     public static DbAccessDirect createNonTransactional(DbConfig dbConfig) {
         DbConfig safeConfig = dbConfig.withDefaultReadOnly(null);
-        DataSource pool = createPool(safeConfig);
-        JdbcTemplate template = new JdbcTemplate(pool);
-        template.setFetchSize(DbAccessTxImpl.FETCH_SIZE);
-        DbAccessDirect result = new DbAccessDirectImpl(safeConfig.getId(), template);
-        validate(result, safeConfig);
+        ConnectionPool connections = safeConfig.getConnectionProvider().open(safeConfig);
+        MeteredDataSource pool = new MeteredDataSource(connections.getDataSource());
+        LimitedJdbcTemplate template = new LimitedJdbcTemplate(pool, safeConfig.getQueryTimeout());
+        template.setFetchSize(safeConfig.getFetchSize());
+        DbMetrics metrics = new DbMetrics(safeConfig.getId());
+        metrics.attach(connections, pool);
+        DbAccessDirect result = new DbAccessDirectImpl(safeConfig.getId(), template, metrics);
+        validate(result, safeConfig, connections);
+        warmUp(metrics, safeConfig, connections);
         log.info("DB created (non-transactional) {}", safeConfig);
         return result;
     }
 
-    private static DataSource createPool(DbConfig dbConfig) {
-        return new DataSource(dbConfig.getPoolProperties());
+    /**
+     * Read/write split over a primary and read replicas, each with its own pool: {@code select} and {@code stream}
+     * go to a replica chosen by least outstanding requests; {@code update}, {@code batchUpdate}, {@code call} and
+     * everything inside {@code inTransaction} go to the primary. See {@link #createReadWrite(DbConfig, List,
+     * RoutingConfig)} for weighted routing, read-your-writes and replica ejection settings.
+     */
+    public static DbAccess createReadWrite(DbConfig primary, List<DbConfig> replicas) {
+        return createReadWrite(primary, replicas, RoutingConfig.leastOutstanding());
+    }
+
+    /**
+     * Read/write split with the given routing. When the primary or a replica cannot be created, the pools already
+     * opened are closed before the failure is rethrown.
+     */
+    public static DbAccess createReadWrite(DbConfig primary, List<DbConfig> replicas, RoutingConfig routing) {
+        // before any pool is opened
+        ReadWriteDbAccess.checkWeights(routing, replicas.size());
+        final List<ConnectionPool> opened = new ArrayList<>();
+        try {
+            final DbAccess primaryAccess = create(primary, opened);
+            final List<DbAccess> replicaAccess = new ArrayList<>(replicas.size());
+            for (DbConfig replica : replicas) {
+                replicaAccess.add(create(replica, opened));
+            }
+            return new ReadWriteDbAccess(primaryAccess, replicaAccess, routing);
+        } catch (RuntimeException e) {
+            closeAll(opened, e);
+            throw e;
+        }
+    }
+
+    /**
+     * One logical database split over identical shards, see {@link ShardedDbAccess}. When a shard cannot be created,
+     * the pools of the shards already created are closed before the failure is rethrown.
+     *
+     * @param shards one config per shard; the order defines the shard numbers and must stay stable
+     * @param shardKey extracts the shard key from a statement, {@code null} for unkeyed statements
+     */
+    public static ShardedDbAccess createSharded(List<DbConfig> shards, Function<SqlStatement<?>, Object> shardKey) {
+        final List<ConnectionPool> opened = new ArrayList<>();
+        try {
+            final List<DbAccess> shardAccess = new ArrayList<>(shards.size());
+            for (DbConfig shard : shards) {
+                shardAccess.add(create(shard, opened));
+            }
+            return ShardedDbAccess.of(shardAccess, shardKey);
+        } catch (RuntimeException e) {
+            closeAll(opened, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #create(DbConfig)}: calls run on virtual threads and at most {@code maxActive}
+     * of them hold a connection at a time, so any number of pending calls queue cheaply instead of blocking inside the
+     * pool for up to {@code maxWait}.
+     */
+    public static AsyncDbAccess createAsync(DbConfig dbConfig) {
+        return new AsyncDbAccessImpl(create(dbConfig), dbConfig.getPoolProperties().getMaxActive());
+    }
+
+    /** Asynchronous variant of {@link #createNonTransactional(DbConfig)}, see {@link #createAsync(DbConfig)}. */
+    public static AsyncDbAccessDirect createAsyncNonTransactional(DbConfig dbConfig) {
+        return new AsyncDbAccessDirectImpl(
+                createNonTransactional(dbConfig), dbConfig.getPoolProperties().getMaxActive());
+    }
+
+    /**
+     * Wraps an existing access (e.g. a test double or a {@link VoidDbAccess}) into an asynchronous one.
+     *
+     * @param dbAccess the blocking access to run on virtual threads
+     * @param maxConcurrent maximum number of calls executing at the same time, usually the pool's {@code maxActive}
+     */
+    public static AsyncDbAccess async(DbAccess dbAccess, int maxConcurrent) {
+        return new AsyncDbAccessImpl(dbAccess, maxConcurrent);
+    }
+
+    // a failing close must not hide the failure that made the pools useless
+    private static void closeAll(List<ConnectionPool> opened, RuntimeException failure) {
+        for (ConnectionPool connections : opened) {
+            try {
+                connections.close();
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private static void warmUp(DbMetrics metrics, DbConfig dbConfig, ConnectionPool connections) {
+        final WarmUp warmUp = dbConfig.getWarmUp();
+        if (warmUp != null) {
+            metrics.warmedUp(PoolWarmer.warmUp(dbConfig.getId(), connections, warmUp));
+        }
     }
 
-    private static void validate(DbAccessDirect dbAccess, DbConfig dbConfig) {
-        final String validationQuery = dbConfig.getPoolProperties().getValidationQuery();
+    private static void validate(DbAccessDirect dbAccess, DbConfig dbConfig, ConnectionPool connections) {
+        final String validationQuery = PoolPropertiesEx.validationSelect(dbConfig.getPoolProperties());
         if (validationQuery == null || validationQuery.isEmpty()) {
             return;
         }
@@ -61,6 +173,7 @@ public final class DbAccessFactory {
             dbAccess.select(SimpleSql.fromString(validationQuery));
         } catch (Exception e) { // NOPMD
             log.error("Exception in DB validation: {}", dbConfig);
+            connections.close();
             throw e;
         }
     }
@@ -1,16 +1,24 @@
 package com.druvu.lib.jdbc;
 
-import com.druvu.lib.jdbc.internal.NamedSqlStatement;
+import com.druvu.lib.jdbc.internal.CursorSpliterator;
+import com.druvu.lib.jdbc.internal.QueryTimer;
 import com.druvu.lib.jdbc.util.SqlDebug;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 /** @author Deniss Larka at 29 Mar 2020 */
@@ -19,16 +27,29 @@ final class DbAccessTxImpl implements DbAccess {
 
     public static final int FETCH_SIZE = 2000;
     private final String id;
-    private final JdbcTemplate jdbcTemplate;
-    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DataSource dataSource;
+    private final LimitedJdbcTemplate jdbcTemplate;
+    private final DbMetrics metrics;
+    private final DbAccessDirectImpl direct;
     private final TransactionTemplate transactionReadOnly;
     private final TransactionTemplate transactionWrite;
 
     DbAccessTxImpl(final String id, final DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this(id, dataSource, transactionManager, null, FETCH_SIZE);
+    }
+
+    DbAccessTxImpl(
+            final String id,
+            final DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            Duration queryTimeout,
+            int fetchSize) {
         this.id = Objects.requireNonNull(id);
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
-        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
-        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.dataSource = Objects.requireNonNull(dataSource);
+        this.jdbcTemplate = new LimitedJdbcTemplate(dataSource, queryTimeout);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.metrics = new DbMetrics(id);
+        this.direct = new DbAccessDirectImpl(id, jdbcTemplate, metrics);
         this.transactionReadOnly = new TransactionTemplate(transactionManager);
         this.transactionReadOnly.setReadOnly(true);
         this.transactionWrite = new TransactionTemplate(transactionManager);
@@ -40,27 +61,56 @@ final class DbAccessTxImpl implements DbAccess {
         return id;
     }
 
+    @Override
+    public DbMetrics metrics() {
+        return metrics;
+    }
+
     @Override
     public <T> List<T> inTransaction(Function<DbAccessDirect, List<T>> statement) {
-        return transactionWrite.execute(status -> statement.apply(new DbAccessDirectImpl(this.id, this.jdbcTemplate)));
+        return transactionWrite.execute(status -> statement.apply(direct));
     }
 
     @Override
     public void runInTransaction(Consumer<DbAccessDirect> action) {
-        transactionWrite.executeWithoutResult(
-                status -> action.accept(new DbAccessDirectImpl(this.id, this.jdbcTemplate)));
+        transactionWrite.executeWithoutResult(status -> action.accept(direct));
     }
 
     @Override
     public <T> List<T> select(SqlStatement<T> select) {
         final long start = System.currentTimeMillis();
+        final QueryTimer timer = metrics.start(select.getQuery());
         final List<T> result;
-        if (select instanceof NamedSqlStatement<?> named) {
-            result = transactionReadOnly.execute(status ->
-                    namedJdbcTemplate.query(select.getQuery(), named.getNamedParameters(), select.rowMapper()));
-        } else {
-            result = transactionReadOnly.execute(
-                    status -> jdbcTemplate.query(select.getQuery(), select.rowMapper(), select.getParameters()));
+        try {
+            result = transactionReadOnly.execute(status -> {
+                timer.acquired();
+                return direct.select(select, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+        if (log.isDebugEnabled()) {
+            final String filledSqlString = SqlDebug.debug(select);
+            final long stop = System.currentTimeMillis();
+            log.debug("DB-SELECT: {}/{}", (stop - start), filledSqlString);
+        }
+        return result;
+    }
+
+    @Override
+    public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        final long start = System.currentTimeMillis();
+        final QueryTimer timer = metrics.start(select.getQuery());
+        final R result;
+        try {
+            result = transactionReadOnly.execute(status -> {
+                timer.acquired();
+                return direct.extract(select, extractor, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
         }
         if (log.isDebugEnabled()) {
             final String filledSqlString = SqlDebug.debug(select);
@@ -73,12 +123,16 @@ final class DbAccessTxImpl implements DbAccess {
     @Override
     public Integer update(SqlStatement<?> update) {
         final long start = System.currentTimeMillis();
+        final QueryTimer timer = metrics.start(update.getQuery());
         final Integer result;
-        if (update instanceof NamedSqlStatement<?> named) {
-            result = transactionWrite.execute(
-                    status -> namedJdbcTemplate.update(update.getQuery(), named.getNamedParameters()));
-        } else {
-            result = transactionWrite.execute(status -> jdbcTemplate.update(update.getQuery(), update.getParameters()));
+        try {
+            result = transactionWrite.execute(status -> {
+                timer.acquired();
+                return direct.update(update, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
         }
         if (log.isDebugEnabled()) {
             final String filledSqlString = SqlDebug.debug(update);
@@ -88,20 +142,143 @@ final class DbAccessTxImpl implements DbAccess {
         return result;
     }
 
+    @Override
+    public int[] batchUpdate(BatchStatement batch) {
+        if (batch.size() == 0) {
+            return new int[0];
+        }
+        final long start = System.currentTimeMillis();
+        final QueryTimer timer = metrics.start(batch.getQuery());
+        final int[] result;
+        try {
+            result = transactionWrite.execute(status -> {
+                timer.acquired();
+                return direct.batchUpdate(batch, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+        if (log.isDebugEnabled()) {
+            final long stop = System.currentTimeMillis();
+            log.debug("DB-BATCH: {}/{} rows/{}", (stop - start), batch.size(), batch.getQuery());
+        }
+        return result;
+    }
+
+    @Override
+    public int[] batchUpdate(List<String> statements) {
+        if (statements.isEmpty()) {
+            return new int[0];
+        }
+        final long start = System.currentTimeMillis();
+        final QueryTimer timer = metrics.start(statements.get(0));
+        final int[] result;
+        try {
+            result = transactionWrite.execute(status -> {
+                timer.acquired();
+                return direct.batchUpdate(statements, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
+        if (log.isDebugEnabled()) {
+            final long stop = System.currentTimeMillis();
+            log.debug("DB-BATCH: {}/{} statements/{}", (stop - start), statements.size(), statements.get(0));
+        }
+        return result;
+    }
+
     @Override
     public void call(String procedure) {
-        transactionWrite.execute(status -> jdbcTemplate.update(procedure));
+        final QueryTimer timer = metrics.start(procedure);
+        try {
+            transactionWrite.executeWithoutResult(status -> {
+                timer.acquired();
+                direct.call(procedure, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
     }
 
     @Override
     public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
         final long start = System.currentTimeMillis();
-        transactionReadOnly.executeWithoutResult(
-                status -> new DbAccessDirectImpl(this.id, jdbcTemplate).stream(statement, rowConsumer));
+        final QueryTimer timer = metrics.start(statement.getQuery());
+        try {
+            transactionReadOnly.executeWithoutResult(status -> {
+                timer.acquired();
+                direct.stream(statement, rowConsumer, timer);
+            });
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            throw e;
+        }
         if (log.isDebugEnabled()) {
             final String filledSqlString = SqlDebug.debug(statement);
             final long stop = System.currentTimeMillis();
             log.debug("DB-STREAM: {}/{}", (stop - start), filledSqlString);
         }
     }
+
+    @Override
+    public <T> Stream<T> stream(SqlStatement<T> statement) {
+        if (TransactionSynchronizationManager.hasResource(dataSource)) {
+            // a transaction is already bound to this thread: join it, as the read-only TransactionTemplate would
+            return direct.stream(statement);
+        }
+        // the stream outlives this call and may be consumed on another thread, so its read-only transaction lives
+        // on a dedicated connection instead of being bound to the calling thread
+        final QueryTimer timer = metrics.start(statement.getQuery());
+        final Connection connection;
+        final Runnable release;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            timer.failure(e);
+            throw new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection", e);
+        }
+        try {
+            release = beginReadOnly(connection);
+        } catch (SQLException e) {
+            timer.failure(e);
+            JdbcUtils.closeConnection(connection);
+            throw new CannotGetJdbcConnectionException("Failed to begin read-only transaction", e);
+        }
+        timer.acquired();
+        return CursorSpliterator.open(
+                connection,
+                release,
+                statement,
+                ps -> jdbcTemplate.applyLimits(ps, statement.getOptions()),
+                jdbcTemplate.getExceptionTranslator(),
+                timer);
+    }
+
+    // same connection preparation DataSourceTransactionManager does for transactionReadOnly
+    private Runnable beginReadOnly(Connection connection) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        final Integer previousIsolation =
+                DataSourceUtils.prepareConnectionForTransaction(connection, transactionReadOnly);
+        return () -> {
+            try {
+                // nothing to commit in a read-only transaction; rollback also ends one aborted by a cancel
+                connection.rollback();
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                log.debug("Could not end read-only stream transaction: {}", e.getMessage());
+            } finally {
+                DataSourceUtils.resetConnectionAfterTransaction(connection, previousIsolation, true);
+                JdbcUtils.closeConnection(connection);
+            }
+        };
+    }
 }
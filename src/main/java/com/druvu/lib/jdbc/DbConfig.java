@@ -1,8 +1,10 @@
 package com.druvu.lib.jdbc;
 
 import com.druvu.lib.jdbc.internal.PoolPropertiesEx;
+import java.time.Duration;
 import java.util.Locale;
 import java.util.Objects;
+import javax.sql.DataSource;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 
 /** @author Deniss Larka at 11 Aug 2020 */
@@ -10,14 +12,38 @@ public final class DbConfig {
 
     private final String id;
     private final PoolConfiguration pp;
+    private final Duration queryTimeout;
+    private final int fetchSize;
+    private final ConnectionProvider connectionProvider;
+    private final ValidationStrategy validation;
+    private final WarmUp warmUp;
 
-    private DbConfig(String id, PoolConfiguration poolConfig) {
+    private DbConfig(
+            String id,
+            PoolConfiguration poolConfig,
+            Duration queryTimeout,
+            int fetchSize,
+            ConnectionProvider connectionProvider,
+            ValidationStrategy validation,
+            WarmUp warmUp) {
         this.id = Objects.requireNonNull(id).trim().toUpperCase(Locale.ENGLISH);
         this.pp = Objects.requireNonNull(poolConfig);
+        this.queryTimeout = queryTimeout;
+        this.fetchSize = fetchSize;
+        this.connectionProvider = Objects.requireNonNull(connectionProvider);
+        this.validation = Objects.requireNonNull(validation);
+        this.warmUp = warmUp;
     }
 
     public DbConfig(String id, String url, String user, String password, String driver, String validationSelect) {
-        this(id, PoolPropertiesEx.create(url, user, password, driver, validationSelect));
+        this(
+                id,
+                PoolPropertiesEx.create(url, user, password, driver, validationSelect),
+                null,
+                DbAccessTxImpl.FETCH_SIZE,
+                ConnectionProvider.tomcat(),
+                ValidationStrategy.DEFAULT,
+                null);
     }
 
     public String getId() {
@@ -33,10 +59,29 @@ public final class DbConfig {
         return new DbConfig(id, url, user, password, driver, validationSelect);
     }
 
+    /**
+     * Configuration over a data source the application already manages, see {@link ConnectionProvider#of(DataSource)}.
+     * The pool properties ({@link #withDefaultReadOnly(Boolean)} and the like) do not apply to it.
+     *
+     * @param validationSelect query run once when the access is created; empty to skip
+     */
+    public static DbConfig of(String id, DataSource dataSource, String validationSelect) {
+        final String url = "datasource:" + dataSource.getClass().getName();
+        return new DbConfig(id, url, "", "", "", validationSelect)
+                .withConnectionProvider(ConnectionProvider.of(dataSource));
+    }
+
     public DbConfig withDefaultTransactionIsolation(int transactionIsolation) {
         final PoolConfiguration copyConf = PoolPropertiesEx.copy(this.pp);
         copyConf.setDefaultTransactionIsolation(transactionIsolation);
-        return new DbConfig(this.id, copyConf);
+        return new DbConfig(
+                this.id,
+                copyConf,
+                this.queryTimeout,
+                this.fetchSize,
+                this.connectionProvider,
+                this.validation,
+                this.warmUp);
     }
 
     /**
@@ -50,7 +95,149 @@ public final class DbConfig {
     public DbConfig withDefaultReadOnly(Boolean readOnly) {
         final PoolConfiguration copyConf = PoolPropertiesEx.copy(this.pp);
         copyConf.setDefaultReadOnly(readOnly);
-        return new DbConfig(this.id, copyConf);
+        return new DbConfig(
+                this.id,
+                copyConf,
+                this.queryTimeout,
+                this.fetchSize,
+                this.connectionProvider,
+                this.validation,
+                this.warmUp);
+    }
+
+    /**
+     * Default query timeout of every statement without a timeout or deadline of its own (see
+     * {@link StatementOptions}), so one runaway query cannot hold a pooled connection indefinitely. Applied through
+     * {@code Statement.setQueryTimeout}, so whole seconds, rounded up. {@code null}, the default, means no timeout.
+     */
+    public DbConfig withQueryTimeout(Duration queryTimeout) {
+        if (queryTimeout != null && (queryTimeout.isNegative() || queryTimeout.isZero())) {
+            throw new IllegalArgumentException("Query timeout should be positive: " + queryTimeout);
+        }
+        return new DbConfig(
+                this.id,
+                this.pp,
+                queryTimeout,
+                this.fetchSize,
+                this.connectionProvider,
+                this.validation,
+                this.warmUp);
+    }
+
+    Duration getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Rows the driver fetches per round trip for statements without a fetch size of their own (see
+     * {@link StatementOptions}); 2000 by default.
+     */
+    public DbConfig withFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size should be positive: " + fetchSize);
+        }
+        return new DbConfig(
+                this.id,
+                this.pp,
+                this.queryTimeout,
+                fetchSize,
+                this.connectionProvider,
+                this.validation,
+                this.warmUp);
+    }
+
+    int getFetchSize() {
+        return fetchSize;
+    }
+
+    /** Where the connections come from: a Tomcat JDBC pool by default, see {@link ConnectionProvider}. */
+    public DbConfig withConnectionProvider(ConnectionProvider connectionProvider) {
+        return new DbConfig(
+                this.id,
+                this.pp,
+                this.queryTimeout,
+                this.fetchSize,
+                connectionProvider,
+                this.validation,
+                this.warmUp);
+    }
+
+    ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+
+    /**
+     * How the pool checks connections before handing them out, see {@link ValidationStrategy}; by default the
+     * validation SELECT on borrow, return and while idle. With the other strategies the validation SELECT still runs
+     * once when the access is created.
+     */
+    public DbConfig withValidation(ValidationStrategy validation) {
+        final PoolConfiguration copyConf = PoolPropertiesEx.copy(this.pp);
+        PoolPropertiesEx.applyValidation(copyConf, validation);
+        return new DbConfig(
+                this.id,
+                copyConf,
+                this.queryTimeout,
+                this.fetchSize,
+                this.connectionProvider,
+                validation,
+                this.warmUp);
+    }
+
+    ValidationStrategy getValidation() {
+        return validation;
+    }
+
+    /**
+     * Keeps up to {@code maxPerConnection} prepared statements open on every connection of the Tomcat pool, keyed by
+     * SQL text and least recently used evicted, so repeated statements skip the prepare; parse-heavy databases such as
+     * Oracle gain the most. Hits, misses and evictions are in {@link DbMetrics#getStatementCache()}. 0, the default,
+     * caches nothing. A driver's own cache (e.g. pgjdbc's {@code preparedStatementCacheQueries}) is configured in the
+     * URL.
+     *
+     * <p>Every cached statement holds a cursor or a server-side plan, so keep {@code maxPerConnection} times
+     * {@code maxActive} within what the database allows per session and in total (Oracle's {@code open_cursors}).
+     */
+    public DbConfig withStatementCache(int maxPerConnection) {
+        if (maxPerConnection < 0) {
+            throw new IllegalArgumentException("Statement cache size should not be negative: " + maxPerConnection);
+        }
+        final PoolConfiguration copyConf = PoolPropertiesEx.copy(this.pp);
+        PoolPropertiesEx.statementCacheSize(copyConf, maxPerConnection);
+        return new DbConfig(
+                this.id,
+                copyConf,
+                this.queryTimeout,
+                this.fetchSize,
+                this.connectionProvider,
+                this.validation,
+                this.warmUp);
+    }
+
+    /**
+     * Opens connections in parallel and prepares statements on them before the access is returned, see
+     * {@link WarmUp}. The pool keeps them: its {@code minIdle} and {@code maxIdle} are raised to the count, up to
+     * {@code maxActive}. {@code null}, the default, opens connections lazily, one per concurrent call.
+     */
+    public DbConfig withWarmUp(WarmUp warmUp) {
+        final PoolConfiguration copyConf = PoolPropertiesEx.copy(this.pp);
+        if (warmUp != null) {
+            final int keep = Math.min(warmUp.getConnections(), copyConf.getMaxActive());
+            copyConf.setMinIdle(Math.max(copyConf.getMinIdle(), keep));
+            copyConf.setMaxIdle(Math.max(copyConf.getMaxIdle(), keep));
+        }
+        return new DbConfig(
+                this.id,
+                copyConf,
+                this.queryTimeout,
+                this.fetchSize,
+                this.connectionProvider,
+                this.validation,
+                warmUp);
+    }
+
+    WarmUp getWarmUp() {
+        return warmUp;
     }
 
     @Override
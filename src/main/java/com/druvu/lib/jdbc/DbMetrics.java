@@ -0,0 +1,158 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.MeteredDataSource;
+import com.druvu.lib.jdbc.internal.QueryTimer;
+import com.druvu.lib.jdbc.internal.SqlFingerprint;
+import com.druvu.lib.jdbc.internal.StatementRecorder;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Always-on statement metrics of one {@link DbAccess}, keyed by statement fingerprint (see
+ * {@link StatementStats#getFingerprint()}).
+ *
+ * <p>Recording is lock-free and allocation-light, so it stays enabled in production. At most {@link #MAX_STATEMENTS}
+ * distinct fingerprints are tracked; statements beyond that are accounted under {@link #OTHER}.
+ *
+ * <pre>{@code
+ * db.metrics().getStatement("SELECT * FROM users WHERE id = ?")
+ *     .ifPresent(stats -> log.info("p99 {}ns", stats.getTotal().getPercentileNanos(99)));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class DbMetrics {
+
+    public static final int MAX_STATEMENTS = 1000;
+    public static final String OTHER = "<other>";
+
+    // for DbAccessDirect implementations that do not collect metrics
+    static final DbMetrics NONE = new DbMetrics("NONE");
+
+    private final String id;
+    private final Map<String, StatementRecorder> statements = new ConcurrentHashMap<>();
+    private volatile Pool pool;
+    private volatile Runnable connectionFailed;
+    private volatile WarmUpReport warmUp;
+    private volatile StatementCacheStats statementCacheBaseline = StatementCacheStats.of(0, 0, 0, 0);
+
+    DbMetrics(String id) {
+        this.id = Objects.requireNonNull(id);
+    }
+
+    /** Identifier of the database the metrics belong to. */
+    public String getId() {
+        return id;
+    }
+
+    /** Snapshot of all tracked statements, the most expensive (by total time) first. */
+    public List<StatementStats> getStatements() {
+        return statements.values().stream()
+                .map(StatementStats::new)
+                .sorted(Comparator.comparingLong(
+                                (StatementStats stats) -> stats.getTotal().getTotalNanos())
+                        .reversed())
+                .toList();
+    }
+
+    /**
+     * Snapshot of one statement.
+     *
+     * @param sql raw query text or its fingerprint
+     * @return the statement metrics, or empty when the statement was not executed since start or the last reset
+     */
+    public Optional<StatementStats> getStatement(String sql) {
+        return Optional.ofNullable(statements.get(SqlFingerprint.of(sql))).map(StatementStats::new);
+    }
+
+    /**
+     * Borrow latency, waiting threads and connection gauges of the access's pool.
+     *
+     * @return the pool statistics, or empty for accesses without a pool of their own (e.g. a {@link VoidDbAccess})
+     */
+    public Optional<PoolStats> getPool() {
+        final Pool current = pool;
+        if (current == null) {
+            return Optional.empty();
+        }
+        final ConnectionPool connections = current.connections();
+        final MeteredDataSource metered = current.metered();
+        final int waiting = connections.getWaiting();
+        return Optional.of(new PoolStats(
+                connections.getActive(),
+                connections.getIdle(),
+                connections.getMaxActive(),
+                waiting >= 0 ? waiting : metered.borrowing(),
+                metered.peakBorrowing(),
+                metered.failures(),
+                new LatencySnapshot(metered.latency())));
+    }
+
+    /**
+     * Hits, misses and evictions of the pool's prepared statement cache, see {@link DbConfig#withStatementCache(int)}.
+     *
+     * @return the cache statistics, or empty when the pool caches no statements or does not report it
+     */
+    public Optional<StatementCacheStats> getStatementCache() {
+        final Pool current = pool;
+        if (current == null) {
+            return Optional.empty();
+        }
+        final StatementCacheStats baseline = statementCacheBaseline;
+        return current.connections().getStatementCache().map(stats -> stats.since(baseline));
+    }
+
+    /**
+     * What the {@link WarmUp} did when the access was created.
+     *
+     * @return the warm-up outcome, or empty when the access was created without one
+     */
+    public Optional<WarmUpReport> getWarmUp() {
+        return Optional.ofNullable(warmUp);
+    }
+
+    /** Clears the statement metrics, the pool's borrow counts and statement cache counts; the warm-up report stays. */
+    public void reset() {
+        statements.clear();
+        final Pool current = pool;
+        if (current != null) {
+            current.metered().reset();
+            current.connections().getStatementCache().ifPresent(stats -> statementCacheBaseline = stats);
+        }
+    }
+
+    void attach(ConnectionPool connections, MeteredDataSource metered) {
+        this.pool = new Pool(connections, metered);
+        this.connectionFailed = connections::connectionFailed;
+    }
+
+    void warmedUp(WarmUpReport report) {
+        this.warmUp = report;
+    }
+
+    QueryTimer start(String sql) {
+        return new QueryTimer(recorder(SqlFingerprint.of(sql)), connectionFailed);
+    }
+
+    private StatementRecorder recorder(String fingerprint) {
+        final StatementRecorder recorder = statements.get(fingerprint);
+        if (recorder != null) {
+            return recorder;
+        }
+        if (statements.size() >= MAX_STATEMENTS) {
+            return statements.computeIfAbsent(OTHER, StatementRecorder::new);
+        }
+        return statements.computeIfAbsent(fingerprint, StatementRecorder::new);
+    }
+
+    private record Pool(ConnectionPool connections, MeteredDataSource metered) {}
+
+    @Override
+    public String toString() {
+        return "DbMetrics[" + id + ", statements=" + statements.size() + "]";
+    }
+}
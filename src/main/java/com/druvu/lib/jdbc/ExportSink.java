@@ -0,0 +1,265 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.DirectBuffers;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output side of a {@link ResultExport}: bytes are encoded into a pooled direct buffer and written to the channel
+ * whenever it fills up, optionally through a gzip deflater fed straight from that buffer, one block per buffer.
+ *
+ * <p>Text is UTF-8 encoded by hand, so writing a string or a number allocates nothing. Not thread-safe; call
+ * {@link #finish()} once after the last byte and {@link #release()} always.
+ *
+ * @author Deniss Larka
+ */
+final class ExportSink {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] NO_INPUT = new byte[0];
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer;
+    private ByteBuffer compressed;
+    private final Deflater deflater;
+    private final CRC32 crc;
+    private final byte[] digits = new byte[20];
+    private long bytes;
+    private long written;
+
+    ExportSink(WritableByteChannel channel, int bufferSize, boolean gzip) {
+        this.channel = channel;
+        this.buffer = DirectBuffers.acquire(bufferSize);
+        if (gzip) {
+            this.compressed = DirectBuffers.acquire(bufferSize);
+            // exports favour throughput over ratio
+            this.deflater = new Deflater(Deflater.BEST_SPEED, true);
+            this.crc = new CRC32();
+            compressed.put(GZIP_HEADER);
+        } else {
+            this.deflater = null;
+            this.crc = null;
+        }
+    }
+
+    /** Uncompressed bytes produced so far. */
+    long bytes() {
+        return bytes + buffer.position();
+    }
+
+    /** Bytes handed to the channel, compressed when gzip is on. */
+    long written() {
+        return written;
+    }
+
+    void put(byte value) {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(value);
+    }
+
+    void put(char ascii) {
+        put((byte) ascii);
+    }
+
+    void putInt(int value) {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putDouble(double value) {
+        ensure(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    void put(byte[] values) {
+        int offset = 0;
+        while (offset < values.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            final int length = Math.min(buffer.remaining(), values.length - offset);
+            buffer.put(values, offset, length);
+            offset += length;
+        }
+    }
+
+    /** Characters below 128 only, one byte each. */
+    void putAscii(String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            put((byte) ascii.charAt(i));
+        }
+    }
+
+    /** Decimal digits without going through a {@code String}. */
+    void putDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            put(MIN_LONG);
+            return;
+        }
+        long rest = Math.abs(value);
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        ensure(digits.length - start + 1);
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        buffer.put(digits, start, digits.length - start);
+    }
+
+    void putUtf8(String text) {
+        for (int i = 0; i < text.length(); ) {
+            i = putChar(text, i);
+        }
+    }
+
+    /**
+     * Encodes the character at {@code index}, together with its low surrogate when it is a high one.
+     *
+     * @return the index of the next character
+     */
+    int putChar(String text, int index) {
+        final char c = text.charAt(index);
+        if (c < 0x80) {
+            put((byte) c);
+            return index + 1;
+        }
+        ensure(4);
+        if (c < 0x800) {
+            buffer.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+        } else if (Character.isHighSurrogate(c)
+                && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            final int code = Character.toCodePoint(c, text.charAt(index + 1));
+            buffer.put((byte) (0xf0 | code >> 18))
+                    .put((byte) (0x80 | code >> 12 & 0x3f))
+                    .put((byte) (0x80 | code >> 6 & 0x3f))
+                    .put((byte) (0x80 | code & 0x3f));
+            return index + 2;
+        } else if (Character.isSurrogate(c)) {
+            // unpaired surrogate, as String.getBytes(UTF_8) does
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+        }
+        return index + 1;
+    }
+
+    /** Length of {@link #putUtf8(String)}'s output, for length prefixes. */
+    static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    void finish() {
+        flush();
+        if (deflater != null) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            // trailer: CRC-32 and uncompressed size modulo 2^32, little-endian
+            ensureCompressed(8);
+            compressed.order(ByteOrder.LITTLE_ENDIAN);
+            compressed.putInt((int) crc.getValue()).putInt((int) bytes);
+            compressed.order(ByteOrder.BIG_ENDIAN);
+            drain();
+        }
+    }
+
+    void release() {
+        if (deflater != null) {
+            deflater.end();
+        }
+        DirectBuffers.release(buffer);
+        DirectBuffers.release(compressed);
+        buffer = null;
+        compressed = null;
+    }
+
+    private void ensure(int length) {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        buffer.flip();
+        bytes += buffer.remaining();
+        if (deflater == null) {
+            write(buffer);
+        } else {
+            crc.update(buffer);
+            buffer.rewind();
+            deflater.setInput(buffer);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+            // the deflater keeps a reference to its input, which is about to be cleared and refilled
+            deflater.setInput(NO_INPUT);
+        }
+        buffer.clear();
+    }
+
+    private void deflate() {
+        if (!compressed.hasRemaining()) {
+            drain();
+        }
+        deflater.deflate(compressed, Deflater.NO_FLUSH);
+    }
+
+    private void ensureCompressed(int length) {
+        if (compressed.remaining() < length) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        compressed.flip();
+        write(compressed);
+        compressed.clear();
+    }
+
+    private void write(ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                written += channel.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export write failed", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one {@link ResultExport}: rows and bytes written and how long it took, query included.
+ *
+ * @author Deniss Larka
+ */
+public final class ExportStats {
+
+    private final long rows;
+    private final long bytes;
+    private final long bytesWritten;
+    private final long nanos;
+
+    ExportStats(long rows, long bytes, long bytesWritten, long nanos) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.bytesWritten = bytesWritten;
+        this.nanos = nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /** Encoded size before compression. */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /** Bytes written to the output: equal to {@link #getBytes()} without compression, the compressed size with it. */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(nanos);
+    }
+
+    public double getRowsPerSecond() {
+        return perSecond(rows);
+    }
+
+    /** Uncompressed throughput. */
+    public double getBytesPerSecond() {
+        return perSecond(bytes);
+    }
+
+    private double perSecond(long count) {
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportStats[rows=" + rows + ", bytes=" + bytes + ", bytesWritten=" + bytesWritten + ", elapsed="
+                + getElapsed() + ", " + Math.round(getRowsPerSecond()) + " rows/s]";
+    }
+}
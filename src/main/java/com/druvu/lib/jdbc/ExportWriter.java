@@ -0,0 +1,434 @@
+package com.druvu.lib.jdbc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Base64;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Writes the rows of a result set in one {@link ResultExport.Format}, reading every column with its typed getter.
+ *
+ * @author Deniss Larka
+ */
+abstract sealed class ExportWriter implements ResultSetExtractor<Long> {
+
+    /** How a column is read and written; the ordinal plus one is the type code of the binary format. */
+    enum Kind {
+        LONG,
+        DOUBLE,
+        DECIMAL,
+        BOOLEAN,
+        STRING,
+        BYTES,
+        OBJECT
+    }
+
+    final ExportSink sink;
+    String[] labels;
+    Kind[] kinds;
+
+    ExportWriter(ExportSink sink) {
+        this.sink = sink;
+    }
+
+    static ExportWriter of(ResultExport export, ExportSink sink) {
+        return switch (export.getFormat()) {
+            case CSV -> new Csv(sink, export.getDelimiter(), export.isHeader());
+            case NDJSON -> new Ndjson(sink);
+            case BINARY -> new Binary(sink);
+        };
+    }
+
+    @Override
+    public Long extractData(ResultSet rs) throws SQLException {
+        final ResultSetMetaData metaData = rs.getMetaData();
+        final int columns = metaData.getColumnCount();
+        labels = new String[columns];
+        kinds = new Kind[columns];
+        for (int i = 0; i < columns; i++) {
+            labels[i] = JdbcUtils.lookupColumnName(metaData, i + 1);
+            kinds[i] = kindOf(metaData.getColumnType(i + 1));
+        }
+        begin();
+        long rows = 0;
+        while (rs.next()) {
+            row(rs);
+            rows++;
+        }
+        sink.finish();
+        return rows;
+    }
+
+    abstract void begin();
+
+    abstract void row(ResultSet rs) throws SQLException;
+
+    private static Kind kindOf(int sqlType) {
+        return switch (sqlType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> Kind.LONG;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> Kind.DOUBLE;
+            case Types.DECIMAL, Types.NUMERIC -> Kind.DECIMAL;
+            case Types.BOOLEAN, Types.BIT -> Kind.BOOLEAN;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                    Types.CLOB, Types.NCLOB -> Kind.STRING;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> Kind.BYTES;
+            default -> Kind.OBJECT;
+        };
+    }
+
+    /** Dates and times in ISO-8601 rather than the {@code java.sql} formats, anything else by {@code toString}. */
+    static String text(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Time time) {
+            return time.toLocalTime().toString();
+        }
+        return value.toString();
+    }
+
+    /** RFC 4180: fields holding the delimiter, a quote or a line break are quoted, quotes doubled; NULL is empty. */
+    static final class Csv extends ExportWriter {
+        private final char delimiter;
+        private final boolean header;
+
+        Csv(ExportSink sink, char delimiter, boolean header) {
+            super(sink);
+            this.delimiter = delimiter;
+            this.header = header;
+        }
+
+        @Override
+        void begin() {
+            if (header && labels.length > 0) {
+                for (int i = 0; i < labels.length; i++) {
+                    if (i > 0) {
+                        sink.put(delimiter);
+                    }
+                    putText(labels[i]);
+                }
+                sink.put('\n');
+            }
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException {
+            for (int i = 0; i < kinds.length; i++) {
+                if (i > 0) {
+                    sink.put(delimiter);
+                }
+                final int column = i + 1;
+                switch (kinds[i]) {
+                    case LONG -> {
+                        final long value = rs.getLong(column);
+                        if (!rs.wasNull()) {
+                            sink.putDecimal(value);
+                        }
+                    }
+                    case DOUBLE -> {
+                        final double value = rs.getDouble(column);
+                        if (!rs.wasNull()) {
+                            sink.putAscii(Double.toString(value));
+                        }
+                    }
+                    case DECIMAL -> {
+                        final BigDecimal value = rs.getBigDecimal(column);
+                        if (value != null) {
+                            sink.putAscii(value.toPlainString());
+                        }
+                    }
+                    case BOOLEAN -> {
+                        final boolean value = rs.getBoolean(column);
+                        if (!rs.wasNull()) {
+                            sink.putAscii(value ? "true" : "false");
+                        }
+                    }
+                    case STRING -> {
+                        final String value = rs.getString(column);
+                        if (value != null) {
+                            putText(value);
+                        }
+                    }
+                    case BYTES -> {
+                        final byte[] value = rs.getBytes(column);
+                        if (value != null) {
+                            sink.put(Base64.getEncoder().encode(value));
+                        }
+                    }
+                    case OBJECT -> {
+                        final Object value = JdbcUtils.getResultSetValue(rs, column);
+                        if (value != null) {
+                            putText(text(value));
+                        }
+                    }
+                }
+            }
+            sink.put('\n');
+        }
+
+        private void putText(String value) {
+            if (!needsQuotes(value)) {
+                sink.putUtf8(value);
+                return;
+            }
+            sink.put('"');
+            for (int i = 0; i < value.length(); ) {
+                if (value.charAt(i) == '"') {
+                    sink.put('"');
+                }
+                i = sink.putChar(value, i);
+            }
+            sink.put('"');
+        }
+
+        private boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** One JSON object per line, keyed by column label; NULL is {@code null}, non-finite doubles too. */
+    static final class Ndjson extends ExportWriter {
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+        // "label": per column, encoded once
+        private byte[][] keys;
+
+        Ndjson(ExportSink sink) {
+            super(sink);
+        }
+
+        @Override
+        void begin() {
+            // no header line: every row carries its keys
+            keys = new byte[labels.length][];
+            for (int i = 0; i < labels.length; i++) {
+                final StringBuilder key = new StringBuilder("\"");
+                for (char c : labels[i].toCharArray()) {
+                    if (c == '"' || c == '\\') {
+                        key.append('\\');
+                    }
+                    key.append(c);
+                }
+                keys[i] = key.append("\":").toString().getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException {
+            sink.put('{');
+            for (int i = 0; i < kinds.length; i++) {
+                if (i > 0) {
+                    sink.put(',');
+                }
+                sink.put(keys[i]);
+                final int column = i + 1;
+                switch (kinds[i]) {
+                    case LONG -> {
+                        final long value = rs.getLong(column);
+                        if (rs.wasNull()) {
+                            putNull();
+                        } else {
+                            sink.putDecimal(value);
+                        }
+                    }
+                    case DOUBLE -> {
+                        final double value = rs.getDouble(column);
+                        if (rs.wasNull() || !Double.isFinite(value)) {
+                            putNull();
+                        } else {
+                            sink.putAscii(Double.toString(value));
+                        }
+                    }
+                    case DECIMAL -> {
+                        final BigDecimal value = rs.getBigDecimal(column);
+                        if (value == null) {
+                            putNull();
+                        } else {
+                            sink.putAscii(value.toPlainString());
+                        }
+                    }
+                    case BOOLEAN -> {
+                        final boolean value = rs.getBoolean(column);
+                        if (rs.wasNull()) {
+                            putNull();
+                        } else {
+                            sink.putAscii(value ? "true" : "false");
+                        }
+                    }
+                    case STRING -> putString(rs.getString(column));
+                    case BYTES -> {
+                        final byte[] value = rs.getBytes(column);
+                        if (value == null) {
+                            putNull();
+                        } else {
+                            sink.put('"');
+                            sink.put(Base64.getEncoder().encode(value));
+                            sink.put('"');
+                        }
+                    }
+                    case OBJECT -> {
+                        final Object value = JdbcUtils.getResultSetValue(rs, column);
+                        putString(value == null ? null : text(value));
+                    }
+                }
+            }
+            sink.put('}');
+            sink.put('\n');
+        }
+
+        private void putNull() {
+            sink.putAscii("null");
+        }
+
+        private void putString(String value) {
+            if (value == null) {
+                putNull();
+                return;
+            }
+            sink.put('"');
+            for (int i = 0; i < value.length(); ) {
+                final char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    sink.put('\\');
+                    sink.put(c);
+                    i++;
+                } else if (c < 0x20) {
+                    putControl(c);
+                    i++;
+                } else {
+                    i = sink.putChar(value, i);
+                }
+            }
+            sink.put('"');
+        }
+
+        private void putControl(char c) {
+            switch (c) {
+                case '\n' -> sink.putAscii("\\n");
+                case '\r' -> sink.putAscii("\\r");
+                case '\t' -> sink.putAscii("\\t");
+                default -> {
+                    sink.putAscii("\\u00");
+                    sink.put(HEX[c >> 4]);
+                    sink.put(HEX[c & 0xf]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Length-prefixed binary, all numbers big-endian. Header: column count ({@code int32}), then per column its type
+     * code ({@code int8}, {@link Kind} ordinal plus one) and label. Then rows until the end of the stream, each a null
+     * bitmap of {@code ceil(columns / 8)} bytes (bit {@code i % 8} of byte {@code i / 8} set for a NULL column
+     * {@code i}) followed by the non-NULL values: {@code int64} for LONG, IEEE {@code float64} for DOUBLE, one byte for
+     * BOOLEAN, and for everything else an {@code int32} length plus that many bytes, UTF-8 text (DECIMAL as plain
+     * digits) or raw BYTES.
+     */
+    static final class Binary extends ExportWriter {
+        private byte[] nulls;
+        // the bitmap precedes the values, so a row is read into these first: primitives as raw bits, the rest as
+        // String, BigDecimal or byte[]
+        private long[] bits;
+        private Object[] references;
+
+        Binary(ExportSink sink) {
+            super(sink);
+        }
+
+        @Override
+        void begin() {
+            nulls = new byte[(kinds.length + 7) / 8];
+            bits = new long[kinds.length];
+            references = new Object[kinds.length];
+            sink.putInt(kinds.length);
+            for (int i = 0; i < kinds.length; i++) {
+                sink.put((byte) (kinds[i].ordinal() + 1));
+                putString(labels[i]);
+            }
+        }
+
+        @Override
+        void row(ResultSet rs) throws SQLException {
+            Arrays.fill(nulls, (byte) 0);
+            for (int i = 0; i < kinds.length; i++) {
+                final int column = i + 1;
+                boolean isNull;
+                switch (kinds[i]) {
+                    case LONG -> {
+                        bits[i] = rs.getLong(column);
+                        isNull = rs.wasNull();
+                    }
+                    case DOUBLE -> {
+                        bits[i] = Double.doubleToRawLongBits(rs.getDouble(column));
+                        isNull = rs.wasNull();
+                    }
+                    case BOOLEAN -> {
+                        bits[i] = rs.getBoolean(column) ? 1 : 0;
+                        isNull = rs.wasNull();
+                    }
+                    case DECIMAL -> {
+                        final BigDecimal value = rs.getBigDecimal(column);
+                        references[i] = value == null ? null : value.toPlainString();
+                        isNull = value == null;
+                    }
+                    case STRING -> {
+                        references[i] = rs.getString(column);
+                        isNull = references[i] == null;
+                    }
+                    case BYTES -> {
+                        references[i] = rs.getBytes(column);
+                        isNull = references[i] == null;
+                    }
+                    case OBJECT -> {
+                        final Object value = JdbcUtils.getResultSetValue(rs, column);
+                        references[i] = value == null ? null : text(value);
+                        isNull = value == null;
+                    }
+                    default -> throw new IllegalStateException("Unknown column kind " + kinds[i]);
+                }
+                if (isNull) {
+                    nulls[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            sink.put(nulls);
+            for (int i = 0; i < kinds.length; i++) {
+                if ((nulls[i >>> 3] & (1 << (i & 7))) != 0) {
+                    continue;
+                }
+                switch (kinds[i]) {
+                    case LONG, DOUBLE -> sink.putLong(bits[i]);
+                    case BOOLEAN -> sink.put((byte) bits[i]);
+                    case BYTES -> {
+                        final byte[] value = (byte[]) references[i];
+                        sink.putInt(value.length);
+                        sink.put(value);
+                    }
+                    default -> putString((String) references[i]);
+                }
+                references[i] = null;
+            }
+        }
+
+        private void putString(String value) {
+            sink.putInt(ExportSink.utf8Length(value));
+            sink.putUtf8(value);
+        }
+    }
+}
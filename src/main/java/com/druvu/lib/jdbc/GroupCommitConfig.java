@@ -0,0 +1,69 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of a {@link GroupCommitWriter}.
+ *
+ * <pre>{@code
+ * GroupCommitConfig config = GroupCommitConfig.of(Duration.ofMillis(2), 200).withQueueCapacity(50_000);
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class GroupCommitConfig {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private final Duration window;
+    private final int maxBatch;
+    private final int queueCapacity;
+
+    private GroupCommitConfig(Duration window, int maxBatch, int queueCapacity) {
+        if (Objects.requireNonNull(window).isNegative()) {
+            throw new IllegalArgumentException("Window should not be negative: " + window);
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Max batch should be positive: " + maxBatch);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity should be positive: " + queueCapacity);
+        }
+        this.window = window;
+        this.maxBatch = maxBatch;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param window how long after the first write of a transaction others may join it; zero takes only the writes
+     *     already waiting
+     * @param maxBatch most writes in one transaction; a full batch commits without waiting for the window
+     */
+    public static GroupCommitConfig of(Duration window, int maxBatch) {
+        return new GroupCommitConfig(window, maxBatch, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /** Writes waiting for their transaction, beyond which submitting blocks; 10 000 by default. */
+    public GroupCommitConfig withQueueCapacity(int queueCapacity) {
+        return new GroupCommitConfig(window, maxBatch, queueCapacity);
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitConfig[window=" + window + ", maxBatch=" + maxBatch + ", queueCapacity=" + queueCapacity
+                + "]";
+    }
+}
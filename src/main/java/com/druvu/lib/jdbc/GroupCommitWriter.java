@@ -0,0 +1,283 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.QueryTimer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces small writes of many threads into shared transactions, so they pay for one commit, and with it one log
+ * flush on the database, instead of one each.
+ *
+ * <p>Writes queue up and a single writer thread runs them: it takes the first waiting write, lets others join for the
+ * configured window or until the batch is full, and runs them in order in one transaction. While it commits, the next
+ * batch gathers, so the busier the writers the larger the batches. {@link #submit(SqlStatement)} completes its future
+ * with the affected row count once the shared commit is done; {@link #enqueue(SqlStatement)} is fire-and-forget, its
+ * failures are logged and counted. Both block while the queue is full, which slows producers down to what the database
+ * commits.
+ *
+ * <p>One failing write would roll back all the others of its transaction, so a failed batch is retried one write per
+ * transaction: only the failing write fails. A lost or unobtainable connection is no write's fault and would fail
+ * every retry as well, so then the whole batch fails at once. Writes that must commit or fail together belong in one
+ * {@link DbAccess#inTransaction(java.util.function.Function) inTransaction} call, not in a writer; a write is only
+ * durable once its future completed.
+ *
+ * <pre>{@code
+ * try (GroupCommitWriter writer = GroupCommitWriter.of(db, GroupCommitConfig.of(Duration.ofMillis(2), 200))) {
+ *     writer.submit(SimpleSql.fromString("INSERT INTO events (id, payload) VALUES (?, ?)").with(id, payload))
+ *         .thenRunAsync(() -> ack(id));
+ * }
+ * }</pre>
+ *
+ * <p>Futures are completed on a callback executor, the common fork-join pool unless given, never on the writer
+ * thread: a slow or blocking dependent stage cannot hold up the commits of others, nor deadlock by submitting to the
+ * writer and waiting.
+ *
+ * <p>{@link #close()} stops accepting writes and returns when the queued ones are committed.
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+public final class GroupCommitWriter implements AutoCloseable {
+
+    // wakes the writer up on close; everything queued before it is written
+    private static final Write CLOSE = new Write(null, null);
+
+    private final DbAccess delegate;
+    private final GroupCommitConfig config;
+    private final Executor callbacks;
+    private final BlockingQueue<Write> queue;
+    // submitters share it, close takes it alone: no write can queue up behind CLOSE
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private boolean closed;
+
+    private GroupCommitWriter(DbAccess delegate, GroupCommitConfig config, Executor callbacks) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.config = Objects.requireNonNull(config);
+        this.callbacks = Objects.requireNonNull(callbacks);
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.writer = Thread.ofVirtual().name("db-" + delegate.getId() + "-group-commit").start(this::run);
+    }
+
+    public static GroupCommitWriter of(DbAccess delegate, GroupCommitConfig config) {
+        return new GroupCommitWriter(delegate, config, ForkJoinPool.commonPool());
+    }
+
+    /** @param callbacks completes the futures of {@link #submit(SqlStatement)}, and so runs their dependent stages */
+    public static GroupCommitWriter of(DbAccess delegate, GroupCommitConfig config, Executor callbacks) {
+        return new GroupCommitWriter(delegate, config, callbacks);
+    }
+
+    /**
+     * Queues a write, blocking while the queue is full.
+     *
+     * @return completes on the callback executor with the affected row count when the write's transaction committed,
+     *     or exceptionally with its failure
+     * @throws IllegalStateException after {@link #close()}
+     */
+    public CompletableFuture<Integer> submit(SqlStatement<?> update) {
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        put(new Write(Objects.requireNonNull(update), result));
+        return result;
+    }
+
+    /**
+     * Queues a write without waiting for its outcome, blocking while the queue is full. Failures are logged and
+     * counted in {@link #getFailures()}.
+     *
+     * @throws IllegalStateException after {@link #close()}
+     */
+    public void enqueue(SqlStatement<?> update) {
+        put(new Write(Objects.requireNonNull(update), null));
+    }
+
+    /** Writes run since start. */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /** Transactions committed since start; writes per commit is the coalescing achieved. */
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    /** Writes that failed since start. */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /** Writes waiting for their transaction. */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public GroupCommitConfig getConfig() {
+        return config;
+    }
+
+    /** Stops accepting writes and waits until the queued ones are written. */
+    @Override
+    public void close() {
+        closing.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        try {
+            queue.put(CLOSE);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing " + this, e);
+        }
+    }
+
+    private void put(Write write) {
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Group commit writer is closed: " + this);
+            }
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a write", e);
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    private void run() {
+        final List<Write> batch = new ArrayList<>(config.getMaxBatch());
+        boolean last = false;
+        while (!last) {
+            try {
+                last = gather(batch);
+            } catch (InterruptedException e) {
+                // only close ends the writer, queued writes would wait forever otherwise
+                log.warn("DB {} group commit writer interrupted, going on", delegate.getId());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // the next batch: the first write, then whatever joins within the window; true when CLOSE came
+    private boolean gather(List<Write> batch) throws InterruptedException {
+        final Write first = queue.take();
+        if (first == CLOSE) {
+            return true;
+        }
+        batch.add(first);
+        final long deadline = System.nanoTime() + config.getWindow().toNanos();
+        while (batch.size() < config.getMaxBatch()) {
+            final long remaining = deadline - System.nanoTime();
+            final Write next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return false;
+            }
+            if (next == CLOSE) {
+                return true;
+            }
+            batch.add(next);
+        }
+        return false;
+    }
+
+    private void write(List<Write> batch) {
+        // cancelled while queued: never touch the database
+        final List<Write> live = batch.stream().filter(Write::isLive).toList();
+        if (live.isEmpty()) {
+            return;
+        }
+        final Integer[] rows = new Integer[live.size()];
+        try {
+            delegate.runInTransaction(tx -> {
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = tx.update(live.get(i).update());
+                }
+            });
+        } catch (RuntimeException e) {
+            if (live.size() == 1) {
+                fail(live.get(0), e);
+            } else if (QueryTimer.isConnectionFailure(e)) {
+                log.warn("DB {} group commit of {} writes failed: {}", delegate.getId(), live.size(), e.toString());
+                live.forEach(write -> fail(write, e));
+            } else {
+                log.warn(
+                        "DB {} group commit of {} writes failed, writing them one by one: {}",
+                        delegate.getId(),
+                        live.size(),
+                        e.toString());
+                live.forEach(this::writeAlone);
+            }
+            return;
+        }
+        commits.increment();
+        writes.add(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            live.get(i).complete(rows[i], callbacks);
+        }
+    }
+
+    private void writeAlone(Write write) {
+        final Integer rows;
+        try {
+            rows = delegate.update(write.update());
+        } catch (RuntimeException e) {
+            fail(write, e);
+            return;
+        }
+        commits.increment();
+        writes.increment();
+        write.complete(rows, callbacks);
+    }
+
+    private void fail(Write write, RuntimeException e) {
+        failures.increment();
+        writes.increment();
+        if (write.result() == null) {
+            log.error("DB {} group commit write failed: {}", delegate.getId(), write.update().getQuery(), e);
+        } else {
+            callbacks.execute(() -> write.result().completeExceptionally(e));
+        }
+    }
+
+    private record Write(SqlStatement<?> update, CompletableFuture<Integer> result) {
+
+        boolean isLive() {
+            return result == null || !result.isDone();
+        }
+
+        void complete(Integer rows, Executor callbacks) {
+            if (result != null) {
+                result.completeAsync(() -> rows, callbacks);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitWriter[" + delegate.getId() + ", " + config + "]";
+    }
+}
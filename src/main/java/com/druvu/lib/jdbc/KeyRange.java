@@ -0,0 +1,11 @@
+package com.druvu.lib.jdbc;
+
+/**
+ * One partition of a {@link PartitionedScan}: keys from {@code from} (inclusive) to {@code to} (exclusive).
+ *
+ * @param index position of the partition, {@code 0} holds the smallest keys
+ * @param from first key of the partition
+ * @param to first key of the next partition
+ * @author Deniss Larka
+ */
+public record KeyRange(int index, long from, long to) {}
@@ -0,0 +1,79 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time copy of a latency histogram. Percentiles are accurate to within about 6% of the reported value.
+ *
+ * @author Deniss Larka
+ */
+public final class LatencySnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    LatencySnapshot(LatencyHistogram histogram) {
+        this.counts = histogram.counts();
+        long sum = 0;
+        for (long bucketCount : counts) {
+            sum += bucketCount;
+        }
+        this.count = sum;
+        this.totalNanos = histogram.total();
+        this.maxNanos = histogram.max();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Returns the latency below which the given share of the recorded calls fall.
+     *
+     * @param percentile percentile in the range 0..100, e.g. {@code 99.9}
+     * @return latency in nanoseconds, or 0 when nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile should be within 0..100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // middle of the bucket, never above the real maximum
+                return Math.min(LatencyHistogram.lowerBound(i) + LatencyHistogram.width(i) / 2, maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + micros(getMeanNanos()) + ", p50=" + micros(getPercentileNanos(50))
+                + ", p99=" + micros(getPercentileNanos(99)) + ", max=" + micros(maxNanos);
+    }
+
+    private static String micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+    }
+}
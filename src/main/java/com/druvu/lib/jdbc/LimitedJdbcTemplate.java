@@ -0,0 +1,230 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.TransactionDeadline;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link JdbcTemplate} applying per-call {@link StatementOptions} to every JDBC statement it creates.
+ *
+ * <p>Spring configures statements in {@link #applyStatementSettings(Statement)} without knowing which call they belong
+ * to, so {@link #limited(StatementOptions, String, Supplier)} binds the limits of the call to the thread for its
+ * duration. A call with a timeout or deadline of its own also arms a watchdog that cancels the statement at the exact
+ * instant; a default timeout only sets {@code setQueryTimeout}. A fetch size of the statement replaces the configured
+ * one, an adaptive fetch starts from its initial size. Calls without any option take a path without thread locals or
+ * timers.
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+final class LimitedJdbcTemplate extends JdbcTemplate {
+
+    private static final Duration LONGEST = Duration.ofDays(365);
+    private static final ScheduledThreadPoolExecutor WATCHDOG = createWatchdog();
+
+    private final ThreadLocal<Limits> current = new ThreadLocal<>();
+    private final long defaultTimeoutNanos;
+
+    /**
+     * @param defaultTimeout timeout of statements without a timeout or deadline of their own, null for none
+     */
+    LimitedJdbcTemplate(DataSource dataSource, Duration defaultTimeout) {
+        super(dataSource);
+        this.defaultTimeoutNanos = defaultTimeout == null ? 0 : nanos(defaultTimeout);
+    }
+
+    /**
+     * Runs one call with the limits of its statement and of the enclosing transaction deadline.
+     *
+     * @throws QueryTimeoutException when the deadline has passed before the call, or the watchdog cancelled it
+     */
+    <R> R limited(StatementOptions options, String sql, Supplier<R> call) {
+        final Instant transactionDeadline = TransactionDeadline.current();
+        final int fetchSize = fetchSize(options);
+        final boolean unlimited = !options.isTimed() && transactionDeadline == null && options.getMaxRows() == 0;
+        if (unlimited && defaultTimeoutNanos == 0 && fetchSize == 0) {
+            return call.get();
+        }
+        final long now = System.nanoTime();
+        long deadline = Long.MAX_VALUE;
+        if (options.getTimeout().isPresent()) {
+            deadline = now + nanos(options.getTimeout().get());
+        }
+        if (options.getDeadline().isPresent()) {
+            deadline = Math.min(deadline, now + untilNanos(options.getDeadline().get()));
+        }
+        if (transactionDeadline != null) {
+            deadline = Math.min(deadline, now + untilNanos(transactionDeadline));
+        }
+        final boolean watched = deadline != Long.MAX_VALUE;
+        if (!watched && defaultTimeoutNanos > 0) {
+            deadline = now + defaultTimeoutNanos;
+        }
+        if (deadline != Long.MAX_VALUE && deadline - now <= 0) {
+            throw new QueryTimeoutException("Deadline passed before execution: " + sql);
+        }
+        final Limits limits = new Limits(deadline, watched, options.getMaxRows(), fetchSize);
+        final Limits outer = current.get();
+        current.set(limits);
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            if (limits.cancelled && !(e instanceof QueryTimeoutException)) {
+                throw new QueryTimeoutException("Statement cancelled at its deadline: " + sql, e);
+            }
+            throw e;
+        } finally {
+            limits.disarm();
+            if (outer == null) {
+                current.remove();
+            } else {
+                current.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Applies the limits of a statement created outside of Spring's callbacks, such as a lazy stream's cursor, which
+     * outlives the call: fetch size, {@code setQueryTimeout} and {@code setMaxRows}, no watchdog.
+     */
+    void applyLimits(Statement statement, StatementOptions options) throws SQLException {
+        final int fetchSize = fetchSize(options);
+        if (fetchSize > 0 || getFetchSize() > 0) {
+            statement.setFetchSize(fetchSize > 0 ? fetchSize : getFetchSize());
+        }
+        long remaining = defaultTimeoutNanos > 0 ? defaultTimeoutNanos : Long.MAX_VALUE;
+        if (options.isTimed()) {
+            remaining = Long.MAX_VALUE;
+            if (options.getTimeout().isPresent()) {
+                remaining = nanos(options.getTimeout().get());
+            }
+            if (options.getDeadline().isPresent()) {
+                remaining = Math.min(remaining, untilNanos(options.getDeadline().get()));
+            }
+        }
+        final Instant transactionDeadline = TransactionDeadline.current();
+        if (transactionDeadline != null) {
+            remaining = Math.min(remaining, untilNanos(transactionDeadline));
+        }
+        if (remaining != Long.MAX_VALUE) {
+            applyTimeout(statement, remaining);
+        }
+        if (options.getMaxRows() > 0) {
+            statement.setMaxRows(options.getMaxRows());
+        }
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement statement) throws SQLException {
+        // fetch size and the timeout of a Spring-managed transaction
+        super.applyStatementSettings(statement);
+        final Limits limits = current.get();
+        if (limits == null) {
+            return;
+        }
+        if (limits.fetchSize > 0) {
+            statement.setFetchSize(limits.fetchSize);
+        }
+        final long remaining = limits.deadline - System.nanoTime();
+        if (limits.deadline != Long.MAX_VALUE) {
+            applyTimeout(statement, remaining);
+            if (limits.watched) {
+                limits.arm(statement, remaining);
+            }
+        }
+        if (limits.maxRows > 0) {
+            statement.setMaxRows(limits.maxRows);
+        }
+    }
+
+    private static void applyTimeout(Statement statement, long remainingNanos) throws SQLException {
+        if (remainingNanos <= 0) {
+            // translated to QueryTimeoutException by Spring
+            throw new SQLTimeoutException("Deadline passed before execution");
+        }
+        final int seconds = (int) Math.min(Integer.MAX_VALUE, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+        final int configured = statement.getQueryTimeout();
+        if (configured == 0 || seconds < configured) {
+            statement.setQueryTimeout(seconds);
+        }
+    }
+
+    // fetch size of the statement itself, 0 for the configured one
+    private static int fetchSize(StatementOptions options) {
+        if (options.getFetchSize() > 0) {
+            return options.getFetchSize();
+        }
+        return options.getAdaptiveFetch().map(AdaptiveFetch::getInitial).orElse(0);
+    }
+
+    private static long untilNanos(Instant instant) {
+        return nanos(Duration.between(Instant.now(), instant));
+    }
+
+    // capped, so that adding it to System.nanoTime() cannot overflow
+    private static long nanos(Duration duration) {
+        return duration.compareTo(LONGEST) > 0 ? LONGEST.toNanos() : duration.toNanos();
+    }
+
+    private static ScheduledThreadPoolExecutor createWatchdog() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "druvu-jdbc-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // disarmed watchdogs are the common case, do not let them pile up in the queue
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    // limits of one call, bound to the calling thread
+    private static final class Limits {
+
+        private final long deadline;
+        private final boolean watched;
+        private final int maxRows;
+        private final int fetchSize;
+        private final List<ScheduledFuture<?>> watchdogs = new ArrayList<>(1);
+        private volatile boolean cancelled;
+
+        private Limits(long deadline, boolean watched, int maxRows, int fetchSize) {
+            this.deadline = deadline;
+            this.watched = watched;
+            this.maxRows = maxRows;
+            this.fetchSize = fetchSize;
+        }
+
+        void arm(Statement statement, long delayNanos) {
+            watchdogs.add(WATCHDOG.schedule(() -> cancel(statement), delayNanos, TimeUnit.NANOSECONDS));
+        }
+
+        void disarm() {
+            for (ScheduledFuture<?> watchdog : watchdogs) {
+                watchdog.cancel(false);
+            }
+        }
+
+        private void cancel(Statement statement) {
+            cancelled = true;
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // already closed, or the driver cannot cancel: setQueryTimeout remains the backstop
+                log.debug("Statement cancel failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.Parallel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+/**
+ * Streams a large table in key ranges, each range on its own connection, several ranges in parallel.
+ *
+ * <p>The template turns a {@link KeyRange} into a statement filtering by that range, typically
+ * {@code key >= ? AND key < ?} with an {@code ORDER BY key} when rows must arrive in key order. The key space is split
+ * either evenly between a minimum and a maximum (given, or read by a {@code SELECT MIN(key), MAX(key)} query at start)
+ * or at caller-supplied boundaries, which suit skewed keys better. Rows with keys outside the scanned space (inserted
+ * beyond the maximum after it was read, or {@code NULL}) are not scanned.
+ *
+ * <p>Rows of one partition are delivered in statement order by a single thread. {@link #run(Consumer)} shares one
+ * consumer between all partitions, so it must be thread-safe; {@link #runPartitioned(Function)} creates a consumer per
+ * partition, e.g. one output file each.
+ *
+ * <p>A partition failing with a connectivity or transient error is retried up to {@link #withRetries(int)} times,
+ * without restarting the others. A retry delivers the partition's rows again: per-partition consumers are recreated for
+ * every attempt and can start over, a shared consumer sees the rows twice. Any other failure cancels the scan.
+ *
+ * <pre>{@code
+ * long rows = PartitionedScan.of(db, range -> SimpleSql.query(
+ *                 "SELECT * FROM events WHERE id >= ? AND id < ? ORDER BY id", EVENT).with(range.from(), range.to()))
+ *         .withKeyRange("SELECT MIN(id), MAX(id) FROM events")
+ *         .withPartitions(64)
+ *         .withParallelism(8)
+ *         .withRetries(2)
+ *         .runPartitioned(range -> new EventFileWriter("events-" + range.index() + ".csv"));
+ * }</pre>
+ *
+ * @param <T> the row type
+ * @author Deniss Larka
+ */
+@Slf4j
+public final class PartitionedScan<T> {
+
+    public static final int DEFAULT_PARTITIONS = 16;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final DbAccessDirect db;
+    private final Function<KeyRange, SqlStatement<T>> template;
+    // partitions -> boundaries
+    private final IntFunction<long[]> keySpace;
+    private final int partitions;
+    private final int parallelism;
+    private final int retries;
+
+    private PartitionedScan(
+            DbAccessDirect db,
+            Function<KeyRange, SqlStatement<T>> template,
+            IntFunction<long[]> keySpace,
+            int partitions,
+            int parallelism,
+            int retries) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partitions should be positive: " + partitions);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive: " + parallelism);
+        }
+        if (retries < 0) {
+            throw new IllegalArgumentException("Retries should not be negative: " + retries);
+        }
+        this.db = Objects.requireNonNull(db);
+        this.template = Objects.requireNonNull(template);
+        this.keySpace = keySpace;
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.retries = retries;
+    }
+
+    /**
+     * @param db where to scan; every partition borrows its own connection
+     * @param template statement selecting the rows of one key range
+     */
+    public static <T> PartitionedScan<T> of(DbAccessDirect db, Function<KeyRange, SqlStatement<T>> template) {
+        return new PartitionedScan<>(db, template, null, DEFAULT_PARTITIONS, DEFAULT_PARALLELISM, 0);
+    }
+
+    /** Splits the keys from {@code min} to {@code max} (both inclusive) into {@link #withPartitions(int)} ranges. */
+    public PartitionedScan<T> withKeyRange(long min, long max) {
+        // fail here rather than at run time
+        split(min, max, 1);
+        return withKeySpace(n -> split(min, max, n));
+    }
+
+    /**
+     * Reads the key space at the start of every run with a query returning the minimum and the maximum key as its
+     * first two columns, e.g. {@code SELECT MIN(id), MAX(id) FROM events}. An empty table scans nothing.
+     */
+    public PartitionedScan<T> withKeyRange(String minMaxQuery) {
+        Objects.requireNonNull(minMaxQuery);
+        return withKeySpace(n -> queryBoundaries(db, minMaxQuery, n));
+    }
+
+    /**
+     * Splits the key space at the given increasing keys: {@code n} boundaries make {@code n - 1} ranges, the first
+     * starting at {@code boundaries[0]}, the last ending before {@code boundaries[n - 1]}.
+     */
+    public PartitionedScan<T> withBoundaries(long... boundaries) {
+        if (boundaries.length < 2) {
+            throw new IllegalArgumentException("At least two boundaries are required, got " + boundaries.length);
+        }
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] <= boundaries[i - 1]) {
+                throw new IllegalArgumentException("Boundaries should increase: " + boundaries[i - 1] + " then "
+                        + boundaries[i]);
+            }
+        }
+        final long[] copy = boundaries.clone();
+        return withKeySpace(n -> copy.clone());
+    }
+
+    /**
+     * Number of ranges a min/max key space is split into, {@link #DEFAULT_PARTITIONS} by default; fewer when the space
+     * holds fewer keys. Ignored with explicit boundaries.
+     */
+    public PartitionedScan<T> withPartitions(int partitions) {
+        return new PartitionedScan<>(db, template, keySpace, partitions, parallelism, retries);
+    }
+
+    /**
+     * How many partitions are scanned at the same time, i.e. how many connections the scan takes from the pool;
+     * {@link #DEFAULT_PARALLELISM} by default.
+     */
+    public PartitionedScan<T> withParallelism(int parallelism) {
+        return new PartitionedScan<>(db, template, keySpace, partitions, parallelism, retries);
+    }
+
+    /** How many times a partition failing with a connectivity or transient error is scanned again. */
+    public PartitionedScan<T> withRetries(int retries) {
+        return new PartitionedScan<>(db, template, keySpace, partitions, parallelism, retries);
+    }
+
+    /**
+     * Scans all partitions into one thread-safe consumer.
+     *
+     * @return number of rows delivered, not counting failed attempts
+     */
+    public long run(Consumer<? super T> rowConsumer) {
+        Objects.requireNonNull(rowConsumer);
+        return runPartitioned(range -> rowConsumer);
+    }
+
+    /**
+     * Scans every partition into the consumer created for it; the consumer is called by one thread at a time.
+     *
+     * @param consumers creates the consumer of a partition, again for every retry of it
+     * @return number of rows delivered, not counting failed attempts
+     */
+    public long runPartitioned(Function<KeyRange, ? extends Consumer<? super T>> consumers) {
+        Objects.requireNonNull(consumers);
+        final List<Long> rows = Parallel.map(ranges(), range -> scan(range, consumers), parallelism);
+        return rows.stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** The ranges the next run scans; reads the key space when it is given by a query. */
+    public List<KeyRange> ranges() {
+        if (keySpace == null) {
+            throw new IllegalStateException("No key space: call withKeyRange or withBoundaries");
+        }
+        final long[] bounds = keySpace.apply(partitions);
+        final List<KeyRange> ranges = new ArrayList<>(Math.max(0, bounds.length - 1));
+        for (int i = 1; i < bounds.length; i++) {
+            ranges.add(new KeyRange(i - 1, bounds[i - 1], bounds[i]));
+        }
+        return ranges;
+    }
+
+    private long scan(KeyRange range, Function<KeyRange, ? extends Consumer<? super T>> consumers) {
+        for (int attempt = 0; ; attempt++) {
+            final Consumer<? super T> consumer = consumers.apply(range);
+            final long[] rows = {0};
+            try {
+                db.stream(template.apply(range), row -> {
+                    // another partition failed the scan: stop reading, closing the cursor normally
+                    if (Parallel.cancelled()) {
+                        throw new CancellationException("Scan failed in another partition");
+                    }
+                    consumer.accept(row);
+                    rows[0]++;
+                });
+                return rows[0];
+            } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+                if (attempt >= retries || Parallel.cancelled()) {
+                    throw e;
+                }
+                log.warn("Partition {} failed after {} rows, retrying: {}", range, rows[0], e.getMessage());
+            }
+        }
+    }
+
+    private PartitionedScan<T> withKeySpace(IntFunction<long[]> keySpace) {
+        return new PartitionedScan<>(db, template, keySpace, partitions, parallelism, retries);
+    }
+
+    private static long[] queryBoundaries(DbAccessDirect db, String minMaxQuery, int partitions) {
+        final List<long[]> minMax = db.select(SimpleSql.query(minMaxQuery, (rs, rowNum) -> {
+            final long min = rs.getLong(1);
+            // MIN/MAX of an empty table are NULL
+            return rs.wasNull() ? new long[0] : new long[] {min, rs.getLong(2)};
+        }));
+        if (minMax.isEmpty() || minMax.get(0).length == 0) {
+            return new long[0];
+        }
+        return split(minMax.get(0)[0], minMax.get(0)[1], partitions);
+    }
+
+    // even split of [min, max]: the first (count % n) ranges hold one key more
+    private static long[] split(long min, long max, int partitions) {
+        if (min > max) {
+            return new long[0];
+        }
+        final long count;
+        final long end;
+        try {
+            count = Math.addExact(Math.subtractExact(max, min), 1);
+            end = Math.addExact(max, 1);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Key range is too wide: " + min + ".." + max, e);
+        }
+        final int n = (int) Math.min(partitions, count);
+        final long size = count / n;
+        final long larger = count % n;
+        final long[] bounds = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            bounds[i] = min + i * size + Math.min(i, larger);
+        }
+        bounds[n] = end;
+        return bounds;
+    }
+}
@@ -0,0 +1,91 @@
+package com.druvu.lib.jdbc;
+
+/**
+ * Point-in-time view of the connection pool of a {@link DbAccess}, the same for every {@link ConnectionProvider}.
+ *
+ * <p>Borrow latency, failures and waiting threads are measured around {@code DataSource.getConnection}, outside the
+ * pool, so two pools compare under the same load; the connection gauges are whatever the pool reports, -1 when it does
+ * not.
+ *
+ * <pre>{@code
+ * db.metrics().getPool().ifPresent(pool ->
+ *     log.info("borrow p99={}ns waiting={} peak={}", pool.getBorrowLatency().getPercentileNanos(99),
+ *         pool.getWaiting(), pool.getPeakWaiting()));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class PoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int maxActive;
+    private final int waiting;
+    private final int peakWaiting;
+    private final long failures;
+    private final LatencySnapshot borrowLatency;
+
+    PoolStats(
+            int active,
+            int idle,
+            int maxActive,
+            int waiting,
+            int peakWaiting,
+            long failures,
+            LatencySnapshot borrowLatency) {
+        this.active = active;
+        this.idle = idle;
+        this.maxActive = maxActive;
+        this.waiting = waiting;
+        this.peakWaiting = peakWaiting;
+        this.failures = failures;
+        this.borrowLatency = borrowLatency;
+    }
+
+    /** Connections currently borrowed, -1 when the pool does not report it. */
+    public int getActive() {
+        return active;
+    }
+
+    /** Open connections not borrowed, -1 when the pool does not report it. */
+    public int getIdle() {
+        return idle;
+    }
+
+    /** Upper bound of open connections, -1 when the pool does not report it. */
+    public int getMaxActive() {
+        return maxActive;
+    }
+
+    /** Threads waiting for a connection right now. */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /** Most threads waiting for a connection at the same time since start or the last reset. */
+    public int getPeakWaiting() {
+        return peakWaiting;
+    }
+
+    /** Successful borrows since start or the last reset. */
+    public long getBorrows() {
+        return borrowLatency.getCount();
+    }
+
+    /** Borrows that failed, e.g. timed out waiting for a free connection. */
+    public long getFailures() {
+        return failures;
+    }
+
+    /** Time {@code getConnection} took, waiting for a free connection included. */
+    public LatencySnapshot getBorrowLatency() {
+        return borrowLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats[active=" + active + ", idle=" + idle + ", maxActive=" + maxActive + ", waiting=" + waiting
+                + ", peakWaiting=" + peakWaiting + ", borrows=" + getBorrows() + ", failures=" + failures
+                + ", borrowP99=" + borrowLatency.getPercentileNanos(99) + "ns]";
+    }
+}
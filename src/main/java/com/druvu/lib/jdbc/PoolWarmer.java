@@ -0,0 +1,115 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.Parallel;
+import com.druvu.lib.jdbc.util.SqlLoader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+
+/**
+ * Runs a {@link WarmUp} against the data source of a new pool.
+ *
+ * <p>Borrows from the pool's own data source, not the metered one, so warm-up does not show in the borrow statistics.
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+final class PoolWarmer {
+
+    private PoolWarmer() {}
+
+    static WarmUpReport warmUp(String id, ConnectionPool connections, WarmUp warmUp) {
+        final long start = System.nanoTime();
+        final List<String> statements = statements(warmUp);
+        final int maxActive = connections.getMaxActive();
+        final int count = maxActive > 0 ? Math.min(warmUp.getConnections(), maxActive) : warmUp.getConnections();
+        final DataSource dataSource = connections.getDataSource();
+        // every task keeps its connection open, so the pool cannot hand the same one to the next task
+        final List<Warmed> warmed = Parallel.map(
+                IntStream.range(0, count).boxed().toList(), index -> open(id, dataSource, statements), count);
+        int opened = 0;
+        int prepared = 0;
+        int failed = 0;
+        for (Warmed each : warmed) {
+            if (each.connection() != null) {
+                opened++;
+                close(id, each.connection());
+            }
+            prepared += each.prepared();
+            failed += each.failed();
+        }
+        final WarmUpReport report = new WarmUpReport(
+                opened, count - opened, prepared, failed, Duration.ofNanos(System.nanoTime() - start));
+        log.info("DB {} warmed up: {}", id, report);
+        return report;
+    }
+
+    // named parameters become ?, as NamedParameterJdbcTemplate prepares them; duplicates are prepared once
+    private static List<String> statements(WarmUp warmUp) {
+        final Set<String> sql = new LinkedHashSet<>(warmUp.getStatements());
+        for (String dir : warmUp.getSqlDirectories()) {
+            sql.addAll(SqlLoader.loadDirectory(dir).values());
+        }
+        final List<String> result = new ArrayList<>(sql.size());
+        for (String each : sql) {
+            result.add(NamedParameterUtils.substituteNamedParameters(
+                    NamedParameterUtils.parseSqlStatement(each), null));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Warmed open(String id, DataSource dataSource, List<String> statements) {
+        final Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            log.warn("DB {} warm-up could not open a connection: {}", id, e.toString());
+            return new Warmed(null, 0, 0);
+        }
+        int prepared = 0;
+        int failed = 0;
+        for (String sql : statements) {
+            try {
+                connection.prepareStatement(sql).close();
+                prepared++;
+            } catch (SQLException e) {
+                failed++;
+                log.warn("DB {} warm-up could not prepare [{}]: {}", id, sql, e.toString());
+            }
+        }
+        if (failed > 0) {
+            rollback(id, connection);
+        }
+        return new Warmed(connection, prepared, failed);
+    }
+
+    // drivers that prepare on the server may have failed the transaction the pool starts the connection with
+    private static void rollback(String id, Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.warn("DB {} warm-up could not roll back: {}", id, e.toString());
+        }
+    }
+
+    private static void close(String id, Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("DB {} warm-up could not return a connection: {}", id, e.toString());
+        }
+    }
+
+    private record Warmed(Connection connection, int prepared, int failed) {}
+}
@@ -0,0 +1,311 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.Statements;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Sends writes and transactions to the primary and spreads reads over the replicas.
+ *
+ * <p>A replica read failing with a connectivity or transient error is retried once on the primary and counts towards
+ * the replica's ejection; other errors (bad SQL, constraint violations) are the caller's and are rethrown as they are.
+ * Push-based reads ({@code stream} with a consumer, {@code extract}) are only retried when the failure came before the
+ * first row reached the caller's code, so no row is delivered twice. When no replica is in rotation, reads go to the
+ * primary.
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+final class ReadWriteDbAccess implements DbAccess {
+
+    private final DbAccess primary;
+    private final List<Replica> replicas;
+    private final RoutingConfig routing;
+    private final int[] cumulativeWeights;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    ReadWriteDbAccess(DbAccess primary, List<? extends DbAccess> replicas, RoutingConfig routing) {
+        this.primary = Objects.requireNonNull(primary);
+        this.routing = Objects.requireNonNull(routing);
+        checkWeights(routing, replicas.size());
+        final int[] weights = routing.getWeights();
+        this.replicas = new ArrayList<>(replicas.size());
+        this.cumulativeWeights = new int[replicas.size()];
+        int total = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(replicas.get(i)));
+            total += weights.length == 0 ? 1 : weights[i];
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static void checkWeights(RoutingConfig routing, int replicaCount) {
+        final int weights = routing.getWeights().length;
+        if (routing.getStrategy() == RoutingConfig.Strategy.WEIGHTED_ROUND_ROBIN && weights != replicaCount) {
+            throw new IllegalArgumentException(
+                    "Expected " + replicaCount + " weights, one per replica, got " + weights);
+        }
+    }
+
+    @Override
+    public String getId() {
+        return primary.getId();
+    }
+
+    @Override
+    public DbMetrics metrics() {
+        return primary.metrics();
+    }
+
+    // ~~~ reads ~~~
+
+    @Override
+    public <T> List<T> select(SqlStatement<T> select) {
+        return read(db -> db.select(select));
+    }
+
+    @Override
+    public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        final AtomicBoolean delivered = new AtomicBoolean();
+        // the extractor may act on the rows as it reads them
+        return read(
+                db -> db.extract(select, rs -> {
+                    delivered.set(true);
+                    return extractor.extractData(rs);
+                }),
+                delivered);
+    }
+
+    @Override
+    public void selectColumnar(SqlStatement<?> select, int batchRows, Consumer<ColumnarBatch> batchConsumer) {
+        final AtomicBoolean seen = new AtomicBoolean();
+        // a fresh collector per attempt, and no attempt on the primary once a row was collected
+        read(
+                db -> {
+                    final ColumnarCollector collector = new ColumnarCollector(batchRows, batchConsumer);
+                    final RowMapper<Boolean> mapper = (rs, rowNum) -> {
+                        seen.set(true);
+                        return collector.mapRow(rs, rowNum);
+                    };
+                    db.stream(Statements.withMapper(select, mapper), collector);
+                    collector.finish();
+                    return null;
+                },
+                seen);
+    }
+
+    @Override
+    public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+        final AtomicBoolean delivered = new AtomicBoolean();
+        read(
+                db -> {
+                    db.stream(statement, row -> {
+                        delivered.set(true);
+                        rowConsumer.accept(row);
+                    });
+                    return null;
+                },
+                delivered);
+    }
+
+    @Override
+    public <T> Stream<T> stream(SqlStatement<T> statement) {
+        final Replica replica = choose();
+        if (replica == null) {
+            return primary.stream(statement);
+        }
+        // the replica is busy until the stream is released, not just until it is opened
+        replica.outstanding.incrementAndGet();
+        try {
+            return replica.db.stream(statement).onClose(replica.outstanding::decrementAndGet);
+        } catch (RuntimeException e) {
+            replica.outstanding.decrementAndGet();
+            if (!isReplicaFailure(e)) {
+                throw e;
+            }
+            replica.failed(routing);
+            return primary.stream(statement);
+        }
+    }
+
+    // ~~~ writes ~~~
+
+    @Override
+    public Integer update(SqlStatement<?> update) {
+        return write(() -> primary.update(update));
+    }
+
+    @Override
+    public int[] batchUpdate(BatchStatement batch) {
+        return write(() -> primary.batchUpdate(batch));
+    }
+
+    @Override
+    public int[] batchUpdate(List<String> statements) {
+        return write(() -> primary.batchUpdate(statements));
+    }
+
+    @Override
+    public void call(String procedure) {
+        write(() -> {
+            primary.call(procedure);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> List<T> inTransaction(Function<DbAccessDirect, List<T>> statement) {
+        return write(() -> primary.inTransaction(statement));
+    }
+
+    @Override
+    public void runInTransaction(Consumer<DbAccessDirect> action) {
+        write(() -> {
+            primary.runInTransaction(action);
+            return null;
+        });
+    }
+
+    private <R> R write(Supplier<R> call) {
+        try {
+            return call.get();
+        } finally {
+            if (!routing.getReadYourWrites().isZero()) {
+                lastWrite.set(System.nanoTime());
+            }
+        }
+    }
+
+    private <R> R read(Function<DbAccess, R> call) {
+        return read(call, null);
+    }
+
+    // delivered: set once the call handed something to the caller's code, which a retry would repeat
+    private <R> R read(Function<DbAccess, R> call, AtomicBoolean delivered) {
+        final Replica replica = choose();
+        if (replica == null) {
+            return call.apply(primary);
+        }
+        final long start = System.nanoTime();
+        replica.outstanding.incrementAndGet();
+        try {
+            final R result = call.apply(replica.db);
+            replica.succeeded(routing, System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            if (!isReplicaFailure(e)) {
+                throw e;
+            }
+            replica.failed(routing);
+            if (delivered != null && delivered.get()) {
+                log.warn("Read on replica {} failed after delivering rows: {}", replica.db.getId(), e.getMessage());
+                throw e;
+            }
+            log.warn("Read on replica {} failed, retrying on primary: {}", replica.db.getId(), e.getMessage());
+            return call.apply(primary);
+        } finally {
+            replica.outstanding.decrementAndGet();
+        }
+    }
+
+    // null means "use the primary"
+    private Replica choose() {
+        if (replicas.isEmpty() || readsOwnWrites()) {
+            return null;
+        }
+        final long now = System.nanoTime();
+        final long next = sequence.getAndIncrement();
+        if (routing.getStrategy() == RoutingConfig.Strategy.WEIGHTED_ROUND_ROBIN) {
+            final int slot = (int) Math.floorMod(next, (long) cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = 0;
+            while (cumulativeWeights[index] <= slot) {
+                index++;
+            }
+            // the slot's replica, or the next one in rotation when it is ejected
+            for (int i = 0; i < replicas.size(); i++) {
+                final Replica candidate = replicas.get((index + i) % replicas.size());
+                if (candidate.available(now)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+        Replica best = null;
+        final int offset = (int) Math.floorMod(next, (long) replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            final Replica candidate = replicas.get((offset + i) % replicas.size());
+            if (candidate.available(now)
+                    && (best == null || candidate.outstanding.get() < best.outstanding.get())) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private boolean readsOwnWrites() {
+        final Long written = lastWrite.get();
+        if (written == null) {
+            return false;
+        }
+        if (System.nanoTime() - written < routing.getReadYourWrites().toNanos()) {
+            return true;
+        }
+        lastWrite.remove();
+        return false;
+    }
+
+    private static boolean isReplicaFailure(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException || e instanceof TransientDataAccessException;
+    }
+
+    private static final class Replica {
+        private final DbAccess db;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long ejectedUntil;
+        private volatile boolean ejected;
+
+        private Replica(DbAccess db) {
+            this.db = Objects.requireNonNull(db);
+        }
+
+        private boolean available(long now) {
+            // after the cooldown the replica is back in rotation; one more bad read ejects it again
+            return !ejected || now - ejectedUntil >= 0;
+        }
+
+        private void succeeded(RoutingConfig routing, long nanos) {
+            final long slow = routing.getSlowThreshold().toNanos();
+            if (slow > 0 && nanos > slow) {
+                failed(routing);
+                return;
+            }
+            failures.set(0);
+            ejected = false;
+        }
+
+        private void failed(RoutingConfig routing) {
+            if (failures.incrementAndGet() >= routing.getEjectAfter() || ejected) {
+                ejectedUntil = System.nanoTime() + routing.getCooldown().toNanos();
+                if (!ejected) {
+                    log.warn("Replica {} taken out of rotation for {}", db.getId(), routing.getCooldown());
+                }
+                ejected = true;
+            }
+        }
+    }
+}
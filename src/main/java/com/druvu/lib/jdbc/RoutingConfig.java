@@ -0,0 +1,128 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How a read/write split access ({@link DbAccessFactory#createReadWrite}) spreads reads over replicas.
+ *
+ * <pre>{@code
+ * RoutingConfig routing = RoutingConfig.weightedRoundRobin(2, 1)
+ *     .withReadYourWrites(Duration.ofSeconds(2))
+ *     .withEjection(3, Duration.ofMillis(500), Duration.ofSeconds(30));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class RoutingConfig {
+
+    public enum Strategy {
+        /** Replica with the fewest reads in flight; ties rotate. */
+        LEAST_OUTSTANDING,
+        /** Round robin proportional to the configured weights. */
+        WEIGHTED_ROUND_ROBIN
+    }
+
+    private static final int DEFAULT_FAILURES = 3;
+    private static final Duration DEFAULT_COOLDOWN = Duration.ofSeconds(30);
+
+    private final Strategy strategy;
+    private final int[] weights;
+    private final Duration readYourWrites;
+    private final int ejectAfter;
+    private final Duration slowThreshold;
+    private final Duration cooldown;
+
+    private RoutingConfig(
+            Strategy strategy,
+            int[] weights,
+            Duration readYourWrites,
+            int ejectAfter,
+            Duration slowThreshold,
+            Duration cooldown) {
+        this.strategy = strategy;
+        this.weights = weights;
+        this.readYourWrites = Objects.requireNonNull(readYourWrites);
+        this.ejectAfter = ejectAfter;
+        this.slowThreshold = Objects.requireNonNull(slowThreshold);
+        this.cooldown = Objects.requireNonNull(cooldown);
+    }
+
+    public static RoutingConfig leastOutstanding() {
+        return new RoutingConfig(
+                Strategy.LEAST_OUTSTANDING,
+                new int[0],
+                Duration.ZERO,
+                DEFAULT_FAILURES,
+                Duration.ZERO,
+                DEFAULT_COOLDOWN);
+    }
+
+    /**
+     * @param weights one positive weight per replica, in the order the replicas are passed to the factory
+     */
+    public static RoutingConfig weightedRoundRobin(int... weights) {
+        for (int weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weights should be positive: " + weight);
+            }
+        }
+        return new RoutingConfig(
+                Strategy.WEIGHTED_ROUND_ROBIN,
+                weights.clone(),
+                Duration.ZERO,
+                DEFAULT_FAILURES,
+                Duration.ZERO,
+                DEFAULT_COOLDOWN);
+    }
+
+    /**
+     * Reads from a thread that wrote less than {@code window} ago go to the primary, so the thread sees its own writes
+     * despite replication lag. {@link Duration#ZERO} (the default) turns it off.
+     */
+    public RoutingConfig withReadYourWrites(Duration window) {
+        return new RoutingConfig(strategy, weights, window, ejectAfter, slowThreshold, cooldown);
+    }
+
+    /**
+     * Takes a replica out of rotation for {@code cooldown} after {@code consecutiveFailures} failed or slow reads in a
+     * row. A read is slow when it takes longer than {@code slowThreshold}; {@link Duration#ZERO} ignores latency.
+     * Defaults: 3 failures, latency ignored, 30 seconds.
+     */
+    public RoutingConfig withEjection(int consecutiveFailures, Duration slowThreshold, Duration cooldown) {
+        if (consecutiveFailures <= 0) {
+            throw new IllegalArgumentException("Failures should be positive: " + consecutiveFailures);
+        }
+        return new RoutingConfig(strategy, weights, readYourWrites, consecutiveFailures, slowThreshold, cooldown);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    public Duration getReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public int getEjectAfter() {
+        return ejectAfter;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public Duration getCooldown() {
+        return cooldown;
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingConfig[" + strategy + ", readYourWrites=" + readYourWrites + ", ejectAfter=" + ejectAfter
+                + ", slowThreshold=" + slowThreshold + ", cooldown=" + cooldown + "]";
+    }
+}
@@ -0,0 +1,94 @@
+package com.druvu.lib.jdbc;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Column metadata of one result set, resolved once and shared by all its {@link Row}s.
+ *
+ * <p>Like the column map, names are case-insensitive and the last of duplicate names wins; the key keeps the spelling
+ * and position of the first.
+ *
+ * @author Deniss Larka
+ */
+final class RowColumns {
+
+    private final List<String> names;
+    private final int[] columns;
+    private final int[] types;
+    private final Map<String, Integer> exact;
+    private final Map<String, Integer> lowerCase;
+
+    private RowColumns(List<String> names, int[] columns, int[] types) {
+        this.names = Collections.unmodifiableList(names);
+        this.columns = columns;
+        this.types = types;
+        this.exact = new HashMap<>(names.size() * 2);
+        this.lowerCase = new HashMap<>(names.size() * 2);
+        for (int i = 0; i < names.size(); i++) {
+            exact.put(names.get(i), i);
+            lowerCase.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    static RowColumns of(ResultSetMetaData metaData) throws SQLException {
+        final int count = metaData.getColumnCount();
+        final List<String> names = new ArrayList<>(count);
+        final Map<String, Integer> seen = new HashMap<>(count * 2);
+        final int[] columns = new int[count];
+        final int[] types = new int[count];
+        for (int column = 1; column <= count; column++) {
+            final String name = JdbcUtils.lookupColumnName(metaData, column);
+            final Integer previous = seen.putIfAbsent(name.toLowerCase(Locale.ROOT), names.size());
+            final int index = previous != null ? previous : names.size();
+            if (previous == null) {
+                names.add(name);
+            }
+            columns[index] = column;
+            types[index] = metaData.getColumnType(column);
+        }
+        return new RowColumns(names, Arrays.copyOf(columns, names.size()), Arrays.copyOf(types, names.size()));
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    /** Position of the named column, or {@code -1}. */
+    int indexOf(Object key) {
+        if (!(key instanceof String name)) {
+            return -1;
+        }
+        final Integer index = exact.get(name);
+        if (index != null) {
+            return index;
+        }
+        final Integer folded = lowerCase.get(name.toLowerCase(Locale.ROOT));
+        return folded != null ? folded : -1;
+    }
+
+    String name(int index) {
+        return names.get(index);
+    }
+
+    List<String> names() {
+        return names;
+    }
+
+    /** 1-based JDBC column read for the given position. */
+    int column(int index) {
+        return columns[index];
+    }
+
+    int type(int index) {
+        return types[index];
+    }
+}
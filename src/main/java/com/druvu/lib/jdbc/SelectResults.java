@@ -0,0 +1,50 @@
+package com.druvu.lib.jdbc;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of {@link DbAccess#selectParallel(List, int)}, in the order of the statements passed in.
+ *
+ * <p>Look results up by the statement instance to keep its type, or by index:
+ *
+ * <pre>{@code
+ * SqlStatement<User> users = SimpleSql.query("SELECT * FROM users", USER);
+ * SqlStatement<Long> orders = SimpleSql.scalar("SELECT COUNT(*) FROM orders", Long.class);
+ * SelectResults results = db.selectParallel(List.of(users, orders), 2);
+ * List<User> userList = results.get(users);
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class SelectResults {
+
+    private final List<List<?>> results;
+    private final Map<SqlStatement<?>, Integer> indexes = new IdentityHashMap<>();
+
+    SelectResults(List<? extends SqlStatement<?>> statements, List<List<?>> results) {
+        this.results = results;
+        for (int i = 0; i < statements.size(); i++) {
+            indexes.putIfAbsent(statements.get(i), i);
+        }
+    }
+
+    /** Result of the given statement instance (identity, not equality); the first occurrence if passed twice. */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(SqlStatement<T> statement) {
+        final Integer index = indexes.get(statement);
+        if (index == null) {
+            throw new IllegalArgumentException("Statement was not part of this select: " + statement);
+        }
+        return (List<T>) results.get(index);
+    }
+
+    public List<?> get(int index) {
+        return results.get(index);
+    }
+
+    public int size() {
+        return results.size();
+    }
+}
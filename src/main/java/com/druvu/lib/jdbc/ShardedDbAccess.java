@@ -0,0 +1,364 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.AutoClosingStream;
+import com.druvu.lib.jdbc.internal.BatchSqlBuilder;
+import com.druvu.lib.jdbc.internal.ChainedResultSet;
+import com.druvu.lib.jdbc.internal.NamedBatchSqlBuilder;
+import com.druvu.lib.jdbc.internal.NamedBatchStatement;
+import com.druvu.lib.jdbc.internal.Parallel;
+import com.druvu.lib.jdbc.internal.Statements;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+/**
+ * One logical database split across identical shards.
+ *
+ * <p>The shard-key function extracts the key from a statement, for example a named parameter, and returns {@code null}
+ * for statements that are not keyed. Keyed statements go to shard {@code floorMod(key.hashCode(), shards)}. Unkeyed
+ * statements go to every shard in parallel, so their latency is that of the slowest shard:
+ *
+ * <ul>
+ *   <li>{@link #select(SqlStatement)} concatenates the results in shard order
+ *   <li>{@link #select(SqlStatement, Comparator)} k-way merges results that every shard returns sorted
+ *   <li>{@link #reduce(SqlStatement, BinaryOperator)} combines all rows, e.g. per-shard counts into a total
+ *   <li>{@link #extract(SqlStatement, ResultSetExtractor)}, and with it {@code selectLong}, {@code exists} and the
+ *       like, reads the rows of all shards concatenated in shard order
+ *   <li>{@code update} and {@code call} are broadcast (DDL, replicated reference tables) and report summed counts
+ * </ul>
+ *
+ * <p>{@code batchUpdate} routes every row (or statement) on its own, as if it were a single {@code update}: the key
+ * function sees a statement of the batch's SQL with that row's parameters. Keyed rows go to their shard only, unkeyed
+ * rows to every shard; each shard runs the rows it got as one batch, all shards in parallel.
+ *
+ * <p>Unkeyed statements map their rows on all shards at once: their {@code RowMapper} must be stateless. The lazy
+ * {@link #stream(SqlStatement)} of an unkeyed statement reads the shards one after another.
+ *
+ * <p>Transactions cannot span shards, so this is a {@link DbAccessDirect}, not a {@link DbAccess}: keyed transactions
+ * run on {@code shard(key)}, and {@link #forEachShard(Consumer)} runs one per shard, e.g. a migration.
+ *
+ * <pre>{@code
+ * // convention of this application: keyed statements filter by tenant as their first parameter
+ * ShardedDbAccess db = DbAccessFactory.createSharded(shardConfigs,
+ *     statement -> statement.getQuery().contains("tenant = ?") ? statement.getParameters()[0] : null);
+ *
+ * db.select(SimpleSql.fromString("SELECT * FROM orders WHERE tenant = ?").with(tenantId));       // one shard
+ * db.select(SimpleSql.query("SELECT * FROM orders ORDER BY created", ORDER), comparing(Order::created)); // all
+ * db.shard(tenantId).runInTransaction(tx -> { ... });
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class ShardedDbAccess implements DbAccessDirect {
+
+    private final List<DbAccess> shards;
+    private final Function<SqlStatement<?>, Object> shardKey;
+    private final String id;
+
+    private ShardedDbAccess(List<? extends DbAccess> shards, Function<SqlStatement<?>, Object> shardKey) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.shardKey = Objects.requireNonNull(shardKey);
+        this.id = this.shards.stream().map(DbAccess::getId).collect(Collectors.joining("+"));
+    }
+
+    public static ShardedDbAccess of(List<? extends DbAccess> shards, Function<SqlStatement<?>, Object> shardKey) {
+        return new ShardedDbAccess(shards, shardKey);
+    }
+
+    /** Identifiers of all shards joined with {@code +}. */
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public List<DbAccess> getShards() {
+        return shards;
+    }
+
+    /** The shard owning the given key, for keyed work the statement cannot express, such as a transaction. */
+    public DbAccess shard(Object key) {
+        return shards.get(shardIndex(key));
+    }
+
+    /**
+     * Runs the action for every shard in parallel, for broadcast work that needs more than one statement. Each shard
+     * commits on its own: when one fails, the others may have committed.
+     *
+     * <pre>{@code
+     * db.forEachShard(shard -> shard.runInTransaction(tx -> migrate(tx)));
+     * }</pre>
+     */
+    public void forEachShard(Consumer<DbAccess> action) {
+        fanOut(db -> {
+            action.accept(db);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> List<T> select(SqlStatement<T> select) {
+        final DbAccess owner = route(select);
+        if (owner != null) {
+            return owner.select(select);
+        }
+        final List<T> result = new ArrayList<>();
+        fanOut(db -> db.select(select)).forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Selects with a global order: every shard must return its rows sorted by {@code order} (ORDER BY), the per-shard
+     * results are then k-way merged.
+     */
+    public <T> List<T> select(SqlStatement<T> select, Comparator<? super T> order) {
+        final DbAccess owner = route(select);
+        if (owner != null) {
+            return owner.select(select);
+        }
+        return merge(fanOut(db -> db.select(select)), order);
+    }
+
+    /**
+     * Combines all rows of all involved shards, e.g. {@code SELECT COUNT(*)} per shard with {@code Long::sum}.
+     *
+     * @return the combined value, or empty when no shard returned a row
+     */
+    public <T> Optional<T> reduce(SqlStatement<T> select, BinaryOperator<T> combiner) {
+        return select(select).stream().reduce(combiner);
+    }
+
+    /**
+     * Unkeyed statements run on the shards one after another, keeping each cursor open, and the extractor reads their
+     * rows concatenated in shard order, like {@link #select(SqlStatement)} returns them. Scalars over all shards, such
+     * as counts, go through {@link #reduce(SqlStatement, BinaryOperator)} instead.
+     */
+    @Override
+    public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        final DbAccess owner = route(select);
+        if (owner != null) {
+            return owner.extract(select, extractor);
+        }
+        return extractChained(0, select, extractor, new ArrayList<>(shards.size()));
+    }
+
+    @Override
+    public Integer update(SqlStatement<?> update) {
+        final DbAccess owner = route(update);
+        if (owner != null) {
+            return owner.update(update);
+        }
+        return fanOut(db -> db.update(update)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public int[] batchUpdate(BatchStatement batch) {
+        if (batch instanceof NamedBatchStatement named) {
+            final List<Map<String, Object>> rows = named.getNamedBatchParameters();
+            return scatter(
+                    Statements.rows(batch, StatementOptions.NONE),
+                    batch,
+                    rowIndexes -> {
+                        final NamedBatchSqlBuilder part =
+                                SimpleSql.namedBatch(batch.getQuery()).chunkSize(batch.getChunkSize());
+                        rowIndexes.forEach(i -> part.add(rows.get(i)));
+                        return part.withOptions(batch.getOptions());
+                    },
+                    DbAccess::batchUpdate);
+        }
+        final List<Object[]> rows = batch.getBatchParameters();
+        return scatter(
+                Statements.rows(batch, StatementOptions.NONE),
+                batch,
+                rowIndexes -> {
+                    final BatchSqlBuilder part = SimpleSql.batch(batch.getQuery()).chunkSize(batch.getChunkSize());
+                    rowIndexes.forEach(i -> part.add(rows.get(i)));
+                    return part.withOptions(batch.getOptions());
+                },
+                DbAccess::batchUpdate);
+    }
+
+    @Override
+    public int[] batchUpdate(List<String> statements) {
+        return scatter(
+                statements.stream().<SqlStatement<?>>map(SimpleSql::fromString).toList(),
+                statements,
+                rowIndexes -> rowIndexes.stream().map(statements::get).toList(),
+                DbAccess::batchUpdate);
+    }
+
+    @Override
+    public void call(String procedure) {
+        fanOut(db -> {
+            db.call(procedure);
+            return null;
+        });
+    }
+
+    /**
+     * Unkeyed statements stream from all shards in parallel: the statement's mapper is called by all shards at once,
+     * the consumer by one shard at a time.
+     */
+    @Override
+    public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+        final DbAccess owner = route(statement);
+        if (owner != null) {
+            owner.stream(statement, rowConsumer);
+            return;
+        }
+        final Object lock = new Object();
+        fanOut(db -> {
+            db.stream(statement, row -> {
+                synchronized (lock) {
+                    rowConsumer.accept(row);
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Unkeyed statements are collected by every shard in parallel and merged into batches of {@code batchRows}; the
+     * consumer is called by one shard at a time, in no particular shard order.
+     */
+    @Override
+    public void selectColumnar(SqlStatement<?> select, int batchRows, Consumer<ColumnarBatch> batchConsumer) {
+        final DbAccess owner = route(select);
+        if (owner != null) {
+            owner.selectColumnar(select, batchRows, batchConsumer);
+            return;
+        }
+        // a collector is stateful: one per shard, merged under its lock
+        final ColumnarCollector merged = new ColumnarCollector(batchRows, batchConsumer);
+        fanOut(db -> {
+            db.selectColumnar(select, batchRows, batch -> {
+                synchronized (merged) {
+                    merged.append(batch);
+                }
+            });
+            return null;
+        });
+        merged.finish();
+    }
+
+    @Override
+    public <T> Stream<T> stream(SqlStatement<T> statement) {
+        final DbAccess owner = route(statement);
+        if (owner != null) {
+            return owner.stream(statement);
+        }
+        // flatMap opens each shard's cursor when the previous one is drained and closes it right after
+        return AutoClosingStream.of(shards.stream().flatMap(db -> db.stream(statement)));
+    }
+
+    private int shardIndex(Object key) {
+        return Math.floorMod(Objects.requireNonNull(key).hashCode(), shards.size());
+    }
+
+    private DbAccess route(SqlStatement<?> statement) {
+        final Object key = shardKey.apply(statement);
+        return key == null ? null : shard(key);
+    }
+
+    // opens the cursor of every shard in turn, the innermost call extracts from all of them
+    private <R> R extractChained(
+            int shard, SqlStatement<?> select, ResultSetExtractor<R> extractor, List<ResultSet> open) {
+        return shards.get(shard).extract(select, rs -> {
+            open.add(rs);
+            return shard + 1 < shards.size()
+                    ? extractChained(shard + 1, select, extractor, open)
+                    : extractor.extractData(ChainedResultSet.of(open));
+        });
+    }
+
+    /**
+     * Runs each shard's share of a batch, in parallel, and sums the counts per row.
+     *
+     * @param rows one statement per row, for the shard key
+     * @param whole the batch, run as it is by shards getting every row
+     * @param part builds the batch of the given rows
+     */
+    private <B> int[] scatter(
+            List<SqlStatement<?>> rows, B whole, Function<List<Integer>, B> part, BiFunction<DbAccess, B, int[]> run) {
+        final List<List<Integer>> rowsByShard = new ArrayList<>(shards.size());
+        for (int s = 0; s < shards.size(); s++) {
+            rowsByShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            final Object key = shardKey.apply(rows.get(i));
+            if (key == null) {
+                for (List<Integer> shardRows : rowsByShard) {
+                    shardRows.add(i);
+                }
+            } else {
+                rowsByShard.get(shardIndex(key)).add(i);
+            }
+        }
+        final List<Integer> targets = new ArrayList<>();
+        for (int s = 0; s < shards.size(); s++) {
+            if (!rowsByShard.get(s).isEmpty()) {
+                targets.add(s);
+            }
+        }
+        final List<int[]> counts = Parallel.map(
+                targets,
+                s -> {
+                    final List<Integer> shardRows = rowsByShard.get(s);
+                    // indexes ascend: all of them means the batch as it is
+                    return run.apply(
+                            shards.get(s), shardRows.size() == rows.size() ? whole : part.apply(shardRows));
+                },
+                shards.size());
+        final int[] result = new int[rows.size()];
+        for (int t = 0; t < targets.size(); t++) {
+            final List<Integer> shardRows = rowsByShard.get(targets.get(t));
+            final int[] shardCounts = counts.get(t);
+            for (int j = 0; j < shardRows.size() && j < shardCounts.length; j++) {
+                result[shardRows.get(j)] += shardCounts[j];
+            }
+        }
+        return result;
+    }
+
+    private <R> List<R> fanOut(Function<DbAccess, R> call) {
+        return Parallel.map(shards, call, shards.size());
+    }
+
+    private static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order) {
+        final int total = sorted.stream().mapToInt(List::size).sum();
+        final List<T> result = new ArrayList<>(total);
+        // heap entries are {shard, position}; the heap holds the current head of every non-exhausted shard
+        final PriorityQueue<int[]> heads = new PriorityQueue<>(
+                Math.max(1, sorted.size()),
+                (a, b) -> order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int shard = 0; shard < sorted.size(); shard++) {
+            if (!sorted.get(shard).isEmpty()) {
+                heads.add(new int[] {shard, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            final int[] head = heads.poll();
+            final List<T> rows = sorted.get(head[0]);
+            result.add(rows.get(head[1]));
+            if (head[1] + 1 < rows.size()) {
+                head[1]++;
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+}
@@ -1,6 +1,9 @@
 package com.druvu.lib.jdbc;
 
+import com.druvu.lib.jdbc.internal.BatchSqlBuilder;
+import com.druvu.lib.jdbc.internal.NamedBatchSqlBuilder;
 import com.druvu.lib.jdbc.internal.NamedSqlBuilder;
+import com.druvu.lib.jdbc.internal.RowMappers;
 import com.druvu.lib.jdbc.internal.ScalarSqlBuilder;
 import com.druvu.lib.jdbc.internal.SimpleSqlBuilder;
 import com.druvu.lib.jdbc.internal.TypedSqlBuilder;
@@ -110,6 +113,31 @@ public final class SimpleSql {
         return new TypedSqlBuilder<>(query, mapper);
     }
 
+    /**
+     * Creates a typed builder mapping every row to a record or bean by column name, without writing a mapper.
+     *
+     * <p>Example usage:
+     *
+     * <pre>{@code
+     * record User(int id, String firstName, Status status) {}
+     *
+     * // columns ID, FIRST_NAME, STATUS fill the components id, firstName, status
+     * List<User> users = db.select(SimpleSql.query("SELECT id, first_name, status FROM users", User.class));
+     * }</pre>
+     *
+     * <p>The column-to-component binding is resolved once per result-set shape into method handles calling the typed
+     * getters, so it runs close to a hand-written lambda. Records need a column for every component; beans need a
+     * no-arg constructor and get their setters called.
+     *
+     * @param query the SQL query string
+     * @param type a record, or a bean with a no-arg constructor and setters
+     * @param <T> the result type
+     * @return builder for adding parameters
+     */
+    public static <T> TypedSqlBuilder<T> query(String query, Class<T> type) {
+        return new TypedSqlBuilder<>(query, RowMappers.auto(type));
+    }
+
     /**
      * Creates a builder for SQL with named parameters.
      *
@@ -133,4 +161,40 @@ public final class SimpleSql {
     public static NamedSqlBuilder named(String query) {
         return new NamedSqlBuilder(query);
     }
+
+    /**
+     * Creates a builder for a batch of positional parameter sets executed with one SQL template.
+     *
+     * <p>Example usage:
+     *
+     * <pre>{@code
+     * int[] counts = db.batchUpdate(SimpleSql.batch("INSERT INTO users (id, name) VALUES (?, ?)")
+     *     .add(1, "alice")
+     *     .add(2, "bob"));
+     * }</pre>
+     *
+     * @param query the SQL template with positional parameters
+     * @return builder for adding parameter sets
+     */
+    public static BatchSqlBuilder batch(String query) {
+        return new BatchSqlBuilder(query);
+    }
+
+    /**
+     * Creates a builder for a batch of named parameter sets executed with one SQL template.
+     *
+     * <p>Example usage:
+     *
+     * <pre>{@code
+     * int[] counts = db.batchUpdate(SimpleSql.namedBatch("UPDATE users SET status = :status WHERE id = :id")
+     *     .add(Map.of("id", 1, "status", "active"))
+     *     .add(Map.of("id", 2, "status", "blocked")));
+     * }</pre>
+     *
+     * @param query the SQL template with named parameters (e.g., :paramName)
+     * @return builder for adding named parameter sets
+     */
+    public static NamedBatchSqlBuilder namedBatch(String query) {
+        return new NamedBatchSqlBuilder(query);
+    }
 }
@@ -2,6 +2,8 @@ package com.druvu.lib.jdbc;
 
 import com.druvu.lib.jdbc.internal.ThrowingMapper;
 import com.druvu.lib.jdbc.util.SqlDebug;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -20,6 +22,8 @@ public class SqlStatement<T> {
     private final RowMapper<T> rowMapper;
     private final String query;
     private final List<Object> arguments;
+    // not final: set fluently after construction, like the builders' parameters
+    private StatementOptions options = StatementOptions.NONE;
 
     public SqlStatement() {
         this(Collections.emptyList(), new ThrowingMapper<>(), "");
@@ -62,6 +66,66 @@ public class SqlStatement<T> {
         return rowMapper;
     }
 
+    /** Timeout, row limit, deadline and fetch size of this statement, {@link StatementOptions#NONE} by default. */
+    public StatementOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Replaces all execution limits at once, e.g. to share one set between statements.
+     *
+     * @return this statement for chaining
+     */
+    public SqlStatement<T> withOptions(StatementOptions options) {
+        this.options = Objects.requireNonNull(options);
+        return this;
+    }
+
+    /**
+     * Limits how long the statement may run, see {@link StatementOptions}.
+     *
+     * @return this statement for chaining
+     */
+    public SqlStatement<T> withTimeout(Duration timeout) {
+        return withOptions(options.withTimeout(timeout));
+    }
+
+    /**
+     * Limits the number of rows the driver returns; further rows are silently dropped.
+     *
+     * @return this statement for chaining
+     */
+    public SqlStatement<T> withMaxRows(int maxRows) {
+        return withOptions(options.withMaxRows(maxRows));
+    }
+
+    /**
+     * Cancels the statement if it has not completed by the given instant, see {@link StatementOptions}.
+     *
+     * @return this statement for chaining
+     */
+    public SqlStatement<T> withDeadline(Instant deadline) {
+        return withOptions(options.withDeadline(deadline));
+    }
+
+    /**
+     * Rows per round trip for this statement, instead of the configured fetch size.
+     *
+     * @return this statement for chaining
+     */
+    public SqlStatement<T> withFetchSize(int fetchSize) {
+        return withOptions(options.withFetchSize(fetchSize));
+    }
+
+    /**
+     * Lets a stream of this statement size its fetches from the rows it reads, see {@link AdaptiveFetch}.
+     *
+     * @return this statement for chaining
+     */
+    public SqlStatement<T> withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        return withOptions(options.withAdaptiveFetch(adaptiveFetch));
+    }
+
     /**
      * Returns the SQL query with parameter placeholders filled in with actual values. Useful for debugging and logging.
      *
@@ -0,0 +1,72 @@
+package com.druvu.lib.jdbc;
+
+/**
+ * Point-in-time view of the prepared statement cache of a pool, summed over its connections, see
+ * {@link DbConfig#withStatementCache(int)}.
+ *
+ * <pre>{@code
+ * db.metrics().getStatementCache().ifPresent(cache ->
+ *     log.info("statement cache hit rate {} evictions {}", cache.getHitRate(), cache.getEvictions()));
+ * }</pre>
+ *
+ * <p>A low hit rate with many evictions means the cache is smaller than the set of statements in use.
+ *
+ * @author Deniss Larka
+ */
+public final class StatementCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int cached;
+
+    private StatementCacheStats(long hits, long misses, long evictions, int cached) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.cached = cached;
+    }
+
+    /** For {@link ConnectionPool} implementations reporting a cache of their own. */
+    public static StatementCacheStats of(long hits, long misses, long evictions, int cached) {
+        return new StatementCacheStats(hits, misses, evictions, cached);
+    }
+
+    /** Prepares served from the cache. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Prepares that went to the driver. */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Statements closed to make room for another one. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** Statements held open for reuse right now. */
+    public int getCached() {
+        return cached;
+    }
+
+    /** Hits per prepare, 0 before the first one. */
+    public double getHitRate() {
+        final long prepares = hits + misses;
+        return prepares == 0 ? 0 : (double) hits / prepares;
+    }
+
+    // counts since the baseline; the gauge stays
+    StatementCacheStats since(StatementCacheStats baseline) {
+        return new StatementCacheStats(
+                hits - baseline.hits, misses - baseline.misses, evictions - baseline.evictions, cached);
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheStats[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", cached="
+                + cached + "]";
+    }
+}
@@ -0,0 +1,143 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Execution limits of one statement: a query timeout, a maximum number of rows, an absolute deadline and the fetch
+ * size.
+ *
+ * <p>The timeout and the deadline both end up as {@code Statement.setQueryTimeout}, rounded up to whole seconds, the
+ * only unit JDBC knows; on top of that the statement is cancelled with {@code Statement.cancel()} at the exact
+ * instant, so a 250 ms budget is not stretched to a second. The stricter of the two wins, together with the deadline of
+ * an enclosing {@link DbAccess#inTransaction(Instant, java.util.function.Function) transaction} and, when none of
+ * these is set, the {@link DbConfig#withQueryTimeout(Duration) default timeout}. Expiry surfaces as Spring's
+ * {@code QueryTimeoutException}, also when the deadline has passed before the statement is sent.
+ *
+ * <pre>{@code
+ * db.select(SimpleSql.fromString("SELECT * FROM report WHERE day = ?").with(day)
+ *     .withTimeout(Duration.ofSeconds(5))
+ *     .withMaxRows(10_000));
+ * }</pre>
+ *
+ * <p>The fetch size overrides the {@link DbConfig#withFetchSize(int) configured one} for this statement: small for
+ * wide rows with BLOB columns, large for narrow scans. A statement that is streamed can instead let the cursor size its
+ * fetches from the rows it sees, see {@link AdaptiveFetch}; the two replace each other.
+ *
+ * <p>Immutable; statements hold one and their builders replace it.
+ *
+ * @author Deniss Larka
+ */
+public final class StatementOptions {
+
+    public static final StatementOptions NONE = new StatementOptions(null, 0, null, 0, null);
+
+    private final Duration timeout;
+    private final int maxRows;
+    private final Instant deadline;
+    private final int fetchSize;
+    private final AdaptiveFetch adaptiveFetch;
+
+    private StatementOptions(
+            Duration timeout, int maxRows, Instant deadline, int fetchSize, AdaptiveFetch adaptiveFetch) {
+        this.timeout = timeout;
+        this.maxRows = maxRows;
+        this.deadline = deadline;
+        this.fetchSize = fetchSize;
+        this.adaptiveFetch = adaptiveFetch;
+    }
+
+    /**
+     * @param timeout how long the statement may run, from the moment it is executed; positive
+     */
+    public StatementOptions withTimeout(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout should be positive: " + timeout);
+        }
+        return new StatementOptions(timeout, maxRows, deadline, fetchSize, adaptiveFetch);
+    }
+
+    /**
+     * @param maxRows rows the driver returns at most, the rest are silently dropped; 0 for no limit
+     */
+    public StatementOptions withMaxRows(int maxRows) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("Max rows cannot be negative: " + maxRows);
+        }
+        return new StatementOptions(timeout, maxRows, deadline, fetchSize, adaptiveFetch);
+    }
+
+    /**
+     * @param deadline the instant the statement has to be done by, e.g. the deadline of the request being served
+     */
+    public StatementOptions withDeadline(Instant deadline) {
+        return new StatementOptions(timeout, maxRows, Objects.requireNonNull(deadline), fetchSize, adaptiveFetch);
+    }
+
+    /**
+     * @param fetchSize rows per round trip for this statement; positive, replaces an adaptive fetch
+     */
+    public StatementOptions withFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size should be positive: " + fetchSize);
+        }
+        return new StatementOptions(timeout, maxRows, deadline, fetchSize, null);
+    }
+
+    /**
+     * @param adaptiveFetch how a stream of this statement sizes its fetches; replaces a fixed fetch size
+     */
+    public StatementOptions withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        return new StatementOptions(timeout, maxRows, deadline, 0, Objects.requireNonNull(adaptiveFetch));
+    }
+
+    public Optional<Duration> getTimeout() {
+        return Optional.ofNullable(timeout);
+    }
+
+    /** Row limit, 0 when there is none. */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public Optional<Instant> getDeadline() {
+        return Optional.ofNullable(deadline);
+    }
+
+    /** Fixed fetch size, 0 when the configured one applies or the fetch is adaptive. */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public Optional<AdaptiveFetch> getAdaptiveFetch() {
+        return Optional.ofNullable(adaptiveFetch);
+    }
+
+    /** Whether the statement has a timeout or a deadline of its own. */
+    public boolean isTimed() {
+        return timeout != null || deadline != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof StatementOptions other
+                && maxRows == other.maxRows
+                && fetchSize == other.fetchSize
+                && Objects.equals(timeout, other.timeout)
+                && Objects.equals(deadline, other.deadline)
+                && Objects.equals(adaptiveFetch, other.adaptiveFetch);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timeout, maxRows, deadline, fetchSize, adaptiveFetch);
+    }
+
+    @Override
+    public String toString() {
+        return "StatementOptions[timeout=" + timeout + ", maxRows=" + maxRows + ", deadline=" + deadline
+                + ", fetchSize=" + fetchSize + ", adaptiveFetch=" + adaptiveFetch + "]";
+    }
+}
@@ -0,0 +1,91 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.StatementRecorder;
+
+/**
+ * Point-in-time metrics of one statement fingerprint.
+ *
+ * <p>Latency is split into:
+ *
+ * <ul>
+ *   <li>{@link #getAcquire()} - obtaining the connection and beginning the transaction; only recorded when
+ *       {@link DbAccess} opens the transaction for the call itself, not for statements inside {@code inTransaction}
+ *       or on a non-transactional access
+ *   <li>{@link #getExecution()} - statement execution and result fetching, excluding the time spent in row mappers and
+ *       row consumers
+ *   <li>{@link #getMapping()} - the row mapper
+ *   <li>{@link #getTotal()} - the sum of the three, per call
+ * </ul>
+ *
+ * @author Deniss Larka
+ */
+public final class StatementStats {
+
+    private final String fingerprint;
+    private final long calls;
+    private final long errors;
+    private final long timeouts;
+    private final long rows;
+    private final LatencySnapshot total;
+    private final LatencySnapshot acquire;
+    private final LatencySnapshot execution;
+    private final LatencySnapshot mapping;
+
+    StatementStats(StatementRecorder recorder) {
+        this.fingerprint = recorder.fingerprint();
+        this.calls = recorder.calls();
+        this.errors = recorder.errors();
+        this.timeouts = recorder.timeouts();
+        this.rows = recorder.rows();
+        this.total = new LatencySnapshot(recorder.total());
+        this.acquire = new LatencySnapshot(recorder.acquire());
+        this.execution = new LatencySnapshot(recorder.execution());
+        this.mapping = new LatencySnapshot(recorder.mapping());
+    }
+
+    /** Normalized query text, literals and placeholder lists replaced with {@code ?}. */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /** Number of calls, failed ones included. */
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /** Failed calls that ran out of time: query timeout, statement deadline or transaction deadline. */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /** Rows returned by queries, or rows affected by updates. */
+    public long getRows() {
+        return rows;
+    }
+
+    public LatencySnapshot getTotal() {
+        return total;
+    }
+
+    public LatencySnapshot getAcquire() {
+        return acquire;
+    }
+
+    public LatencySnapshot getExecution() {
+        return execution;
+    }
+
+    public LatencySnapshot getMapping() {
+        return mapping;
+    }
+
+    @Override
+    public String toString() {
+        return fingerprint + " [calls=" + calls + ", errors=" + errors + ", timeouts=" + timeouts + ", rows=" + rows
+                + ", total: " + total + "]";
+    }
+}
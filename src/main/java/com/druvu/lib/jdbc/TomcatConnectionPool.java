@@ -0,0 +1,114 @@
+package com.druvu.lib.jdbc;
+
+import com.druvu.lib.jdbc.internal.PoolPropertiesEx;
+import com.druvu.lib.jdbc.internal.StatementCacheCounters;
+import com.druvu.lib.jdbc.internal.StatementCacheInterceptor;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+
+/**
+ * The default {@link ConnectionProvider}: a Tomcat JDBC pool built from {@link DbConfig}'s pool properties.
+ *
+ * <p>With {@link ValidationStrategy#onError} a broken connection switches on the pool's borrow checks for the
+ * strategy's window; the pool reads its properties on every borrow, so this takes effect at once.
+ *
+ * <p>With {@link DbConfig#withStatementCache(int)} every connection gets a {@link StatementCacheInterceptor} reporting
+ * to the counters of this pool.
+ *
+ * @author Deniss Larka
+ */
+final class TomcatConnectionPool implements ConnectionPool {
+
+    private final DataSource dataSource;
+    private final PoolConfiguration properties;
+    private final ValidationStrategy validation;
+    private final StatementCacheCounters statementCache;
+    private final String statementCacheKey;
+    private volatile long checkUntil;
+
+    TomcatConnectionPool(DbConfig config) {
+        // an own copy, toggled at runtime without touching the configuration
+        this.properties = PoolPropertiesEx.copy(config.getPoolProperties());
+        final int cacheSize = PoolPropertiesEx.statementCacheSize(properties);
+        if (cacheSize > 0) {
+            this.statementCache = new StatementCacheCounters();
+            this.statementCacheKey = StatementCacheInterceptor.register(statementCache);
+            final String interceptors = properties.getJdbcInterceptors();
+            final String cache = StatementCacheInterceptor.definition(cacheSize, statementCacheKey);
+            properties.setJdbcInterceptors(
+                    interceptors == null || interceptors.isBlank() ? cache : interceptors + ";" + cache);
+        } else {
+            this.statementCache = null;
+            this.statementCacheKey = null;
+        }
+        this.dataSource = new DataSource(properties);
+        this.validation = config.getValidation();
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public int getActive() {
+        return dataSource.getActive();
+    }
+
+    @Override
+    public int getIdle() {
+        return dataSource.getIdle();
+    }
+
+    @Override
+    public int getMaxActive() {
+        return dataSource.getMaxActive();
+    }
+
+    @Override
+    public int getWaiting() {
+        return dataSource.getWaitCount();
+    }
+
+    @Override
+    public Optional<StatementCacheStats> getStatementCache() {
+        if (statementCache == null) {
+            return Optional.empty();
+        }
+        return Optional.of(StatementCacheStats.of(
+                statementCache.hits(), statementCache.misses(), statementCache.evictions(), statementCache.cached()));
+    }
+
+    @Override
+    public void connectionFailed() {
+        if (validation.getMode() != ValidationStrategy.Mode.ON_ERROR) {
+            return;
+        }
+        final long window = validation.getInterval().toNanos();
+        final long until = System.nanoTime() + window;
+        checkUntil = until;
+        properties.setTestOnBorrow(true);
+        CompletableFuture.delayedExecutor(window, TimeUnit.NANOSECONDS).execute(() -> {
+            // a later failure extended the window
+            if (checkUntil == until) {
+                properties.setTestOnBorrow(false);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+        if (statementCacheKey != null) {
+            StatementCacheInterceptor.unregister(statementCacheKey);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TomcatConnectionPool[" + properties.getUrl() + ", " + validation + "]";
+    }
+}
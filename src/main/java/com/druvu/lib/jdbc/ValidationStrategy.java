@@ -0,0 +1,112 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How the connection pool makes sure a connection still works before handing it out.
+ *
+ * <p>Every check is a round trip to the database, paid by the call that borrows the connection unless it happens in
+ * the background. From the most to the least expensive:
+ *
+ * <ul>
+ *   <li>{@link #query()}: the validation SELECT on borrow, on return and while idle, at most every 3 seconds per
+ *       connection; up to two extra statements per call. The default
+ *   <li>{@link #isValid()}: {@code Connection.isValid} on every borrow, a driver ping without parsing a statement
+ *   <li>{@link #idle(Duration)}: {@code Connection.isValid} on borrow only when the connection has not been checked
+ *       within the interval; a connection in constant use is checked once per interval, one that sat idle longer on its
+ *       next borrow
+ *   <li>{@link #background(Duration)}: idle connections are checked by the pool's cleaner thread; nothing on borrow
+ *   <li>{@link #onError(Duration)}: no checks until a statement fails with a broken connection, then every borrow is
+ *       checked for the given time, so the rest of the stale connections are replaced before they fail a call too
+ * </ul>
+ *
+ * <p>Only the less checked strategies let a connection the server or a firewall closed reach a call, which then fails
+ * once; applications retrying on connection errors can take the cheapest. {@code ValidationBenchmark} counts the round
+ * trips of each per call, measure before opting out of the default. Applies to the default Tomcat pool, see
+ * {@link DbConfig#withValidation(ValidationStrategy)}. Immutable.
+ *
+ * @author Deniss Larka
+ */
+public final class ValidationStrategy {
+
+    public enum Mode {
+        QUERY,
+        IS_VALID,
+        IDLE,
+        BACKGROUND,
+        ON_ERROR
+    }
+
+    public static final ValidationStrategy DEFAULT = query();
+
+    private final Mode mode;
+    private final Duration interval;
+
+    private ValidationStrategy(Mode mode, Duration interval) {
+        this.mode = mode;
+        this.interval = interval;
+    }
+
+    /** The validation SELECT on borrow, return and while idle; the behavior before strategies existed. */
+    public static ValidationStrategy query() {
+        return new ValidationStrategy(Mode.QUERY, Duration.ZERO);
+    }
+
+    /** {@code Connection.isValid} on every borrow. */
+    public static ValidationStrategy isValid() {
+        return new ValidationStrategy(Mode.IS_VALID, Duration.ZERO);
+    }
+
+    /**
+     * @param interval time after its last check that a connection is checked again on borrow; positive
+     */
+    public static ValidationStrategy idle(Duration interval) {
+        return new ValidationStrategy(Mode.IDLE, positive(interval));
+    }
+
+    /**
+     * @param every period of the pool's cleaner, which checks the idle connections; positive
+     */
+    public static ValidationStrategy background(Duration every) {
+        return new ValidationStrategy(Mode.BACKGROUND, positive(every));
+    }
+
+    /**
+     * @param window how long every borrow is checked after a statement failed with a broken connection; positive
+     */
+    public static ValidationStrategy onError(Duration window) {
+        return new ValidationStrategy(Mode.ON_ERROR, positive(window));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /** Interval, period or window of the strategy; zero for those without one. */
+    public Duration getInterval() {
+        return interval;
+    }
+
+    private static Duration positive(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Validation interval should be positive: " + duration);
+        }
+        return duration;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ValidationStrategy other && mode == other.mode && interval.equals(other.interval);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mode, interval);
+    }
+
+    @Override
+    public String toString() {
+        return interval.isZero() ? mode.toString() : mode + "(" + interval + ")";
+    }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.jdbc.core.ResultSetExtractor;
 
 /** @author Deniss Larka on 08 Feb 2023 */
 public final class VoidDbAccess implements DbAccess {
@@ -35,11 +37,26 @@ public final class VoidDbAccess implements DbAccess {
         return Collections.emptyList();
     }
 
+    @Override
+    public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        return null;
+    }
+
     @Override
     public Integer update(SqlStatement<?> update) {
         return 0;
     }
 
+    @Override
+    public int[] batchUpdate(BatchStatement batch) {
+        return new int[batch.size()];
+    }
+
+    @Override
+    public int[] batchUpdate(List<String> statements) {
+        return new int[statements.size()];
+    }
+
     @Override
     public void call(String procedure) {
         //
@@ -49,4 +66,9 @@ public final class VoidDbAccess implements DbAccess {
     public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
         // No-op for void implementation
     }
+
+    @Override
+    public <T> Stream<T> stream(SqlStatement<T> statement) {
+        return Stream.empty();
+    }
 }
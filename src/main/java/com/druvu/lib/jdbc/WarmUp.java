@@ -0,0 +1,100 @@
+package com.druvu.lib.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What {@link DbAccessFactory} does before handing out a new access, so the first calls after a deploy do not pay for
+ * opening connections and preparing statements one at a time.
+ *
+ * <p>The connections are opened in parallel, each on a virtual thread, and all of them are held until the last one is
+ * open, so the pool really grows to the count instead of handing the same connection around. Every connection then
+ * prepares the given statements: plain SQL, named parameters allowed, and every {@code *.sql} resource of the given
+ * directories as loaded by {@link com.druvu.lib.jdbc.util.SqlLoader#loadDirectory(String)}, which leaves them cached
+ * too. What a prepare saves depends on the driver; drivers that prepare on the server and pools that cache statements
+ * keep the work, others at least have their parsing and the JIT warmed.
+ *
+ * <p>Warm-up is best effort: a connection that cannot be opened or a statement that does not prepare is counted and
+ * logged, not thrown, see {@link WarmUpReport}. Immutable.
+ *
+ * <pre>{@code
+ * DbAccessFactory.create(config.withWarmUp(WarmUp.connections(8).withSqlDirectory("sql")));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class WarmUp {
+
+    private final int connections;
+    private final List<String> statements;
+    private final List<String> sqlDirectories;
+
+    private WarmUp(int connections, List<String> statements, List<String> sqlDirectories) {
+        this.connections = connections;
+        this.statements = statements;
+        this.sqlDirectories = sqlDirectories;
+    }
+
+    /**
+     * @param count connections to open, capped at the pool's {@code maxActive}; positive
+     */
+    public static WarmUp connections(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Warm-up connections should be positive: " + count);
+        }
+        return new WarmUp(count, List.of(), List.of());
+    }
+
+    /** Adds statements every connection prepares. */
+    public WarmUp withStatements(String... sql) {
+        return new WarmUp(connections, append(statements, List.of(sql)), sqlDirectories);
+    }
+
+    /**
+     * Adds every {@code *.sql} resource below a classpath directory to the statements every connection prepares.
+     *
+     * @param resourceDir classpath directory, e.g. {@code "sql"}
+     */
+    public WarmUp withSqlDirectory(String resourceDir) {
+        return new WarmUp(connections, statements, append(sqlDirectories, List.of(resourceDir)));
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    public List<String> getSqlDirectories() {
+        return sqlDirectories;
+    }
+
+    private static List<String> append(List<String> list, List<String> more) {
+        final List<String> result = new ArrayList<>(list);
+        result.addAll(more);
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WarmUp other
+                && connections == other.connections
+                && statements.equals(other.statements)
+                && sqlDirectories.equals(other.sqlDirectories);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(connections, statements, sqlDirectories);
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUp[connections=" + connections + ", statements=" + statements.size() + ", sqlDirectories="
+                + sqlDirectories + "]";
+    }
+}
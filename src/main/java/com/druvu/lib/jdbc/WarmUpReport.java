@@ -0,0 +1,56 @@
+package com.druvu.lib.jdbc;
+
+import java.time.Duration;
+
+/**
+ * Outcome of the {@link WarmUp} of an access, see {@link DbMetrics#getWarmUp()}.
+ *
+ * @author Deniss Larka
+ */
+public final class WarmUpReport {
+
+    private final int connections;
+    private final int failedConnections;
+    private final int prepared;
+    private final int failedStatements;
+    private final Duration duration;
+
+    WarmUpReport(int connections, int failedConnections, int prepared, int failedStatements, Duration duration) {
+        this.connections = connections;
+        this.failedConnections = failedConnections;
+        this.prepared = prepared;
+        this.failedStatements = failedStatements;
+        this.duration = duration;
+    }
+
+    /** Connections opened. */
+    public int getConnections() {
+        return connections;
+    }
+
+    /** Connections that could not be opened. */
+    public int getFailedConnections() {
+        return failedConnections;
+    }
+
+    /** Statements prepared, summed over the connections. */
+    public int getPrepared() {
+        return prepared;
+    }
+
+    /** Statements that did not prepare, summed over the connections. */
+    public int getFailedStatements() {
+        return failedStatements;
+    }
+
+    /** Wall-clock time of the whole warm-up. */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport[connections=" + connections + ", failedConnections=" + failedConnections + ", prepared="
+                + prepared + ", failedStatements=" + failedStatements + ", duration=" + duration.toMillis() + "ms]";
+    }
+}
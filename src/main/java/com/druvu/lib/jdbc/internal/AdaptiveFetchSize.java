@@ -0,0 +1,158 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.AdaptiveFetch;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resizes the fetch of one open cursor from the rows read so far, see {@link AdaptiveFetch}.
+ *
+ * <p>Rows are counted in windows of the current fetch size. At the end of a window the time spent waiting for the
+ * driver in {@code next()} is compared to the whole window: a large share means round trips dominate and the fetch
+ * doubles, a negligible one halves it back towards the initial size. The bytes a row takes are estimated once from the
+ * declared column widths in the result set metadata, which caps the fetch at the memory budget regardless of latency;
+ * the values themselves are never read a second time, the row mapper has consumed them.
+ *
+ * <p>The owner reports each row with {@link #rowStart()} right after {@code next()} returned it and {@link #rowEnd}
+ * once it was handed over; a pull-based cursor also calls {@link #resume()} before {@code next()}, so the time its
+ * caller spends between pulls counts as processing, not waiting. Not thread-safe, like the cursor itself.
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+public final class AdaptiveFetchSize {
+
+    // share of a window spent in next() above which fetches grow, and below which they shrink
+    private static final double GROW_SHARE = 0.2;
+    private static final double SHRINK_SHARE = 0.01;
+    // object header and reference of every value, on top of its content
+    private static final int VALUE_OVERHEAD = 16;
+    private static final int FIXED_WIDTH = 8;
+    // columns declared without a bound (TEXT, LOBs), or wider than this, count as this many bytes
+    private static final int UNBOUNDED_WIDTH = 64 * 1024;
+
+    private final AdaptiveFetch config;
+    private int size;
+    private int rows;
+    private long windowStart;
+    private long lastRowEnd;
+    private long waitNanos;
+    private long bytesPerRow;
+    private boolean disabled;
+
+    private AdaptiveFetchSize(AdaptiveFetch config) {
+        this.config = config;
+        this.size = config.getInitial();
+    }
+
+    /** The controller for a statement's cursor, or null when its fetch size is not adaptive. */
+    public static AdaptiveFetchSize of(StatementOptions options) {
+        return options.getAdaptiveFetch().map(AdaptiveFetchSize::new).orElse(null);
+    }
+
+    /** Current fetch size. */
+    public int size() {
+        return size;
+    }
+
+    /** Estimated bytes per row, 0 before the first row. */
+    public long bytesPerRow() {
+        return bytesPerRow;
+    }
+
+    /** The caller asks for the next row: from now until {@link #rowStart()} is spent in the driver. */
+    public void resume() {
+        lastRowEnd = System.nanoTime();
+        if (windowStart == 0) {
+            windowStart = lastRowEnd;
+        }
+    }
+
+    /** {@code next()} has returned a row. */
+    public void rowStart() {
+        final long now = System.nanoTime();
+        if (lastRowEnd != 0) {
+            waitNanos += now - lastRowEnd;
+        }
+        if (windowStart == 0) {
+            windowStart = now;
+        }
+    }
+
+    /** The row has been mapped and handed over; resizes the fetch at the end of a window. */
+    public void rowEnd(ResultSet rs) {
+        if (disabled) {
+            return;
+        }
+        try {
+            if (bytesPerRow == 0) {
+                bytesPerRow = estimate(rs.getMetaData());
+            }
+            rows++;
+            lastRowEnd = System.nanoTime();
+            if (rows >= size) {
+                resize(rs, lastRowEnd);
+            }
+        } catch (SQLException e) {
+            // the cursor itself is fine, it just keeps its current fetch size
+            disabled = true;
+            log.debug("Adaptive fetch disabled: {}", e.getMessage());
+        }
+    }
+
+    private void resize(ResultSet rs, long now) throws SQLException {
+        final long window = now - windowStart;
+        final double waitShare = window > 0 ? (double) waitNanos / window : 0;
+        int next = size;
+        if (waitShare > GROW_SHARE) {
+            next = (int) Math.min((long) size * 2, config.getMax());
+        } else if (waitShare < SHRINK_SHARE && size > config.getInitial()) {
+            next = Math.max(size / 2, config.getInitial());
+        }
+        final long byMemory = config.getMemoryBudget() / Math.max(bytesPerRow, 1);
+        next = (int) Math.max(1, Math.min(next, byMemory));
+        if (next != size) {
+            log.trace("Fetch size {} -> {}, wait share {}, {} bytes/row", size, next, waitShare, bytesPerRow);
+            rs.setFetchSize(next);
+            size = next;
+        }
+        rows = 0;
+        waitNanos = 0;
+        windowStart = now;
+    }
+
+    private static long estimate(ResultSetMetaData meta) throws SQLException {
+        long bytes = 0;
+        for (int column = 1; column <= meta.getColumnCount(); column++) {
+            bytes += VALUE_OVERHEAD + width(meta, column);
+        }
+        return bytes;
+    }
+
+    private static long width(ResultSetMetaData meta, int column) throws SQLException {
+        switch (meta.getColumnType(column)) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> {
+                // two bytes per char at most
+                return 2L * bounded(meta.getColumnDisplaySize(column));
+            }
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> {
+                return bounded(meta.getPrecision(column));
+            }
+            case Types.CLOB, Types.NCLOB, Types.BLOB -> {
+                return UNBOUNDED_WIDTH;
+            }
+            default -> {
+                return FIXED_WIDTH;
+            }
+        }
+    }
+
+    // drivers report 0 or Integer.MAX_VALUE when the column has no declared size
+    private static int bounded(int declared) {
+        return declared <= 0 || declared > UNBOUNDED_WIDTH ? UNBOUNDED_WIDTH : declared;
+    }
+}
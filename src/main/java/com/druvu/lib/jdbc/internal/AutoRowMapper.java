@@ -0,0 +1,331 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Maps rows to records (through the canonical constructor) or to beans (no-arg constructor and setters), matching
+ * columns to components by name: case and underscores are ignored, so {@code FIRST_NAME} fills {@code firstName}.
+ *
+ * <p>Per result-set shape (its column labels) the binding is resolved once into one {@link MethodHandle} tree: for a
+ * record, the constructor with every argument fed by the typed getter of its column ({@code rs.getInt(3)},
+ * {@code rs.getString(1)}, ...), so primitives are never boxed and a row costs about as much as a hand-written lambda.
+ * Other types go through {@link JdbcUtils#getResultSetValue(ResultSet, int, Class)}, enums are read by name and
+ * {@code char} as the first character of the string.
+ *
+ * <p>Every record component needs a column; a bean keeps its own value for properties without one. Columns without a
+ * component are ignored, but two columns for the same component, such as {@code FIRST_NAME} and {@code FIRSTNAME}, are
+ * rejected as ambiguous. SQL {@code NULL} in a column of a primitive component fails the row instead of turning into
+ * {@code 0} or {@code false}: use the wrapper type where the column is nullable. Types whose components or setters
+ * cannot be told apart by column, such as overloaded setters or {@code firstName} next to {@code first_name}, are
+ * rejected when the mapper is created.
+ *
+ * <p>The type must be accessible: on the module path, open its package to {@code com.druvu.lib.jdbc}.
+ *
+ * @param <T> the record or bean type
+ * @author Deniss Larka
+ */
+public final class AutoRowMapper<T> implements RowMapper<T> {
+
+    private static final int SHAPES_LIMIT = 64;
+    private static final MethodHandle READ_VALUE;
+    private static final MethodHandle READ_ENUM;
+    private static final MethodHandle READ_CHAR;
+    private static final MethodHandle CHECK_NOT_NULL;
+    private static final Map<Class<?>, String> GETTERS = Map.of(
+            int.class, "getInt",
+            long.class, "getLong",
+            double.class, "getDouble",
+            float.class, "getFloat",
+            short.class, "getShort",
+            byte.class, "getByte",
+            boolean.class, "getBoolean",
+            String.class, "getString",
+            BigDecimal.class, "getBigDecimal");
+
+    static {
+        try {
+            final MethodType read = MethodType.methodType(Object.class, ResultSet.class, int.class, Class.class);
+            READ_VALUE = MethodHandles.lookup().findStatic(AutoRowMapper.class, "readValue", read);
+            READ_ENUM = MethodHandles.lookup().findStatic(AutoRowMapper.class, "readEnum", read);
+            READ_CHAR = MethodHandles.lookup().findStatic(AutoRowMapper.class, "readChar", read);
+            CHECK_NOT_NULL = MethodHandles.lookup()
+                    .findStatic(
+                            AutoRowMapper.class,
+                            "checkNotNull",
+                            MethodType.methodType(void.class, ResultSet.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<T> type;
+    private final MethodHandles.Lookup lookup;
+    private final Map<String, Target> targets;
+    private final BoundedCache<List<String>, MethodHandle> shapes = new BoundedCache<>(SHAPES_LIMIT);
+    private final ThreadLocal<Current> current = new ThreadLocal<>();
+
+    public AutoRowMapper(Class<T> type) {
+        this.type = type;
+        this.lookup = lookupFor(type);
+        this.targets = type.isRecord() ? recordComponents(type) : beanProperties(type, lookup);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        final MethodHandle binding = bindingOf(rs);
+        try {
+            return (T) (Object) binding.invokeExact(rs);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot map row to " + type.getName(), e);
+        }
+    }
+
+    private MethodHandle bindingOf(ResultSet rs) throws SQLException {
+        final Current last = current.get();
+        if (last != null && last.resultSet().get() == rs) {
+            return last.binding();
+        }
+        final ResultSetMetaData metaData = rs.getMetaData();
+        final List<String> labels = new ArrayList<>(metaData.getColumnCount());
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            labels.add(JdbcUtils.lookupColumnName(metaData, column));
+        }
+        final MethodHandle binding = shapes.get(labels, this::bind);
+        current.set(new Current(new WeakReference<>(rs), binding));
+        return binding;
+    }
+
+    // (ResultSet)Object handle for one column layout
+    private MethodHandle bind(List<String> labels) {
+        final Map<String, Integer> columns = new HashMap<>(labels.size() * 2);
+        for (int i = 0; i < labels.size(); i++) {
+            final String key = normalize(labels.get(i));
+            final Integer previous = columns.putIfAbsent(key, i + 1);
+            // duplicates only matter when a component would read them
+            if (previous != null && targets.containsKey(key)) {
+                throw new IllegalStateException("Columns " + labels.get(previous - 1) + " and " + labels.get(i)
+                        + " both match " + targets.get(key).name() + " of " + type.getName());
+            }
+        }
+        try {
+            return type.isRecord() ? bindRecord(columns, labels) : bindBean(columns, labels);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot bind " + type.getName() + " to columns " + labels, e);
+        }
+    }
+
+    private MethodHandle bindRecord(Map<String, Integer> columns, List<String> labels)
+            throws ReflectiveOperationException {
+        final Class<?>[] parameterTypes = targets.values().stream().map(Target::type).toArray(Class<?>[]::new);
+        final MethodHandle constructor =
+                lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes));
+        final MethodHandle[] readers = new MethodHandle[parameterTypes.length];
+        int i = 0;
+        for (Map.Entry<String, Target> component : targets.entrySet()) {
+            final Integer column = columns.get(component.getKey());
+            if (column == null) {
+                throw new IllegalStateException("No column for component " + component.getValue().name() + " of "
+                        + type.getName() + " in " + labels);
+            }
+            readers[i++] = reader(component.getValue(), column, labels);
+        }
+        // (ResultSet, ResultSet, ...) -> T, then all arguments collapsed into one ResultSet
+        final MethodHandle filtered = MethodHandles.filterArguments(constructor, 0, readers);
+        final MethodHandle collapsed = MethodHandles.permuteArguments(
+                filtered, MethodType.methodType(type, ResultSet.class), new int[readers.length]);
+        return collapsed.asType(MethodType.methodType(Object.class, ResultSet.class));
+    }
+
+    private MethodHandle bindBean(Map<String, Integer> columns, List<String> labels)
+            throws ReflectiveOperationException {
+        MethodHandle bean = lookup.findConstructor(type, MethodType.methodType(void.class));
+        // rs -> new bean, then per property: rs -> { b = previous(rs); setter(b, reader(rs)); return b; }
+        bean = MethodHandles.dropArguments(bean, 0, ResultSet.class)
+                .asType(MethodType.methodType(Object.class, ResultSet.class));
+        for (Map.Entry<String, Target> property : targets.entrySet()) {
+            final Integer column = columns.get(property.getKey());
+            if (column == null) {
+                continue;
+            }
+            final MethodHandle setter = property.getValue()
+                    .setter()
+                    .asType(MethodType.methodType(void.class, Object.class, property.getValue().type()));
+            final MethodHandle set =
+                    MethodHandles.filterArguments(setter, 1, reader(property.getValue(), column, labels));
+            // (Object, ResultSet)void -> (Object, ResultSet)Object returning the bean
+            final MethodHandle setAndReturn = MethodHandles.foldArguments(
+                    MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, ResultSet.class), set);
+            bean = MethodHandles.collectArguments(setAndReturn, 0, bean);
+            bean = MethodHandles.permuteArguments(bean, MethodType.methodType(Object.class, ResultSet.class), 0, 0);
+        }
+        return bean;
+    }
+
+    // (ResultSet)type reading the given column; a primitive read is followed by a wasNull check
+    private MethodHandle reader(Target target, int column, List<String> labels) throws ReflectiveOperationException {
+        final MethodHandle read = reader(target.type(), column);
+        if (!target.type().isPrimitive()) {
+            return read;
+        }
+        final String what = "NULL in column " + labels.get(column - 1) + " for primitive " + target.type() + " "
+                + target.name() + " of " + type.getName();
+        // (value, rs) -> { checkNotNull(rs, what); return value; }, the value read from the same rs first
+        final MethodHandle check = MethodHandles.dropArguments(
+                MethodHandles.insertArguments(CHECK_NOT_NULL, 1, what), 0, target.type());
+        final MethodHandle value =
+                MethodHandles.dropArguments(MethodHandles.identity(target.type()), 1, ResultSet.class);
+        final MethodHandle checked = MethodHandles.collectArguments(MethodHandles.foldArguments(value, check), 0, read);
+        return MethodHandles.permuteArguments(checked, MethodType.methodType(target.type(), ResultSet.class), 0, 0);
+    }
+
+    private static MethodHandle reader(Class<?> type, int column) throws ReflectiveOperationException {
+        final String getter = GETTERS.get(type);
+        final MethodHandle read;
+        if (getter != null) {
+            read = MethodHandles.publicLookup()
+                    .findVirtual(ResultSet.class, getter, MethodType.methodType(type, int.class));
+        } else {
+            final MethodHandle generic;
+            if (type.isEnum()) {
+                generic = READ_ENUM;
+            } else if (type == char.class || type == Character.class) {
+                generic = READ_CHAR;
+            } else {
+                generic = READ_VALUE;
+            }
+            read = MethodHandles.insertArguments(generic, 2, type)
+                    .asType(MethodType.methodType(type, ResultSet.class, int.class));
+        }
+        return MethodHandles.insertArguments(read, 1, column);
+    }
+
+    @SuppressWarnings("unused") // called through READ_VALUE
+    private static Object readValue(ResultSet rs, int column, Class<?> type) throws SQLException {
+        return JdbcUtils.getResultSetValue(rs, column, type.isPrimitive() ? Object.class : type);
+    }
+
+    @SuppressWarnings("unused") // called through CHECK_NOT_NULL
+    private static void checkNotNull(ResultSet rs, String what) throws SQLException {
+        if (rs.wasNull()) {
+            throw new IllegalStateException(what + ", use its wrapper type");
+        }
+    }
+
+    @SuppressWarnings({"unused", "unchecked", "rawtypes"}) // called through READ_ENUM
+    private static Object readEnum(ResultSet rs, int column, Class<?> type) throws SQLException {
+        final String name = rs.getString(column);
+        return name == null ? null : Enum.valueOf((Class) type, name);
+    }
+
+    @SuppressWarnings("unused") // called through READ_CHAR
+    private static Object readChar(ResultSet rs, int column, Class<?> type) throws SQLException {
+        final String value = rs.getString(column);
+        if (value == null) {
+            // a primitive is checked with wasNull right after
+            return type.isPrimitive() ? Character.valueOf((char) 0) : null;
+        }
+        if (value.isEmpty()) {
+            throw new IllegalStateException("Empty string in column " + column + " for " + type);
+        }
+        return value.charAt(0);
+    }
+
+    private static Map<String, Target> recordComponents(Class<?> type) {
+        final Map<String, Target> components = new LinkedHashMap<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            add(components, new Target(component.getName(), component.getType(), null), type);
+        }
+        return components;
+    }
+
+    private static Map<String, Target> beanProperties(Class<?> type, MethodHandles.Lookup lookup) {
+        try {
+            lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(
+                    type.getName() + " is neither a record nor a bean with an accessible no-arg constructor", e);
+        }
+        final Map<String, Target> properties = new LinkedHashMap<>();
+        for (Method method : type.getMethods()) {
+            final String name = method.getName();
+            // bridges stand in for a generic setter that is listed as well
+            if (name.length() > 3
+                    && name.startsWith("set")
+                    && method.getParameterCount() == 1
+                    && !method.isBridge()
+                    && !Modifier.isStatic(method.getModifiers())) {
+                try {
+                    final String property = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                    add(
+                            properties,
+                            new Target(property, method.getParameterTypes()[0], lookup.unreflect(method)),
+                            type);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException(
+                            "Setter " + name + " of " + type.getName() + " is not accessible", e);
+                }
+            }
+        }
+        return properties;
+    }
+
+    // one target per column key: overloads and names that normalize alike would depend on reflection order
+    private static void add(Map<String, Target> targets, Target target, Class<?> type) {
+        final Target previous = targets.putIfAbsent(normalize(target.name()), target);
+        if (previous != null) {
+            throw new IllegalArgumentException("Ambiguous " + previous.type().getSimpleName() + " " + previous.name()
+                    + " and " + target.type().getSimpleName() + " " + target.name() + " of " + type.getName()
+                    + ": both match the same column");
+        }
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> type) {
+        final Module module = AutoRowMapper.class.getModule();
+        module.addReads(type.getModule());
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            // package not open to this module: public members of public types are still fine
+            if (Modifier.isPublic(type.getModifiers())) {
+                return MethodHandles.publicLookup();
+            }
+            throw new IllegalArgumentException(
+                    type.getName() + " is not accessible, make it public or open its package to " + module.getName(),
+                    e);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "AutoRowMapper[" + type.getName() + "]";
+    }
+
+    private record Target(String name, Class<?> type, MethodHandle setter) {}
+
+    private record Current(WeakReference<ResultSet> resultSet, MethodHandle binding) {}
+}
@@ -0,0 +1,95 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.BatchStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fluent builder for batched SQL statements with positional parameters.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * int[] counts = db.batchUpdate(SimpleSql.batch("INSERT INTO users (id, name) VALUES (?, ?)")
+ *     .add(1, "alice")
+ *     .add(2, "bob")
+ *     .chunkSize(500));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class BatchSqlBuilder extends BatchStatement {
+
+    private final String query;
+    private final List<Object[]> rows;
+    private int chunkSize;
+
+    public BatchSqlBuilder(String query) {
+        this.query = Objects.requireNonNull(query);
+        this.rows = new ArrayList<>();
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+    }
+
+    /**
+     * Adds one row of parameters.
+     *
+     * @param args parameters to bind to ? placeholders for this row
+     * @return this builder for chaining
+     */
+    public BatchSqlBuilder add(Object... args) {
+        rows.add(args == null ? new Object[0] : args.clone());
+        return this;
+    }
+
+    /**
+     * Sets how many rows are sent to the driver in one {@code executeBatch} call.
+     *
+     * @param size chunk size, must be positive
+     * @return this builder for chaining
+     */
+    public BatchSqlBuilder chunkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + size);
+        }
+        this.chunkSize = size;
+        return this;
+    }
+
+    @Override
+    public String getQuery() {
+        return query;
+    }
+
+    @Override
+    public List<Object[]> getBatchParameters() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public BatchSqlBuilder withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public BatchSqlBuilder withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public BatchSqlBuilder withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+}
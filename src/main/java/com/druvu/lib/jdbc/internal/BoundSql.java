@@ -0,0 +1,69 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.SqlStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+/**
+ * SQL text plus positional arguments ready to be bound to a {@link PreparedStatement}.
+ *
+ * <p>Named statements are translated to positional form the same way NamedParameterJdbcTemplate does it, including the
+ * expansion of collection values into {@code ?,?,?} lists. Used where the library works with plain JDBC instead of
+ * the Spring templates.
+ *
+ * @author Deniss Larka
+ */
+public final class BoundSql {
+
+    private final String sql;
+    private final Object[] arguments;
+
+    private BoundSql(String sql, Object[] arguments) {
+        this.sql = sql;
+        this.arguments = arguments;
+    }
+
+    public static BoundSql of(SqlStatement<?> statement) {
+        if (statement instanceof NamedSqlStatement<?> named) {
+            final MapSqlParameterSource source = new MapSqlParameterSource(named.getNamedParameters());
+            final ParsedSql parsed = NamedParameterUtils.parseSqlStatement(statement.getQuery());
+            final String sql = NamedParameterUtils.substituteNamedParameters(parsed, source);
+            return new BoundSql(sql, expand(NamedParameterUtils.buildValueArray(parsed, source, null)));
+        }
+        return new BoundSql(statement.getQuery(), statement.getParameters());
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    public void bind(PreparedStatement ps) throws SQLException {
+        new ArgumentPreparedStatementSetter(arguments).setValues(ps);
+    }
+
+    // mirrors PreparedStatementCreatorFactory: an Iterable value was substituted as a ?,?,? list (tuples as (?,?))
+    private static Object[] expand(Object[] values) {
+        final List<Object> result = new ArrayList<>(values.length);
+        for (Object value : values) {
+            if (value instanceof Iterable<?> entries) {
+                for (Object entry : entries) {
+                    if (entry instanceof Object[] tuple) {
+                        Collections.addAll(result, tuple);
+                    } else {
+                        result.add(entry);
+                    }
+                }
+            } else {
+                result.add(value);
+            }
+        }
+        return result.toArray();
+    }
+}
@@ -0,0 +1,120 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent cache with an upper bound on its size.
+ *
+ * <p>Reads are a single {@link ConcurrentHashMap} lookup plus a {@link System#nanoTime()} read: the access stamp of an
+ * entry is only rewritten when it is older than a millisecond, so hot entries read by many threads are not written on
+ * every hit and nothing is shared between keys. Recency is therefore tracked to the millisecond. When an insert
+ * pushes the size over the limit, the least recently used tenth of the entries is evicted in one pass, so the O(n)
+ * eviction cost is paid once per many inserts rather than on every one.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Deniss Larka
+ */
+public final class BoundedCache<K, V> {
+
+    private static final long STAMP_NANOS = 1_000_000;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size should be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached value, loading it when absent. Concurrent callers for the same key load it once; a loader
+     * exception is propagated and nothing is cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        final Entry<V> cached = entries.get(key);
+        if (cached != null) {
+            cached.touch();
+            return cached.value;
+        }
+        final Entry<V> loaded = entries.computeIfAbsent(key, k -> new Entry<>(loader.apply(k), System.nanoTime()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+        return loaded.value;
+    }
+
+    /** Returns the cached value without loading it, or {@code null}. Counts as an access for eviction. */
+    public V getIfPresent(K key) {
+        final Entry<V> cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        cached.touch();
+        return cached.value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /** Removes the entry only while it still maps to the given value, so a concurrent replacement survives. */
+    public void remove(K key, V value) {
+        final Entry<V> cached = entries.get(key);
+        if (cached != null && cached.value == value) {
+            entries.remove(key, cached);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict() {
+        final int excess = entries.size() - maxSize;
+        if (excess <= 0) {
+            return;
+        }
+        final int toRemove = Math.max(excess, maxSize / 10);
+        entries.entrySet().stream()
+                // nanoTime stamps compare by their difference, the origin is arbitrary
+                .sorted((a, b) -> Long.compare(a.getValue().stamp - b.getValue().stamp, 0))
+                .limit(toRemove)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long stamp;
+
+        private Entry(V value, long stamp) {
+            this.value = value;
+            this.stamp = stamp;
+        }
+
+        // a read of the volatile stamp on most hits, a write at most once per millisecond
+        private void touch() {
+            final long now = System.nanoTime();
+            if (now - stamp > STAMP_NANOS) {
+                stamp = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Read-only view of several open result sets of the same columns as one, their rows concatenated in list order. Only
+ * forward reading is meaningful: {@code next()} moves on to the following result set when one is exhausted, every
+ * other call goes to the current one. Closing the view is a no-op, the result sets belong to their statements.
+ *
+ * @author Deniss Larka
+ */
+public final class ChainedResultSet {
+
+    private ChainedResultSet() {}
+
+    public static ResultSet of(List<ResultSet> resultSets) {
+        if (resultSets.isEmpty()) {
+            throw new IllegalArgumentException("At least one result set is required");
+        }
+        if (resultSets.size() == 1) {
+            return resultSets.get(0);
+        }
+        final int[] current = {0};
+        return (ResultSet) Proxy.newProxyInstance(
+                ChainedResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next" -> {
+                            while (!resultSets.get(current[0]).next()) {
+                                if (current[0] == resultSets.size() - 1) {
+                                    return false;
+                                }
+                                current[0]++;
+                            }
+                            return true;
+                        }
+                        case "close" -> {
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "ChainedResultSet" + resultSets;
+                        }
+                        default -> {}
+                    }
+                    try {
+                        return method.invoke(resultSets.get(current[0]), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,185 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.SqlStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+/**
+ * Pull-based view of an open JDBC cursor: each {@code tryAdvance} reads and maps exactly one row.
+ *
+ * <p>Resources (result set, statement and the connection via the release callback) are freed when the cursor is
+ * exhausted, when mapping fails, when a terminal operation completes (see {@link AutoClosingStream}) or when the stream
+ * is closed. Closing before exhaustion cancels the statement first, so the database stops producing rows nobody will
+ * read.
+ *
+ * @param <T> the row type
+ * @author Deniss Larka
+ */
+@Slf4j
+public final class CursorSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private static final String TASK = "StreamCursor";
+
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> rowMapper;
+    private final Runnable release;
+    private final SQLExceptionTranslator translator;
+    private final String sql;
+    private final QueryTimer timer;
+    private final AdaptiveFetchSize adaptive;
+    private int rowNum;
+    private boolean exhausted;
+    private boolean closed;
+
+    private CursorSpliterator(
+            PreparedStatement statement,
+            ResultSet resultSet,
+            RowMapper<T> rowMapper,
+            Runnable release,
+            SQLExceptionTranslator translator,
+            String sql,
+            QueryTimer timer,
+            AdaptiveFetchSize adaptive) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+        this.release = release;
+        this.translator = translator;
+        this.sql = sql;
+        this.timer = timer;
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Executes the statement on the given connection and returns a lazy stream over its rows.
+     *
+     * @param connection connection to run on; handed back through {@code release} when the stream is done
+     * @param release returns the connection (and ends its transaction, if the caller opened one)
+     * @param select the statement to execute
+     * @param settings configures the statement before execution: fetch size, timeout, row limit; an
+     *     {@link com.druvu.lib.jdbc.AdaptiveFetch adaptive fetch} of the statement then resizes it while reading
+     * @param translator translates {@link SQLException}s to Spring's {@link DataAccessException} hierarchy
+     * @param timer records the call once the stream is released; time between pulls is not accounted
+     * @param <T> the row type
+     * @return stream released by its terminal operation or by {@code close()}
+     */
+    public static <T> Stream<T> open(
+            Connection connection,
+            Runnable release,
+            SqlStatement<T> select,
+            Settings settings,
+            SQLExceptionTranslator translator,
+            QueryTimer timer) {
+        final BoundSql bound = BoundSql.of(select);
+        PreparedStatement ps = null;
+        try {
+            ps = connection.prepareStatement(bound.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            settings.apply(ps);
+            bound.bind(ps);
+            final ResultSet rs = ps.executeQuery();
+            final CursorSpliterator<T> cursor = new CursorSpliterator<>(
+                    ps,
+                    rs,
+                    timer.timed(select.rowMapper()),
+                    release,
+                    translator,
+                    bound.sql(),
+                    timer,
+                    AdaptiveFetchSize.of(select.getOptions()));
+            timer.pause();
+            return AutoClosingStream.of(StreamSupport.stream(cursor, false).onClose(cursor::close));
+        } catch (SQLException e) {
+            timer.failure(e);
+            JdbcUtils.closeStatement(ps);
+            release.run();
+            throw translate(translator, bound.sql(), e);
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            JdbcUtils.closeStatement(ps);
+            release.run();
+            throw e;
+        }
+    }
+
+    /** Configures the cursor's statement before it is executed. */
+    @FunctionalInterface
+    public interface Settings {
+        void apply(PreparedStatement statement) throws SQLException;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        timer.resume();
+        try {
+            if (adaptive != null) {
+                adaptive.resume();
+            }
+            if (!resultSet.next()) {
+                exhausted = true;
+                close();
+                return false;
+            }
+            if (adaptive == null) {
+                timer.deliver(action, rowMapper.mapRow(resultSet, rowNum++));
+            } else {
+                adaptive.rowStart();
+                timer.deliver(action, rowMapper.mapRow(resultSet, rowNum++));
+                adaptive.rowEnd(resultSet);
+            }
+            timer.pause();
+            return true;
+        } catch (SQLException e) {
+            timer.failure(e);
+            close();
+            throw translate(translator, sql, e);
+        } catch (RuntimeException e) {
+            timer.failure(e);
+            close();
+            throw e;
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // no-op after a failure; an early close is a successful call that read fewer rows
+        timer.success();
+        try {
+            if (!exhausted) {
+                statement.cancel();
+            }
+        } catch (SQLException e) {
+            // not every driver can cancel a statement; closing it below still frees the cursor
+            log.debug("Statement cancel failed: {}", e.getMessage());
+        } finally {
+            JdbcUtils.closeResultSet(resultSet);
+            JdbcUtils.closeStatement(statement);
+            release.run();
+        }
+    }
+
+    private static DataAccessException translate(SQLExceptionTranslator translator, String sql, SQLException e) {
+        final DataAccessException translated = translator.translate(TASK, sql, e);
+        return translated != null ? translated : new UncategorizedSQLException(TASK, sql, e);
+    }
+}
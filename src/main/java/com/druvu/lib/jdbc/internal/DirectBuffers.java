@@ -0,0 +1,39 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small pool of direct byte buffers, per capacity.
+ *
+ * <p>Direct buffers are expensive to allocate and are freed only by the garbage collector, so short-lived users such as
+ * exports borrow one and give it back. At most {@link #POOLED} idle buffers are kept per capacity; more are dropped.
+ *
+ * @author Deniss Larka
+ */
+public final class DirectBuffers {
+
+    private static final int POOLED = 8;
+    private static final Map<Integer, Queue<ByteBuffer>> POOLS = new ConcurrentHashMap<>();
+
+    private DirectBuffers() {}
+
+    /** A cleared buffer of exactly the given capacity. */
+    public static ByteBuffer acquire(int capacity) {
+        final ByteBuffer pooled = pool(capacity).poll();
+        return pooled != null ? pooled.clear() : ByteBuffer.allocateDirect(capacity);
+    }
+
+    public static void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect()) {
+            pool(buffer.capacity()).offer(buffer);
+        }
+    }
+
+    private static Queue<ByteBuffer> pool(int capacity) {
+        return POOLS.computeIfAbsent(capacity, c -> new ArrayBlockingQueue<>(POOLED));
+    }
+}
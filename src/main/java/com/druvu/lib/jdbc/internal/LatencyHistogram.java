@@ -0,0 +1,84 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies.
+ *
+ * <p>Values below 16ns get a bucket each; above that every power of two is split into 8 linear sub-buckets, so a
+ * bucket is at most 12.5% wide relative to its value. Values above 2<sup>41</sup>ns (about 36 minutes) fall into the
+ * last bucket. Recording is one {@link AtomicLongArray} increment plus two adder updates; no locks, no allocation.
+ *
+ * @author Deniss Larka
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MIN_EXPONENT = 4;
+    private static final int MAX_EXPONENT = 40;
+    public static final int BUCKETS = LINEAR + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /** Copy of the bucket counts; the copy is not atomic across buckets, which is fine for monitoring. */
+    public long[] counts() {
+        final long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    /** Smallest value that falls into the given bucket. */
+    public static long lowerBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        final int exponent = MIN_EXPONENT + (bucket - LINEAR) / SUB_BUCKETS;
+        final int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    /** Width of the given bucket, in nanoseconds. */
+    public static long width(int bucket) {
+        if (bucket < LINEAR) {
+            return 1;
+        }
+        return 1L << (MIN_EXPONENT + (bucket - LINEAR) / SUB_BUCKETS - SUB_BITS);
+    }
+}
@@ -0,0 +1,93 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through read-only memory-mapped windows, decoding straight from the mapping: no read syscalls and no
+ * intermediate byte array, and the page cache does the read-ahead. Files larger than a window are mapped piece by
+ * piece, a character split across two windows is decoded from the start of the next one.
+ *
+ * <p>Malformed input fails instead of being replaced. Mappings are released by the garbage collector, not on
+ * {@link #close()}.
+ *
+ * @author Deniss Larka
+ */
+public final class MappedFileReader extends Reader {
+
+    private static final long WINDOW = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+
+    public MappedFileReader(Path path, Charset charset) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        map(0);
+    }
+
+    /** File size in bytes. */
+    public long size() {
+        return size;
+    }
+
+    /** Bytes decoded so far. */
+    public long position() {
+        return windowStart + window.position();
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        final CharBuffer out = CharBuffer.wrap(chars, offset, length);
+        while (out.position() == offset) {
+            if (flushed) {
+                return -1;
+            }
+            final boolean last = windowStart + window.limit() == size;
+            final CoderResult result = decoder.decode(window, out, last);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (out.position() > offset || result.isOverflow()) {
+                break;
+            }
+            if (last) {
+                decoder.flush(out);
+                flushed = true;
+            } else {
+                // window consumed, up to a character split by its end
+                map(position());
+            }
+        }
+        return out.position() - offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+    }
+}
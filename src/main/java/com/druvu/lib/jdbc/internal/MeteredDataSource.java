@@ -0,0 +1,133 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Data source timing every {@code getConnection} of the one it wraps: borrow latency, failed borrows and the threads
+ * inside the call right now, which for a pool is its wait queue.
+ *
+ * <p>Pool independent, so the numbers of different pools compare directly. Recording is lock-free, like the statement
+ * metrics.
+ *
+ * @author Deniss Larka
+ */
+public final class MeteredDataSource implements DataSource {
+
+    private final DataSource target;
+    private final AtomicInteger borrowing = new AtomicInteger();
+    private volatile Meter meter = new Meter();
+
+    public MeteredDataSource(DataSource target) {
+        this.target = target;
+    }
+
+    public DataSource getTarget() {
+        return target;
+    }
+
+    /** Threads waiting in {@code getConnection} right now. */
+    public int borrowing() {
+        return borrowing.get();
+    }
+
+    public LatencyHistogram latency() {
+        return meter.latency;
+    }
+
+    public long failures() {
+        return meter.failures.sum();
+    }
+
+    /** Most threads waiting in {@code getConnection} at the same time. */
+    public int peakBorrowing() {
+        return meter.peak.get();
+    }
+
+    /** Starts the latency, failure and peak counts afresh; threads waiting are a gauge and stay. */
+    public void reset() {
+        meter = new Meter();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return borrow(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return borrow(username, password);
+    }
+
+    private Connection borrow(String username, String password) throws SQLException {
+        final Meter current = meter;
+        final int waiting = borrowing.incrementAndGet();
+        if (waiting > current.peak.get()) {
+            current.peak.accumulateAndGet(waiting, Math::max);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Connection connection =
+                    username == null ? target.getConnection() : target.getConnection(username, password);
+            current.latency.record(System.nanoTime() - start);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            current.failures.increment();
+            throw e;
+        } finally {
+            borrowing.decrementAndGet();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "Metered[" + target + "]";
+    }
+
+    private static final class Meter {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicInteger peak = new AtomicInteger();
+    }
+}
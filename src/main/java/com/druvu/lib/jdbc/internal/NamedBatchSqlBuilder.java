@@ -0,0 +1,113 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.BatchStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fluent builder for batched SQL statements with named parameters.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * int[] counts = db.batchUpdate(SimpleSql.namedBatch("UPDATE users SET status = :status WHERE id = :id")
+ *     .add(Map.of("id", 1, "status", "active"))
+ *     .add(Map.of("id", 2, "status", "blocked")));
+ * }</pre>
+ *
+ * @author Deniss Larka
+ */
+public final class NamedBatchSqlBuilder extends BatchStatement implements NamedBatchStatement {
+
+    private final String query;
+    private final List<Map<String, Object>> rows;
+    private int chunkSize;
+
+    public NamedBatchSqlBuilder(String query) {
+        this.query = Objects.requireNonNull(query);
+        this.rows = new ArrayList<>();
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+    }
+
+    /**
+     * Adds one row of named parameters.
+     *
+     * @param params map of parameter names (without the colon prefix) to values for this row
+     * @return this builder for chaining
+     */
+    public NamedBatchSqlBuilder add(Map<String, ?> params) {
+        // not Map.copyOf: null values are legitimate (SQL NULL) and Map.copyOf rejects them
+        rows.add(params == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(params)));
+        return this;
+    }
+
+    /**
+     * Sets how many rows are sent to the driver in one {@code executeBatch} call.
+     *
+     * @param size chunk size, must be positive
+     * @return this builder for chaining
+     */
+    public NamedBatchSqlBuilder chunkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + size);
+        }
+        this.chunkSize = size;
+        return this;
+    }
+
+    @Override
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Named rows have no positional form: use {@link #getNamedBatchParameters()}.
+     *
+     * @throws IllegalStateException always
+     */
+    @Override
+    public List<Object[]> getBatchParameters() {
+        throw new IllegalStateException("Named batch has no positional parameters, use getNamedBatchParameters: "
+                + query);
+    }
+
+    @Override
+    public List<Map<String, Object>> getNamedBatchParameters() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public NamedBatchSqlBuilder withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public NamedBatchSqlBuilder withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public NamedBatchSqlBuilder withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+}
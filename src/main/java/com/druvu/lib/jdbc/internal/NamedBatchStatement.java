@@ -0,0 +1,22 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marker interface for batched SQL statements with named parameters.
+ *
+ * <p>Implementations provide each row's parameters as a Map instead of positional array. Used by DbAccess to determine
+ * whether to use NamedParameterJdbcTemplate.
+ *
+ * @author Deniss Larka
+ */
+public interface NamedBatchStatement {
+
+    /**
+     * Returns the named parameter sets, one map per row.
+     *
+     * @return list of maps of parameter names to values
+     */
+    List<Map<String, Object>> getNamedBatchParameters();
+}
@@ -1,11 +1,15 @@
 package com.druvu.lib.jdbc.internal;
 
+import com.druvu.lib.jdbc.AdaptiveFetch;
+import com.druvu.lib.jdbc.Row;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
-import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.RowMapper;
 
 /**
@@ -32,9 +36,13 @@ public final class NamedSqlBuilder extends SqlStatement<Map<String, Object>>
     private final Map<String, Object> parameters;
 
     public NamedSqlBuilder(String query) {
-        super(new ColumnMapRowMapper());
+        this(query, RowMappers.columnMap(), Map.of());
+    }
+
+    private NamedSqlBuilder(String query, RowMapper<Map<String, Object>> mapper, Map<String, Object> parameters) {
+        super(mapper);
         this.query = Objects.requireNonNull(query);
-        this.parameters = new LinkedHashMap<>();
+        this.parameters = new LinkedHashMap<>(parameters);
     }
 
     /**
@@ -62,6 +70,16 @@ public final class NamedSqlBuilder extends SqlStatement<Map<String, Object>>
         return this;
     }
 
+    /**
+     * Returns rows as compact {@link Row}s instead of Spring's column maps: same {@code Map} API, column metadata
+     * shared by all rows, one value array per row.
+     *
+     * @return a builder with the same query and parameters
+     */
+    public NamedSqlBuilder compact() {
+        return new NamedSqlBuilder(query, RowMappers.compact(), parameters).withOptions(getOptions());
+    }
+
     @Override
     public String getQuery() {
         return query;
@@ -89,6 +107,54 @@ public final class NamedSqlBuilder extends SqlStatement<Map<String, Object>>
     public <R> TypedNamedSqlBuilder<R> map(RowMapper<R> mapper) {
         TypedNamedSqlBuilder<R> typed = new TypedNamedSqlBuilder<>(query, mapper);
         typed.with(parameters);
-        return typed;
+        return typed.withOptions(getOptions());
+    }
+
+    /**
+     * Builds a typed statement mapping every row to a record or bean by column name, see
+     * {@link com.druvu.lib.jdbc.SimpleSql#query(String, Class)}.
+     *
+     * @param type a record, or a bean with a no-arg constructor and setters
+     * @param <R> the result type
+     * @return typed statement
+     */
+    public <R> TypedNamedSqlBuilder<R> map(Class<R> type) {
+        return map(RowMappers.auto(type));
+    }
+
+    @Override
+    public NamedSqlBuilder withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public NamedSqlBuilder withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public NamedSqlBuilder withMaxRows(int maxRows) {
+        super.withMaxRows(maxRows);
+        return this;
+    }
+
+    @Override
+    public NamedSqlBuilder withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+
+    @Override
+    public NamedSqlBuilder withFetchSize(int fetchSize) {
+        super.withFetchSize(fetchSize);
+        return this;
+    }
+
+    @Override
+    public NamedSqlBuilder withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        super.withAdaptiveFetch(adaptiveFetch);
+        return this;
     }
 }
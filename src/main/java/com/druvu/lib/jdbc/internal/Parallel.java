@@ -0,0 +1,114 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Runs blocking tasks on virtual threads and waits for all of them: total latency is that of the slowest task, not the
+ * sum. A single task runs on a virtual thread too, so no task sees the caller's transaction or other thread-bound
+ * state.
+ *
+ * <p>Fail-fast: the first failure is rethrown to the caller without waiting for the other tasks, failures already seen
+ * are attached as suppressed. Tasks still waiting for their turn never start; running ones are not interrupted, since
+ * interrupting a virtual thread blocked in socket I/O closes the connection's channel and breaks a healthy pooled
+ * connection. They finish in the background and return their connections to the pool; long ones can check
+ * {@link #cancelled()} and give up early.
+ *
+ * @author Deniss Larka
+ */
+public final class Parallel {
+
+    // the failure flag of the run the current task belongs to
+    private static final ThreadLocal<AtomicBoolean> RUN = new ThreadLocal<>();
+
+    private Parallel() {}
+
+    /** True inside a task of a {@link #map} run that already failed: its result is not wanted any more. */
+    public static boolean cancelled() {
+        final AtomicBoolean failed = RUN.get();
+        return failed != null && failed.get();
+    }
+
+    /**
+     * Applies {@code task} to every input concurrently, at most {@code maxParallelism} at a time.
+     *
+     * @return results in input order; may contain nulls
+     */
+    public static <T, R> List<R> map(
+            List<? extends T> inputs, Function<? super T, ? extends R> task, int maxParallelism) {
+        if (maxParallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive: " + maxParallelism);
+        }
+        if (inputs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Semaphore permits = new Semaphore(maxParallelism, true);
+        final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        final CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        final List<Future<Integer>> futures = new ArrayList<>(inputs.size());
+        final Object[] results = new Object[inputs.size()];
+        final AtomicBoolean failed = new AtomicBoolean();
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                final int index = i;
+                final T input = inputs.get(i);
+                futures.add(completion.submit(() -> {
+                    permits.acquire();
+                    try {
+                        if (failed.get()) {
+                            return index;
+                        }
+                        RUN.set(failed);
+                        results[index] = task.apply(input);
+                        return index;
+                    } finally {
+                        RUN.remove();
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < inputs.size(); i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            failed.set(true);
+            throw rethrow(e.getCause(), futures);
+        } catch (InterruptedException e) {
+            failed.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel tasks", e);
+        } finally {
+            // neither waits nor interrupts: tasks still running after a failure end on their own
+            executor.shutdown();
+        }
+        @SuppressWarnings("unchecked")
+        final List<R> list = (List<R>) Arrays.asList(results);
+        return Collections.unmodifiableList(list);
+    }
+
+    private static RuntimeException rethrow(Throwable cause, List<Future<Integer>> futures) {
+        final RuntimeException first = cause instanceof RuntimeException runtime
+                ? runtime
+                : new IllegalStateException(cause);
+        for (Future<Integer> future : futures) {
+            if (future.state() == Future.State.FAILED && future.exceptionNow() != cause) {
+                first.addSuppressed(future.exceptionNow());
+            }
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return first;
+    }
+}
@@ -1,5 +1,6 @@
 package com.druvu.lib.jdbc.internal;
 
+import com.druvu.lib.jdbc.ValidationStrategy;
 import java.util.Objects;
 import lombok.SneakyThrows;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
@@ -21,6 +22,12 @@ public class PoolPropertiesEx extends PoolProperties {
     public static final int VALIDATION_QUERY_TIMEOUT = -1;
     public static final int TIME_BETWEEN_EVICTION_RUNS_MILLIS = 120000;
     public static final int MIN_EVICTABLE_IDLE_TIME_MILLIS = 1800000;
+    public static final int QUERY_VALIDATION_INTERVAL = 3000;
+
+    // the configured SELECT, kept for the startup check when the pool itself validates with Connection.isValid
+    private String validationSelect;
+    // prepared statements kept per connection, 0 for none; see StatementCacheInterceptor
+    private int statementCacheSize;
 
     public static PoolPropertiesEx create(
             String url, String user, String password, String driver, String validationSelect) { // NOPMD
@@ -29,7 +36,7 @@ public class PoolPropertiesEx extends PoolProperties {
         result.setUrl(Objects.requireNonNull(url, "url is null"));
         result.setUsername(Objects.requireNonNull(user, "user is null"));
         result.setPassword(Objects.requireNonNull(password, "password is null"));
-        result.setValidationQuery(Objects.requireNonNull(validationSelect, "validation query is is null"));
+        result.validationSelect = Objects.requireNonNull(validationSelect, "validation query is is null");
 
         result.setConnectionProperties("[]");
         result.setDefaultAutoCommit(false);
@@ -40,15 +47,50 @@ public class PoolPropertiesEx extends PoolProperties {
         result.setMinIdle(MIN_IDLE);
         result.setMaxWait(MAX_WAIT);
         result.setValidationQueryTimeout(VALIDATION_QUERY_TIMEOUT);
-        result.setTestOnBorrow(true);
-        result.setTestOnReturn(true);
-        result.setTestWhileIdle(true);
-        result.setTimeBetweenEvictionRunsMillis(TIME_BETWEEN_EVICTION_RUNS_MILLIS);
         result.setMinEvictableIdleTimeMillis(MIN_EVICTABLE_IDLE_TIME_MILLIS);
         result.setAccessToUnderlyingConnectionAllowed(false);
+        applyValidation(result, ValidationStrategy.DEFAULT);
         return result;
     }
 
+    /** The configured validation SELECT, also when the pool validates with {@code Connection.isValid}. */
+    public static String validationSelect(PoolConfiguration pp) {
+        return pp instanceof PoolPropertiesEx ex ? ex.validationSelect : pp.getValidationQuery();
+    }
+
+    public static int statementCacheSize(PoolConfiguration pp) {
+        return pp instanceof PoolPropertiesEx ex ? ex.statementCacheSize : 0;
+    }
+
+    public static void statementCacheSize(PoolConfiguration pp, int size) {
+        if (pp instanceof PoolPropertiesEx ex) {
+            ex.statementCacheSize = size;
+        }
+    }
+
+    /** Sets the pool's test flags and intervals for the strategy. */
+    public static void applyValidation(PoolConfiguration pp, ValidationStrategy strategy) {
+        final ValidationStrategy.Mode mode = strategy.getMode();
+        final long interval = strategy.getInterval().toMillis();
+        // without a query Tomcat validates with Connection.isValid
+        pp.setValidationQuery(mode == ValidationStrategy.Mode.QUERY ? validationSelect(pp) : null);
+        pp.setTestOnBorrow(mode == ValidationStrategy.Mode.QUERY
+                || mode == ValidationStrategy.Mode.IS_VALID
+                || mode == ValidationStrategy.Mode.IDLE);
+        pp.setTestOnReturn(mode == ValidationStrategy.Mode.QUERY);
+        pp.setTestWhileIdle(mode == ValidationStrategy.Mode.QUERY || mode == ValidationStrategy.Mode.BACKGROUND);
+        pp.setValidationInterval(
+                switch (mode) {
+                    case QUERY -> QUERY_VALIDATION_INTERVAL;
+                    case IDLE -> interval;
+                    default -> 0;
+                });
+        pp.setTimeBetweenEvictionRunsMillis(
+                mode == ValidationStrategy.Mode.BACKGROUND
+                        ? (int) Math.min(Integer.MAX_VALUE, interval)
+                        : TIME_BETWEEN_EVICTION_RUNS_MILLIS);
+    }
+
     @SneakyThrows
     public static PoolConfiguration copy(PoolConfiguration pp) {
         if (pp instanceof PoolPropertiesEx ex) {
@@ -0,0 +1,161 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Times a single statement call and reports it to its {@link StatementRecorder}.
+ *
+ * <p>The call is split into connection acquisition (from start to {@link #acquired()}, only when the caller opens the
+ * transaction itself), row mapping (time spent in the mapper returned by {@link #timed(RowMapper)}) and execution (the
+ * rest). Time spent in caller code, such as a row consumer or the gaps between pulls of a lazy stream, is excluded via
+ * {@link #pause()}/{@link #resume()}. Only the first {@link #success()}/{@link #failure()} is recorded.
+ *
+ * <p>One instance per call; not thread-safe, but may be handed between threads that use it one after another.
+ *
+ * @author Deniss Larka
+ */
+public final class QueryTimer {
+
+    private static final long NOT_MEASURED = -1;
+
+    private final StatementRecorder recorder;
+    private final Runnable connectionFailed;
+    private final long start;
+    private long acquireNanos = NOT_MEASURED;
+    private long mappingNanos;
+    private long excludedNanos;
+    private long pausedAt;
+    private long mappedRows;
+    private boolean paused;
+    private boolean done;
+
+    public QueryTimer(StatementRecorder recorder) {
+        this(recorder, null);
+    }
+
+    /**
+     * @param connectionFailed notified when the call fails because its connection is broken, null for no one
+     */
+    public QueryTimer(StatementRecorder recorder, Runnable connectionFailed) {
+        this.recorder = Objects.requireNonNull(recorder);
+        this.connectionFailed = connectionFailed;
+        this.start = System.nanoTime();
+    }
+
+    /** Marks the moment the connection (and transaction) became available. */
+    public void acquired() {
+        acquireNanos = System.nanoTime() - start;
+    }
+
+    /** Wraps the mapper so that its time and the rows it maps are accounted to this call. */
+    public <T> RowMapper<T> timed(RowMapper<T> mapper) {
+        return (rs, rowNum) -> {
+            final long begin = System.nanoTime();
+            try {
+                return mapper.mapRow(rs, rowNum);
+            } finally {
+                mappingNanos += System.nanoTime() - begin;
+                mappedRows++;
+            }
+        };
+    }
+
+    /** Passes a row to caller code without accounting the time it takes to the statement. */
+    public <T> void deliver(Consumer<? super T> consumer, T row) {
+        pause();
+        try {
+            consumer.accept(row);
+        } finally {
+            resume();
+        }
+    }
+
+    public void pause() {
+        if (!paused) {
+            paused = true;
+            pausedAt = System.nanoTime();
+        }
+    }
+
+    public void resume() {
+        if (paused) {
+            paused = false;
+            excludedNanos += System.nanoTime() - pausedAt;
+        }
+    }
+
+    /** Records success with the number of rows the timed mapper has mapped. */
+    public void success() {
+        success(mappedRows);
+    }
+
+    /** Records success with an explicit row count, e.g. the update count. */
+    public void success(long rows) {
+        if (done) {
+            return;
+        }
+        done = true;
+        resume();
+        final long elapsed = System.nanoTime() - start - excludedNanos;
+        final long execution = elapsed - Math.max(0, acquireNanos) - mappingNanos;
+        recorder.success(acquireNanos, Math.max(0, execution), mappingNanos, rows);
+    }
+
+    public void failure() {
+        failure(null);
+    }
+
+    /** Records a failure, counted as a timeout as well when {@code cause} is one. */
+    public void failure(Throwable cause) {
+        if (done) {
+            return;
+        }
+        done = true;
+        recorder.failure(isTimeout(cause));
+        if (connectionFailed != null && isConnectionFailure(cause)) {
+            connectionFailed.run();
+        }
+    }
+
+    /** Whether the exception, or one of its causes, reports an exceeded query timeout or deadline. */
+    public static boolean isTimeout(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof QueryTimeoutException
+                    || t instanceof SQLTimeoutException
+                    || t instanceof TransactionTimedOutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether the exception, or one of its causes, reports a broken or unobtainable connection (SQLSTATE class 08). */
+    public static boolean isConnectionFailure(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof DataAccessResourceFailureException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLException sql && isConnectionState(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConnectionState(String sqlState) {
+        return sqlState != null && sqlState.startsWith("08");
+    }
+}
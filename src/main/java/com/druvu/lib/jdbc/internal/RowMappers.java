@@ -0,0 +1,47 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.Row;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+
+/**
+ * Shared instances of the stateless Spring row mappers used by the builders.
+ *
+ * <p>Sharing saves an allocation per statement and, more importantly, gives two statements with the same SQL and
+ * parameters equal {@link StatementKey}s, so they share a result cache entry, which needs the same mapper.
+ *
+ * @author Deniss Larka
+ */
+public final class RowMappers {
+
+    private static final RowMapper<Map<String, Object>> COLUMN_MAP = new ColumnMapRowMapper();
+    private static final Map<Class<?>, RowMapper<?>> SINGLE_COLUMN = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, RowMapper<?>> AUTO = new ConcurrentHashMap<>();
+
+    private RowMappers() {}
+
+    public static RowMapper<Map<String, Object>> columnMap() {
+        return COLUMN_MAP;
+    }
+
+    /** The {@link Row} mapper typed as a column map, for the untyped builders. */
+    @SuppressWarnings("unchecked")
+    public static RowMapper<Map<String, Object>> compact() {
+        // a Row is a Map<String, Object>
+        return (RowMapper<Map<String, Object>>) (RowMapper<?>) Row.mapper();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> singleColumn(Class<T> type) {
+        return (RowMapper<T>) SINGLE_COLUMN.computeIfAbsent(type, SingleColumnRowMapper::new);
+    }
+
+    /** Record or bean mapper of the given type, see {@link AutoRowMapper}; one per type, bindings are cached inside. */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> auto(Class<T> type) {
+        return (RowMapper<T>) AUTO.computeIfAbsent(type, AutoRowMapper::new);
+    }
+}
@@ -0,0 +1,109 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+/**
+ * Result-set extractors reading the first column of the first row into a primitive, without boxing.
+ *
+ * <p>Each extractor is its own result holder, so a scalar query allocates one small object and no wrapper; later rows
+ * are never read. SQL {@code NULL} and an empty result both leave {@code present} false.
+ *
+ * @author Deniss Larka
+ */
+public final class ScalarExtractors {
+
+    /** Reads nothing beyond the first {@code next()}: {@code Boolean.TRUE} when there is a row. */
+    public static final ResultSetExtractor<Boolean> EXISTS = ResultSet::next;
+
+    private ScalarExtractors() {}
+
+    public static final class LongResult implements ResultSetExtractor<LongResult> {
+        private long value;
+        private boolean present;
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        @Override
+        public LongResult extractData(ResultSet rs) throws SQLException {
+            if (rs.next()) {
+                value = rs.getLong(1);
+                present = !rs.wasNull();
+            }
+            return this;
+        }
+    }
+
+    public static final class IntResult implements ResultSetExtractor<IntResult> {
+        private int value;
+        private boolean present;
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        @Override
+        public IntResult extractData(ResultSet rs) throws SQLException {
+            if (rs.next()) {
+                value = rs.getInt(1);
+                present = !rs.wasNull();
+            }
+            return this;
+        }
+    }
+
+    public static final class DoubleResult implements ResultSetExtractor<DoubleResult> {
+        private double value;
+        private boolean present;
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        public DoubleResult extractData(ResultSet rs) throws SQLException {
+            if (rs.next()) {
+                value = rs.getDouble(1);
+                present = !rs.wasNull();
+            }
+            return this;
+        }
+    }
+
+    public static final class BooleanResult implements ResultSetExtractor<BooleanResult> {
+        private boolean value;
+        private boolean present;
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean getValue() {
+            return value;
+        }
+
+        @Override
+        public BooleanResult extractData(ResultSet rs) throws SQLException {
+            if (rs.next()) {
+                value = rs.getBoolean(1);
+                present = !rs.wasNull();
+            }
+            return this;
+        }
+    }
+}
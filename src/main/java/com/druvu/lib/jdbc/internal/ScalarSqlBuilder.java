@@ -1,11 +1,14 @@
 package com.druvu.lib.jdbc.internal;
 
+import com.druvu.lib.jdbc.AdaptiveFetch;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import org.springframework.jdbc.core.SingleColumnRowMapper;
 
 /**
  * Fluent builder for scalar (single-value) SQL queries.
@@ -32,7 +35,7 @@ public final class ScalarSqlBuilder<T> extends SqlStatement<T> {
     private final List<Object> parameters;
 
     public ScalarSqlBuilder(String query, Class<T> type) {
-        super(new SingleColumnRowMapper<>(type));
+        super(RowMappers.singleColumn(type));
         this.query = Objects.requireNonNull(query);
         this.parameters = new ArrayList<>();
     }
@@ -59,4 +62,40 @@ public final class ScalarSqlBuilder<T> extends SqlStatement<T> {
     public Object[] getParameters() {
         return parameters.toArray();
     }
+
+    @Override
+    public ScalarSqlBuilder<T> withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public ScalarSqlBuilder<T> withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public ScalarSqlBuilder<T> withMaxRows(int maxRows) {
+        super.withMaxRows(maxRows);
+        return this;
+    }
+
+    @Override
+    public ScalarSqlBuilder<T> withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+
+    @Override
+    public ScalarSqlBuilder<T> withFetchSize(int fetchSize) {
+        super.withFetchSize(fetchSize);
+        return this;
+    }
+
+    @Override
+    public ScalarSqlBuilder<T> withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        super.withAdaptiveFetch(adaptiveFetch);
+        return this;
+    }
 }
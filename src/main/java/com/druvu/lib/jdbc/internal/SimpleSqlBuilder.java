@@ -1,12 +1,16 @@
 package com.druvu.lib.jdbc.internal;
 
+import com.druvu.lib.jdbc.AdaptiveFetch;
+import com.druvu.lib.jdbc.Row;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.RowMapper;
 
 /**
@@ -35,9 +39,13 @@ public final class SimpleSqlBuilder extends SqlStatement<Map<String, Object>> {
     private final List<Object> parameters;
 
     public SimpleSqlBuilder(String query) {
-        super(new ColumnMapRowMapper());
+        this(query, RowMappers.columnMap(), List.of());
+    }
+
+    private SimpleSqlBuilder(String query, RowMapper<Map<String, Object>> mapper, List<Object> parameters) {
+        super(mapper);
         this.query = Objects.requireNonNull(query);
-        this.parameters = new ArrayList<>();
+        this.parameters = new ArrayList<>(parameters);
     }
 
     /**
@@ -53,6 +61,16 @@ public final class SimpleSqlBuilder extends SqlStatement<Map<String, Object>> {
         return this;
     }
 
+    /**
+     * Returns rows as compact {@link Row}s instead of Spring's column maps: same {@code Map} API, column metadata
+     * shared by all rows, one value array per row.
+     *
+     * @return a builder with the same query and parameters
+     */
+    public SimpleSqlBuilder compact() {
+        return new SimpleSqlBuilder(query, RowMappers.compact(), parameters).withOptions(getOptions());
+    }
+
     @Override
     public String getQuery() {
         return query;
@@ -71,6 +89,54 @@ public final class SimpleSqlBuilder extends SqlStatement<Map<String, Object>> {
      * @return typed statement
      */
     public <T> SqlStatement<T> map(RowMapper<T> mapper) {
-        return new SqlStatement<>(mapper, query, parameters);
+        return new SqlStatement<>(mapper, query, parameters).withOptions(getOptions());
+    }
+
+    /**
+     * Builds a typed statement mapping every row to a record or bean by column name, see
+     * {@link com.druvu.lib.jdbc.SimpleSql#query(String, Class)}.
+     *
+     * @param type a record, or a bean with a no-arg constructor and setters
+     * @param <T> the result type
+     * @return typed statement
+     */
+    public <T> SqlStatement<T> map(Class<T> type) {
+        return map(RowMappers.auto(type));
+    }
+
+    @Override
+    public SimpleSqlBuilder withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public SimpleSqlBuilder withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public SimpleSqlBuilder withMaxRows(int maxRows) {
+        super.withMaxRows(maxRows);
+        return this;
+    }
+
+    @Override
+    public SimpleSqlBuilder withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+
+    @Override
+    public SimpleSqlBuilder withFetchSize(int fetchSize) {
+        super.withFetchSize(fetchSize);
+        return this;
+    }
+
+    @Override
+    public SimpleSqlBuilder withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        super.withAdaptiveFetch(adaptiveFetch);
+        return this;
     }
 }
@@ -0,0 +1,87 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL text into a statement fingerprint: whitespace collapsed, string and numeric literals replaced with
+ * {@code ?}, and placeholder lists ({@code ?, ?, ?} as produced by {@code MultiParam} or IN-list expansion) collapsed
+ * to a single {@code ?}. Queries that differ only in literals or list lengths share one fingerprint.
+ *
+ * <p>Normalization is idempotent, and results are cached per raw query text, so the hot path is one map lookup.
+ *
+ * @author Deniss Larka
+ */
+public final class SqlFingerprint {
+
+    private static final int CACHE_LIMIT = 4096;
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?: ?, ?\\?)+");
+    private static final BoundedCache<String, String> CACHE = new BoundedCache<>(CACHE_LIMIT);
+
+    private SqlFingerprint() {}
+
+    public static String of(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        return CACHE.get(sql, SqlFingerprint::normalize);
+    }
+
+    static String normalize(String sql) {
+        final StringBuilder out = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < sql.length()) {
+            final char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                out.append('?');
+            } else if (c == '"') {
+                final int end = skipQuoted(sql, i, '"');
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return PLACEHOLDER_LIST.matcher(out).replaceAll("?");
+    }
+
+    // returns the index after the closing quote; a doubled quote is an escaped one
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierPart(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        final char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == ':';
+    }
+}
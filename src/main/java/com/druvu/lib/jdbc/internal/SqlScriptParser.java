@@ -0,0 +1,365 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a SQL script into statements while reading it, through a fixed character buffer, so a script of any size is
+ * parsed with one statement in memory.
+ *
+ * <p>The delimiter, {@code ;} by default, ends a statement only outside of:
+ *
+ * <ul>
+ *   <li>{@code 'string'} literals, with {@code ''} escapes and optionally MySQL backslash escapes
+ *   <li>{@code "quoted"} and {@code `backtick`} identifiers
+ *   <li>{@code -- line} comments, which are dropped, and {@code /* block *}{@code /} comments, which are kept (they may
+ *       be optimizer hints) and may nest as in PostgreSQL
+ *   <li>PostgreSQL {@code $$} and {@code $tag$} dollar-quoted bodies
+ * </ul>
+ *
+ * <p>A {@code DELIMITER //} line at the start of a statement switches the delimiter, as in the MySQL client, so
+ * procedure bodies can contain {@code ;}. Statements holding only comments are skipped. Unterminated quotes and
+ * comments fail with the line they started on.
+ *
+ * @author Deniss Larka
+ */
+public final class SqlScriptParser implements Iterator<String>, Closeable {
+
+    public static final String DEFAULT_DELIMITER = ";";
+
+    private static final int BUFFER = 8192;
+    private static final String DIRECTIVE = "DELIMITER";
+
+    private enum State {
+        CODE,
+        SINGLE,
+        DOUBLE,
+        BACKTICK,
+        LINE_COMMENT,
+        BLOCK_COMMENT,
+        DOLLAR
+    }
+
+    private final Reader reader;
+    private final boolean backslashEscapes;
+    private final char[] buffer = new char[BUFFER];
+    private final StringBuilder sql = new StringBuilder(256);
+    private int position;
+    private int limit;
+    private boolean eof;
+    private String delimiter = DEFAULT_DELIMITER;
+    private int line = 1;
+    private long statements;
+    private String next;
+
+    public SqlScriptParser(Reader reader, boolean backslashEscapes) {
+        this.reader = reader;
+        this.backslashEscapes = backslashEscapes;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = parse();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String result = next;
+        next = null;
+        statements++;
+        return result;
+    }
+
+    /** Statements returned so far. */
+    public long statements() {
+        return statements;
+    }
+
+    /** Current line, 1-based. */
+    public int line() {
+        return line;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String parse() {
+        while (true) {
+            final String statement = parseStatement();
+            if (statement == null || !statement.isEmpty()) {
+                return statement;
+            }
+        }
+    }
+
+    // one statement up to the delimiter: null at the end of input, empty when it held no code
+    private String parseStatement() {
+        sql.setLength(0);
+        State state = State.CODE;
+        boolean code = false;
+        int depth = 0;
+        String tag = null;
+        int startLine = line;
+        int c;
+        while ((c = read()) >= 0) {
+            switch (state) {
+                case CODE -> {
+                    if (sql.isEmpty() && Character.isWhitespace(c)) {
+                        continue;
+                    }
+                    if (!code && isDirective(c)) {
+                        readDirective();
+                        sql.setLength(0);
+                        continue;
+                    }
+                    if (!code && sql.isEmpty()) {
+                        startLine = line;
+                    }
+                    if (c == delimiter.charAt(0) && lookingAt(delimiter, 1)) {
+                        skip(delimiter.length() - 1);
+                        return code ? sql.toString().trim() : "";
+                    }
+                    if (c == '-' && peek(0) == '-') {
+                        skip(1);
+                        state = State.LINE_COMMENT;
+                        continue;
+                    }
+                    if (c == '/' && peek(0) == '*') {
+                        sql.append("/*");
+                        skip(1);
+                        depth = 1;
+                        state = State.BLOCK_COMMENT;
+                        continue;
+                    }
+                    code = true;
+                    if (c == '$' && delimiter.indexOf('$') < 0 && !endsWithIdentifier()) {
+                        tag = dollarTag();
+                        if (tag != null) {
+                            sql.append(tag);
+                            skip(tag.length() - 1);
+                            state = State.DOLLAR;
+                            continue;
+                        }
+                    }
+                    sql.append((char) c);
+                    if (c == '\'') {
+                        state = State.SINGLE;
+                    } else if (c == '"') {
+                        state = State.DOUBLE;
+                    } else if (c == '`') {
+                        state = State.BACKTICK;
+                    }
+                }
+                case SINGLE -> {
+                    sql.append((char) c);
+                    if (c == '\\' && backslashEscapes) {
+                        final int escaped = read();
+                        if (escaped >= 0) {
+                            sql.append((char) escaped);
+                        }
+                    } else if (c == '\'') {
+                        if (peek(0) == '\'') {
+                            sql.append('\'');
+                            skip(1);
+                        } else {
+                            state = State.CODE;
+                        }
+                    }
+                }
+                case DOUBLE -> {
+                    sql.append((char) c);
+                    if (c == '"') {
+                        state = State.CODE;
+                    }
+                }
+                case BACKTICK -> {
+                    sql.append((char) c);
+                    if (c == '`') {
+                        state = State.CODE;
+                    }
+                }
+                case LINE_COMMENT -> {
+                    if (c == '\n') {
+                        sql.append('\n');
+                        state = State.CODE;
+                    }
+                }
+                case BLOCK_COMMENT -> {
+                    sql.append((char) c);
+                    if (c == '*' && peek(0) == '/') {
+                        sql.append('/');
+                        skip(1);
+                        if (--depth == 0) {
+                            state = State.CODE;
+                        }
+                    } else if (c == '/' && peek(0) == '*') {
+                        sql.append('*');
+                        skip(1);
+                        depth++;
+                    }
+                }
+                case DOLLAR -> {
+                    sql.append((char) c);
+                    if (c == '$' && lookingAt(tag, 1)) {
+                        sql.append(tag, 1, tag.length());
+                        skip(tag.length() - 1);
+                        state = State.CODE;
+                    }
+                }
+            }
+        }
+        if (state != State.CODE && state != State.LINE_COMMENT) {
+            throw new IllegalStateException("Unterminated " + describe(state) + " in SQL statement starting at line "
+                    + startLine + ": " + abbreviate(sql));
+        }
+        // the last statement may lack its delimiter
+        return code ? sql.toString().trim() : null;
+    }
+
+    private boolean isDirective(int c) {
+        if (c != 'D' && c != 'd') {
+            return false;
+        }
+        for (int i = 1; i < DIRECTIVE.length(); i++) {
+            if (Character.toUpperCase(peek(i - 1)) != DIRECTIVE.charAt(i)) {
+                return false;
+            }
+        }
+        final int after = peek(DIRECTIVE.length() - 1);
+        return after == ' ' || after == '\t';
+    }
+
+    private void readDirective() {
+        skip(DIRECTIVE.length() - 1);
+        final StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = read()) >= 0 && c != '\n') {
+            value.append((char) c);
+        }
+        final String trimmed = value.toString().strip();
+        if (trimmed.isEmpty() || trimmed.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalStateException("Invalid DELIMITER directive before line " + line + ": " + trimmed);
+        }
+        delimiter = trimmed;
+    }
+
+    // $tag$ or $$ at the current position (the first $ already read), else null
+    private String dollarTag() {
+        int i = 0;
+        int c;
+        while ((c = peek(i)) >= 0 && c != '$') {
+            final boolean valid = i == 0 ? Character.isLetter(c) || c == '_' : Character.isLetterOrDigit(c) || c == '_';
+            if (!valid || i + 2 >= BUFFER) {
+                return null;
+            }
+            i++;
+        }
+        if (c != '$') {
+            return null;
+        }
+        final StringBuilder tag = new StringBuilder(i + 2).append('$');
+        for (int k = 0; k < i; k++) {
+            tag.append((char) peek(k));
+        }
+        return tag.append('$').toString();
+    }
+
+    private boolean endsWithIdentifier() {
+        if (sql.isEmpty()) {
+            return false;
+        }
+        final char last = sql.charAt(sql.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+
+    // whether text from index 'from' on follows the character just read
+    private boolean lookingAt(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (peek(i - from) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int read() {
+        if (position == limit && !fill(1)) {
+            return -1;
+        }
+        final char c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    // the character 'ahead' positions after the next one to read, -1 past the end
+    private int peek(int ahead) {
+        if (position + ahead >= limit && !fill(ahead + 1)) {
+            return -1;
+        }
+        return buffer[position + ahead];
+    }
+
+    private void skip(int count) {
+        for (int i = 0; i < count; i++) {
+            read();
+        }
+    }
+
+    // makes at least 'count' characters available, unless the input ends first
+    private boolean fill(int count) {
+        if (count > BUFFER) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        try {
+            while (limit < count && !eof) {
+                final int read = reader.read(buffer, limit, BUFFER - limit);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    limit += read;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read SQL script at line " + line, e);
+        }
+        return limit >= count;
+    }
+
+    private static String describe(State state) {
+        return switch (state) {
+            case SINGLE -> "string literal";
+            case DOUBLE -> "quoted identifier";
+            case BACKTICK -> "backtick identifier";
+            case BLOCK_COMMENT -> "block comment";
+            case DOLLAR -> "dollar-quoted string";
+            default -> state.name();
+        };
+    }
+
+    private static String abbreviate(CharSequence text) {
+        return text.length() <= 80 ? text.toString() : text.subSequence(0, 80) + "...";
+    }
+}
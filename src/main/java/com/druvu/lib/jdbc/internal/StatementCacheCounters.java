@@ -0,0 +1,50 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the {@link StatementCacheInterceptor}s of one pool, summed over its connections.
+ *
+ * @author Deniss Larka
+ */
+public final class StatementCacheCounters {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicInteger cached = new AtomicInteger();
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /** Statements held open for reuse right now. */
+    public int cached() {
+        return cached.get();
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void evicted() {
+        evictions.increment();
+    }
+
+    void cached(int delta) {
+        cached.addAndGet(delta);
+    }
+}
@@ -0,0 +1,256 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.JdbcInterceptor;
+import org.apache.tomcat.jdbc.pool.PoolProperties.InterceptorProperty;
+import org.apache.tomcat.jdbc.pool.PooledConnection;
+
+/**
+ * Tomcat pool interceptor keeping the prepared statements of a connection open for reuse, least recently used evicted
+ * beyond {@code max} per connection. Keyed by SQL text and the other {@code prepareStatement} arguments.
+ *
+ * <p>Tomcat creates one interceptor per pooled connection and keeps it across borrows, so the cache lives as long as
+ * the physical connection; it is closed with it. A statement is handed out to one caller at a time: a hit takes it out
+ * of the cache, its {@code close()} puts it back with parameters cleared and the settings the caller changed (timeout,
+ * max rows, fetch size) restored, or really closes it when that is not possible.
+ *
+ * <p>Unlike Tomcat's own {@code StatementCache}, which stops caching when full, a new statement evicts the least
+ * recently used one, and the counters are reported, see {@link #register(StatementCacheCounters)}.
+ *
+ * @author Deniss Larka
+ */
+@Slf4j
+public final class StatementCacheInterceptor extends JdbcInterceptor {
+
+    public static final String MAX = "max";
+    public static final String COUNTERS = "counters";
+
+    private static final Map<String, StatementCacheCounters> REGISTRY = new ConcurrentHashMap<>();
+    private static final AtomicLong KEYS = new AtomicLong();
+
+    private final LinkedHashMap<Key, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private int max = 50;
+    private StatementCacheCounters counters = new StatementCacheCounters();
+
+    /**
+     * Makes counters reachable from the interceptors of a pool, which Tomcat creates by class name.
+     *
+     * @return the key for the {@code counters} property of {@link #definition(int, String)}
+     */
+    public static String register(StatementCacheCounters counters) {
+        final String key = Long.toString(KEYS.incrementAndGet());
+        REGISTRY.put(key, counters);
+        return key;
+    }
+
+    public static void unregister(String key) {
+        REGISTRY.remove(key);
+    }
+
+    /** Entry for the pool's {@code jdbcInterceptors} property. */
+    public static String definition(int max, String countersKey) {
+        return String.format(
+                "%s(%s=%d,%s=%s)", StatementCacheInterceptor.class.getName(), MAX, max, COUNTERS, countersKey);
+    }
+
+    @Override
+    public void setProperties(Map<String, InterceptorProperty> properties) {
+        super.setProperties(properties);
+        final InterceptorProperty maxProperty = properties.get(MAX);
+        if (maxProperty != null) {
+            max = maxProperty.getValueAsInt(max);
+        }
+        final InterceptorProperty countersProperty = properties.get(COUNTERS);
+        if (countersProperty != null) {
+            counters = REGISTRY.getOrDefault(countersProperty.getValue(), counters);
+        }
+    }
+
+    @Override
+    public void reset(ConnectionPool parent, PooledConnection con) {
+        // the cache belongs to the pooled connection, which keeps this interceptor across borrows
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (!"prepareStatement".equals(method.getName()) || args == null || !(args[0] instanceof String sql)) {
+            return super.invoke(proxy, method, args);
+        }
+        final String options = args.length > 1 ? Arrays.deepToString(Arrays.copyOfRange(args, 1, args.length)) : "";
+        final Key key = new Key(sql, options);
+        final PreparedStatement cached;
+        synchronized (idle) {
+            cached = idle.remove(key);
+        }
+        final PreparedStatement statement;
+        if (cached != null) {
+            counters.hit();
+            counters.cached(-1);
+            statement = cached;
+        } else {
+            counters.miss();
+            statement = (PreparedStatement) super.invoke(proxy, method, args);
+        }
+        final Handout handout = new Handout(key, statement, proxy);
+        return Proxy.newProxyInstance(
+                StatementCacheInterceptor.class.getClassLoader(), new Class<?>[] {method.getReturnType()}, handout);
+    }
+
+    @Override
+    public void disconnected(ConnectionPool parent, PooledConnection con, boolean finalizing) {
+        final List<PreparedStatement> statements;
+        synchronized (idle) {
+            statements = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        counters.cached(-statements.size());
+        statements.forEach(StatementCacheInterceptor::closeQuietly);
+        super.disconnected(parent, con, finalizing);
+    }
+
+    private void release(Key key, PreparedStatement statement, Handout handout) {
+        if (max <= 0 || !handout.restore()) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement evicted = null;
+        synchronized (idle) {
+            // the same SQL prepared twice at a time: keep one
+            if (idle.putIfAbsent(key, statement) != null) {
+                evicted = statement;
+            } else if (idle.size() > max) {
+                final Iterator<PreparedStatement> eldest = idle.values().iterator();
+                evicted = eldest.next();
+                eldest.remove();
+                counters.evicted();
+            } else {
+                counters.cached(1);
+            }
+        }
+        if (evicted != null) {
+            closeQuietly(evicted);
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Cannot close cached statement", e);
+        }
+    }
+
+    private record Key(String sql, String options) {}
+
+    /** One caller's use of a cached statement; its close returns the statement to the cache. */
+    private final class Handout implements InvocationHandler {
+
+        private final Key key;
+        private final PreparedStatement statement;
+        private final Object connection;
+        private boolean closed;
+        private boolean reusable = true;
+        private Settings settings;
+
+        Handout(Key key, PreparedStatement statement, Object connection) {
+            this.key = key;
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        release(key, statement, this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Cached[" + statement + "]";
+                }
+                default -> {}
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (method.getDeclaringClass() == Statement.class && method.getName().startsWith("set")) {
+                changing(method.getName());
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void changing(String setter) throws SQLException {
+            switch (setter) {
+                case "setQueryTimeout", "setMaxRows", "setLargeMaxRows", "setFetchSize", "setMaxFieldSize" -> {
+                    if (settings == null) {
+                        settings = new Settings(
+                                statement.getQueryTimeout(),
+                                statement.getMaxRows(),
+                                statement.getFetchSize(),
+                                statement.getMaxFieldSize());
+                    }
+                }
+                // cursor names, escape processing and the like are rare: such a statement is not reused
+                default -> reusable = false;
+            }
+        }
+
+        // parameters cleared and changed settings restored, false when the statement cannot be reused
+        boolean restore() {
+            if (!reusable) {
+                return false;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearWarnings();
+                if (settings != null) {
+                    statement.setQueryTimeout(settings.queryTimeout());
+                    statement.setMaxRows(settings.maxRows());
+                    statement.setFetchSize(settings.fetchSize());
+                    statement.setMaxFieldSize(settings.maxFieldSize());
+                }
+                return !statement.isClosed();
+            } catch (SQLException e) {
+                log.debug("Cached statement not reusable", e);
+                return false;
+            }
+        }
+    }
+
+    private record Settings(int queryTimeout, int maxRows, int fetchSize, int maxFieldSize) {}
+}
@@ -0,0 +1,81 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Immutable identity of a statement: query text, positional and named parameters, row mapper and options.
+ *
+ * <p>Builders are mutable, so anything that keeps statements as map keys (result caches) keeps a key snapshot taken at
+ * call time instead. Parameters are compared deeply (arrays by content); mappers by their own {@code equals}, which
+ * for lambdas and most mappers means identity. Options are part of the key as a row limit changes the result.
+ *
+ * @author Deniss Larka
+ */
+public final class StatementKey {
+
+    private final String query;
+    private final Object[] parameters;
+    private final Map<String, Object> namedParameters;
+    private final RowMapper<?> rowMapper;
+    private final StatementOptions options;
+    private final int hash;
+
+    private StatementKey(
+            String query,
+            Object[] parameters,
+            Map<String, Object> namedParameters,
+            RowMapper<?> rowMapper,
+            StatementOptions options) {
+        this.query = query;
+        this.parameters = parameters;
+        this.namedParameters = namedParameters;
+        this.rowMapper = rowMapper;
+        this.options = options;
+        this.hash = Objects.hash(query, Arrays.deepHashCode(parameters), namedParameters, rowMapper, options);
+    }
+
+    public static StatementKey of(SqlStatement<?> statement) {
+        final Map<String, Object> named = statement instanceof NamedSqlStatement<?> namedStatement
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(namedStatement.getNamedParameters()))
+                : Collections.emptyMap();
+        return new StatementKey(
+                statement.getQuery(), statement.getParameters(), named, statement.rowMapper(), statement.getOptions());
+    }
+
+    public String query() {
+        return query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StatementKey other)) {
+            return false;
+        }
+        return hash == other.hash
+                && Objects.equals(query, other.query)
+                && Arrays.deepEquals(parameters, other.parameters)
+                && namedParameters.equals(other.namedParameters)
+                && Objects.equals(rowMapper, other.rowMapper)
+                && Objects.equals(options, other.options);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return query + " " + Arrays.deepToString(parameters) + (namedParameters.isEmpty() ? "" : " " + namedParameters);
+    }
+}
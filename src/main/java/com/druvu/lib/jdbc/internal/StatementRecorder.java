@@ -0,0 +1,81 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live, lock-free counters and latency histograms of one statement fingerprint.
+ *
+ * @author Deniss Larka
+ */
+public final class StatementRecorder {
+
+    private final String fingerprint;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram execution = new LatencyHistogram();
+    private final LatencyHistogram mapping = new LatencyHistogram();
+
+    public StatementRecorder(String fingerprint) {
+        this.fingerprint = Objects.requireNonNull(fingerprint);
+    }
+
+    void success(long acquireNanos, long executionNanos, long mappingNanos, long rowCount) {
+        calls.increment();
+        rows.add(rowCount);
+        if (acquireNanos >= 0) {
+            acquire.record(acquireNanos);
+        }
+        execution.record(executionNanos);
+        mapping.record(mappingNanos);
+        total.record(Math.max(0, acquireNanos) + executionNanos + mappingNanos);
+    }
+
+    void failure(boolean timeout) {
+        calls.increment();
+        errors.increment();
+        if (timeout) {
+            timeouts.increment();
+        }
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    public long rows() {
+        return rows.sum();
+    }
+
+    public LatencyHistogram total() {
+        return total;
+    }
+
+    public LatencyHistogram acquire() {
+        return acquire;
+    }
+
+    public LatencyHistogram execution() {
+        return execution;
+    }
+
+    public LatencyHistogram mapping() {
+        return mapping;
+    }
+}
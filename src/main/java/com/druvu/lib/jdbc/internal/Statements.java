@@ -0,0 +1,62 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.BatchStatement;
+import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Statement helpers for code that executes a caller's statement with its own row mapper.
+ *
+ * @author Deniss Larka
+ */
+public final class Statements {
+
+    private Statements() {}
+
+    /** The same query, parameters and options, positional or named, mapped by {@code mapper}. */
+    public static <R> SqlStatement<R> withMapper(SqlStatement<?> statement, RowMapper<R> mapper) {
+        if (statement instanceof NamedSqlStatement<?> named) {
+            return new TypedNamedSqlBuilder<>(statement.getQuery(), mapper)
+                    .with(named.getNamedParameters())
+                    .withOptions(statement.getOptions());
+        }
+        return new SqlStatement<>(mapper, statement.getQuery(), Arrays.asList(statement.getParameters()))
+                .withOptions(statement.getOptions());
+    }
+
+    /** One statement per row of the batch, positional or named, each with the given options. */
+    public static List<SqlStatement<?>> rows(BatchStatement batch, StatementOptions options) {
+        if (batch instanceof NamedBatchStatement named) {
+            return named.getNamedBatchParameters().stream()
+                    .<SqlStatement<?>>map(row -> new NamedSqlBuilder(batch.getQuery())
+                            .with(row)
+                            .withOptions(options))
+                    .toList();
+        }
+        return batch.getBatchParameters().stream()
+                .<SqlStatement<?>>map(row -> new SimpleSqlBuilder(batch.getQuery())
+                        .with(row)
+                        .withOptions(options))
+                .toList();
+    }
+
+    /**
+     * Options for running the rows of a batch one by one: the timeout of the whole batch becomes a deadline shared by
+     * all rows, the earlier one when the batch has both.
+     */
+    public static StatementOptions rowOptions(BatchStatement batch) {
+        final StatementOptions options = batch.getOptions();
+        Instant deadline = options.getDeadline().orElse(null);
+        if (options.getTimeout().isPresent()) {
+            final Instant byTimeout = Instant.now().plus(options.getTimeout().get());
+            if (deadline == null || byTimeout.isBefore(deadline)) {
+                deadline = byTimeout;
+            }
+        }
+        return deadline == null ? StatementOptions.NONE : StatementOptions.NONE.withDeadline(deadline);
+    }
+}
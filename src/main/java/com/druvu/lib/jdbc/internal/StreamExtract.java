@@ -0,0 +1,107 @@
+package com.druvu.lib.jdbc.internal;
+
+import com.druvu.lib.jdbc.DbAccessDirect;
+import com.druvu.lib.jdbc.SqlStatement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * {@link DbAccessDirect#extract} on top of the push {@code stream}, for implementations without an extract of their
+ * own. The row mapper of the first row hands the cursor to the extractor, positioned before that row as the extractor
+ * expects; rows the extractor leaves unread are skipped by the stream without being mapped. Without rows the extractor
+ * gets an empty result set that only answers {@code next()}.
+ *
+ * @author Deniss Larka
+ */
+public final class StreamExtract {
+
+    private static final String TASK = "extract";
+
+    private StreamExtract() {}
+
+    public static <R> R extract(DbAccessDirect db, SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+        final Object[] result = new Object[1];
+        final boolean[] extracted = {false};
+        final RowMapper<Boolean> mapper = (rs, rowNum) -> {
+            if (!extracted[0]) {
+                extracted[0] = true;
+                result[0] = extractor.extractData(fromCurrentRow(rs));
+            }
+            return Boolean.TRUE;
+        };
+        db.stream(Statements.withMapper(select, mapper), row -> {});
+        if (!extracted[0]) {
+            try {
+                result[0] = extractor.extractData(empty());
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException(TASK, select.getQuery(), e);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        final R value = (R) result[0];
+        return value;
+    }
+
+    // the stream has moved to the first row already: the first next() stays there
+    private static ResultSet fromCurrentRow(ResultSet rs) {
+        final boolean[] started = {false};
+        return (ResultSet) Proxy.newProxyInstance(
+                StreamExtract.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next" -> {
+                            if (!started[0]) {
+                                started[0] = true;
+                                return true;
+                            }
+                        }
+                        case "close" -> {
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "StreamExtract[" + rs + "]";
+                        }
+                        default -> {}
+                    }
+                    try {
+                        return method.invoke(rs, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static ResultSet empty() {
+        return (ResultSet) Proxy.newProxyInstance(
+                StreamExtract.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next", "isClosed" -> {
+                            return false;
+                        }
+                        case "close" -> {
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "StreamExtract[empty]";
+                        }
+                        default -> throw new SQLException("No rows: " + method.getName() + " is not available");
+                    }
+                });
+    }
+}
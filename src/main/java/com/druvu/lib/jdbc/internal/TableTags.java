@@ -0,0 +1,69 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the table names a SQL statement reads or writes, for tag-based cache invalidation.
+ *
+ * <p>Looks at the identifiers following {@code FROM} (including comma-separated lists), {@code JOIN}, {@code UPDATE},
+ * {@code INTO} and {@code TABLE}. Names are lower-cased, unquoted and stripped of their schema, so {@code
+ * "Public"."Users"} and {@code users} give the same tag. This is a heuristic, not a parser: an empty result means
+ * "unknown" and callers should treat it as "any table".
+ *
+ * @author Deniss Larka
+ */
+public final class TableTags {
+
+    private static final int CACHE_LIMIT = 4096;
+    private static final Pattern KEYWORD =
+            Pattern.compile("\\b(FROM|JOIN|UPDATE|INTO|TABLE)\\s+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern IDENTIFIER = Pattern.compile("(?:[\"`]?[\\w$]+[\"`]?\\.)*[\"`]?([\\w$]+)[\"`]?");
+    private static final Pattern ALIAS = Pattern.compile(
+            "\\s+(?:AS\\s+)?(?!(?:WHERE|JOIN|INNER|LEFT|RIGHT|FULL|CROSS|NATURAL|ON|USING|GROUP|ORDER|HAVING|LIMIT"
+                    + "|OFFSET|FETCH|FOR|UNION|INTERSECT|EXCEPT|WINDOW|SET|VALUES|RETURNING)\\b)[\\w$]+",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMMA = Pattern.compile("\\s*,\\s*");
+    private static final BoundedCache<String, Set<String>> CACHE = new BoundedCache<>(CACHE_LIMIT);
+
+    private TableTags() {}
+
+    /** Table tags of the statement, empty when none could be recognized. */
+    public static Set<String> of(String sql) {
+        if (sql == null) {
+            return Collections.emptySet();
+        }
+        return CACHE.get(sql, TableTags::extract);
+    }
+
+    static Set<String> extract(String sql) {
+        final Set<String> tables = new LinkedHashSet<>();
+        final Matcher keyword = KEYWORD.matcher(sql);
+        final Matcher identifier = IDENTIFIER.matcher(sql);
+        final Matcher alias = ALIAS.matcher(sql);
+        final Matcher comma = COMMA.matcher(sql);
+        while (keyword.find()) {
+            final boolean list = "FROM".equalsIgnoreCase(keyword.group(1));
+            int position = keyword.end();
+            while (identifier.region(position, sql.length()).lookingAt()) {
+                tables.add(identifier.group(1).toLowerCase(Locale.ROOT));
+                position = identifier.end();
+                if (!list) {
+                    break;
+                }
+                if (alias.region(position, sql.length()).lookingAt()) {
+                    position = alias.end();
+                }
+                if (!comma.region(position, sql.length()).lookingAt()) {
+                    break;
+                }
+                position = comma.end();
+            }
+        }
+        return Collections.unmodifiableSet(tables);
+    }
+}
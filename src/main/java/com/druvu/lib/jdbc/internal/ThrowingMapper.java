@@ -10,4 +10,15 @@ public class ThrowingMapper<T> implements RowMapper<T> {
     public T mapRow(ResultSet rs, int rowNum) throws SQLException {
         throw new UnsupportedOperationException();
     }
+
+    // stateless: all instances are interchangeable, so statements relying on the default mapper can be equal
+    @Override
+    public boolean equals(Object o) {
+        return o != null && o.getClass() == getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
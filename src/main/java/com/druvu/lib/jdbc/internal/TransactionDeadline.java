@@ -0,0 +1,47 @@
+package com.druvu.lib.jdbc.internal;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * Deadline of the transaction running on the current thread, applied to every statement executed inside it.
+ *
+ * <p>Thread-bound like Spring's transactions themselves; nested deadlines can only shorten the outer one.
+ *
+ * @author Deniss Larka
+ */
+public final class TransactionDeadline {
+
+    private static final ThreadLocal<Instant> CURRENT = new ThreadLocal<>();
+
+    private TransactionDeadline() {}
+
+    /** The deadline of the enclosing block, or null outside of one. */
+    public static Instant current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the action with the given deadline, or the enclosing one if that is earlier.
+     *
+     * @throws QueryTimeoutException when the deadline has already passed; the action is not run
+     */
+    public static <R> R call(Instant deadline, Supplier<R> action) {
+        final Instant outer = CURRENT.get();
+        final Instant effective = outer != null && outer.isBefore(deadline) ? outer : deadline;
+        if (!Instant.now().isBefore(effective)) {
+            throw new QueryTimeoutException("Transaction deadline " + effective + " passed before it started");
+        }
+        CURRENT.set(effective);
+        try {
+            return action.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.druvu.lib.jdbc.internal;
 
+import com.druvu.lib.jdbc.AdaptiveFetch;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -73,4 +77,40 @@ public final class TypedNamedSqlBuilder<T> extends SqlStatement<T> implements Na
         // not Map.copyOf: null values are legitimate (SQL NULL) and Map.copyOf rejects them
         return Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
     }
+
+    @Override
+    public TypedNamedSqlBuilder<T> withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public TypedNamedSqlBuilder<T> withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public TypedNamedSqlBuilder<T> withMaxRows(int maxRows) {
+        super.withMaxRows(maxRows);
+        return this;
+    }
+
+    @Override
+    public TypedNamedSqlBuilder<T> withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+
+    @Override
+    public TypedNamedSqlBuilder<T> withFetchSize(int fetchSize) {
+        super.withFetchSize(fetchSize);
+        return this;
+    }
+
+    @Override
+    public TypedNamedSqlBuilder<T> withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        super.withAdaptiveFetch(adaptiveFetch);
+        return this;
+    }
 }
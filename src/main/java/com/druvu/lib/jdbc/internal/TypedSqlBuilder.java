@@ -1,6 +1,10 @@
 package com.druvu.lib.jdbc.internal;
 
+import com.druvu.lib.jdbc.AdaptiveFetch;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -54,4 +58,40 @@ public final class TypedSqlBuilder<T> extends SqlStatement<T> {
     public Object[] getParameters() {
         return parameters.toArray();
     }
+
+    @Override
+    public TypedSqlBuilder<T> withOptions(StatementOptions options) {
+        super.withOptions(options);
+        return this;
+    }
+
+    @Override
+    public TypedSqlBuilder<T> withTimeout(Duration timeout) {
+        super.withTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public TypedSqlBuilder<T> withMaxRows(int maxRows) {
+        super.withMaxRows(maxRows);
+        return this;
+    }
+
+    @Override
+    public TypedSqlBuilder<T> withDeadline(Instant deadline) {
+        super.withDeadline(deadline);
+        return this;
+    }
+
+    @Override
+    public TypedSqlBuilder<T> withFetchSize(int fetchSize) {
+        super.withFetchSize(fetchSize);
+        return this;
+    }
+
+    @Override
+    public TypedSqlBuilder<T> withAdaptiveFetch(AdaptiveFetch adaptiveFetch) {
+        super.withAdaptiveFetch(adaptiveFetch);
+        return this;
+    }
 }
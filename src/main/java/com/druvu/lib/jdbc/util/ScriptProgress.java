@@ -0,0 +1,60 @@
+package com.druvu.lib.jdbc.util;
+
+import java.time.Duration;
+
+/**
+ * Where a running {@link SqlScript} is: statements executed, bytes of the script read, and time spent so far.
+ *
+ * @author Deniss Larka
+ */
+public final class ScriptProgress {
+
+    private final long statements;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long nanos;
+
+    ScriptProgress(long statements, long bytesRead, long totalBytes, long nanos) {
+        this.statements = statements;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.nanos = nanos;
+    }
+
+    /** Statements executed, and for the final progress committed. */
+    public long getStatements() {
+        return statements;
+    }
+
+    /** Bytes of the script consumed; the reader runs up to a buffer ahead of the executed statements. */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /** Script size in bytes, or -1 when unknown (classpath resources). */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /** Share of the script read, 0 to 1, or -1 when the size is unknown. */
+    public double getFraction() {
+        if (totalBytes < 0) {
+            return -1;
+        }
+        return totalBytes == 0 ? 1 : Math.min(1.0, (double) bytesRead / totalBytes);
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(nanos);
+    }
+
+    public double getStatementsPerSecond() {
+        return nanos == 0 ? 0 : statements * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptProgress[statements=" + statements + ", bytesRead=" + bytesRead + ", totalBytes=" + totalBytes
+                + ", elapsed=" + getElapsed() + ", " + Math.round(getStatementsPerSecond()) + " statements/s]";
+    }
+}
@@ -2,32 +2,166 @@ package com.druvu.lib.jdbc.util;
 
 import com.druvu.lib.jdbc.SimpleSql;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.internal.BoundedCache;
 import com.druvu.lib.jdbc.internal.PlaceholderUtils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-/** @author Deniss Larka on 03 May 2022 */
+/**
+ * Loads SQL text from classpath resources and files.
+ *
+ * <p>Composed SQL is cached: resources by (mainPath, includePaths), files by path and re-read only when their
+ * modification time changes. Each cache holds at most {@link #CACHE_LIMIT} entries. {@link #preload(String)} fills the
+ * cache for a whole resource directory at startup.
+ *
+ * @author Deniss Larka on 03 May 2022
+ */
 public final class SqlLoader {
 
     public static final String EMPTY = "";
+    public static final int CACHE_LIMIT = 1000;
+
+    private static final String SQL_SUFFIX = ".sql";
+    private static final BoundedCache<ResourceKey, String> RESOURCES = new BoundedCache<>(CACHE_LIMIT);
+    private static final BoundedCache<String, FileSql> FILES = new BoundedCache<>(CACHE_LIMIT);
 
     private SqlLoader() {}
 
     public static String load(String mainPath, String... includePaths) {
-        final String sqlContent = SqlLoader.resourceAsString(mainPath);
-        return compose(sqlContent, includePaths);
+        final List<String> includes = includePaths == null ? List.of() : Arrays.asList(includePaths.clone());
+        return RESOURCES.get(new ResourceKey(mainPath, includes), SqlLoader::loadResource);
     }
 
     public static String loadFromFile(String mainPath) {
-        final String sqlContent = SqlLoader.fileAsString(mainPath);
-        return compose(sqlContent);
+        if (mainPath == null || mainPath.matches("\\s*")) {
+            return EMPTY;
+        }
+        final FileTime modified = lastModified(mainPath);
+        final FileSql cached = FILES.getIfPresent(mainPath);
+        if (cached != null && cached.modified().equals(modified)) {
+            return cached.sql();
+        }
+        final String sql = compose(SqlLoader.fileAsString(mainPath));
+        FILES.put(mainPath, new FileSql(sql, modified));
+        return sql;
+    }
+
+    /**
+     * Loads every {@code *.sql} resource below the given classpath directory into the cache, so that later
+     * {@link #load(String, String...)} calls without includes never touch the classpath. Works for exploded
+     * directories and jars.
+     *
+     * <pre>{@code
+     * SqlLoader.preload("sql");   // caches "sql/users/find.sql", ...
+     * }</pre>
+     *
+     * @param resourceDir classpath directory, e.g. {@code "sql"}
+     * @return number of resources loaded
+     */
+    public static int preload(String resourceDir) {
+        return loadDirectory(resourceDir).size();
+    }
+
+    /**
+     * Like {@link #preload(String)}, returning what was loaded.
+     *
+     * @param resourceDir classpath directory, e.g. {@code "sql"}
+     * @return composed SQL by resource path, e.g. {@code "sql/users/find.sql"}, in path order
+     */
+    public static Map<String, String> loadDirectory(String resourceDir) {
+        final String dir = stripSlashes(resourceDir);
+        final Map<String, String> loaded = new TreeMap<>();
+        try {
+            final Enumeration<URL> urls = Thread.currentThread().getContextClassLoader().getResources(dir);
+            while (urls.hasMoreElements()) {
+                preload(urls.nextElement().toURI(), dir, loaded);
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Cannot preload SQL from " + resourceDir, e);
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /** Drops all cached SQL, e.g. after resources were replaced at runtime. */
+    public static void clearCache() {
+        RESOURCES.clear();
+        FILES.clear();
+    }
+
+    private static String loadResource(ResourceKey key) {
+        final String sqlContent = SqlLoader.resourceAsString(key.mainPath());
+        return compose(sqlContent, key.includePaths().toArray(new String[0]));
+    }
+
+    private static void preload(URI uri, String dir, Map<String, String> loaded) throws IOException {
+        if (!"jar".equals(uri.getScheme())) {
+            preload(Paths.get(uri), dir, loaded);
+            return;
+        }
+        try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+            preload(jar.getPath(dir), dir, loaded);
+        } catch (FileSystemAlreadyExistsException e) {
+            // opened by somebody else: use it, but leave closing to its owner
+            preload(FileSystems.getFileSystem(uri).getPath(dir), dir, loaded);
+        }
+    }
+
+    private static void preload(Path root, String dir, Map<String, String> loaded) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            final List<Path> sqlFiles = paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(SQL_SUFFIX))
+                    .toList();
+            for (Path path : sqlFiles) {
+                final String relative =
+                        root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+                final String resourcePath = dir.isEmpty() ? relative : dir + '/' + relative;
+                final String sql = compose(Files.readString(path, StandardCharsets.UTF_8));
+                // the first classpath root wins, as with getResource
+                if (loaded.putIfAbsent(resourcePath, sql) == null) {
+                    RESOURCES.put(new ResourceKey(resourcePath, List.of()), sql);
+                }
+            }
+        }
+    }
+
+    private static String stripSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
+    private static FileTime lastModified(String filePath) {
+        try {
+            return Files.getLastModifiedTime(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     // NOTE: '%s' in the SQL text is an include placeholder; when any is present the content goes
@@ -45,17 +179,19 @@ public final class SqlLoader {
         return content.trim();
     }
 
+    /**
+     * Splits a SQL script resource into statements and hands them to the consumer one by one. Splitting is done by
+     * {@link SqlScript}, so delimiters inside literals, comments and dollar quotes are safe.
+     *
+     * <p>{@code loadBulk(path, db::update)} runs every statement in a transaction of its own; for more than a few
+     * statements {@code SqlScript.fromResource(path).execute(db)} batches them in one transaction instead.
+     */
     public static void loadBulk(String resourcePath, Consumer<SqlStatement<Map<String, Object>>> consumer) {
         if (resourcePath == null || resourcePath.matches("\\s*")) {
             return;
         }
-        try (InputStream inputStream = SqlLoader.resourceAsStream(resourcePath)) {
-            if (inputStream == null) {
-                throw new IllegalArgumentException("Resource not found:" + resourcePath);
-            }
-            inputStreamToBulkStrings(inputStream, consumer);
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
+        try (Stream<String> statements = SqlScript.fromResource(resourcePath).statements()) {
+            statements.forEach(sql -> consumer.accept(SimpleSql.fromString(sql)));
         }
     }
 
@@ -112,23 +248,15 @@ public final class SqlLoader {
         }
     }
 
-    private static void inputStreamToBulkStrings(
-            InputStream inputStream, Consumer<SqlStatement<Map<String, Object>>> consumer) {
-        try (Scanner scanner = new Scanner(inputStream, "UTF-8").useDelimiter(";")) {
-            while (scanner.hasNext()) {
-                final String sqlContent = scanner.next().trim();
-                if (sqlContent.isEmpty()) {
-                    continue;
-                }
-                consumer.accept(SimpleSql.fromString(sqlContent));
-            }
-        }
-    }
-
     private static String[] resourcesAsStrings(String[] args) {
         if (args == null) {
             return new String[0];
         }
         return Arrays.stream(args).map(SqlLoader::resourceAsString).toArray(size -> new String[size]);
     }
+
+    // includePaths may contain nulls (padded as empty includes), hence a List and not List.copyOf
+    private record ResourceKey(String mainPath, List<String> includePaths) {}
+
+    private record FileSql(String sql, FileTime modified) {}
 }
@@ -0,0 +1,347 @@
+package com.druvu.lib.jdbc.util;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessDirect;
+import com.druvu.lib.jdbc.ShardedDbAccess;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.internal.AutoClosingStream;
+import com.druvu.lib.jdbc.internal.MappedFileReader;
+import com.druvu.lib.jdbc.internal.SqlScriptParser;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executes a SQL script of any size: statements are parsed while the script is read and sent to the database as JDBC
+ * batches of plain statements, in one transaction or in a transaction per {@link #withCommitEvery(int) chunk}.
+ *
+ * <p>Splitting understands string literals, quoted identifiers, comments, PostgreSQL dollar quotes and MySQL
+ * {@code DELIMITER} lines, so {@code ;} inside any of them is safe. Files on disk are memory-mapped and decoded in
+ * place; classpath resources are streamed. Only one batch of statements is held in memory.
+ *
+ * <pre>{@code
+ * ScriptProgress done = SqlScript.fromFile(Path.of("seed.sql"))
+ *     .withCommitEvery(10_000)
+ *     .withProgress(p -> log.info("{}% {} statements", Math.round(p.getFraction() * 100), p.getStatements()))
+ *     .execute(db);
+ * }</pre>
+ *
+ * <p>Statements returning rows ({@code SELECT}, {@code SHOW}, ...) cannot be batched: the pending batch is sent first,
+ * then the query runs on its own and its rows are discarded. A {@code WITH} statement counts as a query when its
+ * main statement, after the common table expressions, is one. A failing statement fails the whole call with the
+ * database's exception; with {@code commitEvery} the chunks committed before it stay. Instances are immutable and can
+ * be shared; each {@code execute} reads the script anew.
+ *
+ * @author Deniss Larka
+ */
+public final class SqlScript {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final Consumer<ScriptProgress> NO_PROGRESS = progress -> {};
+    private static final List<String> QUERY_KEYWORDS = List.of("SELECT", "SHOW", "EXPLAIN", "VALUES", "DESCRIBE");
+    private static final List<String> CTE_BODY_KEYWORDS =
+            List.of("SELECT", "VALUES", "INSERT", "UPDATE", "DELETE", "MERGE");
+
+    private final String name;
+    private final Source source;
+    private final int batchSize;
+    private final int commitEvery;
+    private final boolean backslashEscapes;
+    private final Consumer<ScriptProgress> progress;
+
+    private SqlScript(
+            String name,
+            Source source,
+            int batchSize,
+            int commitEvery,
+            boolean backslashEscapes,
+            Consumer<ScriptProgress> progress) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive: " + batchSize);
+        }
+        if (commitEvery < 0) {
+            throw new IllegalArgumentException("Commit interval cannot be negative: " + commitEvery);
+        }
+        this.name = name;
+        this.source = source;
+        this.batchSize = batchSize;
+        this.commitEvery = commitEvery;
+        this.backslashEscapes = backslashEscapes;
+        this.progress = Objects.requireNonNull(progress);
+    }
+
+    /** A UTF-8 script on the classpath, streamed. */
+    public static SqlScript fromResource(String resourcePath) {
+        Objects.requireNonNull(resourcePath);
+        return of(resourcePath, () -> {
+            final InputStream inputStream = SqlLoader.resourceAsStream(resourcePath);
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Resource not found:" + resourcePath);
+            }
+            return counting(inputStream, -1);
+        });
+    }
+
+    /** A UTF-8 script on disk, memory-mapped. */
+    public static SqlScript fromFile(Path path) {
+        Objects.requireNonNull(path);
+        return of(path.toString(), () -> {
+            final MappedFileReader reader = new MappedFileReader(path, StandardCharsets.UTF_8);
+            return new Opened(reader, reader::position, reader.size());
+        });
+    }
+
+    public static SqlScript fromString(String script) {
+        final byte[] bytes = script.getBytes(StandardCharsets.UTF_8);
+        return of("<string>", () -> counting(new ByteArrayInputStream(bytes), bytes.length));
+    }
+
+    private static SqlScript of(String name, Source source) {
+        return new SqlScript(name, source, DEFAULT_BATCH_SIZE, 0, false, NO_PROGRESS);
+    }
+
+    /** Statements per JDBC batch, default {@value #DEFAULT_BATCH_SIZE}; progress is reported after each batch. */
+    public SqlScript withBatchSize(int batchSize) {
+        return new SqlScript(name, source, batchSize, commitEvery, backslashEscapes, progress);
+    }
+
+    /**
+     * Commits after every {@code statements} statements instead of once at the end, so a huge script neither holds
+     * one huge transaction nor loses everything on a late failure; 0, the default, is a single transaction. Has no
+     * effect on a {@link DbAccessDirect} that is not a {@link DbAccess}: every batch commits on its own there.
+     */
+    public SqlScript withCommitEvery(int statements) {
+        return new SqlScript(name, source, batchSize, statements, backslashEscapes, progress);
+    }
+
+    /** Whether {@code \'} escapes a quote inside string literals, as in MySQL by default; off by default. */
+    public SqlScript withBackslashEscapes(boolean backslashEscapes) {
+        return new SqlScript(name, source, batchSize, commitEvery, backslashEscapes, progress);
+    }
+
+    /** Called on the executing thread after every batch and once more at the end. */
+    public SqlScript withProgress(Consumer<ScriptProgress> progress) {
+        return new SqlScript(name, source, batchSize, commitEvery, backslashEscapes, progress);
+    }
+
+    /**
+     * The statements, without delimiters and line comments, parsed lazily while the stream is consumed. Close the
+     * stream when it is not consumed to the end.
+     */
+    public Stream<String> statements() {
+        final SqlScriptParser parser = new SqlScriptParser(open().reader(), backslashEscapes);
+        final Spliterator<String> spliterator =
+                Spliterators.spliteratorUnknownSize(parser, Spliterator.ORDERED | Spliterator.NONNULL);
+        return AutoClosingStream.of(StreamSupport.stream(spliterator, false).onClose(parser::close));
+    }
+
+    /**
+     * Runs the script.
+     *
+     * <p>A {@link ShardedDbAccess} runs the whole script on each shard in turn, with transactions as configured per
+     * shard; a failure stops at its shard, the shards before it keep what they committed.
+     *
+     * @param db where to run it; a {@link DbAccess} gets transactions as configured
+     * @return the final progress, with the number of statements executed; of the last shard when sharded
+     */
+    public ScriptProgress execute(DbAccessDirect db) {
+        if (db instanceof ShardedDbAccess sharded) {
+            ScriptProgress done = new ScriptProgress(0, 0, -1, 0);
+            for (DbAccess shard : sharded.getShards()) {
+                done = execute(shard);
+            }
+            return done;
+        }
+        final Opened opened = open();
+        try (SqlScriptParser parser = new SqlScriptParser(opened.reader(), backslashEscapes)) {
+            final Run run = new Run(parser, opened);
+            if (db instanceof DbAccess access) {
+                final long perTransaction = commitEvery == 0 ? Long.MAX_VALUE : commitEvery;
+                do {
+                    access.runInTransaction(direct -> run.execute(direct, perTransaction));
+                } while (parser.hasNext());
+            } else {
+                run.execute(db, Long.MAX_VALUE);
+            }
+            final ScriptProgress done = run.snapshot();
+            progress.accept(done);
+            return done;
+        }
+    }
+
+    private Opened open() {
+        try {
+            return source.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open SQL script " + name, e);
+        }
+    }
+
+    private static Opened counting(InputStream inputStream, long size) {
+        final CountingInputStream counting = new CountingInputStream(inputStream);
+        return new Opened(new InputStreamReader(counting, StandardCharsets.UTF_8), counting::count, size);
+    }
+
+    static boolean returnsRows(String sql) {
+        int start = 0;
+        while (start < sql.length() && (sql.charAt(start) == '(' || Character.isWhitespace(sql.charAt(start)))) {
+            start++;
+        }
+        final int end = wordEnd(sql, start);
+        final String keyword = sql.substring(start, end).toUpperCase(Locale.ROOT);
+        return QUERY_KEYWORDS.contains("WITH".equals(keyword) ? cteBody(sql, end) : keyword);
+    }
+
+    // the statement after the common table expressions: the first top-level SELECT, INSERT, ... outside quotes
+    private static String cteBody(String sql, int from) {
+        int depth = 0;
+        int i = from;
+        while (i < sql.length()) {
+            final char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                final int close = sql.indexOf(c, i + 1);
+                i = close < 0 ? sql.length() : close + 1;
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else if (Character.isLetter(c)) {
+                final int end = wordEnd(sql, i);
+                final String word = sql.substring(i, end).toUpperCase(Locale.ROOT);
+                if (depth == 0 && CTE_BODY_KEYWORDS.contains(word)) {
+                    return word;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return "";
+    }
+
+    private static int wordEnd(String sql, int start) {
+        int end = start;
+        while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+            end++;
+        }
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlScript[" + name + ", batchSize=" + batchSize + ", commitEvery=" + commitEvery + "]";
+    }
+
+    // one execution: the parser and counters shared by all its transactions
+    private final class Run {
+
+        private final SqlScriptParser parser;
+        private final Opened opened;
+        private final long start = System.nanoTime();
+        private final List<String> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        private long executed;
+
+        private Run(SqlScriptParser parser, Opened opened) {
+            this.parser = parser;
+            this.opened = opened;
+        }
+
+        void execute(DbAccessDirect db, long limit) {
+            long count = 0;
+            while (count < limit && parser.hasNext()) {
+                final String sql = parser.next();
+                count++;
+                if (returnsRows(sql)) {
+                    flush(db);
+                    db.extract(SimpleSql.fromString(sql), resultSet -> null);
+                    executed++;
+                    continue;
+                }
+                batch.add(sql);
+                if (batch.size() == batchSize) {
+                    flush(db);
+                }
+            }
+            flush(db);
+        }
+
+        private void flush(DbAccessDirect db) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            db.batchUpdate(batch);
+            executed += batch.size();
+            batch.clear();
+            progress.accept(snapshot());
+        }
+
+        ScriptProgress snapshot() {
+            final long elapsed = System.nanoTime() - start;
+            return new ScriptProgress(executed, opened.position().getAsLong(), opened.size(), elapsed);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        Opened open() throws IOException;
+    }
+
+    private record Opened(Reader reader, LongSupplier position, long size) {}
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -5,7 +5,7 @@
  *
  * <ul>
  *   <li>{@code com.druvu.lib.jdbc} - Core API (DbAccess, SimpleSql, SqlStatement)
- *   <li>{@code com.druvu.lib.jdbc.util} - Utilities (SqlLoader, SqlDebug, ArrayUtils, MultiParam)
+ *   <li>{@code com.druvu.lib.jdbc.util} - Utilities (SqlLoader, SqlScript, SqlDebug, ArrayUtils, MultiParam)
  * </ul>
  *
  * <p>The {@code com.druvu.lib.jdbc.internal} package contains implementation details and is not part of the public API.
@@ -29,5 +29,8 @@ module com.druvu.lib.jdbc {
     exports com.druvu.lib.jdbc;
     exports com.druvu.lib.jdbc.util;
 
-// Internal package NOT exported - implementation details
+// Internal package NOT exported - implementation details,
+    // only to the pool, which creates the statement cache interceptor by class name
+    exports com.druvu.lib.jdbc.internal to
+            tomcat.jdbc;
 }
@@ -0,0 +1,112 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.AsyncDbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestAsyncDbAccess {
+
+    private AsyncDbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "asyncDb", "jdbc:h2:mem:asyncChanges;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.createAsync(config);
+        dbAccess.blocking().update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.blocking()
+                .update(SimpleSql.fromString(
+                        "CREATE TABLE TABLE1 (ID_COL INT NOT NULL PRIMARY KEY, FIRST_COL VARCHAR2(20))"));
+        dbAccess.blocking().update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (1,'value')"));
+    }
+
+    @AfterMethod
+    public void close() {
+        dbAccess.close();
+    }
+
+    @Test
+    public void testSelectOne() {
+        final Optional<Map<String, Object>> result = dbAccess.selectOne(
+                        SimpleSql.fromString("SELECT * FROM TABLE1 WHERE ID_COL = ?").with(1))
+                .join();
+
+        Assert.assertTrue(result.isPresent());
+        Assert.assertEquals(result.get().get("FIRST_COL"), "value");
+    }
+
+    @Test
+    public void testManyConcurrentCallsMoreThanPoolSize() {
+        // default pool has maxActive = 5; 500 calls must queue in the executor rather than time out in the pool
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 2; i < 502; i++) {
+            futures.add(dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                    .with(i, "v" + i)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        final List<Map<String, Object>> rows =
+                dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1")).join();
+        Assert.assertEquals(rows.size(), 501);
+    }
+
+    @Test
+    public void testInTransaction() {
+        dbAccess.runInTransaction(db -> {
+                    db.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2, 'two')"));
+                    db.update(SimpleSql.fromString("UPDATE TABLE1 SET FIRST_COL = 'changed' WHERE ID_COL = 1"));
+                })
+                .join();
+
+        final List<String> values = dbAccess.inTransaction(db -> db.select(
+                        SimpleSql.fromString("SELECT FIRST_COL FROM TABLE1 ORDER BY ID_COL")
+                                .map((rs, rowNum) -> rs.getString(1))))
+                .join();
+        Assert.assertEquals(values, List.of("changed", "two"));
+    }
+
+    @Test
+    public void testFailureCompletesFutureExceptionally() {
+        final CompletableFuture<Integer> future = dbAccess.update(SimpleSql.fromString("DELETE FROM NO_SUCH_TABLE"));
+
+        Assert.assertThrows(CompletionException.class, future::join);
+        Assert.assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testStream() {
+        final List<Object> ids = new ArrayList<>();
+        dbAccess.stream(SimpleSql.fromString("SELECT ID_COL FROM TABLE1"), row -> ids.add(row.get("ID_COL")))
+                .join();
+
+        Assert.assertEquals(ids, List.of(1));
+    }
+
+    @Test
+    public void testCloseWaitsForSubmittedCalls() {
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 2; i < 52; i++) {
+            futures.add(dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                    .with(i, "v" + i)));
+        }
+        dbAccess.close();
+
+        Assert.assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+        Assert.assertThrows(
+                IllegalStateException.class, () -> dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1")));
+        final long rows = dbAccess.blocking().selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM TABLE1"), 0);
+        Assert.assertEquals(rows, 51L, "the blocking access stays open");
+    }
+}
@@ -0,0 +1,173 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestAutoRowMapper {
+
+    private DbAccess dbAccess;
+
+    enum Status {
+        ACTIVE,
+        BLOCKED
+    }
+
+    record User(int id, String firstName, Status status, BigDecimal balance, LocalDate created, Long managerId) {}
+
+    record Name(String firstName) {}
+
+    record Manager(long managerId) {}
+
+    record Initial(char firstName, Character status) {}
+
+    record Clash(String firstName, String firstname) {}
+
+    public static class UserBean {
+        private int id;
+        private String firstName;
+        private String note = "untouched";
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+
+    public static class OverloadedBean {
+        public void setId(long id) {}
+
+        public void setId(String id) {}
+    }
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "autoDb", "jdbc:h2:mem:autoChanges;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE USERS (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(20), "
+                + "STATUS VARCHAR(10), BALANCE DECIMAL(10,2), CREATED DATE, MANAGER_ID BIGINT)"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO USERS VALUES "
+                + "(1, 'ann', 'ACTIVE', 10.50, DATE '2024-01-02', NULL), "
+                + "(2, 'bob', 'BLOCKED', 0, DATE '2024-03-04', 1)"));
+    }
+
+    @Test
+    public void testRecord() {
+        final List<User> users = dbAccess.select(SimpleSql.query("SELECT * FROM USERS ORDER BY ID", User.class));
+
+        Assert.assertEquals(
+                users,
+                List.of(
+                        new User(1, "ann", Status.ACTIVE, new BigDecimal("10.50"), LocalDate.of(2024, 1, 2), null),
+                        new User(2, "bob", Status.BLOCKED, new BigDecimal("0.00"), LocalDate.of(2024, 3, 4), 1L)));
+    }
+
+    @Test
+    public void testRecordIgnoresExtraColumns() {
+        final List<Name> names = dbAccess.select(
+                SimpleSql.fromString("SELECT * FROM USERS WHERE ID = ?").with(2).map(Name.class));
+
+        Assert.assertEquals(names, List.of(new Name("bob")));
+    }
+
+    @Test
+    public void testNamedBuilder() {
+        final List<Name> names = dbAccess.select(SimpleSql.named("SELECT FIRST_NAME FROM USERS WHERE ID = :id")
+                .with("id", 1)
+                .map(Name.class));
+
+        Assert.assertEquals(names, List.of(new Name("ann")));
+    }
+
+    @Test
+    public void testBean() {
+        final UserBean bean = dbAccess.selectOne(
+                        SimpleSql.query("SELECT ID, FIRST_NAME FROM USERS WHERE ID = ?", UserBean.class).with(1))
+                .orElseThrow();
+
+        Assert.assertEquals(bean.id, 1);
+        Assert.assertEquals(bean.firstName, "ann");
+        Assert.assertEquals(bean.note, "untouched");
+    }
+
+    @Test
+    public void testDifferentShapesOfSameType() {
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.query("SELECT FIRST_NAME FROM USERS WHERE ID = 1", Name.class)),
+                List.of(new Name("ann")));
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.query("SELECT ID, FIRST_NAME FROM USERS WHERE ID = 2", Name.class)),
+                List.of(new Name("bob")));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testMissingColumn() {
+        dbAccess.select(SimpleSql.query("SELECT ID FROM USERS", Name.class));
+    }
+
+    @Test
+    public void testNullIntoPrimitiveFails() {
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.query("SELECT MANAGER_ID FROM USERS WHERE ID = 2", Manager.class)),
+                List.of(new Manager(1)));
+        final IllegalStateException e = Assert.expectThrows(
+                IllegalStateException.class,
+                () -> dbAccess.select(SimpleSql.query("SELECT MANAGER_ID FROM USERS WHERE ID = 1", Manager.class)));
+        Assert.assertTrue(e.getMessage().contains("MANAGER_ID"), e.getMessage());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testAmbiguousColumns() {
+        dbAccess.select(SimpleSql.query("SELECT FIRST_NAME, 'x' AS FIRSTNAME FROM USERS", Name.class));
+    }
+
+    @Test
+    public void testChar() {
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.query("SELECT FIRST_NAME, STATUS FROM USERS ORDER BY ID", Initial.class)),
+                List.of(new Initial('a', 'A'), new Initial('b', 'B')));
+    }
+
+    @Test
+    public void testNormalizedNameClashFails() {
+        final IllegalArgumentException e = Assert.expectThrows(
+                IllegalArgumentException.class, () -> SimpleSql.query("SELECT * FROM USERS", Clash.class));
+        Assert.assertTrue(e.getMessage().contains("firstname"), e.getMessage());
+    }
+
+    @Test
+    public void testOverloadedSettersFail() {
+        final IllegalArgumentException e = Assert.expectThrows(
+                IllegalArgumentException.class, () -> SimpleSql.query("SELECT ID FROM USERS", OverloadedBean.class));
+        Assert.assertTrue(e.getMessage().contains("Ambiguous"), e.getMessage());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNotMappableType() {
+        SimpleSql.query("SELECT ID FROM USERS", Integer.class);
+    }
+
+    @Test
+    public void testSameTypeSharesMapper() {
+        Assert.assertSame(
+                SimpleSql.query("SELECT * FROM USERS", User.class).rowMapper(),
+                SimpleSql.query("SELECT ID FROM USERS", User.class).rowMapper());
+    }
+}
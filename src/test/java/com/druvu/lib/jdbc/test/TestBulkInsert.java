@@ -0,0 +1,90 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.BulkInsert;
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.StatementStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestBulkInsert {
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "bulkDb", "jdbc:h2:mem:bulk;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE ITEMS (ID INT PRIMARY KEY, NAME VARCHAR(20), QTY INT)"));
+        dbAccess.metrics().reset();
+    }
+
+    @Test
+    public void testInsertWithStableShapes() {
+        final List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            rows.add(new Object[] {i, "item" + i, i % 7});
+        }
+
+        final long inserted = BulkInsert.of("ITEMS", "ID", "NAME", "QTY").insert(dbAccess, rows);
+
+        Assert.assertEquals(inserted, 2500L);
+        Assert.assertEquals(count(), 2500L);
+        Assert.assertEquals(
+                dbAccess.selectOne(SimpleSql.scalar("SELECT NAME FROM ITEMS WHERE ID = 2500", String.class))
+                        .orElseThrow(),
+                "item2500");
+        // 2000 parameters hold 666 rows: 3 full statements, then 502 = 256 + 128 + 64 + 32 + 16 + 4 + 2
+        final List<StatementStats> statements = dbAccess.metrics().getStatements().stream()
+                .filter(stats -> stats.getFingerprint().startsWith("INSERT INTO ITEMS"))
+                .toList();
+        Assert.assertEquals(statements.size(), 8);
+        Assert.assertEquals(statements.stream().mapToLong(StatementStats::getCalls).sum(), 10L);
+    }
+
+    @Test
+    public void testStreamAndLimits() {
+        final BulkInsert insert =
+                BulkInsert.of("ITEMS", "ID", "NAME", "QTY").withMaxParameters(10).withMaxRows(100);
+        Assert.assertEquals(insert.getRowsPerStatement(), 3);
+
+        final long inserted = insert.insert(
+                dbAccess, IntStream.rangeClosed(1, 10).boxed(), i -> new Object[] {i, null, i * 2});
+
+        Assert.assertEquals(inserted, 10L);
+        Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT SUM(QTY) FROM ITEMS"), 0), 110L);
+    }
+
+    @Test
+    public void testAllOrNothingInTransaction() {
+        final List<Object[]> rows =
+                List.of(new Object[] {1, "a", 1}, new Object[] {2, "b", 2}, new Object[] {1, "c", 3});
+
+        Assert.assertThrows(RuntimeException.class, () -> dbAccess.runInTransaction(
+                db -> BulkInsert.of("ITEMS", "ID", "NAME", "QTY").withMaxRows(2).insert(db, rows)));
+
+        Assert.assertEquals(count(), 0L);
+    }
+
+    @Test
+    public void testWrongRowWidth() {
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> BulkInsert.of("ITEMS", "ID", "NAME").insert(dbAccess, List.<Object[]>of(new Object[] {1})));
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> BulkInsert.of("ITEMS", "ID", "NAME").withMaxParameters(1));
+    }
+
+    private long count() {
+        return dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM ITEMS"), 0);
+    }
+}
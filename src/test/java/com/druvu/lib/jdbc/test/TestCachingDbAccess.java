@@ -0,0 +1,139 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.CacheConfig;
+import com.druvu.lib.jdbc.CachingDbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.SqlStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestCachingDbAccess {
+
+    private CachingDbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "cacheDb", "jdbc:h2:mem:caching;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = CachingDbAccess.of(DbAccessFactory.create(config), CacheConfig.of(100, Duration.ofMinutes(5)));
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(
+                SimpleSql.fromString("CREATE TABLE TABLE1 (ID_COL INT NOT NULL PRIMARY KEY, FIRST_COL VARCHAR2(20))"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE TABLE2 (ID_COL INT NOT NULL PRIMARY KEY)"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (1,'value')"));
+    }
+
+    @AfterMethod
+    public void close() {
+        dbAccess.close();
+    }
+
+    @Test
+    public void testEqualStatementsHitTheCache() {
+        final List<Map<String, Object>> first =
+                dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1 WHERE ID_COL = ?").with(1));
+        final List<Map<String, Object>> second =
+                dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1 WHERE ID_COL = ?").with(1));
+        dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1 WHERE ID_COL = ?").with(2));
+
+        Assert.assertSame(second, first);
+        Assert.assertEquals(dbAccess.getStats().getHits(), 1L);
+        Assert.assertEquals(dbAccess.getStats().getMisses(), 2L);
+    }
+
+    @Test
+    public void testUpdateInvalidatesByTable() {
+        final SqlStatement<Map<String, Object>> select1 = SimpleSql.fromString("SELECT * FROM TABLE1");
+        final SqlStatement<Map<String, Object>> select2 = SimpleSql.fromString("SELECT * FROM TABLE2");
+        dbAccess.select(select1);
+        dbAccess.select(select2);
+
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2,'two')"));
+
+        Assert.assertEquals(dbAccess.select(select1).size(), 2);
+        dbAccess.select(select2);
+        // TABLE1 went to the database again, TABLE2 was still cached
+        Assert.assertEquals(dbAccess.getStats().getMisses(), 3L);
+        Assert.assertEquals(dbAccess.getStats().getHits(), 1L);
+    }
+
+    @Test
+    public void testRowLimitIsPartOfTheKey() {
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2,'two')"));
+
+        final List<Map<String, Object>> limited =
+                dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1").withMaxRows(1));
+        final List<Map<String, Object>> all = dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1"));
+
+        Assert.assertEquals(limited.size(), 1);
+        Assert.assertEquals(all.size(), 2);
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1").withMaxRows(1)).size(), 1);
+        Assert.assertEquals(dbAccess.getStats().getMisses(), 2L);
+    }
+
+    @Test
+    public void testTransactionInvalidatesOnEnd() {
+        final SqlStatement<Map<String, Object>> select = SimpleSql.fromString("SELECT * FROM TABLE1");
+        dbAccess.select(select);
+
+        dbAccess.runInTransaction(
+                db -> db.update(SimpleSql.fromString("UPDATE TABLE1 SET FIRST_COL = 'changed' WHERE ID_COL = 1")));
+
+        Assert.assertEquals(dbAccess.select(select).get(0).get("FIRST_COL"), "changed");
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        final AtomicLong ticker = new AtomicLong();
+        final CachingDbAccess stale = CachingDbAccess.of(
+                dbAccess,
+                CacheConfig.of(100, Duration.ofSeconds(1))
+                        .withStaleWhileRevalidate(Duration.ofMinutes(1))
+                        .withTicker(ticker::get));
+        final SqlStatement<Map<String, Object>> select = SimpleSql.fromString("SELECT * FROM TABLE1");
+        final List<Map<String, Object>> first = stale.select(select);
+        ticker.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        Assert.assertSame(stale.select(select), first);
+        Assert.assertEquals(stale.getStats().getStaleHits(), 1L);
+        stale.close();
+    }
+
+    @Test
+    public void testExpiredResultsReloadedAfterClose() {
+        final AtomicLong ticker = new AtomicLong();
+        final CachingDbAccess stale = CachingDbAccess.of(
+                dbAccess,
+                CacheConfig.of(100, Duration.ofSeconds(1))
+                        .withStaleWhileRevalidate(Duration.ofMinutes(1))
+                        .withTicker(ticker::get));
+        final SqlStatement<Map<String, Object>> select = SimpleSql.fromString("SELECT * FROM TABLE1");
+        final List<Map<String, Object>> first = stale.select(select);
+        stale.close();
+        ticker.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        // no refresher left: the caller loads the result instead of getting the stale one
+        Assert.assertNotSame(stale.select(select), first);
+        Assert.assertEquals(stale.getStats().getStaleHits(), 0L);
+        Assert.assertEquals(stale.getStats().getMisses(), 2L);
+    }
+
+    @Test
+    public void testZeroTtlBypassesCache() {
+        dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1"), Duration.ZERO);
+        dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1"), Duration.ZERO);
+
+        Assert.assertEquals(dbAccess.getStats().getHits(), 0L);
+        Assert.assertEquals(dbAccess.getStats().getMisses(), 0L);
+    }
+}
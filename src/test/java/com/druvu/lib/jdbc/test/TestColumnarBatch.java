@@ -0,0 +1,92 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.ColumnarBatch;
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestColumnarBatch {
+
+    private static final int ROWS = 10_000;
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "colDb", "jdbc:h2:mem:colChanges;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE TICKS (ID BIGINT PRIMARY KEY, QTY INT, PRICE DOUBLE, "
+                + "SYMBOL VARCHAR(10), AMOUNT DECIMAL(10,2))"));
+        // every 10th quantity and every 7th symbol is NULL, three distinct symbols
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TICKS SELECT X, "
+                + "CASE WHEN MOD(X, 10) = 0 THEN NULL ELSE X END, X / 2.0, "
+                + "CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 'S' || MOD(X, 3) END, X / 100.0 "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")"));
+    }
+
+    @Test
+    public void testSelectColumnar() {
+        final ColumnarBatch batch = dbAccess.selectColumnar(
+                SimpleSql.fromString("SELECT ID, QTY, PRICE, SYMBOL, AMOUNT FROM TICKS ORDER BY ID"));
+
+        Assert.assertEquals(batch.getRowCount(), ROWS);
+        Assert.assertEquals(batch.getColumnNames(), List.of("ID", "QTY", "PRICE", "SYMBOL", "AMOUNT"));
+        Assert.assertEquals(batch.getColumnType(0), ColumnarBatch.Type.LONG);
+        Assert.assertEquals(batch.getColumnType(1), ColumnarBatch.Type.INT);
+        Assert.assertEquals(batch.getColumnType(2), ColumnarBatch.Type.DOUBLE);
+        Assert.assertEquals(batch.getColumnType(3), ColumnarBatch.Type.STRING);
+        Assert.assertEquals(batch.getColumnType(4), ColumnarBatch.Type.OBJECT);
+
+        // row 4999 holds ID 5000
+        Assert.assertEquals(batch.getLong(0, 4999), 5000L);
+        Assert.assertTrue(batch.isNull(1, 4999));
+        Assert.assertEquals(batch.getInt(1, 4998), 4999);
+        Assert.assertEquals(batch.getDouble(2, 4999), 2500.0);
+        Assert.assertEquals(batch.getString(3, 4999), "S2");
+        Assert.assertNull(batch.getString(3, 6));
+        Assert.assertEquals(batch.getStringCode(3, 6), -1);
+        Assert.assertEquals(batch.getDictionary(3).size(), 3);
+        Assert.assertEquals(batch.getObject(4, 4999), new BigDecimal("50.00"));
+
+        long sum = 0;
+        for (long id : batch.toLongArray(batch.getColumnIndex("id"))) {
+            sum += id;
+        }
+        Assert.assertEquals(sum, (long) ROWS * (ROWS + 1) / 2);
+    }
+
+    @Test
+    public void testBatches() {
+        final List<ColumnarBatch> batches = new ArrayList<>();
+
+        dbAccess.selectColumnar(
+                SimpleSql.named("SELECT ID FROM TICKS WHERE ID <= :max ORDER BY ID").with("max", 2500),
+                1000,
+                batches::add);
+
+        Assert.assertEquals(batches.stream().map(ColumnarBatch::getRowCount).toList(), List.of(1000, 1000, 500));
+        Assert.assertEquals(batches.get(2).getLong(0, 0), 2001L);
+    }
+
+    @Test
+    public void testEmptyResult() {
+        final ColumnarBatch batch = dbAccess.selectColumnar(SimpleSql.fromString("SELECT * FROM TICKS WHERE ID < 0"));
+
+        Assert.assertEquals(batch.getRowCount(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testTypeMismatch() {
+        dbAccess.selectColumnar(SimpleSql.fromString("SELECT SYMBOL FROM TICKS")).getLong(0, 0);
+    }
+}
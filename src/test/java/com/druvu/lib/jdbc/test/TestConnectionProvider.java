@@ -0,0 +1,156 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.ConnectionPool;
+import com.druvu.lib.jdbc.ConnectionProvider;
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessDirect;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.PoolStats;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestConnectionProvider {
+
+    @Test
+    public void testSharedDataSource() {
+        final DbAccess dbAccess = DbAccessFactory.create(DbConfig.of("shared", h2("shared"), "select 1 from dual"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE ITEMS (ID INT PRIMARY KEY)"));
+        dbAccess.runInTransaction(tx -> {
+            tx.update(SimpleSql.fromString("INSERT INTO ITEMS VALUES (1)"));
+            tx.update(SimpleSql.fromString("INSERT INTO ITEMS VALUES (2)"));
+        });
+
+        Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM ITEMS"), 0), 2L);
+        final PoolStats pool = dbAccess.metrics().getPool().orElseThrow();
+        Assert.assertTrue(pool.getBorrows() >= 4, pool.toString());
+        Assert.assertEquals(pool.getBorrowLatency().getCount(), pool.getBorrows());
+        Assert.assertEquals(pool.getFailures(), 0L);
+        Assert.assertEquals(pool.getWaiting(), 0);
+        Assert.assertEquals(pool.getActive(), -1, "a plain data source has no gauges");
+
+        dbAccess.metrics().reset();
+        Assert.assertEquals(dbAccess.metrics().getPool().orElseThrow().getBorrows(), 0L);
+    }
+
+    @Test
+    public void testTomcatPoolByDefault() {
+        final DbAccessDirect dbAccess = DbAccessFactory.createNonTransactional(DbConfig.of(
+                "tomcatDb", "jdbc:h2:mem:tomcat;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual"));
+        dbAccess.selectLong(SimpleSql.fromString("SELECT 1"), 0);
+
+        final PoolStats pool = dbAccess.metrics().getPool().orElseThrow();
+        Assert.assertEquals(pool.getMaxActive(), 5);
+        Assert.assertEquals(pool.getActive(), 0);
+        Assert.assertTrue(pool.getIdle() >= 1, pool.toString());
+        Assert.assertTrue(pool.getBorrows() >= 2, "validation and the select");
+    }
+
+    @Test
+    public void testCustomProvider() {
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final ConnectionProvider provider = config -> {
+            opened.incrementAndGet();
+            final DriverManagerDataSource dataSource = h2(config.getId());
+            return new ConnectionPool() {
+                @Override
+                public DriverManagerDataSource getDataSource() {
+                    return dataSource;
+                }
+
+                @Override
+                public int getMaxActive() {
+                    return 1;
+                }
+
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            };
+        };
+        final DbConfig config = DbConfig.of(
+                        "customDb", "jdbc:h2:unused", "sa", "", "org.h2.Driver", "select 1 from dual")
+                .withConnectionProvider(provider);
+
+        Assert.assertEquals(DbAccessFactory.create(config).metrics().getPool().orElseThrow().getMaxActive(), 1);
+        Assert.assertEquals(opened.get(), 1);
+        Assert.assertEquals(closed.get(), 0);
+
+        Assert.assertThrows(BadSqlGrammarException.class, () -> DbAccessFactory.create(
+                DbConfig.of("brokenDb", "jdbc:h2:unused", "sa", "", "org.h2.Driver", "select nothing from nowhere")
+                        .withConnectionProvider(provider)));
+        Assert.assertEquals(closed.get(), 1, "closed when validation fails");
+    }
+
+    @Test
+    public void testReadWriteClosesOpenedPoolsOnFailure() {
+        final AtomicInteger closed = new AtomicInteger();
+        final ConnectionProvider provider = closing(closed);
+
+        Assert.assertThrows(BadSqlGrammarException.class, () -> DbAccessFactory.createReadWrite(
+                DbConfig.of("rwPrimary", "jdbc:h2:unused", "sa", "", "org.h2.Driver", "select 1 from dual")
+                        .withConnectionProvider(provider),
+                List.of(
+                        DbConfig.of("rwReplica1", "jdbc:h2:unused", "sa", "", "org.h2.Driver", "select 1 from dual")
+                                .withConnectionProvider(provider),
+                        DbConfig.of(
+                                        "rwReplica2",
+                                        "jdbc:h2:unused",
+                                        "sa",
+                                        "",
+                                        "org.h2.Driver",
+                                        "select nothing from nowhere")
+                                .withConnectionProvider(provider))));
+        Assert.assertEquals(closed.get(), 3, "primary, first replica and the broken one");
+    }
+
+    @Test
+    public void testShardedClosesOpenedPoolsOnFailure() {
+        final AtomicInteger closed = new AtomicInteger();
+        final ConnectionProvider provider = closing(closed);
+
+        Assert.assertThrows(BadSqlGrammarException.class, () -> DbAccessFactory.createSharded(
+                List.of(
+                        DbConfig.of("shardOk", "jdbc:h2:unused", "sa", "", "org.h2.Driver", "select 1 from dual")
+                                .withConnectionProvider(provider),
+                        DbConfig.of(
+                                        "shardBroken",
+                                        "jdbc:h2:unused",
+                                        "sa",
+                                        "",
+                                        "org.h2.Driver",
+                                        "select nothing from nowhere")
+                                .withConnectionProvider(provider)),
+                statement -> null));
+        Assert.assertEquals(closed.get(), 2, "the first shard and the broken one");
+    }
+
+    private static ConnectionProvider closing(AtomicInteger closed) {
+        return config -> {
+            final DriverManagerDataSource dataSource = h2(config.getId());
+            return new ConnectionPool() {
+                @Override
+                public DriverManagerDataSource getDataSource() {
+                    return dataSource;
+                }
+
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            };
+        };
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
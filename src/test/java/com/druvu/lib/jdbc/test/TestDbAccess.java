@@ -1,8 +1,11 @@
 package com.druvu.lib.jdbc.test;
 
+import com.druvu.lib.jdbc.BatchStatement;
 import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessDirect;
 import com.druvu.lib.jdbc.DbAccessFactory;
 import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SelectResults;
 import com.druvu.lib.jdbc.SimpleSql;
 import com.druvu.lib.jdbc.SqlStatement;
 import java.util.ArrayList;
@@ -10,6 +13,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.dao.DataAccessException;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -374,6 +380,251 @@ public class TestDbAccess {
         Assert.assertTrue(result.isEmpty());
     }
 
+    @Test
+    public void testBatchUpdatePositional() {
+        final int[] counts = dbAccess.batchUpdate(SimpleSql.batch(
+                        "INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                .add(2, "value2")
+                .add(3, "value3")
+                .add(4, null)
+                .chunkSize(2));
+
+        Assert.assertEquals(counts, new int[] {1, 1, 1});
+        Integer count = dbAccess.selectOne(SimpleSql.scalar("SELECT COUNT(*) FROM TABLE1", Integer.class))
+                .orElse(0);
+        Assert.assertEquals(count.intValue(), 4);
+    }
+
+    @Test
+    public void testBatchUpdateNamed() {
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2, 'value2')"));
+
+        final BatchStatement batch = SimpleSql.namedBatch("UPDATE TABLE1 SET FIRST_COL = :value WHERE ID_COL = :id")
+                .add(Map.of("id", 1, "value", "one"))
+                .add(Map.of("id", 2, "value", "two"))
+                .add(Map.of("id", 999, "value", "none"))
+                .chunkSize(2);
+        final int[] counts = dbAccess.batchUpdate(batch);
+
+        Assert.assertEquals(counts, new int[] {1, 1, 0});
+        Assert.assertEquals(batch.size(), 3);
+        // named rows have no positional form
+        Assert.assertThrows(IllegalStateException.class, batch::getBatchParameters);
+        final List<String> values = dbAccess.select(
+                SimpleSql.scalar("SELECT FIRST_COL FROM TABLE1 ORDER BY ID_COL", String.class));
+        Assert.assertEquals(values, List.of("one", "two"));
+    }
+
+    @Test
+    public void testDefaultBatchUpdate() {
+        final DbAccessDirect minimal = minimal(dbAccess);
+
+        final int[] counts = minimal.batchUpdate(SimpleSql.batch("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                .add(2, "two")
+                .add(3, "three"));
+        final int[] namedCounts = minimal.batchUpdate(
+                SimpleSql.namedBatch("UPDATE TABLE1 SET FIRST_COL = :value WHERE ID_COL = :id")
+                        .add(Map.of("id", 1, "value", "one"))
+                        .add(Map.of("id", 999, "value", "none")));
+
+        Assert.assertEquals(counts, new int[] {1, 1});
+        Assert.assertEquals(namedCounts, new int[] {1, 0});
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.scalar("SELECT FIRST_COL FROM TABLE1 ORDER BY ID_COL", String.class)),
+                List.of("one", "two", "three"));
+    }
+
+    @Test
+    public void testDefaultLazyStream() {
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2, 'two')"));
+
+        try (Stream<String> values = minimal(dbAccess)
+                .stream(SimpleSql.scalar("SELECT FIRST_COL FROM TABLE1 ORDER BY ID_COL", String.class))) {
+            Assert.assertEquals(values.toList(), List.of("value", "two"));
+        }
+    }
+
+    @Test
+    public void testDefaultExtract() {
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2, 'two')"));
+        final DbAccessDirect minimal = minimal(dbAccess);
+
+        final int rows = minimal.extract(SimpleSql.fromString("SELECT ID_COL FROM TABLE1 ORDER BY ID_COL"), rs -> {
+            int count = 0;
+            while (rs.next()) {
+                Assert.assertEquals(rs.getInt(1), ++count);
+            }
+            return count;
+        });
+        Assert.assertEquals(rows, 2);
+        Assert.assertEquals(minimal.selectLong(SimpleSql.fromString("SELECT MAX(ID_COL) FROM TABLE1"), 0), 2L);
+        Assert.assertTrue(minimal.exists(SimpleSql.fromString("SELECT 1 FROM TABLE1 WHERE ID_COL = 2")));
+        Assert.assertFalse(minimal.exists(SimpleSql.fromString("SELECT 1 FROM TABLE1 WHERE ID_COL = 3")));
+        Assert.assertEquals(
+                minimal.selectLong(SimpleSql.fromString("SELECT ID_COL FROM TABLE1 WHERE ID_COL = 3"), 7), 7L);
+    }
+
+    @Test
+    public void testBatchUpdateInTransaction() {
+        dbAccess.runInTransaction(tx -> tx.batchUpdate(SimpleSql.batch(
+                        "INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                .add(2, "value2")
+                .add(3, "value3")));
+
+        final List<Map<String, Object>> rows = dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1"));
+        Assert.assertEquals(rows.size(), 3);
+    }
+
+    @Test
+    public void testBatchUpdateEmpty() {
+        final int[] counts =
+                dbAccess.batchUpdate(SimpleSql.batch("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)"));
+
+        Assert.assertEquals(counts.length, 0);
+    }
+
+    @Test
+    public void testLazyStreamReadsAllRows() {
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2, 'value2')"));
+
+        final List<Integer> ids = dbAccess.stream(
+                        SimpleSql.scalar("SELECT ID_COL FROM TABLE1 ORDER BY ID_COL", Integer.class))
+                .toList();
+
+        Assert.assertEquals(ids, List.of(1, 2));
+    }
+
+    @Test
+    public void testLazyStreamNamedWithFilterAndLimit() {
+        for (int id = 2; id <= 10; id++) {
+            dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                    .with(id, "value" + id));
+        }
+
+        final List<TestEntity> result = dbAccess.stream(
+                        SimpleSql.named("SELECT ID_COL, FIRST_COL FROM TABLE1 WHERE ID_COL > :minId ORDER BY ID_COL")
+                                .with("minId", 1)
+                                .map((rs, rowNum) -> new TestEntity(rs.getInt("ID_COL"), rs.getString("FIRST_COL"))))
+                .filter(entity -> entity.id % 2 == 0)
+                .limit(2)
+                .toList();
+
+        Assert.assertEquals(result.size(), 2);
+        Assert.assertEquals(result.get(0).id, 2);
+        Assert.assertEquals(result.get(1).id, 4);
+    }
+
+    // short-circuiting terminal operations must release the connection: the pool has only 5 of them
+    @Test
+    public void testLazyStreamShortCircuitReleasesConnection() {
+        for (int i = 0; i < 20; i++) {
+            final Optional<Map<String, Object>> first =
+                    dbAccess.stream(SimpleSql.fromString("SELECT * FROM TABLE1")).findFirst();
+            Assert.assertTrue(first.isPresent());
+        }
+        Assert.assertEquals(
+                dbAccess.update(SimpleSql.fromString("UPDATE TABLE1 SET FIRST_COL = 'after'")).intValue(), 1);
+    }
+
+    @Test
+    public void testLazyStreamCloseReleasesConnection() {
+        for (int i = 0; i < 20; i++) {
+            try (Stream<Map<String, Object>> rows = dbAccess.stream(SimpleSql.fromString("SELECT * FROM TABLE1"))) {
+                Assert.assertTrue(rows.iterator().hasNext());
+            }
+        }
+        Assert.assertEquals(
+                dbAccess.update(SimpleSql.fromString("UPDATE TABLE1 SET FIRST_COL = 'after'")).intValue(), 1);
+    }
+
+    @Test
+    public void testLazyStreamInTransaction() {
+        final List<Integer> ids = dbAccess.inTransaction(tx -> {
+            tx.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2, 'value2')"));
+            return tx.stream(SimpleSql.scalar("SELECT ID_COL FROM TABLE1 ORDER BY ID_COL", Integer.class))
+                    .toList();
+        });
+
+        Assert.assertEquals(ids, List.of(1, 2));
+    }
+
+    @Test
+    public void testSelectParallelKeepsInputOrder() {
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2,'second')"));
+        final SqlStatement<Long> count = SimpleSql.scalar("SELECT COUNT(*) FROM TABLE1", Long.class);
+        final SqlStatement<String> names =
+                SimpleSql.scalar("SELECT FIRST_COL FROM TABLE1 ORDER BY ID_COL", String.class);
+        final SqlStatement<Map<String, Object>> rows =
+                SimpleSql.fromString("SELECT * FROM TABLE1 WHERE ID_COL = ?").with(2);
+
+        final SelectResults results = dbAccess.selectParallel(List.of(count, names, rows), 2);
+
+        Assert.assertEquals(results.size(), 3);
+        Assert.assertEquals(results.get(count), List.of(2L));
+        Assert.assertEquals(results.get(names), List.of("value", "second"));
+        Assert.assertEquals(results.get(rows).get(0).get("FIRST_COL"), "second");
+        Assert.assertEquals(results.get(1), List.of("value", "second"));
+    }
+
+    @Test
+    public void testSelectParallelFailsFast() {
+        final List<SqlStatement<?>> statements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            statements.add(SimpleSql.fromString("SELECT * FROM TABLE1"));
+        }
+        statements.add(SimpleSql.fromString("SELECT * FROM NO_SUCH_TABLE"));
+
+        Assert.assertThrows(DataAccessException.class, () -> dbAccess.selectParallel(statements, 3));
+        // the pool is not left exhausted
+        Assert.assertEquals(dbAccess.select(SimpleSql.fromString("SELECT * FROM TABLE1")).size(), 1);
+    }
+
+    @Test
+    public void testSelectParallelOutsideCallerTransaction() {
+        final SqlStatement<Long> count = SimpleSql.scalar("SELECT COUNT(*) FROM TABLE1", Long.class);
+        dbAccess.runInTransaction(tx -> {
+            tx.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2,'second')"));
+            // even a single select runs on a connection of its own: the uncommitted row is not visible
+            Assert.assertEquals(dbAccess.selectParallel(List.of(count), 1).get(count), List.of(1L));
+        });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSelectParallelUnknownStatement() {
+        final SelectResults results = dbAccess.selectParallel(List.of(SimpleSql.fromString("SELECT * FROM TABLE1")), 1);
+        results.get(SimpleSql.fromString("SELECT * FROM TABLE1"));
+    }
+
+    // only the abstract methods, as an implementation outside this library would have them
+    private static DbAccessDirect minimal(DbAccessDirect target) {
+        return new DbAccessDirect() {
+            @Override
+            public <T> List<T> select(SqlStatement<T> select) {
+                return target.select(select);
+            }
+
+            @Override
+            public Integer update(SqlStatement<?> update) {
+                return target.update(update);
+            }
+
+            @Override
+            public void call(String procedure) {
+                target.call(procedure);
+            }
+
+            @Override
+            public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+                target.stream(statement, rowConsumer);
+            }
+
+            @Override
+            public String getId() {
+                return target.getId();
+            }
+        };
+    }
+
     private static class TestEntity {
         final int id;
         final String name;
@@ -0,0 +1,89 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.StatementStats;
+import com.druvu.lib.jdbc.util.MultiParam;
+import java.util.stream.Stream;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestDbMetrics {
+
+    private static final String IN_QUERY = "SELECT * FROM TABLE1 WHERE ID_COL IN (???)";
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "metricsDb", "jdbc:h2:mem:metrics;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(
+                SimpleSql.fromString("CREATE TABLE TABLE1 (ID_COL INT NOT NULL PRIMARY KEY, FIRST_COL VARCHAR2(20))"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (1,'value')"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (2,'value')"));
+        dbAccess.metrics().reset();
+    }
+
+    @Test
+    public void testSelectIsRecordedPerFingerprint() {
+        for (int i = 0; i < 10; i++) {
+            dbAccess.select(SimpleSql.fromString(MultiParam.replace(IN_QUERY, 2)).with(1, 2));
+        }
+        dbAccess.select(SimpleSql.fromString(MultiParam.replace(IN_QUERY, 3)).with(1, 2, 3));
+
+        // different IN-list lengths share the fingerprint
+        final StatementStats stats = dbAccess.metrics()
+                .getStatement("SELECT * FROM TABLE1 WHERE ID_COL IN (?)")
+                .orElseThrow();
+        Assert.assertEquals(stats.getCalls(), 11L);
+        Assert.assertEquals(stats.getErrors(), 0L);
+        Assert.assertEquals(stats.getRows(), 22L);
+        Assert.assertEquals(stats.getAcquire().getCount(), 11L);
+        Assert.assertEquals(stats.getMapping().getCount(), 11L);
+        Assert.assertTrue(stats.getTotal().getPercentileNanos(99) > 0);
+        Assert.assertTrue(stats.getTotal().getPercentileNanos(99) <= stats.getTotal().getMaxNanos());
+    }
+
+    @Test
+    public void testErrorsAreCounted() {
+        Assert.assertThrows(
+                RuntimeException.class, () -> dbAccess.update(SimpleSql.fromString("DELETE FROM NO_SUCH_TABLE")));
+
+        final StatementStats stats =
+                dbAccess.metrics().getStatement("DELETE FROM NO_SUCH_TABLE").orElseThrow();
+        Assert.assertEquals(stats.getCalls(), 1L);
+        Assert.assertEquals(stats.getErrors(), 1L);
+    }
+
+    @Test
+    public void testStatementsInTransactionAreRecordedOnce() {
+        dbAccess.runInTransaction(db -> db.update(SimpleSql.fromString("UPDATE TABLE1 SET FIRST_COL = 'x'")));
+
+        final StatementStats stats =
+                dbAccess.metrics().getStatement("UPDATE TABLE1 SET FIRST_COL = 'x'").orElseThrow();
+        Assert.assertEquals(stats.getCalls(), 1L);
+        Assert.assertEquals(stats.getRows(), 2L);
+        // the transaction was opened by the caller, so acquisition is not attributed to the statement
+        Assert.assertEquals(stats.getAcquire().getCount(), 0L);
+    }
+
+    @Test
+    public void testLazyStreamIsRecordedOnClose() {
+        try (Stream<Object> ids = dbAccess.stream(
+                SimpleSql.fromString("SELECT ID_COL FROM TABLE1").map((rs, rowNum) -> rs.getObject(1)))) {
+            Assert.assertTrue(ids.findFirst().isPresent());
+        }
+
+        final StatementStats stats =
+                dbAccess.metrics().getStatement("SELECT ID_COL FROM TABLE1").orElseThrow();
+        Assert.assertEquals(stats.getCalls(), 1L);
+        Assert.assertEquals(stats.getRows(), 1L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.AdaptiveFetch;
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import com.druvu.lib.jdbc.internal.AdaptiveFetchSize;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestFetchSize {
+
+    private static final int ROWS = 500;
+    private static final int PAYLOAD = 10_000;
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        dbAccess = DbAccessFactory.create(config());
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE DOCS (ID INT PRIMARY KEY, BODY BLOB)"));
+        dbAccess.update(SimpleSql.fromString(
+                "INSERT INTO DOCS SELECT X, SECURE_RAND(" + PAYLOAD + ") FROM SYSTEM_RANGE(1, " + ROWS + ")"));
+    }
+
+    @Test
+    public void testStatementFetchSize() {
+        Assert.assertEquals(fetchSizes(dbAccess, statementFetchSize()), List.of(2000));
+        Assert.assertEquals(fetchSizes(dbAccess, statementFetchSize().withFetchSize(37)), List.of(37));
+        try (Stream<Integer> sizes = dbAccess.stream(statementFetchSize().withFetchSize(41))) {
+            Assert.assertEquals(sizes.toList(), List.of(41));
+        }
+        final DbAccess configured = DbAccessFactory.create(config().withFetchSize(500));
+        Assert.assertEquals(fetchSizes(configured, statementFetchSize()), List.of(500));
+        Assert.assertEquals(fetchSizes(configured, statementFetchSize().withFetchSize(3)), List.of(3));
+    }
+
+    @Test
+    public void testAdaptiveFetchStartsFromInitialSize() {
+        final AdaptiveFetch adaptive = AdaptiveFetch.of(64 * 1024).withInitial(10);
+
+        Assert.assertEquals(fetchSizes(dbAccess, statementFetchSize().withAdaptiveFetch(adaptive)), List.of(10));
+    }
+
+    @Test
+    public void testAdaptiveFetchReadsEveryRow() {
+        final SqlStatement<Integer> lengths = SimpleSql.fromString("SELECT ID, BODY FROM DOCS ORDER BY ID")
+                .withAdaptiveFetch(AdaptiveFetch.of(64 * 1024).withInitial(10))
+                .map((rs, rowNum) -> rs.getBytes(2).length);
+
+        final List<Integer> pushed = new ArrayList<>();
+        dbAccess.stream(lengths, pushed::add);
+        Assert.assertEquals(pushed.size(), ROWS);
+        Assert.assertTrue(pushed.stream().allMatch(length -> length == PAYLOAD));
+
+        try (Stream<Integer> pulled = dbAccess.stream(lengths)) {
+            Assert.assertEquals(pulled.mapToLong(Integer::longValue).sum(), (long) ROWS * PAYLOAD);
+        }
+    }
+
+    @Test
+    public void testAdaptiveFetchEstimatesFromDeclaredWidths() {
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE NAMES (ID INT PRIMARY KEY, NAME VARCHAR(100))"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO NAMES VALUES (1, 'a')"));
+
+        // per column 16 bytes of overhead, 8 for the INT, two per declared char; a BLOB counts as 64 KiB
+        Assert.assertEquals(bytesPerRow("SELECT ID, NAME FROM NAMES"), 16 + 8 + 16 + 200L);
+        Assert.assertEquals(bytesPerRow("SELECT ID, BODY FROM DOCS"), 16 + 8 + 16 + 64 * 1024L);
+    }
+
+    @Test
+    public void testOptions() {
+        final StatementOptions fixed = StatementOptions.NONE.withFetchSize(100);
+        final StatementOptions adaptive = fixed.withAdaptiveFetch(AdaptiveFetch.defaults());
+
+        Assert.assertEquals(adaptive.getFetchSize(), 0, "adaptive replaces the fixed size");
+        Assert.assertEquals(adaptive.withFetchSize(100), fixed);
+        Assert.assertEquals(AdaptiveFetch.defaults().getInitial(), AdaptiveFetch.DEFAULT_INITIAL);
+        Assert.assertThrows(IllegalArgumentException.class, () -> StatementOptions.NONE.withFetchSize(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> AdaptiveFetch.of(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> AdaptiveFetch.defaults().withInitial(100_000));
+        Assert.assertThrows(IllegalArgumentException.class, () -> AdaptiveFetch.defaults().withMax(10));
+        Assert.assertThrows(IllegalArgumentException.class, () -> config().withFetchSize(-1));
+    }
+
+    private long bytesPerRow(String query) {
+        final AdaptiveFetchSize fetch =
+                AdaptiveFetchSize.of(StatementOptions.NONE.withAdaptiveFetch(AdaptiveFetch.defaults()));
+        return dbAccess.extract(SimpleSql.fromString(query), rs -> {
+            rs.next();
+            fetch.rowStart();
+            fetch.rowEnd(rs);
+            return fetch.bytesPerRow();
+        });
+    }
+
+    private static SqlStatement<Integer> statementFetchSize() {
+        return SimpleSql.fromString("SELECT 1").map((rs, rowNum) -> rs.getStatement().getFetchSize());
+    }
+
+    private static List<Integer> fetchSizes(DbAccess db, SqlStatement<Integer> statement) {
+        final List<Integer> sizes = new ArrayList<>();
+        db.stream(statement, sizes::add);
+        return sizes;
+    }
+
+    private static DbConfig config() {
+        return DbConfig.of(
+                "fetchDb", "jdbc:h2:mem:fetch;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+    }
+}
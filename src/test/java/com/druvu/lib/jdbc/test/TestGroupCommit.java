@@ -0,0 +1,196 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.BatchStatement;
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessDirect;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.GroupCommitConfig;
+import com.druvu.lib.jdbc.GroupCommitWriter;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.SqlStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestGroupCommit {
+
+    private static final String INSERT = "INSERT INTO events (id) VALUES (?)";
+
+    @Test
+    public void testConcurrentWritesShareCommits() throws Exception {
+        final DbAccess dbAccess = database("groupCommitDb");
+        final List<Future<CompletableFuture<Integer>>> submitted;
+        try (GroupCommitWriter writer =
+                GroupCommitWriter.of(dbAccess, GroupCommitConfig.of(Duration.ofMillis(50), 1000))) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                submitted = IntStream.range(0, 50)
+                        .mapToObj(i -> executor.submit(() -> writer.submit(SimpleSql.fromString(INSERT).with(i))))
+                        .toList();
+            }
+            for (Future<CompletableFuture<Integer>> each : submitted) {
+                Assert.assertEquals(each.get().join(), Integer.valueOf(1));
+            }
+            Assert.assertEquals(writer.getWrites(), 50);
+            Assert.assertTrue(writer.getCommits() < 50, "commits " + writer.getCommits());
+        }
+        Assert.assertEquals(count(dbAccess), 50);
+    }
+
+    @Test
+    public void testFailingWriteFailsAlone() {
+        final DbAccess dbAccess = database("groupCommitFailureDb");
+        try (GroupCommitWriter writer =
+                GroupCommitWriter.of(dbAccess, GroupCommitConfig.of(Duration.ofMillis(50), 10))) {
+            final CompletableFuture<Integer> first = writer.submit(SimpleSql.fromString(INSERT).with(1));
+            final CompletableFuture<Integer> duplicate = writer.submit(SimpleSql.fromString(INSERT).with(1));
+            final CompletableFuture<Integer> second = writer.submit(SimpleSql.fromString(INSERT).with(2));
+
+            Assert.assertEquals(first.join(), Integer.valueOf(1));
+            Assert.assertEquals(second.join(), Integer.valueOf(1));
+            Assert.assertThrows(CompletionException.class, duplicate::join);
+            Assert.assertEquals(writer.getFailures(), 1);
+        }
+        Assert.assertEquals(count(dbAccess), 2);
+    }
+
+    @Test
+    public void testCallbacksRunOffTheWriter() throws Exception {
+        final DbAccess dbAccess = database("groupCommitCallbackDb");
+        try (GroupCommitWriter writer =
+                GroupCommitWriter.of(dbAccess, GroupCommitConfig.of(Duration.ofMillis(10), 10))) {
+            // a callback waiting for another write would deadlock on the writer thread
+            final CompletableFuture<Integer> chained = writer.submit(SimpleSql.fromString(INSERT).with(1))
+                    .thenApply(rows -> rows + writer.submit(SimpleSql.fromString(INSERT).with(2)).join());
+
+            Assert.assertEquals(chained.get(10, TimeUnit.SECONDS), Integer.valueOf(2));
+        }
+        Assert.assertEquals(count(dbAccess), 2);
+    }
+
+    @Test
+    public void testConnectionFailureFailsBatch() {
+        final DbAccess dbAccess = database("groupCommitConnectionDb");
+        final AtomicInteger alone = new AtomicInteger();
+        // the database is gone: every transaction fails on its connection
+        final DbAccess broken = new DbAccess() {
+            @Override
+            public <T> List<T> inTransaction(Function<DbAccessDirect, List<T>> statement) {
+                throw new CannotGetJdbcConnectionException("connection refused");
+            }
+
+            @Override
+            public void runInTransaction(Consumer<DbAccessDirect> action) {
+                throw new CannotGetJdbcConnectionException("connection refused");
+            }
+
+            @Override
+            public Integer update(SqlStatement<?> update) {
+                alone.incrementAndGet();
+                return dbAccess.update(update);
+            }
+
+            @Override
+            public <T> List<T> select(SqlStatement<T> select) {
+                return dbAccess.select(select);
+            }
+
+            @Override
+            public <R> R extract(SqlStatement<?> select, ResultSetExtractor<R> extractor) {
+                return dbAccess.extract(select, extractor);
+            }
+
+            @Override
+            public int[] batchUpdate(BatchStatement batch) {
+                return dbAccess.batchUpdate(batch);
+            }
+
+            @Override
+            public void call(String procedure) {
+                dbAccess.call(procedure);
+            }
+
+            @Override
+            public <T> void stream(SqlStatement<T> statement, Consumer<T> rowConsumer) {
+                dbAccess.stream(statement, rowConsumer);
+            }
+
+            @Override
+            public <T> Stream<T> stream(SqlStatement<T> statement) {
+                return dbAccess.stream(statement);
+            }
+
+            @Override
+            public String getId() {
+                return "broken";
+            }
+        };
+        try (GroupCommitWriter writer =
+                GroupCommitWriter.of(broken, GroupCommitConfig.of(Duration.ofMillis(50), 10))) {
+            final List<CompletableFuture<Integer>> results = IntStream.range(0, 3)
+                    .mapToObj(i -> writer.submit(SimpleSql.fromString(INSERT).with(i)))
+                    .toList();
+
+            for (CompletableFuture<Integer> result : results) {
+                Assert.assertThrows(CompletionException.class, result::join);
+            }
+            Assert.assertEquals(writer.getFailures(), 3);
+        }
+        Assert.assertEquals(alone.get(), 0);
+        Assert.assertEquals(count(dbAccess), 0);
+    }
+
+    @Test
+    public void testCloseWritesQueued() {
+        final DbAccess dbAccess = database("groupCommitCloseDb");
+        final GroupCommitWriter writer =
+                GroupCommitWriter.of(dbAccess, GroupCommitConfig.of(Duration.ZERO, 7).withQueueCapacity(5));
+        // more writes than the queue holds: enqueue blocks until the writer catches up
+        for (int i = 0; i < 100; i++) {
+            writer.enqueue(SimpleSql.fromString(INSERT).with(i));
+        }
+        writer.close();
+
+        Assert.assertEquals(count(dbAccess), 100);
+        Assert.assertEquals(writer.getQueued(), 0);
+        Assert.assertThrows(
+                IllegalStateException.class, () -> writer.enqueue(SimpleSql.fromString(INSERT).with(100)));
+        // closing twice is harmless
+        writer.close();
+    }
+
+    @Test
+    public void testConfig() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> GroupCommitConfig.of(Duration.ofMillis(-1), 10));
+        Assert.assertThrows(IllegalArgumentException.class, () -> GroupCommitConfig.of(Duration.ZERO, 0));
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> GroupCommitConfig.of(Duration.ZERO, 10).withQueueCapacity(0));
+    }
+
+    private static long count(DbAccess dbAccess) {
+        return dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM events"), -1);
+    }
+
+    private static DbAccess database(String id) {
+        final DbAccess dbAccess = DbAccessFactory.create(DbConfig.of(
+                id, "jdbc:h2:mem:" + id + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE events (id INT PRIMARY KEY)"));
+        return dbAccess;
+    }
+}
@@ -0,0 +1,121 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.KeyRange;
+import com.druvu.lib.jdbc.PartitionedScan;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.dao.QueryTimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestPartitionedScan {
+
+    private static final int ROWS = 1000;
+
+    private DbAccess dbAccess;
+    private PartitionedScan<Integer> scan;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "scanDb", "jdbc:h2:mem:scanChanges;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE EVENTS (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(20))"));
+        dbAccess.update(SimpleSql.fromString(
+                "INSERT INTO EVENTS (ID, NAME) SELECT X, 'event' || X FROM SYSTEM_RANGE(1, " + ROWS + ")"));
+        scan = PartitionedScan.of(
+                dbAccess,
+                range -> SimpleSql.query(
+                                "SELECT ID FROM EVENTS WHERE ID >= ? AND ID < ? ORDER BY ID",
+                                (rs, rowNum) -> rs.getInt(1))
+                        .with(range.from(), range.to()));
+    }
+
+    @Test
+    public void testSharedConsumerSeesEveryRowOnce() {
+        final Set<Integer> seen = ConcurrentHashMap.newKeySet();
+
+        final long rows = scan.withKeyRange("SELECT MIN(ID), MAX(ID) FROM EVENTS")
+                .withPartitions(8)
+                .withParallelism(3)
+                .run(seen::add);
+
+        Assert.assertEquals(rows, ROWS);
+        Assert.assertEquals(seen.size(), ROWS);
+    }
+
+    @Test
+    public void testPartitionsAreOrdered() {
+        final Map<Integer, List<Integer>> byPartition = new ConcurrentHashMap<>();
+
+        scan.withKeyRange(1, ROWS).withPartitions(5).runPartitioned(range -> {
+            final List<Integer> rows = new ArrayList<>();
+            byPartition.put(range.index(), rows);
+            return rows::add;
+        });
+
+        Assert.assertEquals(byPartition.size(), 5);
+        for (List<Integer> rows : byPartition.values()) {
+            Assert.assertEquals(rows.size(), ROWS / 5);
+            final List<Integer> sorted = new ArrayList<>(rows);
+            Collections.sort(sorted);
+            Assert.assertEquals(rows, sorted);
+        }
+        Assert.assertEquals(byPartition.get(0).get(0), Integer.valueOf(1));
+    }
+
+    @Test
+    public void testBoundaries() {
+        final List<KeyRange> ranges = scan.withBoundaries(1, 10, 500, ROWS + 1).ranges();
+
+        Assert.assertEquals(
+                ranges, List.of(new KeyRange(0, 1, 10), new KeyRange(1, 10, 500), new KeyRange(2, 500, 1001)));
+        Assert.assertEquals(scan.withBoundaries(1, 10, 500, ROWS + 1).run(row -> {}), ROWS);
+    }
+
+    @Test
+    public void testEmptyTable() {
+        dbAccess.update(SimpleSql.fromString("DELETE FROM EVENTS"));
+
+        Assert.assertEquals(scan.withKeyRange("SELECT MIN(ID), MAX(ID) FROM EVENTS").run(row -> {}), 0);
+    }
+
+    @Test
+    public void testFailedPartitionIsRetriedAlone() {
+        final AtomicBoolean failed = new AtomicBoolean();
+        final Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+
+        final long rows = scan.withKeyRange(1, ROWS).withPartitions(4).withRetries(1).runPartitioned(range -> {
+            attempts.merge(range.index(), 1, Integer::sum);
+            return row -> {
+                if (row == 600 && failed.compareAndSet(false, true)) {
+                    throw new QueryTimeoutException("simulated");
+                }
+            };
+        });
+
+        Assert.assertEquals(rows, ROWS);
+        Assert.assertEquals(attempts, Map.of(0, 1, 1, 1, 2, 2, 3, 1));
+    }
+
+    @Test(expectedExceptions = QueryTimeoutException.class)
+    public void testRetriesExhausted() {
+        scan.withKeyRange(1, ROWS).withRetries(2).run(row -> {
+            if (row == 600) {
+                throw new QueryTimeoutException("simulated");
+            }
+        });
+    }
+}
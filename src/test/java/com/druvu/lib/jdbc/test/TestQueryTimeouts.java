@@ -0,0 +1,128 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.StatementOptions;
+import com.druvu.lib.jdbc.StatementStats;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.springframework.dao.QueryTimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestQueryTimeouts {
+
+    // minutes of work for H2, which checks for cancellation while iterating
+    private static final String SLOW = "SELECT SUM(X * 2) FROM SYSTEM_RANGE(1, 100000000000)";
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        dbAccess = DbAccessFactory.create(config());
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString("CREATE TABLE EVENTS (ID INT PRIMARY KEY)"));
+        dbAccess.metrics().reset();
+    }
+
+    @Test
+    public void testStatementTimeout() {
+        final long start = System.nanoTime();
+
+        Assert.assertThrows(
+                QueryTimeoutException.class,
+                () -> dbAccess.select(SimpleSql.fromString(SLOW).withTimeout(Duration.ofMillis(300))));
+
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        final StatementStats stats = stats("SELECT SUM");
+        Assert.assertEquals(stats.getErrors(), 1L);
+        Assert.assertEquals(stats.getTimeouts(), 1L);
+    }
+
+    @Test
+    public void testPassedDeadlineFailsBeforeExecution() {
+        final SqlStatement<Map<String, Object>> insert = SimpleSql.fromString("INSERT INTO EVENTS VALUES (1)")
+                .withDeadline(Instant.now().minusSeconds(1));
+
+        Assert.assertThrows(QueryTimeoutException.class, () -> dbAccess.update(insert));
+
+        Assert.assertEquals(count(), 0L);
+        Assert.assertEquals(stats("INSERT INTO EVENTS").getTimeouts(), 1L);
+    }
+
+    @Test
+    public void testMaxRows() {
+        final List<Long> ids = dbAccess.select(
+                SimpleSql.scalar("SELECT X FROM SYSTEM_RANGE(1, 100)", Long.class).withMaxRows(10));
+
+        Assert.assertEquals(ids.size(), 10);
+        Assert.assertEquals(
+                dbAccess.stream(SimpleSql.fromString("SELECT X FROM SYSTEM_RANGE(1, 100)").withMaxRows(7))
+                        .count(),
+                7L);
+    }
+
+    @Test
+    public void testOptionsSurviveMapping() {
+        final SqlStatement<Long> mapped = SimpleSql.fromString("SELECT X FROM SYSTEM_RANGE(1, 100)")
+                .withMaxRows(3)
+                .map((rs, rowNum) -> rs.getLong(1));
+
+        Assert.assertEquals(mapped.getOptions(), StatementOptions.NONE.withMaxRows(3));
+        Assert.assertEquals(dbAccess.select(mapped), List.of(1L, 2L, 3L));
+        Assert.assertEquals(
+                SimpleSql.named("SELECT 1").withMaxRows(3),
+                SimpleSql.named("SELECT 1"),
+                "options do not take part in equality");
+    }
+
+    @Test
+    public void testTransactionDeadline() {
+        Assert.assertThrows(QueryTimeoutException.class, () -> dbAccess.runInTransaction(
+                Instant.now().plusMillis(300), tx -> {
+                    tx.update(SimpleSql.fromString("INSERT INTO EVENTS VALUES (1)"));
+                    tx.select(SimpleSql.fromString(SLOW));
+                }));
+
+        Assert.assertEquals(count(), 0L, "rolled back");
+        Assert.assertThrows(
+                QueryTimeoutException.class,
+                () -> dbAccess.inTransaction(Instant.now().minusMillis(1), tx -> List.of()));
+    }
+
+    @Test
+    public void testDefaultTimeout() {
+        final DbAccess limited = DbAccessFactory.create(config().withQueryTimeout(Duration.ofSeconds(1)));
+        final long start = System.nanoTime();
+
+        Assert.assertThrows(QueryTimeoutException.class, () -> limited.select(SimpleSql.fromString(SLOW)));
+
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        // an explicit timeout overrides the default
+        Assert.assertEquals(
+                limited.selectLong(SimpleSql.fromString("SELECT 42").withTimeout(Duration.ofMinutes(1)), 0), 42L);
+    }
+
+    private static DbConfig config() {
+        return DbConfig.of(
+                "timeoutDb", "jdbc:h2:mem:timeout;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+    }
+
+    private long count() {
+        return dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM EVENTS"), 0);
+    }
+
+    private StatementStats stats(String prefix) {
+        return dbAccess.metrics().getStatements().stream()
+                .filter(stats -> stats.getFingerprint().startsWith(prefix))
+                .findFirst()
+                .orElseThrow();
+    }
+}
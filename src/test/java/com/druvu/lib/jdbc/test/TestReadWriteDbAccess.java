@@ -0,0 +1,123 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.RoutingConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.SqlStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestReadWriteDbAccess {
+
+    private static final SqlStatement<String> SELECT_ORIGIN =
+            SimpleSql.query("SELECT ORIGIN FROM TABLE1", (rs, rowNum) -> rs.getString(1));
+
+    private DbConfig primary;
+    private DbConfig replica;
+
+    @BeforeMethod
+    public void init() {
+        primary = prepare("rwPrimary", "PRIMARY");
+        replica = prepare("rwReplica", "REPLICA");
+    }
+
+    @Test
+    public void testReadsGoToReplica() {
+        final DbAccess db = DbAccessFactory.createReadWrite(primary, List.of(replica));
+
+        Assert.assertEquals(db.select(SELECT_ORIGIN), List.of("REPLICA"));
+        Assert.assertEquals(db.selectOne(SELECT_ORIGIN).orElseThrow(), "REPLICA");
+        Assert.assertEquals(db.stream(SELECT_ORIGIN).toList(), List.of("REPLICA"));
+    }
+
+    @Test
+    public void testWritesAndTransactionsGoToPrimary() {
+        final DbAccess db = DbAccessFactory.createReadWrite(
+                primary, List.of(replica, replica), RoutingConfig.weightedRoundRobin(2, 1));
+
+        db.update(SimpleSql.fromString("UPDATE TABLE1 SET ORIGIN = 'WRITTEN'"));
+
+        Assert.assertEquals(db.inTransaction(tx -> tx.select(SELECT_ORIGIN)), List.of("WRITTEN"));
+        Assert.assertEquals(db.select(SELECT_ORIGIN), List.of("REPLICA"));
+    }
+
+    @Test
+    public void testReadYourWrites() {
+        final DbAccess db = DbAccessFactory.createReadWrite(
+                primary,
+                List.of(replica),
+                RoutingConfig.leastOutstanding().withReadYourWrites(Duration.ofMinutes(1)));
+
+        Assert.assertEquals(db.select(SELECT_ORIGIN), List.of("REPLICA"));
+        db.update(SimpleSql.fromString("UPDATE TABLE1 SET ORIGIN = 'WRITTEN'"));
+        Assert.assertEquals(db.select(SELECT_ORIGIN), List.of("WRITTEN"));
+    }
+
+    @Test
+    public void testStreamNotRepeatedAfterDelivery() {
+        final DbAccess db = DbAccessFactory.createReadWrite(primary, List.of(replica));
+        final List<String> delivered = new ArrayList<>();
+
+        // a connectivity failure after the first row: the primary must not deliver it again
+        Assert.assertThrows(
+                DataAccessResourceFailureException.class,
+                () -> db.stream(SELECT_ORIGIN, origin -> {
+                    delivered.add(origin);
+                    throw new DataAccessResourceFailureException("connection reset");
+                }));
+        Assert.assertEquals(delivered, List.of("REPLICA"));
+    }
+
+    @Test
+    public void testExtractNotRepeatedAfterDelivery() {
+        final DbAccess db = DbAccessFactory.createReadWrite(primary, List.of(replica));
+        final List<String> extracted = new ArrayList<>();
+
+        Assert.assertThrows(
+                DataAccessResourceFailureException.class,
+                () -> db.extract(SELECT_ORIGIN, rs -> {
+                    rs.next();
+                    extracted.add(rs.getString(1));
+                    throw new DataAccessResourceFailureException("connection reset");
+                }));
+        Assert.assertEquals(extracted, List.of("REPLICA"));
+    }
+
+    @Test
+    public void testColumnarNotRepeatedAfterDelivery() {
+        final DbAccess db = DbAccessFactory.createReadWrite(primary, List.of(replica));
+        Assert.assertEquals(db.selectColumnar(SELECT_ORIGIN).getString(0, 0), "REPLICA");
+
+        final List<String> delivered = new ArrayList<>();
+        Assert.assertThrows(
+                DataAccessResourceFailureException.class,
+                () -> db.selectColumnar(SELECT_ORIGIN, 1, batch -> {
+                    delivered.add(batch.getString(0, 0));
+                    throw new DataAccessResourceFailureException("connection reset");
+                }));
+        Assert.assertEquals(delivered, List.of("REPLICA"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWeightsMustMatchReplicas() {
+        DbAccessFactory.createReadWrite(primary, List.of(replica), RoutingConfig.weightedRoundRobin(1, 1));
+    }
+
+    private static DbConfig prepare(String name, String origin) {
+        final DbConfig config = DbConfig.of(
+                name, "jdbc:h2:mem:" + name + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        final DbAccess db = DbAccessFactory.create(config);
+        db.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        db.update(SimpleSql.fromString("CREATE TABLE TABLE1 (ORIGIN VARCHAR2(20))"));
+        db.update(SimpleSql.fromString("INSERT INTO TABLE1 (ORIGIN) VALUES (?)").with(origin));
+        return config;
+    }
+}
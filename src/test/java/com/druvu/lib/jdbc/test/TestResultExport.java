@@ -0,0 +1,117 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.ExportStats;
+import com.druvu.lib.jdbc.ResultExport;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestResultExport {
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "exportDb", "jdbc:h2:mem:export;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString(
+                "CREATE TABLE ITEMS (ID BIGINT PRIMARY KEY, NAME VARCHAR(50), PRICE DOUBLE, ACTIVE BOOLEAN)"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO ITEMS VALUES "
+                + "(1, 'plain', 1.5, TRUE), (2, 'comma, \"quote\" and ü', NULL, FALSE), (3, NULL, -2.0, NULL)"));
+    }
+
+    @Test
+    public void testCsv() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final ExportStats stats =
+                ResultExport.csv().write(dbAccess, SimpleSql.fromString("SELECT * FROM ITEMS ORDER BY ID"), out);
+
+        Assert.assertEquals(
+                out.toString(StandardCharsets.UTF_8),
+                "ID,NAME,PRICE,ACTIVE\n"
+                        + "1,plain,1.5,true\n"
+                        + "2,\"comma, \"\"quote\"\" and ü\",,false\n"
+                        + "3,,-2.0,\n");
+        Assert.assertEquals(stats.getRows(), 3L);
+        Assert.assertEquals(stats.getBytes(), out.size());
+        Assert.assertEquals(stats.getBytesWritten(), out.size());
+    }
+
+    @Test
+    public void testNdjson() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResultExport.ndjson().write(
+                dbAccess, SimpleSql.named("SELECT ID, NAME, PRICE FROM ITEMS WHERE ID >= :id").with("id", 2), out);
+
+        Assert.assertEquals(
+                out.toString(StandardCharsets.UTF_8),
+                "{\"ID\":2,\"NAME\":\"comma, \\\"quote\\\" and ü\",\"PRICE\":null}\n"
+                        + "{\"ID\":3,\"NAME\":null,\"PRICE\":-2.0}\n");
+    }
+
+    @Test
+    public void testBinary() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResultExport.binary().write(dbAccess, SimpleSql.fromString("SELECT ID, NAME FROM ITEMS WHERE ID = 3"), out);
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(in.readInt(), 2);
+        Assert.assertEquals(in.readByte(), 1); // LONG
+        Assert.assertEquals(new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8), "ID");
+        Assert.assertEquals(in.readByte(), 5); // STRING
+        Assert.assertEquals(new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8), "NAME");
+        // one row: NAME is NULL, so only the ID follows the bitmap
+        Assert.assertEquals(in.readByte(), 0b10);
+        Assert.assertEquals(in.readLong(), 3L);
+        Assert.assertEquals(in.available(), 0);
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        dbAccess.update(SimpleSql.fromString(
+                "INSERT INTO ITEMS SELECT X, 'name ' || X, X / 3.0, MOD(X, 2) = 0 FROM SYSTEM_RANGE(10, 20000)"));
+        final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        ResultExport.csv().withBufferSize(4096).write(dbAccess, SimpleSql.fromString("SELECT * FROM ITEMS"), plain);
+        final ExportStats stats = ResultExport.csv()
+                .withBufferSize(4096)
+                .withGzip(true)
+                .write(dbAccess, SimpleSql.fromString("SELECT * FROM ITEMS"), compressed);
+
+        final byte[] unpacked =
+                new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())).readAllBytes();
+        Assert.assertEquals(unpacked, plain.toByteArray());
+        Assert.assertEquals(stats.getBytes(), plain.size());
+        Assert.assertEquals(stats.getBytesWritten(), compressed.size());
+        Assert.assertTrue(compressed.size() < plain.size() / 2);
+    }
+
+    @Test
+    public void testEmptyResult() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final ExportStats stats = ResultExport.csv()
+                .withDelimiter(';')
+                .write(dbAccess, SimpleSql.fromString("SELECT ID, NAME FROM ITEMS WHERE ID < 0"), out);
+
+        Assert.assertEquals(out.toString(StandardCharsets.UTF_8), "ID;NAME\n");
+        Assert.assertEquals(stats.getRows(), 0L);
+    }
+}
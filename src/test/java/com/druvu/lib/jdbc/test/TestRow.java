@@ -0,0 +1,100 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.Row;
+import com.druvu.lib.jdbc.SimpleSql;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestRow {
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "rowDb", "jdbc:h2:mem:rowChanges;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString(
+                "CREATE TABLE TABLE1 (ID_COL INT NOT NULL PRIMARY KEY, FIRST_COL VARCHAR2(20), AMOUNT DECIMAL(10,2))"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO TABLE1 VALUES (1, 'one', 1.50), (2, 'two', NULL)"));
+    }
+
+    @Test
+    public void testCompactRowsEqualColumnMaps() {
+        final String sql = "SELECT * FROM TABLE1 ORDER BY ID_COL";
+
+        final List<Map<String, Object>> maps = dbAccess.select(SimpleSql.fromString(sql));
+        final List<Map<String, Object>> rows = dbAccess.select(SimpleSql.fromString(sql).compact());
+
+        Assert.assertEquals(rows, maps);
+        Assert.assertEquals(maps, rows);
+        Assert.assertEquals(rows.hashCode(), maps.hashCode());
+        Assert.assertEquals(new ArrayList<>(rows.get(0).keySet()), List.of("ID_COL", "FIRST_COL", "AMOUNT"));
+        Assert.assertTrue(rows.get(0) instanceof Row);
+    }
+
+    @Test
+    public void testCaseInsensitiveAndPositionalAccess() {
+        final Row row = dbAccess.selectOne(SimpleSql.query("SELECT * FROM TABLE1 WHERE ID_COL = ?", Row.mapper())
+                        .with(2))
+                .orElseThrow();
+
+        Assert.assertEquals(row.get("first_col"), "two");
+        Assert.assertEquals(row.get("First_Col"), "two");
+        Assert.assertEquals(row.get(1), "two");
+        Assert.assertTrue(row.containsKey("amount"));
+        Assert.assertNull(row.get("amount"));
+        Assert.assertNull(row.get("NO_SUCH_COL"));
+        Assert.assertFalse(row.containsKey("NO_SUCH_COL"));
+        Assert.assertEquals(row.getColumnType(1), Types.VARCHAR);
+    }
+
+    @Test
+    public void testRowsShareColumnMetadata() {
+        final List<Row> rows = dbAccess.select(SimpleSql.query("SELECT * FROM TABLE1", Row.mapper()));
+
+        Assert.assertSame(rows.get(0).getColumnNames(), rows.get(1).getColumnNames());
+    }
+
+    @Test
+    public void testNestedQueryInStreamConsumer() {
+        final List<Object> seen = new ArrayList<>();
+
+        // the inner query maps rows of another result set on the same thread between two outer rows
+        dbAccess.stream(SimpleSql.fromString("SELECT ID_COL, FIRST_COL FROM TABLE1 ORDER BY ID_COL").compact(), row -> {
+            dbAccess.select(SimpleSql.fromString("SELECT AMOUNT FROM TABLE1").compact());
+            seen.add(row.get("FIRST_COL"));
+        });
+
+        Assert.assertEquals(seen, List.of("one", "two"));
+    }
+
+    @Test
+    public void testNamedCompact() {
+        final List<Map<String, Object>> rows = dbAccess.select(
+                SimpleSql.named("SELECT FIRST_COL FROM TABLE1 WHERE ID_COL = :id").with("id", 1).compact());
+
+        Assert.assertEquals(rows, List.of(Map.of("FIRST_COL", "one")));
+    }
+
+    @Test
+    public void testReplaceValue() {
+        final Row row = dbAccess.select(SimpleSql.query("SELECT * FROM TABLE1 ORDER BY ID_COL", Row.mapper()))
+                .get(0);
+
+        row.put("first_col", "changed");
+        Assert.assertEquals(row.get("FIRST_COL"), "changed");
+        Assert.assertThrows(UnsupportedOperationException.class, () -> row.put("NEW_COL", 1));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> row.remove("ID_COL"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.StatementStats;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestScalarQueries {
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "scalarDb", "jdbc:h2:mem:scalar;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        dbAccess.update(SimpleSql.fromString(
+                "CREATE TABLE ITEMS (ID BIGINT PRIMARY KEY, QTY INT, PRICE DOUBLE, ACTIVE BOOLEAN)"));
+        dbAccess.update(SimpleSql.fromString("INSERT INTO ITEMS VALUES (1, 10, 1.5, TRUE), (2, NULL, NULL, NULL)"));
+    }
+
+    @Test
+    public void testSelectLong() {
+        Assert.assertEquals(
+                dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM ITEMS")), OptionalLong.of(2));
+        Assert.assertEquals(
+                dbAccess.selectLong(SimpleSql.named("SELECT ID FROM ITEMS WHERE ID = :id").with("id", 2), -1), 2);
+
+        // no row and SQL NULL are both empty
+        Assert.assertEquals(
+                dbAccess.selectLong(SimpleSql.fromString("SELECT ID FROM ITEMS WHERE ID = ?").with(3)),
+                OptionalLong.empty());
+        Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT QTY FROM ITEMS WHERE ID = 2"), -1), -1);
+        Assert.assertEquals(
+                dbAccess.selectLong(SimpleSql.fromString("SELECT MAX(ID) FROM ITEMS WHERE ID > 5"), -1), -1);
+    }
+
+    @Test
+    public void testFirstRowOnly() {
+        // unlike selectOne, more rows are not an error
+        Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT ID FROM ITEMS ORDER BY ID DESC"), 0), 2);
+    }
+
+    @Test
+    public void testOtherTypes() {
+        Assert.assertEquals(
+                dbAccess.selectInt(SimpleSql.fromString("SELECT QTY FROM ITEMS WHERE ID = 1")), OptionalInt.of(10));
+        Assert.assertEquals(dbAccess.selectInt(SimpleSql.fromString("SELECT QTY FROM ITEMS WHERE ID = 2"), 7), 7);
+        Assert.assertEquals(
+                dbAccess.selectDouble(SimpleSql.fromString("SELECT PRICE FROM ITEMS WHERE ID = 1")),
+                OptionalDouble.of(1.5));
+        Assert.assertEquals(
+                dbAccess.selectDouble(SimpleSql.fromString("SELECT PRICE FROM ITEMS WHERE ID = 2")),
+                OptionalDouble.empty());
+        Assert.assertTrue(dbAccess.selectBoolean(SimpleSql.fromString("SELECT ACTIVE FROM ITEMS WHERE ID = 1"), false));
+        Assert.assertTrue(dbAccess.selectBoolean(SimpleSql.fromString("SELECT ACTIVE FROM ITEMS WHERE ID = 2"), true));
+    }
+
+    @Test
+    public void testExists() {
+        Assert.assertTrue(dbAccess.exists(SimpleSql.fromString("SELECT 1 FROM ITEMS WHERE ID = ?").with(1)));
+        Assert.assertFalse(dbAccess.exists(SimpleSql.named("SELECT 1 FROM ITEMS WHERE ID = :id").with("id", 3)));
+        Assert.assertTrue(dbAccess.exists(SimpleSql.fromString("SELECT ID FROM ITEMS")));
+    }
+
+    @Test
+    public void testInTransaction() {
+        dbAccess.runInTransaction(db -> {
+            db.update(SimpleSql.fromString("INSERT INTO ITEMS VALUES (3, 1, 1, TRUE)"));
+            Assert.assertEquals(db.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM ITEMS"), 0), 3);
+        });
+    }
+
+    @Test
+    public void testMetrics() {
+        dbAccess.metrics().reset();
+        dbAccess.exists(SimpleSql.fromString("SELECT 1 FROM ITEMS WHERE ID = ?").with(1));
+        dbAccess.exists(SimpleSql.fromString("SELECT 1 FROM ITEMS WHERE ID = ?").with(3));
+
+        final StatementStats stats =
+                dbAccess.metrics().getStatement("SELECT 1 FROM ITEMS WHERE ID = ?").orElseThrow();
+        Assert.assertEquals(stats.getCalls(), 2L);
+        Assert.assertEquals(stats.getErrors(), 0L);
+    }
+}
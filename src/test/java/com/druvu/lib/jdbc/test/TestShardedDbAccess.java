@@ -0,0 +1,156 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.ColumnarBatch;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.ShardedDbAccess;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.SqlStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestShardedDbAccess {
+
+    private static final String BY_ID = "ID_COL = ?";
+
+    private ShardedDbAccess db;
+
+    @BeforeMethod
+    public void init() {
+        final List<DbConfig> configs = List.of(config("shard0"), config("shard1"));
+        db = DbAccessFactory.createSharded(
+                configs, statement -> statement.getQuery().contains(BY_ID) ? statement.getParameters()[0] : null);
+        // unkeyed: broadcast to both shards
+        db.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        db.update(
+                SimpleSql.fromString("CREATE TABLE TABLE1 (ID_COL INT NOT NULL PRIMARY KEY, FIRST_COL VARCHAR2(20))"));
+        for (int id = 1; id <= 6; id++) {
+            db.shard(id)
+                    .update(SimpleSql.fromString("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                            .with(id, "v" + id));
+        }
+    }
+
+    @Test
+    public void testKeyedSelectGoesToOneShard() {
+        final List<Integer> ids = db.select(SimpleSql.query(
+                        "SELECT ID_COL FROM TABLE1 WHERE " + BY_ID, (rs, rowNum) -> rs.getInt(1))
+                .with(3));
+        Assert.assertEquals(ids, List.of(3));
+    }
+
+    @Test
+    public void testFanOutConcatenates() {
+        final List<Integer> ids = db.select(SimpleSql.query("SELECT ID_COL FROM TABLE1", (rs, rowNum) -> rs.getInt(1)));
+        Assert.assertEquals(ids.size(), 6);
+    }
+
+    @Test
+    public void testFanOutMergesSorted() {
+        final SqlStatement<Integer> ordered =
+                SimpleSql.query("SELECT ID_COL FROM TABLE1 ORDER BY ID_COL DESC", (rs, rowNum) -> rs.getInt(1));
+        final List<Integer> ids = db.select(ordered, Comparator.reverseOrder());
+        Assert.assertEquals(ids, List.of(6, 5, 4, 3, 2, 1));
+    }
+
+    @Test
+    public void testFanOutReduces() {
+        final long count = db.reduce(SimpleSql.scalar("SELECT COUNT(*) FROM TABLE1", Long.class), Long::sum)
+                .orElseThrow();
+        Assert.assertEquals(count, 6L);
+    }
+
+    @Test
+    public void testFanOutStream() {
+        final List<Integer> ids = new ArrayList<>();
+        db.stream(SimpleSql.query("SELECT ID_COL FROM TABLE1", (rs, rowNum) -> rs.getInt(1)), ids::add);
+        Assert.assertEquals(ids.size(), 6);
+        Assert.assertEquals(
+                db.stream(SimpleSql.query("SELECT ID_COL FROM TABLE1", (rs, rowNum) -> rs.getInt(1)))
+                        .count(),
+                6L);
+    }
+
+    @Test
+    public void testFanOutColumnarMergesBatches() {
+        final SqlStatement<?> select = SimpleSql.fromString("SELECT ID_COL, FIRST_COL FROM TABLE1");
+        final List<Integer> sizes = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+        db.selectColumnar(select, 4, batch -> {
+            sizes.add(batch.getRowCount());
+            for (int row = 0; row < batch.getRowCount(); row++) {
+                ids.add(batch.getInt(0, row));
+                Assert.assertEquals(batch.getString(1, row), "v" + batch.getInt(0, row));
+            }
+        });
+        // three rows per shard, re-batched across shards
+        Assert.assertEquals(sizes, List.of(4, 2));
+        Assert.assertEquals(ids.stream().sorted().toList(), List.of(1, 2, 3, 4, 5, 6));
+
+        final ColumnarBatch all = db.selectColumnar(select);
+        Assert.assertEquals(all.getRowCount(), 6);
+        Assert.assertEquals(all.getColumnNames(), List.of("ID_COL", "FIRST_COL"));
+    }
+
+    @Test
+    public void testFanOutExtractConcatenates() {
+        // even ids live on shard 0, read first
+        Assert.assertEquals(db.selectLong(SimpleSql.fromString("SELECT ID_COL FROM TABLE1 ORDER BY ID_COL"), 0), 2L);
+        // only shard 1 has the row
+        Assert.assertTrue(db.exists(SimpleSql.fromString("SELECT 1 FROM TABLE1 WHERE ID_COL = 5")));
+        Assert.assertFalse(db.exists(SimpleSql.fromString("SELECT 1 FROM TABLE1 WHERE ID_COL = 7")));
+        final int rows = db.extract(SimpleSql.fromString("SELECT ID_COL FROM TABLE1"), rs -> {
+            int count = 0;
+            while (rs.next()) {
+                count++;
+            }
+            return count;
+        });
+        Assert.assertEquals(rows, 6);
+    }
+
+    @Test
+    public void testForEachShardRunsOneTransactionPerShard() {
+        db.forEachShard(shard -> shard.runInTransaction(tx -> {
+            tx.update(SimpleSql.fromString("DELETE FROM TABLE1 WHERE ID_COL > 2"));
+            tx.update(SimpleSql.fromString("UPDATE TABLE1 SET FIRST_COL = 'done'"));
+        }));
+        final List<String> values =
+                db.select(SimpleSql.query("SELECT FIRST_COL FROM TABLE1", (rs, rowNum) -> rs.getString(1)));
+        Assert.assertEquals(values, List.of("done", "done"));
+    }
+
+    @Test
+    public void testBatchRowsLandOnTheirShard() {
+        final ShardedDbAccess byInsert = ShardedDbAccess.of(
+                db.getShards(),
+                statement -> statement.getQuery().startsWith("INSERT") ? statement.getParameters()[0] : null);
+
+        final int[] counts =
+                byInsert.batchUpdate(SimpleSql.batch("INSERT INTO TABLE1 (ID_COL, FIRST_COL) VALUES (?, ?)")
+                        .add(7, "v7")
+                        .add(8, "v8")
+                        .add(9, "v9"));
+        Assert.assertEquals(counts, new int[] {1, 1, 1});
+        // unkeyed statements still go to every shard: 9 rows in total, each inserted once
+        Assert.assertEquals(byInsert.batchUpdate(List.of("UPDATE TABLE1 SET FIRST_COL = 'all'")), new int[] {9});
+
+        for (int id = 7; id <= 9; id++) {
+            final SqlStatement<?> row = SimpleSql.fromString("SELECT 1 FROM TABLE1 WHERE ID_COL = ?").with(id);
+            final int owner = db.getShards().indexOf(db.shard(id));
+            for (int shard = 0; shard < db.getShards().size(); shard++) {
+                Assert.assertEquals(db.getShards().get(shard).exists(row), shard == owner, "id " + id);
+            }
+        }
+    }
+
+    private static DbConfig config(String name) {
+        return DbConfig.of(
+                name, "jdbc:h2:mem:" + name + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+    }
+}
@@ -0,0 +1,205 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.ShardedDbAccess;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.util.ScriptProgress;
+import com.druvu.lib.jdbc.util.SqlLoader;
+import com.druvu.lib.jdbc.util.SqlScript;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestSqlScript {
+
+    private static final String CREATE = "CREATE TABLE NOTES (ID INT PRIMARY KEY, TEXT VARCHAR(40))";
+
+    private DbAccess dbAccess;
+
+    @BeforeMethod
+    public void init() {
+        final DbConfig config = DbConfig.of(
+                "scriptDb", "jdbc:h2:mem:script;MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+        dbAccess = DbAccessFactory.create(config);
+        dbAccess.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    public void testSplitting() {
+        final String script = """
+                -- header; with a semicolon
+                INSERT INTO t VALUES ('a;b', 'it''s; fine');
+                SELECT "odd;name" FROM t /* hint; */ WHERE x = 1
+                ;
+                CREATE FUNCTION f() RETURNS int AS $body$ BEGIN RETURN 1; END; $body$ LANGUAGE plpgsql;
+                DELIMITER //
+                CREATE PROCEDURE p() BEGIN SELECT 1; SELECT 2; END//
+                DELIMITER ;
+                -- only a comment;
+                ;
+                UPDATE t SET a = 1""";
+
+        final List<String> statements = SqlScript.fromString(script).statements().toList();
+
+        Assert.assertEquals(
+                statements,
+                List.of(
+                        "INSERT INTO t VALUES ('a;b', 'it''s; fine')",
+                        "SELECT \"odd;name\" FROM t /* hint; */ WHERE x = 1",
+                        "CREATE FUNCTION f() RETURNS int AS $body$ BEGIN RETURN 1; END; $body$ LANGUAGE plpgsql",
+                        "CREATE PROCEDURE p() BEGIN SELECT 1; SELECT 2; END",
+                        "UPDATE t SET a = 1"));
+    }
+
+    @Test
+    public void testBackslashEscapes() {
+        final String script = "INSERT INTO t VALUES ('a\\';b'); SELECT 2";
+
+        Assert.assertEquals(
+                SqlScript.fromString(script).withBackslashEscapes(true).statements().toList(),
+                List.of("INSERT INTO t VALUES ('a\\';b')", "SELECT 2"));
+    }
+
+    @Test
+    public void testUnterminatedLiteral() {
+        final IllegalStateException e = Assert.expectThrows(
+                IllegalStateException.class,
+                () -> SqlScript.fromString("SELECT 1;\nSELECT 'open").statements().toList());
+        Assert.assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+
+    @Test
+    public void testExecuteBatchedWithProgress() {
+        final StringBuilder script = new StringBuilder(CREATE).append(";\n");
+        for (int i = 1; i <= 1000; i++) {
+            script.append("INSERT INTO NOTES VALUES (").append(i).append(", 'note; ").append(i).append("');\n");
+        }
+        script.append("SELECT COUNT(*) FROM NOTES;\n");
+        final List<ScriptProgress> progress = new ArrayList<>();
+
+        final ScriptProgress done = SqlScript.fromString(script.toString())
+                .withBatchSize(300)
+                .withProgress(progress::add)
+                .execute(dbAccess);
+
+        Assert.assertEquals(done.getStatements(), 1002L);
+        Assert.assertEquals(done.getBytesRead(), done.getTotalBytes());
+        Assert.assertEquals(done.getFraction(), 1.0);
+        Assert.assertEquals(count(), 1000L);
+        Assert.assertEquals(
+                dbAccess.selectOne(SimpleSql.scalar("SELECT TEXT FROM NOTES WHERE ID = 7", String.class))
+                        .orElseThrow(),
+                "note; 7");
+        // 1001 updates in batches of 300, the select flushes the last one, then the final report
+        Assert.assertEquals(progress.size(), 5);
+        Assert.assertEquals(progress.get(progress.size() - 1), done);
+    }
+
+    @Test
+    public void testCommonTableExpressions() {
+        final String script = CREATE + ";\n"
+                + "INSERT INTO NOTES VALUES (1, 'a');\n"
+                + "WITH RECURSIVE ids (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM ids WHERE n < 3),\n"
+                + "    \"select\" AS (SELECT ID FROM NOTES) SELECT COUNT(*) FROM ids, \"select\";\n"
+                + "INSERT INTO NOTES VALUES (2, 'b');\n";
+
+        final ScriptProgress done = SqlScript.fromString(script).execute(dbAccess);
+
+        Assert.assertEquals(done.getStatements(), 4L);
+        Assert.assertEquals(count(), 2L);
+    }
+
+    @Test
+    public void testSingleTransactionRollsBack() {
+        dbAccess.update(SimpleSql.fromString(CREATE));
+        final String script = "INSERT INTO NOTES VALUES (1, 'a'); INSERT INTO NOTES VALUES (2, 'b');"
+                + " INSERT INTO NOTES VALUES (1, 'duplicate');";
+
+        Assert.assertThrows(RuntimeException.class, () -> SqlScript.fromString(script)
+                .withBatchSize(1)
+                .execute(dbAccess));
+
+        Assert.assertEquals(count(), 0L);
+    }
+
+    @Test
+    public void testCommitEveryKeepsEarlierChunks() {
+        dbAccess.update(SimpleSql.fromString(CREATE));
+        final StringBuilder script = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            script.append("INSERT INTO NOTES VALUES (").append(i).append(", 'n');\n");
+        }
+        script.append("INSERT INTO NOTES VALUES (5, 'duplicate');\n");
+
+        Assert.assertThrows(RuntimeException.class, () -> SqlScript.fromString(script.toString())
+                .withCommitEvery(2)
+                .execute(dbAccess));
+
+        // chunks (1, 2) and (3, 4) committed, (5, 5) rolled back
+        Assert.assertEquals(count(), 4L);
+    }
+
+    @Test
+    public void testExecuteOnEveryShard() {
+        final ShardedDbAccess sharded = DbAccessFactory.createSharded(
+                List.of(shardConfig("scriptShard0"), shardConfig("scriptShard1")), statement -> null);
+        sharded.update(SimpleSql.fromString("DROP ALL OBJECTS"));
+        final String script = CREATE + "; INSERT INTO NOTES VALUES (1, 'a'); INSERT INTO NOTES VALUES (2, 'b');";
+
+        final ScriptProgress done = SqlScript.fromString(script).withCommitEvery(2).execute(sharded);
+
+        Assert.assertEquals(done.getStatements(), 3L);
+        for (DbAccess shard : sharded.getShards()) {
+            Assert.assertEquals(shard.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM NOTES"), 0), 2L);
+        }
+    }
+
+    @Test
+    public void testFromFile() throws IOException {
+        final Path file = Files.createTempFile("script", ".sql");
+        try {
+            Files.writeString(file, CREATE + ";\nINSERT INTO NOTES VALUES (1, 'ünïcödé; €');\n");
+
+            final ScriptProgress done = SqlScript.fromFile(file).execute(dbAccess);
+
+            Assert.assertEquals(done.getStatements(), 2L);
+            Assert.assertEquals(done.getTotalBytes(), Files.size(file));
+            Assert.assertEquals(
+                    dbAccess.selectOne(SimpleSql.scalar("SELECT TEXT FROM NOTES", String.class))
+                            .orElseThrow(),
+                    "ünïcödé; €");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadBulk() {
+        final List<String> statements = new ArrayList<>();
+
+        SqlLoader.loadBulk("sql/examples/create-and-fill-table1.sql", statement -> {
+            statements.add(statement.getQuery());
+            dbAccess.update(statement);
+        });
+
+        Assert.assertEquals(statements.size(), 7);
+        Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM TABLE1"), 0), 5L);
+    }
+
+    private static DbConfig shardConfig(String name) {
+        return DbConfig.of(
+                name, "jdbc:h2:mem:" + name + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+    }
+
+    private long count() {
+        return dbAccess.selectLong(SimpleSql.fromString("SELECT COUNT(*) FROM NOTES"), 0);
+    }
+}
@@ -1,10 +1,17 @@
 package com.druvu.lib.jdbc.test;
 
+import com.druvu.lib.jdbc.SimpleSql;
 import com.druvu.lib.jdbc.SqlStatement;
+import com.druvu.lib.jdbc.internal.StatementKey;
 import com.druvu.lib.jdbc.util.ArrayUtils;
 import com.druvu.lib.jdbc.util.MultiParam;
 import com.druvu.lib.jdbc.util.SqlDebug;
 import com.druvu.lib.jdbc.util.SqlLoader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -109,4 +116,61 @@ public class TestSqlStatement {
         final String sql = SqlLoader.load("sql/test7.sql");
         Assert.assertEquals(sql, "select col1 from table1 where name like '%jones'");
     }
+
+    @Test
+    public void testLoadIsCached() {
+        final String first = SqlLoader.load("sql/test.sql", "sql/include.sql");
+        final String second = SqlLoader.load("sql/test.sql", "sql/include.sql");
+        Assert.assertSame(second, first);
+        // a different include list is a different entry
+        Assert.assertNotSame(SqlLoader.load("sql/test.sql"), first);
+    }
+
+    @Test
+    public void testPreload() {
+        SqlLoader.clearCache();
+        Assert.assertTrue(SqlLoader.preload("/sql/examples/") >= 2);
+        Assert.assertTrue(SqlLoader.load("sql/examples/insert-table1.sql").startsWith("INSERT"));
+    }
+
+    @Test
+    public void testLoadFromFileDetectsModification() throws IOException {
+        final Path file = Files.createTempFile("sqlloader", ".sql");
+        try {
+            Files.writeString(file, "select 1", StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L));
+            Assert.assertEquals(SqlLoader.loadFromFile(file.toString()), "select 1");
+
+            Files.writeString(file, "select 2", StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000L));
+            Assert.assertEquals(SqlLoader.loadFromFile(file.toString()), "select 2");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testStatementKey() {
+        final SqlStatement<?> first = SimpleSql.fromString("select * from t where a = ?").with(1, new byte[] {1, 2});
+        final SqlStatement<?> second = SimpleSql.fromString("select * from t where a = ?").with(1, new byte[] {1, 2});
+
+        // statements compare by identity, their keys by content
+        Assert.assertNotEquals(second, first);
+        Assert.assertEquals(StatementKey.of(second), StatementKey.of(first));
+        Assert.assertEquals(StatementKey.of(second).hashCode(), StatementKey.of(first).hashCode());
+        Assert.assertNotEquals(
+                StatementKey.of(SimpleSql.fromString("select * from t where a = ?").with(2)), StatementKey.of(first));
+        Assert.assertEquals(
+                StatementKey.of(SimpleSql.named("select * from t where a = :a").with("a", 1)),
+                StatementKey.of(SimpleSql.named("select * from t where a = :a").with("a", 1)));
+        Assert.assertEquals(
+                StatementKey.of(SimpleSql.scalar("select count(*) from t", Long.class)),
+                StatementKey.of(SimpleSql.scalar("select count(*) from t", Long.class)));
+        Assert.assertNotEquals(
+                StatementKey.of(SimpleSql.scalar("select count(*) from t", Long.class)),
+                StatementKey.of(SimpleSql.scalar("select count(*) from t", Integer.class)));
+        Assert.assertNotEquals(
+                StatementKey.of(SimpleSql.fromString("select * from t").withMaxRows(10)),
+                StatementKey.of(SimpleSql.fromString("select * from t")));
+    }
 }
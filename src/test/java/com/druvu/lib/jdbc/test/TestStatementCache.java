@@ -0,0 +1,72 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.StatementCacheStats;
+import java.time.Duration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestStatementCache {
+
+    @Test
+    public void testRepeatedStatementsHit() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("statementCacheDb").withStatementCache(10));
+        dbAccess.metrics().reset();
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT CAST(? AS BIGINT)").with(i), -1), i);
+        }
+
+        final StatementCacheStats stats = dbAccess.metrics().getStatementCache().orElseThrow();
+        Assert.assertEquals(stats.getHits() + stats.getMisses(), 20);
+        Assert.assertTrue(stats.getHits() >= 15, stats.toString());
+        Assert.assertTrue(stats.getCached() >= 1, stats.toString());
+        Assert.assertEquals(stats.getEvictions(), 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("statementEvictDb").withStatementCache(1));
+        dbAccess.metrics().reset();
+
+        for (int i = 0; i < 10; i++) {
+            dbAccess.selectLong(SimpleSql.fromString("SELECT 1"), 0);
+            dbAccess.selectLong(SimpleSql.fromString("SELECT 2"), 0);
+        }
+
+        final StatementCacheStats stats = dbAccess.metrics().getStatementCache().orElseThrow();
+        Assert.assertTrue(stats.getEvictions() > 0, stats.toString());
+        Assert.assertTrue(stats.getCached() <= 5, stats.toString());
+    }
+
+    @Test
+    public void testSettingsRestoredOnReuse() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("statementSettingsDb").withStatementCache(10));
+        final String sql = "SELECT X FROM SYSTEM_RANGE(1, 100)";
+
+        Assert.assertEquals(
+                dbAccess.select(SimpleSql.fromString(sql).withMaxRows(3).withTimeout(Duration.ofSeconds(5)))
+                        .size(),
+                3);
+        // the cached statement comes back without the row limit
+        Assert.assertEquals(dbAccess.select(SimpleSql.fromString(sql)).size(), 100);
+        Assert.assertTrue(dbAccess.metrics().getStatementCache().orElseThrow().getHits() > 0);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("noStatementCacheDb"));
+        dbAccess.selectLong(SimpleSql.fromString("SELECT 1"), 0);
+        Assert.assertTrue(dbAccess.metrics().getStatementCache().isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> config("x").withStatementCache(-1));
+    }
+
+    private static DbConfig config(String id) {
+        return DbConfig.of(
+                id, "jdbc:h2:mem:" + id + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+    }
+}
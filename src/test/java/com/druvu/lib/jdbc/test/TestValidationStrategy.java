@@ -0,0 +1,79 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.ValidationStrategy;
+import com.druvu.lib.jdbc.internal.QueryTimer;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestValidationStrategy {
+
+    @Test
+    public void testEveryStrategyServesCalls() {
+        final List<ValidationStrategy> strategies = List.of(
+                ValidationStrategy.query(),
+                ValidationStrategy.isValid(),
+                ValidationStrategy.idle(Duration.ofSeconds(30)),
+                ValidationStrategy.background(Duration.ofSeconds(5)),
+                ValidationStrategy.onError(Duration.ofSeconds(5)));
+        for (ValidationStrategy strategy : strategies) {
+            final DbAccess dbAccess = DbAccessFactory.create(config().withValidation(strategy));
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(
+                        dbAccess.selectLong(SimpleSql.fromString("SELECT 42"), 0), 42L, strategy.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testStartupQueryRunsWithIsValid() {
+        final DbConfig broken = DbConfig.of(
+                "brokenDb", "jdbc:h2:mem:broken", "sa", "", "org.h2.Driver", "select nothing from nowhere");
+
+        Assert.assertThrows(
+                BadSqlGrammarException.class,
+                () -> DbAccessFactory.create(broken.withValidation(ValidationStrategy.isValid())));
+    }
+
+    @Test
+    public void testStrategies() {
+        Assert.assertEquals(ValidationStrategy.DEFAULT, ValidationStrategy.query());
+        Assert.assertEquals(ValidationStrategy.query().getInterval(), Duration.ZERO);
+        Assert.assertEquals(
+                ValidationStrategy.onError(Duration.ofMinutes(1)).getMode(), ValidationStrategy.Mode.ON_ERROR);
+        Assert.assertThrows(IllegalArgumentException.class, () -> ValidationStrategy.idle(Duration.ZERO));
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> ValidationStrategy.background(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void testConnectionFailures() {
+        Assert.assertTrue(QueryTimer.isConnectionFailure(new SQLException("connection reset", "08006")));
+        Assert.assertTrue(QueryTimer.isConnectionFailure(new SQLRecoverableException("gone")));
+        Assert.assertTrue(QueryTimer.isConnectionFailure(new DataAccessResourceFailureException("down")));
+        Assert.assertTrue(QueryTimer.isConnectionFailure(
+                new IllegalStateException(new SQLException("closed", "08003"))));
+        Assert.assertFalse(QueryTimer.isConnectionFailure(new SQLException("syntax", "42000")));
+        Assert.assertFalse(QueryTimer.isConnectionFailure(null));
+    }
+
+    private static DbConfig config() {
+        return DbConfig.of(
+                "validationDb",
+                "jdbc:h2:mem:validation;MODE=PostgreSQL",
+                "sa",
+                "",
+                "org.h2.Driver",
+                "select 1 from dual");
+    }
+}
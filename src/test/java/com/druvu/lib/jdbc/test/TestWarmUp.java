@@ -0,0 +1,71 @@
+package com.druvu.lib.jdbc.test;
+
+import com.druvu.lib.jdbc.DbAccess;
+import com.druvu.lib.jdbc.DbAccessFactory;
+import com.druvu.lib.jdbc.DbConfig;
+import com.druvu.lib.jdbc.PoolStats;
+import com.druvu.lib.jdbc.SimpleSql;
+import com.druvu.lib.jdbc.WarmUp;
+import com.druvu.lib.jdbc.WarmUpReport;
+import com.druvu.lib.jdbc.util.SqlLoader;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** @author Deniss Larka */
+public class TestWarmUp {
+
+    @Test
+    public void testConnectionsOpenedAndKept() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("warmDb").withWarmUp(WarmUp.connections(4)));
+
+        final WarmUpReport report = dbAccess.metrics().getWarmUp().orElseThrow();
+        Assert.assertEquals(report.getConnections(), 4);
+        Assert.assertEquals(report.getFailedConnections(), 0);
+        Assert.assertEquals(report.getPrepared(), 0);
+        Assert.assertFalse(report.getDuration().isNegative());
+
+        final PoolStats pool = dbAccess.metrics().getPool().orElseThrow();
+        Assert.assertEquals(pool.getIdle(), 4);
+        // warm-up borrows are not counted
+        Assert.assertEquals(pool.getBorrows(), 0);
+    }
+
+    @Test
+    public void testStatementsPrepared() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("warmStatementsDb")
+                .withWarmUp(WarmUp.connections(3)
+                        .withStatements("SELECT 1 FROM dual WHERE 1 = :value", "SELECT 1", "SELECT 1", "select nothing from nowhere")));
+
+        final WarmUpReport report = dbAccess.metrics().getWarmUp().orElseThrow();
+        Assert.assertEquals(report.getConnections(), 3);
+        // duplicates are prepared once, the broken one fails on every connection
+        Assert.assertEquals(report.getPrepared(), 6);
+        Assert.assertEquals(report.getFailedStatements(), 3);
+        Assert.assertEquals(dbAccess.selectLong(SimpleSql.fromString("SELECT 42"), 0), 42L);
+    }
+
+    @Test
+    public void testSqlDirectory() {
+        final Map<String, String> loaded = SqlLoader.loadDirectory("/sql/examples/");
+        Assert.assertTrue(loaded.containsKey("sql/examples/insert-table1.sql"));
+
+        final DbAccess dbAccess = DbAccessFactory.create(config("warmDirectoryDb")
+                .withWarmUp(WarmUp.connections(2).withSqlDirectory("sql/examples")));
+
+        final WarmUpReport report = dbAccess.metrics().getWarmUp().orElseThrow();
+        Assert.assertEquals(report.getPrepared() + report.getFailedStatements(), 2 * loaded.size());
+    }
+
+    @Test
+    public void testWithoutWarmUp() {
+        final DbAccess dbAccess = DbAccessFactory.create(config("coldDb"));
+        Assert.assertTrue(dbAccess.metrics().getWarmUp().isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> WarmUp.connections(0));
+    }
+
+    private static DbConfig config(String id) {
+        return DbConfig.of(
+                id, "jdbc:h2:mem:" + id + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver", "select 1 from dual");
+    }
+}